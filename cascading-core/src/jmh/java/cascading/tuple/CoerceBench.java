@@ -26,6 +26,10 @@ import java.util.concurrent.TimeUnit;
 import cascading.tuple.coerce.Coercions;
 import cascading.tuple.type.CoercibleType;
 import cascading.tuple.type.CoercionFrom;
+import cascading.tuple.type.DateTimeType;
+import cascading.tuple.type.DateType;
+import cascading.tuple.type.EpochDateTimeType;
+import cascading.tuple.type.ISODateTimeType;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -144,4 +148,63 @@ public class CoerceBench
     {
     bh.consume( coercion.coerce( canonicalValue ) );
     }
-  }
\ No newline at end of file
+
+  /**
+   * Compares the {@link java.text.SimpleDateFormat} backed {@link DateType} to the {@link DateTimeType} family
+   * when coercing a String into its canonical form.
+   */
+  @State(Scope.Thread)
+  public static class Dates
+    {
+    public enum Kind
+      {
+        DateType,
+        DateTimeType,
+        ISODateTimeType,
+        EpochDateTimeType
+      }
+
+    @Param
+    Kind kind = Kind.DateType;
+
+    @Param({"1", "1000"})
+    int distinct = 1;
+
+    CoercibleType coercibleType;
+    String[] values;
+    int next;
+
+    @Setup
+    public void setup()
+      {
+      switch( kind )
+        {
+        case DateType:
+          coercibleType = new DateType( "yyyy-MM-dd'T'HH:mm:ss.SSSXXX" );
+          break;
+        case DateTimeType:
+          coercibleType = new DateTimeType( "yyyy-MM-dd'T'HH:mm:ss.SSSXXX" );
+          break;
+        case ISODateTimeType:
+          coercibleType = new ISODateTimeType();
+          break;
+        case EpochDateTimeType:
+          coercibleType = new EpochDateTimeType( TimeUnit.MILLISECONDS );
+          break;
+        }
+
+      values = new String[ distinct ];
+
+      DateTimeType format = kind == Kind.EpochDateTimeType ? (DateTimeType) coercibleType : new ISODateTimeType();
+
+      for( int i = 0; i < distinct; i++ )
+        values[ i ] = format.format( 1643673599123L + i * 1000L );
+      }
+
+    @Benchmark
+    public void canonical( Blackhole bh )
+      {
+      bh.consume( coercibleType.canonical( values[ next++ % values.length ] ) );
+      }
+    }
+  }
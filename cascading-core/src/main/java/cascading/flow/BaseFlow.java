@@ -604,6 +604,43 @@ public abstract class BaseFlow<Config> implements Flow<Config>, ProcessLogger
     return flowStats;
     }
 
+  /**
+   * Method getClientFlowProcess returns the FlowProcess used to initialize the configuration of each step. Counters
+   * incremented on the client, from {@link cascading.tap.Tap#sourceConfInit(FlowProcess, Object)} for example, are
+   * recorded by {@link FlowStats#incrementClientCounter(Enum, long)} so they are reported with the step counters.
+   *
+   * @return FlowProcess
+   */
+  protected FlowProcess<Config> getClientFlowProcess()
+    {
+    return new FlowProcessWrapper<Config>( getFlowProcess() )
+      {
+      @Override
+      public void increment( Enum counter, long amount )
+        {
+        getFlowStats().incrementClientCounter( counter, amount );
+        }
+
+      @Override
+      public void increment( String group, String counter, long amount )
+        {
+        getFlowStats().incrementClientCounter( group, counter, amount );
+        }
+
+      @Override
+      public long getCounterValue( Enum counter )
+        {
+        return getFlowStats().getCounterValue( counter );
+        }
+
+      @Override
+      public long getCounterValue( String group, String counter )
+        {
+        return getFlowStats().getCounterValue( group, counter );
+        }
+      };
+    }
+
   @Override
   public Map<String, String> getFlowDescriptor()
     {
@@ -1469,7 +1506,7 @@ public abstract class BaseFlow<Config> implements Flow<Config>, ProcessLogger
 
       if( flowStepJob == null )
         {
-        flowStepJob = step.getCreateFlowStepJob( getFlowProcess(), getConfig() );
+        flowStepJob = step.getCreateFlowStepJob( getClientFlowProcess(), getConfig() );
 
         jobsMap.put( step.getID(), flowStepJob );
         }
@@ -38,6 +38,13 @@ import cascading.util.Util;
  * <ul>
  * <li>gather partitions - number of slices (partitions) to gather keys within each {@link cascading.flow.FlowNode}.
  * In MapReduce this is the number of reducers. In Tez DAG this is the scatter gather parallelization.</li>
+ * <li>adaptive gather partitions - if the platform supports it, the number of gather partitions is reduced at runtime
+ * based on the number of bytes observed, starting from the max gather partitions value. Currently only supported by
+ * the Tez platform.</li>
+ * <li>max gather partitions - the upper bound of gather partitions when adaptive, defaults to the gather partitions
+ * value.</li>
+ * <li>min gather partitions - the lower bound of gather partitions when adaptive.</li>
+ * <li>gather partition bytes - the desired number of bytes each gather partition should receive when adaptive.</li>
  * <li>log counters - counter names to log to INFO when a cluster side slice completes.</li>
  * </ul>
  * <p>
@@ -49,8 +56,16 @@ public class FlowRuntimeProps extends Props
   public static final String GATHER_PARTITIONS = "cascading.flow.runtime.gather.partitions.num";
   public static final String LOG_COUNTERS = "cascading.flow.runtime.log.counters";
   public static final String COMBINE_SPLITS = "cascading.flow.runtime.splits.combine";
+  public static final String GATHER_PARTITIONS_ADAPTIVE = "cascading.flow.runtime.gather.partitions.adaptive";
+  public static final String GATHER_PARTITIONS_MAX = "cascading.flow.runtime.gather.partitions.max";
+  public static final String GATHER_PARTITIONS_MIN = "cascading.flow.runtime.gather.partitions.min";
+  public static final String GATHER_PARTITION_BYTES = "cascading.flow.runtime.gather.partition.bytes";
 
   int gatherPartitions = 0;
+  Boolean adaptiveGatherPartitions;
+  int maxGatherPartitions = 0;
+  int minGatherPartitions = 0;
+  long gatherPartitionBytes = 0;
   Set<String> logCounters = new LinkedHashSet<>();
   Boolean combineSplits;
 
@@ -121,6 +136,96 @@ public class FlowRuntimeProps extends Props
     return this;
     }
 
+  public Boolean getAdaptiveGatherPartitions()
+    {
+    return adaptiveGatherPartitions;
+    }
+
+  /**
+   * Method setAdaptiveGatherPartitions will enable or disable adapting the number of gather partitions at runtime.
+   * <p>
+   * When enabled, each {@link cascading.flow.FlowNode} is started with the max number of gather partitions, and
+   * the platform may lower this value once the size of the incoming data is known, so that each partition receives
+   * roughly the number of bytes given by {@link #setGatherPartitionBytes(long)}.
+   * <p>
+   * Nodes where the number of partitions is declared by a sink {@link cascading.scheme.Scheme} are never adapted.
+   * <p>
+   * Currently only supported by the Tez platform, other platforms will ignore this value.
+   *
+   * @param adaptiveGatherPartitions true to enable
+   * @return this
+   */
+  public FlowRuntimeProps setAdaptiveGatherPartitions( Boolean adaptiveGatherPartitions )
+    {
+    this.adaptiveGatherPartitions = adaptiveGatherPartitions;
+
+    return this;
+    }
+
+  public int getMaxGatherPartitions()
+    {
+    return maxGatherPartitions;
+    }
+
+  /**
+   * Method setMaxGatherPartitions sets the number of gather partitions to start with when adaptive.
+   *
+   * @param maxGatherPartitions max number of gather partitions to use per node
+   * @return this
+   */
+  public FlowRuntimeProps setMaxGatherPartitions( int maxGatherPartitions )
+    {
+    if( maxGatherPartitions < 1 )
+      throw new IllegalArgumentException( "maxGatherPartitions value must be greater than zero" );
+
+    this.maxGatherPartitions = maxGatherPartitions;
+
+    return this;
+    }
+
+  public int getMinGatherPartitions()
+    {
+    return minGatherPartitions;
+    }
+
+  /**
+   * Method setMinGatherPartitions sets the fewest number of gather partitions to adapt to.
+   *
+   * @param minGatherPartitions min number of gather partitions to use per node
+   * @return this
+   */
+  public FlowRuntimeProps setMinGatherPartitions( int minGatherPartitions )
+    {
+    if( minGatherPartitions < 1 )
+      throw new IllegalArgumentException( "minGatherPartitions value must be greater than zero" );
+
+    this.minGatherPartitions = minGatherPartitions;
+
+    return this;
+    }
+
+  public long getGatherPartitionBytes()
+    {
+    return gatherPartitionBytes;
+    }
+
+  /**
+   * Method setGatherPartitionBytes sets the desired number of bytes each gather partition should receive when
+   * adaptive.
+   *
+   * @param gatherPartitionBytes number of bytes per gather partition
+   * @return this
+   */
+  public FlowRuntimeProps setGatherPartitionBytes( long gatherPartitionBytes )
+    {
+    if( gatherPartitionBytes < 1 )
+      throw new IllegalArgumentException( "gatherPartitionBytes value must be greater than zero" );
+
+    this.gatherPartitionBytes = gatherPartitionBytes;
+
+    return this;
+    }
+
   public Boolean getCombineSplits()
     {
     return combineSplits;
@@ -158,5 +263,17 @@ public class FlowRuntimeProps extends Props
 
     if( combineSplits != null )
       properties.setProperty( COMBINE_SPLITS, Boolean.toString( combineSplits ) );
+
+    if( adaptiveGatherPartitions != null )
+      properties.setProperty( GATHER_PARTITIONS_ADAPTIVE, Boolean.toString( adaptiveGatherPartitions ) );
+
+    if( maxGatherPartitions > 0 )
+      properties.setProperty( GATHER_PARTITIONS_MAX, Integer.toString( maxGatherPartitions ) );
+
+    if( minGatherPartitions > 0 )
+      properties.setProperty( GATHER_PARTITIONS_MIN, Integer.toString( minGatherPartitions ) );
+
+    if( gatherPartitionBytes > 0 )
+      properties.setProperty( GATHER_PARTITION_BYTES, Long.toString( gatherPartitionBytes ) );
     }
   }
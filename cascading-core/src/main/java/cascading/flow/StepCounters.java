@@ -23,5 +23,5 @@ package cascading.flow;
 /** Enum StepCounters lists all counters */
 public enum StepCounters
   {
-    Tuples_Read, Tuples_Written, Tuples_Trapped, Read_Duration, Write_Duration, Process_Begin_Time, Process_End_Time, Process_Duration
+    Tuples_Read, Tuples_Written, Tuples_Trapped, Read_Duration, Write_Duration, Process_Begin_Time, Process_End_Time, Process_Duration, Write_Stall_Duration, Write_Queue_Depth, Write_Queue_Samples, Fused_Stages
   }
@@ -33,6 +33,11 @@ public class OrdinalDuct<Incoming, Outgoing> extends Duct<Incoming, Outgoing>
     this.ordinal = ordinal;
     }
 
+  public int getOrdinal()
+    {
+    return ordinal;
+    }
+
   public void receive( Duct previous, int ordinal, Incoming incoming )
     {
     // override ordinal value
@@ -26,11 +26,14 @@ import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.flow.stream.duct.Duct;
 import cascading.flow.stream.duct.Reducing;
+import cascading.flow.stream.graph.StreamGraph;
 import cascading.operation.Aggregator;
+import cascading.operation.BatchAggregator;
 import cascading.pipe.Every;
 import cascading.pipe.OperatorException;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
 import cascading.tuple.Tuples;
@@ -42,6 +45,9 @@ public class AggregatorEveryStage extends EveryStage<TupleEntry> implements Redu
   {
   private Aggregator aggregator;
   private Reducing reducing;
+  private TupleBatch argumentBatch;
+  /** Field batchFlushed is true once a batch of the current grouping has been aggregated */
+  private boolean batchFlushed;
 
   public AggregatorEveryStage( FlowProcess flowProcess, Every every )
     {
@@ -76,6 +82,14 @@ public class AggregatorEveryStage extends EveryStage<TupleEntry> implements Redu
       };
 
     reducing = (Reducing) getNext();
+
+    int batchSize = flowProcess.getIntegerProperty( StreamGraph.BATCH_SIZE, 0 );
+
+    if( aggregator instanceof BatchAggregator && batchSize > 1 && argumentsEntry.getFields().isDefined() )
+      {
+      argumentBatch = new TupleBatch( argumentsEntry.getFields(), batchSize );
+      operationCall.setArgumentBatch( argumentBatch );
+      }
     }
 
   @Override
@@ -103,6 +117,8 @@ public class AggregatorEveryStage extends EveryStage<TupleEntry> implements Redu
     operationCall.setArguments( null );  // zero it out
     operationCall.setOutputCollector( null ); // zero it out
 
+    batchFlushed = false;
+
     try
       {
       aggregator.start( flowProcess, operationCall );
@@ -125,9 +141,20 @@ public class AggregatorEveryStage extends EveryStage<TupleEntry> implements Redu
     try
       {
       argumentsEntry.setTuple( argumentsBuilder.makeResult( tupleEntry.getTuple(), null ) );
-      operationCall.setArguments( argumentsEntry );
 
-      aggregator.aggregate( flowProcess, operationCall );
+      if( argumentBatch != null )
+        {
+        argumentBatch.add( argumentsEntry.getTuple() );
+
+        if( argumentBatch.isFull() )
+          flushBatch();
+        }
+      else
+        {
+        operationCall.setArguments( argumentsEntry );
+
+        aggregator.aggregate( flowProcess, operationCall );
+        }
       }
     catch( CascadingException exception )
       {
@@ -141,9 +168,85 @@ public class AggregatorEveryStage extends EveryStage<TupleEntry> implements Redu
     next.receive( this, ordinal, tupleEntry );
     }
 
+  private void flushBatch()
+    {
+    if( argumentBatch.isEmpty() )
+      return;
+
+    try
+      {
+      try
+        {
+        ( (BatchAggregator) aggregator ).aggregateBatch( flowProcess, operationCall );
+        }
+      catch( Exception exception )
+        {
+        replayBatch();
+        }
+
+      batchFlushed = true;
+      }
+    finally
+      {
+      argumentBatch.clear();
+      }
+    }
+
+  /**
+   * Method replayBatch aggregates each row of the failed batch alone, so any failure is handled against the
+   * offending row. If no prior batch of the grouping was aggregated, the context is reset first, see
+   * {@link BatchAggregator}.
+   */
+  private void replayBatch()
+    {
+    operationCall.setArguments( null );
+
+    if( !batchFlushed )
+      {
+      try
+        {
+        aggregator.start( flowProcess, operationCall );
+        }
+      catch( CascadingException exception )
+        {
+        handleException( exception, operationCall.getGroup() );
+        }
+      catch( Exception exception )
+        {
+        handleException( new OperatorException( every, "operator Every failed starting operation: " + every.getOperation(), exception ), operationCall.getGroup() );
+        }
+      }
+
+    int[] selection = argumentBatch.getSelection();
+    int numSelected = argumentBatch.getNumSelected();
+    Tuple arguments = Tuple.size( argumentBatch.getFields().size() );
+
+    for( int i = 0; i < numSelected; i++ )
+      {
+      argumentsEntry.setTuple( argumentBatch.getTuple( selection[ i ], Tuples.asModifiable( arguments ) ) );
+      operationCall.setArguments( argumentsEntry );
+
+      try
+        {
+        aggregator.aggregate( flowProcess, operationCall );
+        }
+      catch( CascadingException exception )
+        {
+        handleException( exception, argumentsEntry );
+        }
+      catch( Throwable throwable )
+        {
+        handleException( new OperatorException( every, "operator Every failed executing operation: " + every.getOperation(), throwable ), argumentsEntry );
+        }
+      }
+    }
+
   @Override
   public void completeGroup( Duct previous, TupleEntry incomingEntry )
     {
+    if( argumentBatch != null )
+      flushBatch();
+
     this.incomingEntry = incomingEntry;
     operationCall.setArguments( null );
     operationCall.setOutputCollector( outputCollector );
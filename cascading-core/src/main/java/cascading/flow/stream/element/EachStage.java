@@ -20,11 +20,18 @@
 
 package cascading.flow.stream.element;
 
+import cascading.CascadingException;
 import cascading.flow.FlowProcess;
+import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.graph.StreamGraph;
 import cascading.pipe.Each;
 import cascading.pipe.Operator;
+import cascading.pipe.OperatorException;
 import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.Tuples;
 
 /**
  *
@@ -33,6 +40,15 @@ public abstract class EachStage extends OperatorStage<TupleEntry>
   {
   final Each each;
 
+  /** Field argumentBatch is null unless the current operation is handed batches of arguments */
+  TupleBatch argumentBatch;
+  /** Field incomingBatch holds the incoming values of each row, the argument batch is a narrowed view of it */
+  private TupleBatch incomingBatch;
+  /** Field batchTuple */
+  private Tuple batchTuple;
+  /** Field batchEntry */
+  private TupleEntry batchEntry;
+
   public EachStage( FlowProcess flowProcess, Each each )
     {
     super( flowProcess, each );
@@ -50,4 +66,189 @@ public abstract class EachStage extends OperatorStage<TupleEntry>
     {
     return outgoingScopes.get( 0 ).getOutValuesSelector();
     }
+
+  /**
+   * Method isPassThrough returns true if this stage only forwards or removes the incoming entry, see
+   * {@link #isPassed()}.
+   *
+   * @return boolean
+   */
+  boolean isPassThrough()
+    {
+    return false;
+    }
+
+  /**
+   * Method isPassed applies the current operation to the arguments given to {@link #setArguments(TupleEntry)} and
+   * returns true if the incoming entry should be forwarded, used by {@link FusedEachStage} in place of
+   * {@link #receive(Duct, int, Object)} if {@link #isPassThrough()} is true.
+   * <p>
+   * Any failure is not handled, see {@link #handleFusedException(Throwable)}.
+   *
+   * @return boolean
+   */
+  abstract boolean isPassed();
+
+  void setArguments( TupleEntry incomingEntry )
+    {
+    argumentsEntry.setTuple( argumentsBuilder.makeResult( incomingEntry.getTuple(), null ) );
+    }
+
+  void handleFusedException( Throwable throwable )
+    {
+    if( throwable instanceof CascadingException )
+      handleException( throwable, argumentsEntry );
+    else
+      handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
+    }
+
+  void setNext( Duct next )
+    {
+    this.next = next;
+    }
+
+  /**
+   * Method initializeBatch creates the argument batch if {@link StreamGraph#BATCH_SIZE} is set and the incoming and
+   * argument fields are known, and returns true if the current operation should be handed batches of arguments.
+   *
+   * @return boolean
+   */
+  boolean initializeBatch()
+    {
+    int batchSize = flowProcess.getIntegerProperty( StreamGraph.BATCH_SIZE, 0 );
+    Fields incomingFields = getIncomingArgumentsFields();
+    Fields argumentFields = argumentsEntry.getFields();
+
+    if( batchSize < 2 || !incomingFields.isDefined() || !argumentFields.isDefined() )
+      return false;
+
+    Fields incomingDeclaration = Fields.asDeclaration( incomingFields );
+    int[] positions;
+
+    if( argumentsSelector.isAll() )
+      positions = incomingDeclaration.getPos();
+    else if( argumentsSelector.isNone() )
+      positions = new int[ 0 ];
+    else
+      positions = incomingDeclaration.getPos( argumentsSelector );
+
+    incomingBatch = new TupleBatch( incomingDeclaration, batchSize );
+    argumentBatch = incomingBatch.narrow( argumentFields, positions );
+    batchTuple = Tuple.size( incomingDeclaration.size() );
+
+    operationCall.setArgumentBatch( argumentBatch );
+
+    return true;
+    }
+
+  /**
+   * Method batch copies the values of the incoming entry into the incoming batch, the batch is flushed when full.
+   *
+   * @param incomingEntry of type TupleEntry
+   */
+  void batch( TupleEntry incomingEntry )
+    {
+    if( batchEntry == null )
+      batchEntry = new TupleEntry( incomingEntry.getFields(), true );
+
+    incomingBatch.add( incomingEntry.getTuple() );
+
+    if( incomingBatch.isFull() )
+      flushBatch();
+    }
+
+  /**
+   * Method flushBatch applies the current operation to all batched rows and forwards the selected rows, see
+   * {@link #receiveBatched(int, TupleEntry)}.
+   * <p>
+   * If the operation fails, every row is handed to {@link #receiveEach(TupleEntry)} instead, so the failure is
+   * handled against the offending tuple.
+   */
+  void flushBatch()
+    {
+    if( incomingBatch == null || incomingBatch.isEmpty() )
+      return;
+
+    argumentBatch.selectAll( incomingBatch.getSize() );
+
+    try
+      {
+      boolean applied = applyBatch();
+
+      if( applied )
+        {
+        int[] selection = argumentBatch.getSelection();
+        int numSelected = argumentBatch.getNumSelected();
+
+        for( int i = 0; i < numSelected; i++ )
+          {
+          int row = selection[ i ];
+
+          batchEntry.setTuple( incomingBatch.getTuple( row, Tuples.asModifiable( batchTuple ) ) );
+          receiveBatched( row, batchEntry );
+          }
+        }
+      else
+        {
+        int size = incomingBatch.getSize();
+
+        for( int row = 0; row < size; row++ )
+          {
+          batchEntry.setTuple( incomingBatch.getTuple( row, Tuples.asModifiable( batchTuple ) ) );
+          receiveEach( batchEntry );
+          }
+        }
+      }
+    finally
+      {
+      argumentBatch.selectAll( 0 ); // shares the values cleared below
+      incomingBatch.clear();
+      }
+    }
+
+  /**
+   * Method applyBatch applies the current operation to the argument batch and returns false if it failed, in which
+   * case any results of the operation are discarded before every row is replayed.
+   * <p>
+   * By default returns false, so every row is handed to {@link #receiveEach(TupleEntry)}.
+   *
+   * @return boolean
+   */
+  boolean applyBatch()
+    {
+    return false;
+    }
+
+  /**
+   * Method receiveBatched forwards the results of the given batch row, any failure must be handled.
+   * <p>
+   * By default the operation is applied to the row alone, see {@link #receiveEach(TupleEntry)}.
+   *
+   * @param row           of type int
+   * @param incomingEntry of type TupleEntry
+   */
+  void receiveBatched( int row, TupleEntry incomingEntry )
+    {
+    receiveEach( incomingEntry );
+    }
+
+  /**
+   * Method receiveEach applies the current operation to the given entry alone, any failure must be handled.
+   *
+   * @param incomingEntry of type TupleEntry
+   */
+  abstract void receiveEach( TupleEntry incomingEntry );
+
+  @Override
+  public void complete( Duct previous )
+    {
+    try
+      {
+      flushBatch();
+      }
+    finally
+      {
+      super.complete( previous );
+      }
+    }
   }
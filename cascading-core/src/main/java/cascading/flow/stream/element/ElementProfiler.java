@@ -0,0 +1,604 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.stream.element;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import cascading.flow.FlowElement;
+import cascading.flow.FlowElements;
+import cascading.flow.FlowProcess;
+import cascading.flow.planner.graph.Extent;
+import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.OpenWindow;
+import cascading.flow.stream.duct.Reducing;
+import cascading.flow.stream.duct.Stage;
+import cascading.flow.stream.graph.StreamGraph;
+import cascading.stats.ProvidesCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class ElementProfiler measures the time spent, and memory allocated, by each {@link ElementDuct} in a stream graph,
+ * see {@link cascading.flow.stream.graph.StreamGraph#PROFILE_ELEMENTS}.
+ * <p>
+ * Each profiled duct is wrapped by a stage counting every tuple received, and every tuple the duct passes on to
+ * the following profiled ducts. A sample of the calls made into the graph, per thread, are timed along with every
+ * nested call into the following ducts, so the time spent in a given duct excludes the time spent downstream.
+ * <p>
+ * For each sampled call the elapsed time, and where supported by the JVM, the thread CPU time and allocated bytes
+ * are recorded. On cleanup, the sampled values are scaled by the number of calls and logged for every element, and
+ * the totals across all elements are reported as the {@link Metric} counters.
+ * <p>
+ * The values of the elements with the most self time are also reported via
+ * {@link FlowProcess#increment(String, String, long)}, in the {@link #COUNTER_GROUP} group, with the counter name
+ * being the element id and the {@link Metric} name, see {@link #getProfiles(ProvidesCounters, Collection)}. The number
+ * of elements reported is capped by {@link cascading.flow.stream.graph.StreamGraph#PROFILE_TOP_ELEMENTS}, so the
+ * number of counters stays within any per job counter limit of the platform regardless of the size of the graph.
+ * <p>
+ * Tuple counts are kept in plain arrays owned by the calling thread, so the only cost added to an unsampled call is
+ * a check of the current thread and a few array increments.
+ * <p>
+ * Note sources are not profiled, see the {@link cascading.flow.SliceCounters#Read_Duration} counter.
+ */
+public class ElementProfiler
+  {
+  /** Field LOG */
+  private static final Logger LOG = LoggerFactory.getLogger( ElementProfiler.class );
+
+  /** Field COUNTER_GROUP */
+  public static final String COUNTER_GROUP = "cascading.flow.stream.ElementProfile";
+
+  public enum Metric
+    {
+      Tuples_In,
+      Tuples_Out,
+      Self_Time_Micros,
+      CPU_Time_Micros,
+      Allocated_Bytes
+    }
+
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+  private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+
+  private static com.sun.management.ThreadMXBean getAllocationBean()
+    {
+    try
+      {
+      if( !( THREAD_BEAN instanceof com.sun.management.ThreadMXBean ) )
+        return null;
+
+      com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+
+      if( bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() )
+        return bean;
+      }
+    catch( Throwable throwable )
+      {
+      LOG.debug( "thread allocated bytes not available", throwable );
+      }
+
+    return null;
+    }
+
+  /** Class Profile holds the sampled values measured for a single duct, tuple counts are held by each {@link Frame}. */
+  static class Profile
+    {
+    final FlowElement flowElement;
+    final int index;
+    long samples;
+    long nanos;
+    long cpuNanos;
+    long bytes;
+
+    Profile( FlowElement flowElement, int index )
+      {
+      this.flowElement = flowElement;
+      this.index = index;
+      }
+
+    synchronized void record( long nanos, long cpuNanos, long bytes )
+      {
+      this.samples++;
+      this.nanos += nanos;
+      this.cpuNanos += cpuNanos;
+      this.bytes += bytes;
+      }
+
+    synchronized long estimate( long sampled, long calls )
+      {
+      if( samples == 0 )
+        return 0;
+
+      return (long) ( (double) sampled * calls / samples );
+      }
+    }
+
+  /** Class Frame holds the profiling state, and the tuple counts of each profile, of a single thread. */
+  static class Frame
+    {
+    final Thread thread = Thread.currentThread();
+    long[] calls = new long[ 0 ];
+    long[] in = new long[ 0 ];
+    long[] out = new long[ 0 ];
+    Profile current;
+    boolean sampling;
+    int countdown;
+    long childNanos;
+    long childCPUNanos;
+    long childBytes;
+
+    void ensure( int size )
+      {
+      if( calls.length >= size )
+        return;
+
+      calls = Arrays.copyOf( calls, size );
+      in = Arrays.copyOf( in, size );
+      out = Arrays.copyOf( out, size );
+      }
+    }
+
+  private final int interval;
+  private final int topElements;
+  private final boolean measureCPU;
+  private final Map<ElementDuct, Profile> profiles = new IdentityHashMap<>();
+  private final List<Frame> allFrames = new ArrayList<>();
+  private final ThreadLocal<Frame> frames = ThreadLocal.withInitial( this::createFrame );
+  /** Field lastFrame is the frame of the last calling thread, avoiding a thread local lookup on most calls */
+  private Frame lastFrame;
+
+  /**
+   * Constructor ElementProfiler creates a new ElementProfiler instance.
+   *
+   * @param sampleRate of type double, the fraction of calls to time
+   */
+  public ElementProfiler( double sampleRate )
+    {
+    this( sampleRate, StreamGraph.DEFAULT_PROFILE_TOP_ELEMENTS );
+    }
+
+  /**
+   * Constructor ElementProfiler creates a new ElementProfiler instance.
+   *
+   * @param sampleRate  of type double, the fraction of calls to time
+   * @param topElements of type int, the number of elements, with the most self time, to report counters for
+   */
+  public ElementProfiler( double sampleRate, int topElements )
+    {
+    if( sampleRate <= 0 || sampleRate > 1 )
+      throw new IllegalArgumentException( "sample rate must be greater than zero and at most one, got: " + sampleRate );
+
+    if( topElements < 0 )
+      throw new IllegalArgumentException( "top elements must not be negative, got: " + topElements );
+
+    this.topElements = topElements;
+    this.interval = (int) Math.max( 1, Math.round( 1 / sampleRate ) );
+    this.measureCPU = THREAD_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_BEAN.isThreadCpuTimeEnabled();
+    }
+
+  private Frame createFrame()
+    {
+    Frame frame = new Frame();
+
+    frame.countdown = nextInterval();
+
+    synchronized( allFrames )
+      {
+      allFrames.add( frame );
+      }
+
+    return frame;
+    }
+
+  private Frame getFrame()
+    {
+    Frame frame = lastFrame; // Frame#thread is final, so a frame read here is either current or detected as stale
+
+    if( frame == null || frame.thread != Thread.currentThread() )
+      {
+      frame = frames.get();
+      lastFrame = frame;
+      }
+
+    return frame;
+    }
+
+  private int nextInterval()
+    {
+    if( interval == 1 )
+      return 1;
+
+    // randomize so periodic input does not bias the sample
+    return ThreadLocalRandom.current().nextInt( 1, 2 * interval );
+    }
+
+  /**
+   * Method wrap returns a Duct to be bound in place of the given duct, timing each call into the given duct.
+   * <p>
+   * A duct wrapped more than once, having many incoming paths, is profiled as a single duct.
+   *
+   * @param duct of type ElementDuct
+   * @return Duct
+   */
+  public Duct wrap( ElementDuct duct )
+    {
+    Profile profile;
+
+    synchronized( profiles )
+      {
+      profile = profiles.computeIfAbsent( duct, ignore -> new Profile( duct.getFlowElement(), profiles.size() ) );
+      }
+
+    if( duct instanceof Reducing )
+      return new ProfiledReducingStage( (Duct) duct, profile );
+
+    if( duct instanceof OpenWindow )
+      return new ProfiledWindowStage( (Duct) duct, profile );
+
+    return new ProfiledStage( (Duct) duct, profile );
+    }
+
+  /**
+   * Method report logs the values of every profiled duct that was called, increments the {@link Metric} counters
+   * by the totals across all ducts, and increments the {@link #COUNTER_GROUP} counters of the ducts with the most
+   * self time.
+   * <p>
+   * Must only be called once every thread calling into the stream graph has completed.
+   *
+   * @param flowProcess of type FlowProcess
+   */
+  public void report( FlowProcess flowProcess )
+    {
+    Collection<Profile> current;
+    List<Frame> frames;
+
+    synchronized( profiles )
+      {
+      current = new ArrayList<>( profiles.values() );
+      }
+
+    synchronized( allFrames )
+      {
+      frames = new ArrayList<>( allFrames );
+      }
+
+    long[] totals = new long[ Metric.values().length ];
+    List<long[]> reported = new ArrayList<>();
+    List<Profile> reportedProfiles = new ArrayList<>();
+
+    for( Profile profile : current )
+      {
+      long calls = 0;
+      long in = 0;
+      long out = 0;
+
+      for( Frame frame : frames )
+        {
+        if( profile.index >= frame.calls.length )
+          continue;
+
+        calls += frame.calls[ profile.index ];
+        in += frame.in[ profile.index ];
+        out += frame.out[ profile.index ];
+        }
+
+      if( calls == 0 )
+        continue;
+
+      long nanos;
+      long cpuNanos;
+      long bytes;
+      long samples;
+
+      synchronized( profile )
+        {
+        nanos = profile.estimate( profile.nanos, calls );
+        cpuNanos = profile.estimate( profile.cpuNanos, calls );
+        bytes = profile.estimate( profile.bytes, calls );
+        samples = profile.samples;
+        }
+
+      long[] values = new long[ Metric.values().length ];
+
+      values[ Metric.Tuples_In.ordinal() ] = in;
+      values[ Metric.Tuples_Out.ordinal() ] = out;
+      values[ Metric.Self_Time_Micros.ordinal() ] = TimeUnit.NANOSECONDS.toMicros( nanos );
+      values[ Metric.CPU_Time_Micros.ordinal() ] = TimeUnit.NANOSECONDS.toMicros( cpuNanos );
+      values[ Metric.Allocated_Bytes.ordinal() ] = bytes;
+
+      for( int i = 0; i < values.length; i++ )
+        totals[ i ] += values[ i ];
+
+      reported.add( values );
+      reportedProfiles.add( profile );
+
+      LOG.info( "profiled: {}, calls: {}, samples: {}, tuples in: {}, tuples out: {}, self time: {}ms, cpu time: {}ms, allocated: {} bytes", profile.flowElement, calls, samples, in, out, TimeUnit.NANOSECONDS.toMillis( nanos ), TimeUnit.NANOSECONDS.toMillis( cpuNanos ), bytes );
+      }
+
+    for( Metric metric : Metric.values() )
+      {
+      if( totals[ metric.ordinal() ] != 0 )
+        flowProcess.increment( metric, totals[ metric.ordinal() ] );
+      }
+
+    Integer[] order = new Integer[ reported.size() ];
+
+    for( int i = 0; i < order.length; i++ )
+      order[ i ] = i;
+
+    int selfTime = Metric.Self_Time_Micros.ordinal();
+
+    // most self time first, ties in graph order so the reported elements are stable across slices
+    Arrays.sort( order, Comparator.<Integer>comparingLong( i -> reported.get( i )[ selfTime ] ).reversed()
+      .thenComparingInt( i -> reportedProfiles.get( i ).index ) );
+
+    for( int i = 0; i < Math.min( topElements, order.length ); i++ )
+      {
+      String id = FlowElements.id( reportedProfiles.get( order[ i ] ).flowElement );
+      long[] values = reported.get( order[ i ] );
+
+      for( Metric metric : Metric.values() )
+        {
+        if( values[ metric.ordinal() ] != 0 )
+          flowProcess.increment( COUNTER_GROUP, counterName( id, metric ), values[ metric.ordinal() ] );
+        }
+      }
+    }
+
+  private static String counterName( String id, Metric metric )
+    {
+    return id + ":" + metric;
+    }
+
+  /**
+   * Method getProfiles returns the reported values of every given element that was profiled, keyed by {@link Metric}.
+   * <p>
+   * Only the elements with the most self time are reported, see
+   * {@link cascading.flow.stream.graph.StreamGraph#PROFILE_TOP_ELEMENTS}.
+   *
+   * @param counters     of type ProvidesCounters, for example a {@link cascading.stats.FlowNodeStats} instance
+   * @param flowElements of type Collection
+   * @return Map
+   */
+  public static Map<FlowElement, Map<Metric, Long>> getProfiles( ProvidesCounters counters, Collection<? extends FlowElement> flowElements )
+    {
+    Map<FlowElement, Map<Metric, Long>> results = new LinkedHashMap<>();
+    Collection<String> names = counters.getCountersFor( COUNTER_GROUP );
+
+    if( names == null || names.isEmpty() )
+      return results;
+
+    for( FlowElement flowElement : flowElements )
+      {
+      if( flowElement instanceof Extent )
+        continue;
+
+      String id = FlowElements.id( flowElement );
+      Map<Metric, Long> values = new EnumMap<>( Metric.class );
+
+      for( Metric metric : Metric.values() )
+        {
+        String name = counterName( id, metric );
+
+        if( names.contains( name ) )
+          values.put( metric, counters.getCounterValue( COUNTER_GROUP, name ) );
+        }
+
+      if( !values.isEmpty() )
+        results.put( flowElement, values );
+      }
+
+    return results;
+    }
+
+  /** Class ProfiledStage forwards every call to the wrapped duct, retaining the given previous duct. */
+  class ProfiledStage extends Stage<Object, Object>
+    {
+    static final int RECEIVE = 0;
+    static final int START_GROUP = 1;
+    static final int COMPLETE_GROUP = 2;
+
+    final Profile profile;
+
+    ProfiledStage( Duct duct, Profile profile )
+      {
+      this.next = duct;
+      this.profile = profile;
+      }
+
+    @Override
+    public void start( Duct previous )
+      {
+      next.start( previous );
+      }
+
+    @Override
+    public void receive( Duct previous, int ordinal, Object incoming )
+      {
+      call( RECEIVE, previous, ordinal, incoming );
+      }
+
+    @Override
+    public void complete( Duct previous )
+      {
+      next.complete( previous );
+      }
+
+    void call( int type, Duct previous, int ordinal, Object value )
+      {
+      Frame frame = getFrame();
+      Profile parent = frame.current;
+      int index = profile.index;
+
+      frame.ensure( index + 1 );
+      frame.calls[ index ]++;
+
+      if( type == RECEIVE )
+        {
+        frame.in[ index ]++;
+
+        if( parent != null )
+          frame.out[ parent.index ]++;
+        }
+
+      frame.current = profile;
+
+      try
+        {
+        if( frame.sampling )
+          {
+          sample( frame, type, previous, ordinal, value );
+          }
+        else if( parent == null && --frame.countdown <= 0 ) // only start sampling when entering the graph
+          {
+          frame.countdown = nextInterval();
+          frame.sampling = true;
+
+          try
+            {
+            sample( frame, type, previous, ordinal, value );
+            }
+          finally
+            {
+            frame.sampling = false;
+            frame.childNanos = 0;
+            frame.childCPUNanos = 0;
+            frame.childBytes = 0;
+            }
+          }
+        else
+          {
+          forward( type, previous, ordinal, value );
+          }
+        }
+      finally
+        {
+        frame.current = parent;
+        }
+      }
+
+    private void sample( Frame frame, int type, Duct previous, int ordinal, Object value )
+      {
+      long priorNanos = frame.childNanos;
+      long priorCPUNanos = frame.childCPUNanos;
+      long priorBytes = frame.childBytes;
+
+      frame.childNanos = 0;
+      frame.childCPUNanos = 0;
+      frame.childBytes = 0;
+
+      long startBytes = allocatedBytes();
+      long startCPUNanos = cpuNanos();
+      long startNanos = System.nanoTime();
+
+      try
+        {
+        forward( type, previous, ordinal, value );
+        }
+      finally
+        {
+        long nanos = System.nanoTime() - startNanos;
+        long cpuNanos = cpuNanos() - startCPUNanos;
+        long bytes = allocatedBytes() - startBytes;
+
+        profile.record( nanos - frame.childNanos, cpuNanos - frame.childCPUNanos, bytes - frame.childBytes );
+
+        frame.childNanos = priorNanos + nanos;
+        frame.childCPUNanos = priorCPUNanos + cpuNanos;
+        frame.childBytes = priorBytes + bytes;
+        }
+      }
+
+    void forward( int type, Duct previous, int ordinal, Object value )
+      {
+      next.receive( previous, ordinal, value );
+      }
+
+    @Override
+    public String toString()
+      {
+      return getClass().getSimpleName() + "{next=" + next + '}';
+      }
+    }
+
+  /** Class ProfiledReducingStage also times the grouping calls into a {@link Reducing} duct. */
+  class ProfiledReducingStage extends ProfiledStage implements Reducing<Object, Object>
+    {
+    ProfiledReducingStage( Duct duct, Profile profile )
+      {
+      super( duct, profile );
+      }
+
+    @Override
+    public void startGroup( Duct previous, Object group )
+      {
+      call( START_GROUP, previous, 0, group );
+      }
+
+    @Override
+    public void completeGroup( Duct previous, Object result )
+      {
+      call( COMPLETE_GROUP, previous, 0, result );
+      }
+
+    @Override
+    void forward( int type, Duct previous, int ordinal, Object value )
+      {
+      if( type == START_GROUP )
+        ( (Reducing) next ).startGroup( previous, value );
+      else if( type == COMPLETE_GROUP )
+        ( (Reducing) next ).completeGroup( previous, value );
+      else
+        super.forward( type, previous, ordinal, value );
+      }
+    }
+
+  /** Class ProfiledWindowStage retains the {@link OpenWindow} marker of the wrapped duct. */
+  class ProfiledWindowStage extends ProfiledStage implements OpenWindow
+    {
+    ProfiledWindowStage( Duct duct, Profile profile )
+      {
+      super( duct, profile );
+      }
+    }
+
+  private long cpuNanos()
+    {
+    return measureCPU ? THREAD_BEAN.getCurrentThreadCpuTime() : 0;
+    }
+
+  private static long allocatedBytes()
+    {
+    return ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getThreadAllocatedBytes( Thread.currentThread().getId() ) : 0;
+    }
+  }
@@ -23,6 +23,7 @@ package cascading.flow.stream.element;
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.flow.stream.duct.Duct;
+import cascading.operation.BatchFilter;
 import cascading.operation.Filter;
 import cascading.pipe.Each;
 import cascading.pipe.OperatorException;
@@ -59,10 +60,68 @@ public class FilterEachStage extends EachStage
     super.initialize();
 
     filter = each.getFilter();
+
+    if( filter instanceof BatchFilter )
+      initializeBatch();
+    }
+
+  @Override
+  boolean isPassThrough()
+    {
+    return argumentBatch == null;
+    }
+
+  @Override
+  boolean isPassed()
+    {
+    return !filter.isRemove( flowProcess, operationCall );
     }
 
   @Override
   public void receive( Duct previous, int ordinal, TupleEntry incomingEntry )
+    {
+    if( argumentBatch != null )
+      batch( incomingEntry );
+    else
+      receiveEach( incomingEntry );
+    }
+
+  @Override
+  boolean applyBatch()
+    {
+    try
+      {
+      ( (BatchFilter) filter ).removeBatch( flowProcess, operationCall );
+
+      return true;
+      }
+    catch( Exception exception )
+      {
+      return false; // retried one tuple at a time, see receiveEach
+      }
+    }
+
+  @Override
+  void receiveBatched( int row, TupleEntry incomingEntry )
+    {
+    argumentsEntry.setTuple( argumentsBuilder.makeResult( incomingEntry.getTuple(), null ) );
+
+    try
+      {
+      next.receive( this, 0, incomingEntry );
+      }
+    catch( CascadingException exception )
+      {
+      handleException( exception, argumentsEntry );
+      }
+    catch( Throwable throwable )
+      {
+      handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
+      }
+    }
+
+  @Override
+  void receiveEach( TupleEntry incomingEntry )
     {
     argumentsEntry.setTuple( argumentsBuilder.makeResult( incomingEntry.getTuple(), null ) );
 
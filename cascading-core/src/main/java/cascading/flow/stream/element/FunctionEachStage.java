@@ -25,11 +25,13 @@ import java.io.IOException;
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.flow.stream.duct.Duct;
+import cascading.operation.BatchFunction;
 import cascading.operation.Function;
 import cascading.pipe.Each;
 import cascading.pipe.OperatorException;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
 import cascading.tuple.Tuples;
@@ -40,6 +42,8 @@ import cascading.tuple.Tuples;
 public class FunctionEachStage extends EachStage
   {
   private Function function;
+  private TupleBatch resultBatch;
+  private Tuple result;
 
   public FunctionEachStage( FlowProcess flowProcess, Each each )
     {
@@ -87,10 +91,109 @@ public class FunctionEachStage extends EachStage
           }
         }
       } );
+
+    Fields declaredFields = getOperationDeclaredFields();
+
+    if( function instanceof BatchFunction && declaredFields.isDefined() && initializeBatch() )
+      {
+      resultBatch = new TupleBatch( declaredFields, argumentBatch.getCapacity() );
+      result = Tuple.size( declaredFields.size() );
+
+      operationCall.setResultBatch( resultBatch );
+      }
+    }
+
+  /**
+   * Method isPassed applies the function, handing any results to the next stage, and returns false as the incoming
+   * entry itself is never forwarded.
+   *
+   * @return boolean
+   */
+  @Override
+  boolean isPassed()
+    {
+    function.operate( flowProcess, operationCall ); // adds results to collector
+
+    return false;
+    }
+
+  @Override
+  void setArguments( TupleEntry incomingEntry )
+    {
+    this.incomingEntry = incomingEntry;
+
+    super.setArguments( incomingEntry );
     }
 
   @Override
   public void receive( Duct previous, int ordinal, TupleEntry incomingEntry )
+    {
+    if( argumentBatch != null )
+      batch( incomingEntry );
+    else
+      receiveEach( incomingEntry );
+    }
+
+  @Override
+  boolean applyBatch()
+    {
+    resultBatch.reset( argumentBatch.getSize() );
+
+    TupleEntryCollector outputCollector = operationCall.getOutputCollector();
+
+    operationCall.setOutputCollector( null ); // results may only be written to the result batch
+
+    try
+      {
+      ( (BatchFunction) function ).operateBatch( flowProcess, operationCall );
+
+      return true;
+      }
+    catch( Exception exception )
+      {
+      resultBatch.clear(); // discard any partial results, retried one tuple at a time, see receiveEach
+
+      return false;
+      }
+    finally
+      {
+      operationCall.setOutputCollector( outputCollector );
+      }
+    }
+
+  @Override
+  void receiveBatched( int row, TupleEntry incomingEntry )
+    {
+    argumentsEntry.setTuple( argumentsBuilder.makeResult( incomingEntry.getTuple(), null ) );
+
+    for( int i = 0; i < result.size(); i++ )
+      result.set( i, resultBatch.getObject( row, i ) );
+
+    Tuple outgoing = outgoingBuilder.makeResult( incomingEntry.getTuple(), result );
+
+    outgoingEntry.setTuple( outgoing );
+
+    try
+      {
+      next.receive( this, 0, outgoingEntry );
+      }
+    catch( CascadingException exception )
+      {
+      handleException( exception, argumentsEntry );
+      }
+    catch( Throwable throwable )
+      {
+      handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
+      }
+    finally
+      {
+      Tuples.asModifiable( result );
+      Tuples.asModifiable( outgoing );
+      }
+    }
+
+  @Override
+  void receiveEach( TupleEntry incomingEntry )
     {
     this.incomingEntry = incomingEntry;
 
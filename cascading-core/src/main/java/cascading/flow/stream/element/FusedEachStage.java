@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.flow.stream.element;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import cascading.flow.FlowElement;
+import cascading.flow.planner.Scope;
+import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.DuctException;
+import cascading.flow.stream.duct.Stage;
+import cascading.flow.stream.graph.StreamGraph;
+import cascading.tuple.TupleEntry;
+
+/**
+ * Class FusedEachStage replaces a run of consecutive {@link EachStage} instances, each having a single predecessor
+ * and successor, with a single stage in the stream graph. See {@link StreamGraph#FUSE_EACH_STAGES}.
+ * <p>
+ * Every {@link FilterEachStage} and {@link ValueAssertionEachStage} in the run is applied in a loop against the same
+ * incoming entry, instead of each stage calling the next. A {@link FunctionEachStage} hands each result back to this
+ * stage, continuing the loop with the stage following it.
+ * <p>
+ * As each fused stage retains its own arguments, trap handler, and lifecycle, a failure is handled by the failing
+ * stage, and then by any prior filters in the loop, in the same order as when the stages are not fused.
+ */
+public class FusedEachStage extends Stage<TupleEntry, TupleEntry> implements ElementDuct
+  {
+  private final EachStage[] stages;
+
+  /** Class Link hands the results of the stage before it to the given stage within the loop. */
+  private class Link extends Stage<TupleEntry, TupleEntry>
+    {
+    final int index;
+
+    Link( int index )
+      {
+      this.index = index;
+      }
+
+    @Override
+    public Duct getNext()
+      {
+      return index < stages.length ? stages[ index ] : FusedEachStage.this.next;
+      }
+
+    @Override
+    public void start( Duct previous )
+      {
+      if( index < stages.length )
+        stages[ index ].start( previous );
+      else
+        FusedEachStage.this.next.start( FusedEachStage.this );
+      }
+
+    @Override
+    public void receive( Duct previous, int ordinal, TupleEntry incomingEntry )
+      {
+      FusedEachStage.this.receive( index, incomingEntry );
+      }
+
+    @Override
+    public void complete( Duct previous )
+      {
+      if( index < stages.length )
+        stages[ index ].complete( previous );
+      else
+        FusedEachStage.this.next.complete( FusedEachStage.this );
+      }
+    }
+
+  public FusedEachStage( List<? extends Duct> stages )
+    {
+    if( stages.size() < 2 )
+      throw new IllegalArgumentException( "at least two stages are required to fuse, got: " + stages.size() );
+
+    this.stages = stages.toArray( new EachStage[ stages.size() ] );
+    }
+
+  public EachStage[] getStages()
+    {
+    return Arrays.copyOf( stages, stages.length );
+    }
+
+  @Override
+  public void bind( StreamGraph streamGraph )
+    {
+    super.bind( streamGraph );
+
+    for( int i = 0; i < stages.length; i++ )
+      stages[ i ].setNext( new Link( i + 1 ) );
+    }
+
+  @Override
+  public void initialize()
+    {
+    for( int i = stages.length - 1; i >= 0; i-- )
+      stages[ i ].initialize();
+    }
+
+  @Override
+  public void prepare()
+    {
+    for( int i = stages.length - 1; i >= 0; i-- )
+      stages[ i ].prepare();
+    }
+
+  @Override
+  public void start( Duct previous )
+    {
+    stages[ 0 ].start( previous );
+    }
+
+  @Override
+  public void receive( Duct previous, int ordinal, TupleEntry incomingEntry )
+    {
+    receive( 0, incomingEntry );
+    }
+
+  private void receive( int from, TupleEntry incomingEntry )
+    {
+    int handler = from - 1; // the last stage in this loop whose handler applies to a failure
+
+    try
+      {
+      for( int index = from; index < stages.length; index++ )
+        {
+        EachStage stage = stages[ index ];
+
+        if( !stage.isPassThrough() )
+          {
+          stage.receive( this, 0, incomingEntry ); // results return through the following link
+          return;
+          }
+
+        stage.setArguments( incomingEntry );
+
+        handler = index;
+
+        if( !stage.isPassed() )
+          return;
+        }
+
+      next.receive( this, 0, incomingEntry );
+      }
+    catch( Throwable throwable )
+      {
+      handleFusedException( from, handler, throwable );
+      }
+    }
+
+  private void handleFusedException( int from, int handler, Throwable throwable )
+    {
+    for( int index = handler; index >= from; index-- )
+      {
+      try
+        {
+        stages[ index ].handleFusedException( throwable );
+        return;
+        }
+      catch( Throwable rethrown )
+        {
+        throwable = rethrown;
+        }
+      }
+
+    if( throwable instanceof RuntimeException )
+      throw (RuntimeException) throwable;
+
+    if( throwable instanceof Error )
+      throw (Error) throwable;
+
+    throw new DuctException( "failure in fused stage", throwable );
+    }
+
+  @Override
+  public void complete( Duct previous )
+    {
+    stages[ 0 ].complete( previous );
+    }
+
+  @Override
+  public void cleanup()
+    {
+    for( EachStage stage : stages )
+      stage.cleanup();
+    }
+
+  @Override
+  public Set<String> getBranchNames()
+    {
+    return stages[ 0 ].getBranchNames();
+    }
+
+  /**
+   * Method setBranchNames sets the given branch names on every fused stage.
+   *
+   * @param branchNames of type Set<String>
+   */
+  @Override
+  public void setBranchNames( Set<String> branchNames )
+    {
+    for( EachStage stage : stages )
+      stage.setBranchNames( branchNames );
+    }
+
+  @Override
+  public FlowElement getFlowElement()
+    {
+    return stages[ 0 ].getFlowElement();
+    }
+
+  /**
+   * Method setTrapHandler sets the given handler on every fused stage, replacing any handler a stage retains.
+   *
+   * @param trapHandler of type TrapHandler
+   */
+  @Override
+  public void setTrapHandler( TrapHandler trapHandler )
+    {
+    for( EachStage stage : stages )
+      stage.setTrapHandler( trapHandler );
+    }
+
+  @Override
+  public boolean hasTrapHandler()
+    {
+    return stages[ 0 ].hasTrapHandler();
+    }
+
+  @Override
+  public List<Scope> getIncomingScopes()
+    {
+    return stages[ 0 ].getIncomingScopes();
+    }
+
+  @Override
+  public List<Scope> getOutgoingScopes()
+    {
+    return stages[ stages.length - 1 ].getOutgoingScopes();
+    }
+
+  @Override
+  public String toString()
+    {
+    return getClass().getSimpleName() + "{stages=" + Arrays.toString( stages ) + '}';
+    }
+  }
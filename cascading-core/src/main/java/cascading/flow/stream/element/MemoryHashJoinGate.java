@@ -102,14 +102,7 @@ public class MemoryHashJoinGate extends MemorySpliceGate
     {
     // never replace the first array, pos == 0
     for( int i = 1; i < keyValues.length; i++ )
-      {
-      // if key does not exist, #get will create an empty array list,
-      // and store the key, which is not a copy
-      if( keyValues[ i ].containsKey( keyTuple ) )
-        collections[ i ] = keyValues[ i ].get( keyTuple );
-      else
-        collections[ i ] = Collections.EMPTY_LIST;
-      }
+      collections[ i ] = getAccumulated( i, keyTuple );
 
     closure.reset( collections );
 
@@ -119,6 +112,24 @@ public class MemoryHashJoinGate extends MemorySpliceGate
     next.receive( this, 0, grouping );
     }
 
+  /**
+   * Method getAccumulated returns the values accumulated on the given ordinal for the given key, or an empty
+   * Collection if none.
+   *
+   * @param ordinal  of type int
+   * @param keyTuple of type Tuple
+   * @return Collection
+   */
+  protected Collection<Tuple> getAccumulated( int ordinal, Tuple keyTuple )
+    {
+    // if key does not exist, #get will create an empty array list,
+    // and store the key, which is not a copy
+    if( keyValues[ ordinal ].containsKey( keyTuple ) )
+      return keyValues[ ordinal ].get( keyTuple );
+
+    return Collections.EMPTY_LIST;
+    }
+
   @Override
   public void complete( Duct previous )
     {
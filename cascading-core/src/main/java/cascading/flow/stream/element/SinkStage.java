@@ -21,6 +21,15 @@
 package cascading.flow.stream.element;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
@@ -35,12 +44,34 @@ import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
 
 /**
- *
+ * Class SinkStage writes all received tuples to the given sink {@link Tap}.
+ * <p>
+ * If {@link #ASYNC_WRITE} is enabled, received tuples are copied and handed in batches through a bounded queue to a
+ * dedicated writer thread, so upstream operations are not stalled by the sink IO, compression for example. Each
+ * failure to write a tuple is handed back, along with the failed tuple, to the pipeline thread and handled there the
+ * next time a tuple is received, or when the stage completes or is cleaned up. So failures may be trapped as they
+ * would be if written synchronously, and the writer thread continues with the remaining tuples.
+ * <p>
+ * The time upstream operations wait on a full queue is reported by the {@link StepCounters#Write_Stall_Duration}
+ * counter. The depth of the queue is sampled each time a batch is handed off, the sum of the depths reported by the
+ * {@link StepCounters#Write_Queue_Depth} counter and the number of samples by the
+ * {@link StepCounters#Write_Queue_Samples} counter, so the average depth is their ratio.
  */
 public class SinkStage extends ElementStage<TupleEntry, Void>
   {
+  /** property to enable writing to the sink on a dedicated writer thread. */
+  public static final String ASYNC_WRITE = "cascading.stream.sink.async";
+  /** property to set the number of tuples handed to the writer thread at once. */
+  public static final String ASYNC_WRITE_BATCH_SIZE = "cascading.stream.sink.async.batch.size";
+  /** property to set the number of batches that may wait on the writer thread before upstream operations stall. */
+  public static final String ASYNC_WRITE_QUEUE_CAPACITY = "cascading.stream.sink.async.queue.capacity";
+
+  public static final int DEFAULT_ASYNC_WRITE_BATCH_SIZE = 1000;
+  public static final int DEFAULT_ASYNC_WRITE_QUEUE_CAPACITY = 4;
+
   private final Tap sink;
   private TupleEntryCollector collector;
+  private AsyncWriter asyncWriter;
 
   public SinkStage( FlowProcess flowProcess, Tap sink )
     {
@@ -77,6 +108,14 @@ public class SinkStage extends ElementStage<TupleEntry, Void>
       {
       throw new DuctException( "failed opening sink", exception );
       }
+
+    if( flowProcess.getBooleanProperty( ASYNC_WRITE, false ) )
+      {
+      int batchSize = flowProcess.getIntegerProperty( ASYNC_WRITE_BATCH_SIZE, DEFAULT_ASYNC_WRITE_BATCH_SIZE );
+      int queueCapacity = flowProcess.getIntegerProperty( ASYNC_WRITE_QUEUE_CAPACITY, DEFAULT_ASYNC_WRITE_QUEUE_CAPACITY );
+
+      asyncWriter = new AsyncWriter( batchSize, queueCapacity );
+      }
     }
 
   protected Object getOutput()
@@ -93,6 +132,12 @@ public class SinkStage extends ElementStage<TupleEntry, Void>
   @Override
   public void receive( Duct previous, int ordinal, TupleEntry tupleEntry )
     {
+    if( asyncWriter != null )
+      {
+      asyncWriter.add( tupleEntry );
+      return;
+      }
+
     try
       {
       timedAdd( StepCounters.Write_Duration, tupleEntry );
@@ -130,11 +175,27 @@ public class SinkStage extends ElementStage<TupleEntry, Void>
   @Override
   public void complete( Duct previous )
     {
-    // do nothing
+    if( asyncWriter != null )
+      asyncWriter.sync();
     }
 
   @Override
   public void cleanup()
+    {
+    try
+      {
+      if( asyncWriter != null )
+        asyncWriter.close();
+      }
+    finally
+      {
+      asyncWriter = null;
+
+      closeCollector();
+      }
+    }
+
+  private void closeCollector()
     {
     try
       {
@@ -159,4 +220,273 @@ public class SinkStage extends ElementStage<TupleEntry, Void>
       super.cleanup();
       }
     }
+
+  private static class Marker extends ArrayList<TupleEntry>
+    {
+    final CountDownLatch latch = new CountDownLatch( 1 );
+    final boolean stop;
+
+    Marker( boolean stop )
+      {
+      this.stop = stop;
+      }
+    }
+
+  private static class Failure
+    {
+    final Throwable throwable;
+    final TupleEntry tupleEntry;
+
+    Failure( Throwable throwable, TupleEntry tupleEntry )
+      {
+      this.throwable = throwable;
+      this.tupleEntry = tupleEntry;
+      }
+    }
+
+  private class AsyncWriter implements Runnable
+    {
+    private final int batchSize;
+    private final BlockingQueue<List<TupleEntry>> queue;
+    private final Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+    /** Field failed is set once a failure could not be handled, so later failures are not handled on top of it */
+    private boolean failed;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writeDuration = new AtomicLong();
+    private final Thread thread;
+    private List<TupleEntry> batch;
+
+    AsyncWriter( int batchSize, int queueCapacity )
+      {
+      this.batchSize = Math.max( 1, batchSize );
+      this.queue = new ArrayBlockingQueue<>( Math.max( 1, queueCapacity ) );
+      this.batch = new ArrayList<>( this.batchSize );
+      this.thread = new Thread( this, "sink-writer-" + sink.getIdentifier() );
+
+      thread.setDaemon( true );
+      thread.start();
+      }
+
+    void add( TupleEntry tupleEntry )
+      {
+      handleFailures();
+
+      batch.add( new TupleEntry( tupleEntry ) ); // upstream may re-use the tuple
+
+      if( batch.size() < batchSize )
+        return;
+
+      handOff( batch );
+      batch = new ArrayList<>( batchSize );
+      }
+
+    private void handOff( List<TupleEntry> entries )
+      {
+      flowProcess.increment( StepCounters.Write_Queue_Depth, queue.size() );
+      flowProcess.increment( StepCounters.Write_Queue_Samples, 1 );
+
+      if( !queue.offer( entries ) )
+        {
+        long start = System.currentTimeMillis();
+
+        put( entries );
+
+        flowProcess.increment( StepCounters.Write_Stall_Duration, System.currentTimeMillis() - start );
+        }
+
+      report();
+      }
+
+    /** Method sync blocks until all tuples received so far are written, and handles any failures. */
+    void sync()
+      {
+      if( !batch.isEmpty() )
+        {
+        handOff( batch );
+        batch = new ArrayList<>( batchSize );
+        }
+
+      await( new Marker( false ) );
+
+      report();
+      }
+
+    /**
+     * Method close writes all remaining tuples, as would happen if written synchronously, and stops the writer. Any
+     * failure not yet handled is handled.
+     */
+    void close()
+      {
+      boolean interrupted = Thread.interrupted(); // a stopped flow may interrupt this thread
+
+      try
+        {
+        if( thread.isAlive() )
+          {
+          if( !batch.isEmpty() )
+            put( batch );
+
+          await( new Marker( true ) );
+          }
+
+        batch = new ArrayList<>();
+
+        thread.join();
+        }
+      catch( InterruptedException exception )
+        {
+        interrupted = true;
+        }
+      finally
+        {
+        if( interrupted )
+          Thread.currentThread().interrupt();
+        }
+
+      report();
+      }
+
+    private void await( Marker marker )
+      {
+      put( marker );
+
+      try
+        {
+        while( !marker.latch.await( 100, TimeUnit.MILLISECONDS ) )
+          verifyAlive();
+
+        handleFailures();
+        }
+      catch( InterruptedException exception )
+        {
+        Thread.currentThread().interrupt();
+        throw new DuctException( "interrupted writing to sink", exception );
+        }
+      }
+
+    private void put( List<TupleEntry> entries )
+      {
+      try
+        {
+        while( !queue.offer( entries, 100, TimeUnit.MILLISECONDS ) )
+          verifyAlive();
+        }
+      catch( InterruptedException exception )
+        {
+        Thread.currentThread().interrupt();
+        throw new DuctException( "interrupted writing to sink", exception );
+        }
+      }
+
+    private void verifyAlive()
+      {
+      handleFailures();
+
+      if( !thread.isAlive() )
+        throw new IllegalStateException( "sink writer thread exited unexpectedly: " + thread.getName() );
+      }
+
+    private void report()
+      {
+      reportCounters();
+      handleFailures();
+      }
+
+    /**
+     * Handles every failure of the writer thread on the calling thread, trapping the failed tuple if a trap is
+     * bound. Once a failure is rethrown, any later failures are discarded as the pipeline is already failing.
+     */
+    private void handleFailures()
+      {
+      Failure current;
+
+      while( ( current = failures.poll() ) != null )
+        {
+        if( failed )
+          continue;
+
+        reportCounters();
+
+        failed = true;
+
+        if( current.throwable instanceof OutOfMemoryError )
+          handleReThrowableException( "out of memory, try increasing task memory allocation", current.throwable );
+        else if( current.throwable instanceof CascadingException )
+          handleException( current.throwable, current.tupleEntry );
+        else
+          handleException( new DuctException( "internal error: " + current.tupleEntry.getTuple().print(), current.throwable ), current.tupleEntry );
+
+        failed = false;
+        }
+      }
+
+    private void reportCounters()
+      {
+      long count = written.getAndSet( 0 );
+
+      if( count != 0 )
+        {
+        flowProcess.increment( StepCounters.Tuples_Written, count );
+        flowProcess.increment( SliceCounters.Tuples_Written, count );
+        }
+
+      long duration = writeDuration.getAndSet( 0 );
+
+      if( duration != 0 )
+        flowProcess.increment( StepCounters.Write_Duration, duration );
+      }
+
+    @Override
+    public void run()
+      {
+      try
+        {
+        while( true )
+          {
+          List<TupleEntry> entries = queue.take();
+
+          if( entries instanceof Marker )
+            {
+            ( (Marker) entries ).latch.countDown();
+
+            if( ( (Marker) entries ).stop )
+              return;
+
+            continue;
+            }
+
+          write( entries );
+          }
+        }
+      catch( InterruptedException exception )
+        {
+        // return
+        }
+      }
+
+    private void write( List<TupleEntry> entries )
+      {
+      long start = System.currentTimeMillis();
+
+      try
+        {
+        for( TupleEntry tupleEntry : entries )
+          {
+          try
+            {
+            collector.add( tupleEntry );
+            written.incrementAndGet();
+            }
+          catch( Throwable throwable )
+            {
+            failures.add( new Failure( throwable, tupleEntry ) );
+            }
+          }
+        }
+      finally
+        {
+        writeDuration.addAndGet( System.currentTimeMillis() - start );
+        }
+      }
+    }
   }
@@ -61,8 +61,28 @@ public class ValueAssertionEachStage extends EachStage
     valueAssertion = each.getValueAssertion();
     }
 
+  @Override
+  boolean isPassThrough()
+    {
+    return true;
+    }
+
+  @Override
+  boolean isPassed()
+    {
+    valueAssertion.doAssert( flowProcess, operationCall );
+
+    return true;
+    }
+
   @Override
   public void receive( Duct previous, int ordinal, TupleEntry incomingEntry )
+    {
+    receiveEach( incomingEntry );
+    }
+
+  @Override
+  void receiveEach( TupleEntry incomingEntry )
     {
     argumentsEntry.setTuple( argumentsBuilder.makeResult( incomingEntry.getTuple(), null ) );
 
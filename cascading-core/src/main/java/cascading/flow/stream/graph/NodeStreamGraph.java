@@ -29,6 +29,7 @@ import java.util.TreeSet;
 import cascading.flow.FlowElement;
 import cascading.flow.FlowNode;
 import cascading.flow.FlowProcess;
+import cascading.flow.StepCounters;
 import cascading.flow.planner.Scope;
 import cascading.flow.planner.graph.AnnotatedGraph;
 import cascading.flow.planner.graph.ElementGraph;
@@ -38,10 +39,13 @@ import cascading.flow.stream.duct.Duct;
 import cascading.flow.stream.duct.Gate;
 import cascading.flow.stream.element.AggregatorEveryStage;
 import cascading.flow.stream.element.BufferEveryWindow;
+import cascading.flow.stream.element.EachStage;
 import cascading.flow.stream.element.ElementDuct;
 import cascading.flow.stream.element.ElementFlowProcess;
+import cascading.flow.stream.element.ElementProfiler;
 import cascading.flow.stream.element.FilterEachStage;
 import cascading.flow.stream.element.FunctionEachStage;
+import cascading.flow.stream.element.FusedEachStage;
 import cascading.flow.stream.element.GroupAssertionEveryStage;
 import cascading.flow.stream.element.GroupingSpliceGate;
 import cascading.flow.stream.element.MemoryCoGroupGate;
@@ -62,16 +66,21 @@ import cascading.pipe.Pipe;
 import cascading.pipe.Splice;
 import cascading.tap.Tap;
 import cascading.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
  */
 public abstract class NodeStreamGraph extends StreamGraph
   {
+  private static final Logger LOG = LoggerFactory.getLogger( NodeStreamGraph.class );
+
   protected FlowProcess flowProcess;
   protected final FlowNode node;
   protected FlowElement streamedSource;
   protected final ElementGraph elementGraph;
+  protected ElementProfiler elementProfiler;
 
   public NodeStreamGraph( FlowProcess flowProcess, FlowNode node )
     {
@@ -93,6 +102,49 @@ public abstract class NodeStreamGraph extends StreamGraph
     return flowProcess.getProperty( name );
     }
 
+  @Override
+  public void bind()
+    {
+    if( flowProcess.getBooleanProperty( PROFILE_ELEMENTS, false ) )
+      {
+      String sampleRate = flowProcess.getStringProperty( PROFILE_SAMPLE_RATE, Double.toString( DEFAULT_PROFILE_SAMPLE_RATE ) );
+
+      String topElements = flowProcess.getStringProperty( PROFILE_TOP_ELEMENTS, Integer.toString( DEFAULT_PROFILE_TOP_ELEMENTS ) );
+
+      elementProfiler = new ElementProfiler( Double.parseDouble( sampleRate ), Integer.parseInt( topElements ) );
+
+      LOG.info( "profiling stream elements, sample rate: {}, top elements: {}", sampleRate, topElements );
+      }
+
+    if( elementProfiler == null && flowProcess.getBooleanProperty( FUSE_EACH_STAGES, false ) )
+      flowProcess.increment( StepCounters.Fused_Stages, fusePaths( duct -> duct instanceof EachStage, FusedEachStage::new ) );
+
+    super.bind();
+    }
+
+  @Override
+  protected Duct decorateNext( Duct next )
+    {
+    if( elementProfiler == null || !( next instanceof ElementDuct ) )
+      return next;
+
+    return elementProfiler.wrap( (ElementDuct) next );
+    }
+
+  @Override
+  public void cleanup()
+    {
+    try
+      {
+      super.cleanup();
+      }
+    finally
+      {
+      if( elementProfiler != null )
+        elementProfiler.report( flowProcess );
+      }
+    }
+
   protected void handleDuct( FlowElement lhsElement, Duct lhsDuct )
     {
     List<FlowElement> successors = elementGraph.successorListOf( lhsElement );
@@ -20,11 +20,16 @@
 
 package cascading.flow.stream.graph;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import cascading.flow.stream.duct.CloseReducingDuct;
 import cascading.flow.stream.duct.Collapsing;
@@ -53,6 +58,15 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Under some circumstances it may make sense to see the actual graph plan. To do so, enable one or both dot file
  * properties, {@link #ERROR_DOT_FILE_NAME} and {@link #DOT_FILE_PATH}.
+ * <p>
+ * To collapse chains of consecutive {@link cascading.pipe.Each} operators into a single stage, enable the
+ * {@link #FUSE_EACH_STAGES} property.
+ * <p>
+ * To hand tuples to {@link cascading.operation.BatchFunction}, {@link cascading.operation.BatchFilter}, and
+ * {@link cascading.operation.BatchAggregator} operations in batches, set the {@link #BATCH_SIZE} property.
+ * <p>
+ * To measure the time spent in, and tuples passed through, each element, enable the {@link #PROFILE_ELEMENTS}
+ * property, see {@link cascading.flow.stream.element.ElementProfiler}.
  */
 public class StreamGraph
   {
@@ -65,6 +79,47 @@ public class StreamGraph
    */
   public final static String DOT_FILE_PATH = "cascading.stream.dotfile.path";
 
+  /**
+   * Property denoting whether consecutive Each stages, each with a single predecessor and successor, should be
+   * fused into a single stage. By default this is false.
+   * <p>
+   * The number of stages fused is reported by the {@link cascading.flow.StepCounters#Fused_Stages} counter.
+   */
+  public final static String FUSE_EACH_STAGES = "cascading.stream.fuse.each";
+
+  /**
+   * Property denoting the number of tuples to gather before handing them, as a single {@link cascading.tuple.TupleBatch},
+   * to an operation supporting batches. By default this is 0, and all operations are called once per tuple.
+   * <p>
+   * Values less than 2 disable batching.
+   */
+  public final static String BATCH_SIZE = "cascading.stream.batch.size";
+
+  /**
+   * Property denoting whether each element in the stream graph should be profiled. By default this is false.
+   * <p>
+   * When enabled, Each stages are not fused so each operation is measured individually.
+   */
+  public final static String PROFILE_ELEMENTS = "cascading.stream.profile";
+
+  /**
+   * Property denoting the fraction of calls into the stream graph to time when profiling, see
+   * {@link #PROFILE_ELEMENTS}. By default this is 0.01, one percent.
+   */
+  public final static String PROFILE_SAMPLE_RATE = "cascading.stream.profile.sample.rate";
+
+  /** Field DEFAULT_PROFILE_SAMPLE_RATE */
+  public final static double DEFAULT_PROFILE_SAMPLE_RATE = 0.01;
+
+  /**
+   * Property denoting the number of elements, with the most self time, to report individual counters for when
+   * profiling, see {@link #PROFILE_ELEMENTS}. The totals across all elements are always reported. By default this is 5.
+   */
+  public final static String PROFILE_TOP_ELEMENTS = "cascading.stream.profile.top.elements";
+
+  /** Field DEFAULT_PROFILE_TOP_ELEMENTS */
+  public final static int DEFAULT_PROFILE_TOP_ELEMENTS = 5;
+
   private static final Logger LOG = LoggerFactory.getLogger( StreamGraph.class );
 
   private final Duct HEAD = new Extent( "head" );
@@ -168,6 +223,77 @@ public class StreamGraph
       iterator.next().initialize();
     }
 
+  /**
+   * Method fusePaths replaces every run of consecutive ducts accepted by the given predicate, where each duct in the
+   * run has a single successor and each following duct a single predecessor, with the duct returned by the fuser.
+   * Returns the number of ducts replaced.
+   * <p>
+   * Must be called before {@link #bind()}.
+   *
+   * @param isFusible of type Predicate
+   * @param fuser     of type Function
+   * @return int
+   */
+  protected int fusePaths( Predicate<Duct> isFusible, Function<List<Duct>, Duct> fuser )
+    {
+    List<List<Duct>> paths = new ArrayList<>();
+    Set<Duct> visited = new HashSet<>();
+    Iterator<Duct> iterator = getTopologicalOrderIterator();
+
+    while( iterator.hasNext() )
+      {
+      Duct duct = iterator.next();
+
+      if( visited.contains( duct ) || !isFusible.test( duct ) )
+        continue;
+
+      List<Duct> path = new ArrayList<>();
+
+      path.add( duct );
+      visited.add( duct );
+
+      while( ductGraph.outDegreeOf( duct ) == 1 )
+        {
+        Duct successor = ductGraph.getEdgeTarget( ductGraph.outgoingEdgesOf( duct ).iterator().next() );
+
+        if( ductGraph.inDegreeOf( successor ) != 1 || !isFusible.test( successor ) )
+          break;
+
+        duct = successor;
+        path.add( duct );
+        visited.add( duct );
+        }
+
+      if( path.size() > 1 )
+        paths.add( path );
+      }
+
+    int numFused = 0;
+
+    for( List<Duct> path : paths )
+      {
+      Duct fused = fuser.apply( path );
+      Duct first = path.get( 0 );
+      Duct last = path.get( path.size() - 1 );
+
+      ductGraph.addVertex( fused );
+
+      for( DuctGraph.Ordinal edge : ductGraph.incomingEdgesOf( first ) )
+        ductGraph.addEdge( ductGraph.getEdgeSource( edge ), fused, ductGraph.makeOrdinal( edge.getOrdinal() ) );
+
+      for( DuctGraph.Ordinal edge : ductGraph.outgoingEdgesOf( last ) )
+        ductGraph.addEdge( fused, ductGraph.getEdgeTarget( edge ), ductGraph.makeOrdinal( edge.getOrdinal() ) );
+
+      ductGraph.removeAllVertices( path );
+
+      LOG.debug( "fused stream path: {}", path );
+
+      numFused += path.size();
+      }
+
+    return numFused;
+    }
+
   /** Calls prepare starting at the tail and working backwards */
   public void prepare()
     {
@@ -262,13 +388,13 @@ public class StreamGraph
         }
 
       if( next instanceof OpenWindow )
-        return next;
+        return decorateNext( next );
 
       if( edges.size() > 1 )
         return createOpenWindow( createFork( findAllNextFor( current ) ) );
 
       if( next instanceof Reducing )
-        return createOpenReducingWindow( next );
+        return createOpenReducingWindow( decorateNext( next ) );
 
       return createOpenWindow( wrapWithOrdinal( edge, next ) );
       }
@@ -276,7 +402,7 @@ public class StreamGraph
     if( current instanceof Reducing )
       {
       if( next instanceof Reducing )
-        return next;
+        return decorateNext( next );
 
       if( edges.size() > 1 )
         return createCloseWindow( createFork( findAllNextFor( current ) ) );
@@ -295,9 +421,25 @@ public class StreamGraph
 
   protected Duct wrapWithOrdinal( DuctGraph.Ordinal edge, Duct next )
     {
+    Duct decorated = decorateNext( next );
+
     if( next instanceof Collapsing )
-      next = new OrdinalDuct( next, edge.getOrdinal() );
+      decorated = new OrdinalDuct( decorated, edge.getOrdinal() );
+
+    return decorated;
+    }
 
+  /**
+   * Method decorateNext returns the Duct to be bound as the next duct in place of the given duct, by default
+   * the given duct.
+   * <p>
+   * The returned duct must forward all calls to the given duct, retaining the given previous duct.
+   *
+   * @param next of type Duct
+   * @return Duct
+   */
+  protected Duct decorateNext( Duct next )
+    {
     return next;
     }
 
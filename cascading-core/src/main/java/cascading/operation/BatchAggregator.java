@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation;
+
+import cascading.flow.FlowProcess;
+
+/**
+ * Interface BatchAggregator marks a given {@link Aggregator} as able to aggregate many argument rows of the current
+ * grouping in a single call.
+ * <p>
+ * When the {@link cascading.flow.stream.graph.StreamGraph#BATCH_SIZE} property is set, the arguments of each
+ * grouping are gathered into a {@link cascading.tuple.TupleBatch} and
+ * {@link #aggregateBatch(FlowProcess, BatchCall)} is called in place of
+ * {@link #aggregate(FlowProcess, AggregatorCall)}, always before {@link #complete(FlowProcess, AggregatorCall)}.
+ * Otherwise the Aggregator is called once per tuple, so both methods must return consistent results.
+ * <p>
+ * The context given to {@link #start(FlowProcess, AggregatorCall)} is the same context given to
+ * {@link BatchCall#getContext()}.
+ * <p>
+ * If {@link #aggregateBatch(FlowProcess, BatchCall)} throws an {@link Exception}, the rows of the batch are
+ * aggregated one at a time through {@link #aggregate(FlowProcess, AggregatorCall)} so any failure is handled, or
+ * trapped, against the offending tuple. If the batch is the first of the current grouping, {@link #start(FlowProcess,
+ * AggregatorCall)} is called again to reset the context beforehand. Otherwise the context holds the prior batches of
+ * the grouping, so an implementation must leave the context unchanged when failing, for example by only updating
+ * the context once every row is aggregated.
+ */
+public interface BatchAggregator<Context> extends Aggregator<Context>
+  {
+  /**
+   * Method aggregateBatch is called for every batch of argument rows in the current grouping, only the selected
+   * rows of {@link BatchCall#getArgumentBatch()} should be aggregated.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param batchCall   of type BatchCall
+   */
+  void aggregateBatch( FlowProcess flowProcess, BatchCall<Context> batchCall );
+  }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation;
+
+import cascading.tuple.TupleBatch;
+
+/**
+ * Interface BatchCall provides access to the current {@link BatchFunction}, {@link BatchFilter}, or
+ * {@link BatchAggregator} invocation arguments.
+ */
+public interface BatchCall<C> extends OperationCall<C>
+  {
+  /**
+   * Returns the {@link TupleBatch} of argument values, only the selected rows should be read.
+   * <p>
+   * Note that the returned TupleBatch, and its values, should not be retained. Cascading will re-use the instance.
+   *
+   * @return TupleBatch
+   */
+  TupleBatch getArgumentBatch();
+
+  /**
+   * Returns the {@link TupleBatch} receiving the result values of a {@link BatchFunction}, otherwise null.
+   * <p>
+   * The result batch holds one row, declared by {@link #getDeclaredFields()}, for every row of the argument batch.
+   *
+   * @return TupleBatch
+   */
+  TupleBatch getResultBatch();
+  }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation;
+
+import cascading.flow.FlowProcess;
+
+/**
+ * Interface BatchFilter marks a given {@link Filter} as able to test many argument rows in a single call.
+ * <p>
+ * When the {@link cascading.flow.stream.graph.StreamGraph#BATCH_SIZE} property is set, incoming tuples are
+ * gathered into a {@link cascading.tuple.TupleBatch} and {@link #removeBatch(FlowProcess, BatchCall)} is called
+ * in place of {@link #isRemove(FlowProcess, FilterCall)}. Otherwise, or if the arguments are not known before
+ * processing, the Filter is called once per tuple, so both methods must return consistent results.
+ * <p>
+ * If {@link #removeBatch(FlowProcess, BatchCall)} throws an {@link Exception}, the selection is discarded and the rows
+ * of the batch are re-tested one at a time so any failure is handled, or trapped, against the offending tuple. So
+ * any side effect, incrementing a counter for example, should only be applied once the whole batch has succeeded.
+ */
+public interface BatchFilter<Context> extends Filter<Context>
+  {
+  /**
+   * Method removeBatch narrows the selection of the argument batch, {@link BatchCall#getArgumentBatch()}, to
+   * the rows that should be retained in the tuple stream.
+   * <p>
+   * Retained rows must remain in ascending order, and be followed by a call to
+   * {@link cascading.tuple.TupleBatch#setNumSelected(int)}.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param batchCall   of type BatchCall
+   */
+  void removeBatch( FlowProcess flowProcess, BatchCall<Context> batchCall );
+  }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation;
+
+import cascading.flow.FlowProcess;
+
+/**
+ * Interface BatchFunction marks a given {@link Function} as able to operate on many argument rows in a single call.
+ * <p>
+ * Only a Function returning at most one result for each argument tuple may implement this interface.
+ * <p>
+ * When the {@link cascading.flow.stream.graph.StreamGraph#BATCH_SIZE} property is set, incoming tuples are
+ * gathered into a {@link cascading.tuple.TupleBatch} and {@link #operateBatch(FlowProcess, BatchCall)} is called
+ * in place of {@link #operate(FlowProcess, FunctionCall)}. Otherwise, or if the arguments or declared fields are not
+ * known before processing, the Function is called once per tuple, so both methods must return consistent results.
+ * <p>
+ * If {@link #operateBatch(FlowProcess, BatchCall)} throws an {@link Exception}, any results already written to the
+ * result batch are discarded, and the rows of the batch are processed one at a time so any failure is handled, or
+ * trapped, against the offending tuple. So results may only be written to the result batch, the output collector
+ * is not available, and any other side effect, incrementing a counter for example, should only be applied once
+ * the whole batch has succeeded.
+ */
+public interface BatchFunction<Context> extends Function<Context>
+  {
+  /**
+   * Method operateBatch writes a result row into {@link BatchCall#getResultBatch()} for each selected row of
+   * {@link BatchCall#getArgumentBatch()}, at the same row index.
+   * <p>
+   * Argument rows without a result should be removed from the argument batch selection, see {@link BatchFilter}.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param batchCall   of type BatchCall
+   */
+  void operateBatch( FlowProcess flowProcess, BatchCall<Context> batchCall );
+  }
@@ -20,24 +20,51 @@
 
 package cascading.operation;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.provider.FactoryLoader;
+import cascading.tap.cache.TupleCache;
+import cascading.tap.cache.TupleStreamFactory;
 import cascading.tuple.Fields;
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
+import cascading.tuple.Tuples;
+import cascading.tuple.io.TupleInputStream;
+import cascading.tuple.io.TupleOutputStream;
 import cascading.tuple.util.TupleHasher;
 import cascading.tuple.util.TupleViews;
 import cascading.util.cache.BaseCacheFactory;
 import cascading.util.cache.CacheEvictionCallback;
 import cascading.util.cache.CascadingCache;
 import cascading.util.cache.LRUHashMapCacheFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Class CompositeFunction is a {@link Function} implementation that will apply multiple CoFunctions to a single
@@ -45,6 +72,19 @@ import cascading.util.cache.LRUHashMapCacheFactory;
  * the CoFunctions for the evicted grouping key can complete any partial aggregations.
  * <p>
  * This class powers the {@link cascading.pipe.assembly.AggregateBy} partial aggregation functor composition.
+ * <p>
+ * Optionally the cache may be bounded by the estimated number of bytes held by the keys and partial results, see
+ * {@link #COMPOSITE_FUNCTION_CAPACITY_BYTES}. If every CoFunction is a {@link MergeableCoFunction}, when the budget
+ * is exceeded entries are removed in the iteration order of the cache, least recently used first for the default
+ * cache, until the cache is within half the budget, and written sorted by the hash of their grouping key to a local
+ * spill file. On flush the spill files and the cache are merged so that each grouping key is completed once. Tuples
+ * are spilled with the {@link TupleStreamFactory} of the Flow, or if none, with Java serialization.
+ * <p>
+ * If any CoFunction cannot merge partial results, when the budget is exceeded entries are instead completed and
+ * evicted in the iteration order of the cache until the cache is within budget.
+ * <p>
+ * The estimate of a grouping key is taken once when first cached. The estimate of a partial result is retaken when it
+ * is updated, unless the CoFunction updated a {@link PrimitiveTuple} in place, as primitive values do not grow.
  */
 public class CompositeFunction extends BaseOperation<CompositeFunction.Context> implements Function<CompositeFunction.Context>
   {
@@ -56,12 +96,23 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
   public static String COMPOSITE_FUNCTION_CACHE_FACTORY = "cascading.function.composite.cachefactory.classname";
   /** default capacity of caches used in this CompositeFunction. */
   public static int COMPOSITE_FUNCTION_DEFAULT_CAPACITY = BaseCacheFactory.DEFAULT_CAPACITY;
+  /** property to control the estimated number of bytes the cache may hold, zero disables the budget. */
+  public static final String COMPOSITE_FUNCTION_CAPACITY_BYTES = "cascading.function.composite.cache.capacity.bytes";
+  /** default number of bytes the cache may hold, zero disables the budget. */
+  public static long COMPOSITE_FUNCTION_DEFAULT_CAPACITY_BYTES = 0;
+
+  /** logger */
+  private static final Logger LOG = LoggerFactory.getLogger( CompositeFunction.class );
 
   public enum Cache
     {
       Num_Keys_Flushed,
       Num_Keys_Hit,
-      Num_Keys_Missed
+      Num_Keys_Missed,
+      Num_Keys_Budget_Flushed,
+      Num_Keys_Emitted,
+      Num_Keys_Spilled,
+      Num_Bytes_Flushed
     }
 
   /**
@@ -104,18 +155,243 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
     Tuple complete( FlowProcess flowProcess, Tuple context );
     }
 
+  /**
+   * Interface MergeableCoFunction is a {@link CoFunction} whose partial results for the same grouping key may be
+   * merged, allowing partial results to be spilled to local disk when the byte budget of the cache is exceeded.
+   */
+  public interface MergeableCoFunction extends CoFunction
+    {
+    /**
+     * Method merge combines two partial results for the same grouping key, as returned by
+     * {@link #aggregate(FlowProcess, TupleEntry, Tuple)}, the lhs having been aggregated before the rhs.
+     * <p>
+     * It is safe to return the lhs object as the result value. Neither argument will be {@code null}.
+     *
+     * @param flowProcess of type FlowProcess
+     * @param lhs         of type Tuple
+     * @param rhs         of type Tuple
+     * @return Tuple
+     */
+    Tuple merge( FlowProcess flowProcess, Tuple lhs, Tuple rhs );
+    }
+
   public static class Context
     {
     CascadingCache<Tuple, Tuple[]> lru;
+    /** the estimates last recorded for the key and each partial result of a cached entry, keyed by identity */
+    Map<Tuple[], long[]> sizes;
     TupleEntry[] arguments;
     Tuple result;
+    TupleStreamFactory.TupleStreams streams;
+    List<Spill> spills = new ArrayList<>();
+    long capacityBytes;
+    long bytes;
+    long numTuples;
+    long numEmitted;
+    long numBudgetFlushed;
+    long numSpilled;
+    long numBytesFlushed;
+    }
+
+  /**
+   * Class Spill is a local file holding grouping keys and their partial results sorted by the hash of the grouping
+   * key. Tuples are written with the given streams, or if none, with Java serialization.
+   */
+  static class Spill
+    {
+    private final File file;
+    private final int size;
+    private Closeable input;
+
+    Spill( TupleStreamFactory.TupleStreams streams, List<Map.Entry<Tuple, Tuple[]>> entries )
+      {
+      this.size = entries.size();
+
+      try
+        {
+        this.file = File.createTempFile( "cascading-composite-", ".spill" );
+        this.file.deleteOnExit();
+
+        write( streams, entries );
+        }
+      catch( IOException exception )
+        {
+        throw new OperationException( "unable to write spill file", exception );
+        }
+      }
+
+    private void write( TupleStreamFactory.TupleStreams streams, List<Map.Entry<Tuple, Tuple[]>> entries ) throws IOException
+      {
+      OutputStream stream = new BufferedOutputStream( new FileOutputStream( file ) );
+
+      if( streams != null )
+        {
+        try( TupleOutputStream output = streams.createTupleOutputStream( stream ) )
+          {
+          for( Map.Entry<Tuple, Tuple[]> entry : entries )
+            {
+            output.writeTuple( entry.getKey() );
+
+            for( Tuple value : entry.getValue() )
+              {
+              output.writeBoolean( value != null );
+
+              if( value != null )
+                output.writeTuple( value );
+              }
+            }
+          }
+
+        return;
+        }
+
+      try( ObjectOutputStream output = new ObjectOutputStream( stream ) )
+        {
+        for( Map.Entry<Tuple, Tuple[]> entry : entries )
+          {
+          output.writeObject( new Tuple( entry.getKey() ) ); // drops any hasher wrapping the key
+
+          for( Tuple value : entry.getValue() )
+            output.writeObject( value == null ? null : new Tuple( value ) );
+
+          output.reset(); // release written objects
+          }
+        }
+      }
+
+    Iterator<Map.Entry<Tuple, Tuple[]>> open( TupleStreamFactory.TupleStreams streams, final TupleHasher tupleHasher, final int numValues )
+      {
+      final TupleInputStream tupleInput;
+      final ObjectInputStream objectInput;
+
+      try
+        {
+        InputStream stream = new BufferedInputStream( new FileInputStream( file ) );
+
+        tupleInput = streams != null ? streams.createTupleInputStream( stream ) : null;
+        objectInput = streams == null ? new ObjectInputStream( stream ) : null;
+        input = tupleInput != null ? tupleInput : objectInput;
+        }
+      catch( IOException exception )
+        {
+        throw new OperationException( "unable to read spill file: " + file, exception );
+        }
+
+      return new Iterator<Map.Entry<Tuple, Tuple[]>>()
+        {
+        int count = 0;
+
+        @Override
+        public boolean hasNext()
+          {
+          return count < size;
+          }
+
+        @Override
+        public Map.Entry<Tuple, Tuple[]> next()
+          {
+          if( !hasNext() )
+            throw new NoSuchElementException();
+
+          try
+            {
+            Tuple key = TupleHasher.wrapTuple( tupleHasher, read( true ) );
+            Tuple[] values = new Tuple[ numValues ];
+
+            for( int i = 0; i < numValues; i++ )
+              values[ i ] = read( false );
+
+            if( ++count == size )
+              close();
+
+            return new AbstractMap.SimpleImmutableEntry<>( key, values );
+            }
+          catch( IOException | ClassNotFoundException exception )
+            {
+            throw new OperationException( "unable to read spill file: " + file, exception );
+            }
+          }
+
+        private Tuple read( boolean isKey ) throws IOException, ClassNotFoundException
+          {
+          if( objectInput != null )
+            return (Tuple) objectInput.readObject();
+
+          if( !isKey && !tupleInput.readBoolean() )
+            return null;
+
+          return tupleInput.readTuple();
+          }
+        };
+      }
+
+    private void close()
+      {
+      if( input == null )
+        return;
+
+      try
+        {
+        input.close();
+        }
+      catch( IOException exception )
+        {
+        // ignore
+        }
+
+      input = null;
+      }
+
+    void delete()
+      {
+      close();
+
+      if( !file.delete() )
+        LOG.warn( "unable to delete spill file: {}", file );
+      }
+    }
+
+  /** Class Run is a source of cached entries sorted by the hash of their grouping key, merged by flush. */
+  private static class Run implements Comparable<Run>
+    {
+    private final int index;
+    private final Iterator<Map.Entry<Tuple, Tuple[]>> iterator;
+    private Map.Entry<Tuple, Tuple[]> head;
+    private int hash;
+
+    Run( int index, Iterator<Map.Entry<Tuple, Tuple[]>> iterator )
+      {
+      this.index = index;
+      this.iterator = iterator;
+      }
+
+    boolean advance()
+      {
+      head = iterator.hasNext() ? iterator.next() : null;
+
+      if( head != null )
+        hash = head.getKey().hashCode();
+
+      return head != null;
+      }
+
+    @Override
+    public int compareTo( Run other )
+      {
+      int result = Integer.compare( hash, other.hash );
+
+      return result != 0 ? result : Integer.compare( index, other.index );
+      }
     }
 
+  private static final Comparator<Map.Entry<Tuple, Tuple[]>> BY_KEY_HASH = Comparator.comparingInt( entry -> entry.getKey().hashCode() );
+
   private final Fields groupingFields;
   private final Fields[] argumentFields;
   private final Fields[] functorFields;
   private final CoFunction[] coFunctions;
   private final TupleHasher tupleHasher;
+  private final boolean mergeable;
   private int capacity = 0;
 
   /**
@@ -149,8 +425,15 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
 
     this.functorFields = new Fields[ coFunctions.length ];
 
+    boolean mergeable = true;
+
     for( int i = 0; i < coFunctions.length; i++ )
+      {
       this.functorFields[ i ] = coFunctions[ i ].getDeclaredFields();
+      mergeable &= coFunctions[ i ] instanceof MergeableCoFunction;
+      }
+
+    this.mergeable = mergeable;
 
     Comparator[] hashers = TupleHasher.merge( functorFields );
 
@@ -214,8 +497,11 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
       @Override
       public void evict( Map.Entry<Tuple, Tuple[]> entry )
         {
-        completeFunctors( flowProcess, ( (FunctionCall) operationCall ).getOutputCollector(), context.result, entry );
+        completeFunctors( flowProcess, ( (FunctionCall) operationCall ).getOutputCollector(), context, entry );
         incrementNumKeysFlushed( flowProcess );
+
+        if( context.capacityBytes > 0 )
+          release( context, entry.getValue() );
         }
       }
 
@@ -234,6 +520,13 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
     cache.initialize();
 
     context.lru = cache;
+    context.capacityBytes = getCacheCapacityBytes( flowProcess );
+
+    if( context.capacityBytes > 0 )
+      context.sizes = new IdentityHashMap<>();
+
+    if( context.capacityBytes > 0 && mergeable )
+      context.streams = TupleCache.createStreams( flowProcess );
 
     operationCall.setContext( context );
     }
@@ -248,6 +541,21 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
     return loadCacheFactory( flowProcess, COMPOSITE_FUNCTION_CACHE_FACTORY, DEFAULT_CACHE_FACTORY_CLASS );
     }
 
+  protected long getCacheCapacityBytes( FlowProcess flowProcess )
+    {
+    return getCacheCapacityBytes( flowProcess, COMPOSITE_FUNCTION_CAPACITY_BYTES, COMPOSITE_FUNCTION_DEFAULT_CAPACITY_BYTES );
+    }
+
+  protected long getCacheCapacityBytes( FlowProcess flowProcess, String property, long defaultValue )
+    {
+    String capacityBytes = flowProcess.getStringProperty( property );
+
+    if( capacityBytes == null || capacityBytes.isEmpty() )
+      return defaultValue;
+
+    return Long.parseLong( capacityBytes );
+    }
+
   protected Integer getCacheCapacity( FlowProcess flowProcess, String property, int defaultValue )
     {
     Integer cacheCapacity = flowProcess.getIntegerProperty( property );
@@ -277,8 +585,9 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
 
     Context context = functionCall.getContext();
     Tuple[] functorContext = context.lru.get( key );
+    boolean missed = functorContext == null;
 
-    if( functorContext == null )
+    if( missed )
       {
       functorContext = new Tuple[ coFunctions.length ];
       context.lru.put( key, functorContext );
@@ -289,11 +598,229 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
       incrementNumKeysHit( flowProcess );
       }
 
+    context.numTuples++;
+
+    long[] size = context.capacityBytes > 0 ? sizeOf( context, key, functorContext ) : null;
+
     for( int i = 0; i < coFunctions.length; i++ )
       {
+      Tuple previous = functorContext[ i ];
+
       TupleViews.reset( context.arguments[ i ].getTuple(), arguments.getTuple() );
       functorContext[ i ] = coFunctions[ i ].aggregate( flowProcess, context.arguments[ i ], functorContext[ i ] );
+
+      if( size == null || ( functorContext[ i ] == previous && previous instanceof PrimitiveTuple ) )
+        continue;
+
+      long estimate = estimateValueSize( functorContext[ i ] );
+
+      context.bytes += estimate - size[ i + 1 ];
+      size[ i + 1 ] = estimate;
+      }
+
+    if( size == null || context.bytes <= context.capacityBytes )
+      return;
+
+    if( mergeable )
+      spillToBudget( context );
+    else
+      evictToBudget( flowProcess, functionCall.getOutputCollector(), context );
+    }
+
+  /**
+   * Method sizeOf returns the estimates recorded for the given entry, estimating the key of a new entry. Returns null
+   * if the entry is no longer cached.
+   */
+  private long[] sizeOf( Context context, Tuple key, Tuple[] values )
+    {
+    long[] size = context.sizes.get( values );
+
+    if( size != null || context.lru.get( key ) != values )
+      return size;
+
+    size = new long[ values.length + 1 ];
+    size[ 0 ] = estimateKeySize( key );
+
+    context.sizes.put( values, size );
+    context.bytes += size[ 0 ];
+
+    return size;
+    }
+
+  /**
+   * Method spillToBudget removes entries in the iteration order of the cache, least recently used first for the
+   * default cache, until the cache is within half the byte budget, and writes them sorted by the hash of their
+   * grouping key to a new spill file.
+   */
+  private void spillToBudget( Context context )
+    {
+    List<Map.Entry<Tuple, Tuple[]>> entries = new ArrayList<>();
+    Iterator<Map.Entry<Tuple, Tuple[]>> iterator = context.lru.entrySet().iterator();
+
+    while( context.bytes > context.capacityBytes / 2 && iterator.hasNext() )
+      {
+      Map.Entry<Tuple, Tuple[]> entry = iterator.next();
+
+      entries.add( new AbstractMap.SimpleImmutableEntry<>( entry ) );
+      release( context, entry.getValue() );
+      iterator.remove();
+      }
+
+    entries.sort( BY_KEY_HASH );
+
+    context.spills.add( new Spill( context.streams, entries ) );
+    context.numSpilled += entries.size();
+    }
+
+  /**
+   * Method evictToBudget completes and removes entries in the iteration order of the cache, least recently used
+   * first for the default cache, until the cache is within the byte budget.
+   */
+  private void evictToBudget( FlowProcess flowProcess, TupleEntryCollector outputCollector, Context context )
+    {
+    Iterator<Map.Entry<Tuple, Tuple[]>> iterator = context.lru.entrySet().iterator();
+
+    while( context.bytes > context.capacityBytes && iterator.hasNext() )
+      {
+      Map.Entry<Tuple, Tuple[]> entry = iterator.next();
+
+      completeFunctors( flowProcess, outputCollector, context, entry );
+      release( context, entry.getValue() );
+      iterator.remove();
+
+      context.numBudgetFlushed++;
+      }
+    }
+
+  private static void release( Context context, Tuple[] values )
+    {
+    long[] size = context.sizes.remove( values );
+
+    if( size == null )
+      return;
+
+    long total = 0;
+
+    for( long value : size )
+      total += value;
+
+    context.bytes -= total;
+    context.numBytesFlushed += total;
+    }
+
+  /**
+   * Method mergeSpills merges the spill files and the cache, in the order they were written, completing each
+   * grouping key once. The spill files are deleted.
+   */
+  private void mergeSpills( FlowProcess flowProcess, TupleEntryCollector outputCollector, Context context )
+    {
+    LOG.info( "merging {} spill files", context.spills.size() );
+
+    List<Map.Entry<Tuple, Tuple[]>> entries = new ArrayList<>();
+
+    for( Map.Entry<Tuple, Tuple[]> entry : context.lru.entrySet() )
+      entries.add( new AbstractMap.SimpleImmutableEntry<>( entry ) );
+
+    entries.sort( BY_KEY_HASH );
+
+    PriorityQueue<Run> queue = new PriorityQueue<>();
+
+    try
+      {
+      for( int i = 0; i < context.spills.size(); i++ )
+        offer( queue, new Run( i, context.spills.get( i ).open( context.streams, tupleHasher, coFunctions.length ) ) );
+
+      offer( queue, new Run( context.spills.size(), entries.iterator() ) );
+
+      Map<Tuple, Tuple[]> group = new LinkedHashMap<>();
+
+      while( !queue.isEmpty() )
+        {
+        int hash = queue.peek().hash;
+
+        while( !queue.isEmpty() && queue.peek().hash == hash )
+          {
+          Run run = queue.poll();
+
+          do
+            {
+            merge( flowProcess, group, run.head );
+            }
+          while( run.advance() && run.hash == hash );
+
+          if( run.head != null )
+            queue.offer( run );
+          }
+
+        for( Map.Entry<Tuple, Tuple[]> entry : group.entrySet() )
+          completeFunctors( flowProcess, outputCollector, context, entry );
+
+        group.clear();
+        }
+      }
+    finally
+      {
+      deleteSpills( context );
+      }
+    }
+
+  private static void offer( PriorityQueue<Run> queue, Run run )
+    {
+    if( run.advance() )
+      queue.offer( run );
+    }
+
+  private void merge( FlowProcess flowProcess, Map<Tuple, Tuple[]> group, Map.Entry<Tuple, Tuple[]> entry )
+    {
+    Tuple[] values = group.get( entry.getKey() );
+
+    if( values == null )
+      {
+      group.put( entry.getKey(), entry.getValue() );
+      return;
       }
+
+    Tuple[] rhs = entry.getValue();
+
+    for( int i = 0; i < coFunctions.length; i++ )
+      {
+      if( values[ i ] == null )
+        values[ i ] = rhs[ i ];
+      else if( rhs[ i ] != null )
+        values[ i ] = ( (MergeableCoFunction) coFunctions[ i ] ).merge( flowProcess, values[ i ], rhs[ i ] );
+      }
+    }
+
+  private static void deleteSpills( Context context )
+    {
+    for( Spill spill : context.spills )
+      spill.delete();
+
+    context.spills.clear();
+    }
+
+  /**
+   * Method estimateKeySize returns the estimated number of bytes retained by the given key and the cache entry
+   * holding it.
+   *
+   * @param key of type Tuple
+   * @return long
+   */
+  protected long estimateKeySize( Tuple key )
+    {
+    return 64 + Tuples.estimateSize( key ) + 16 + 8L * coFunctions.length; // map entry and array overhead
+    }
+
+  /**
+   * Method estimateValueSize returns the estimated number of bytes retained by the given partial result. Values of
+   * unknown types are assumed to be small.
+   *
+   * @param value of type Tuple
+   * @return long
+   */
+  protected long estimateValueSize( Tuple value )
+    {
+    return Tuples.estimateSize( value );
     }
 
   protected void incrementNumKeysFlushed( FlowProcess flowProcess )
@@ -311,28 +838,79 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
     flowProcess.increment( Cache.Num_Keys_Missed, 1 );
     }
 
+  protected void incrementNumKeysBudgetFlushed( FlowProcess flowProcess, long amount )
+    {
+    flowProcess.increment( Cache.Num_Keys_Budget_Flushed, amount );
+    }
+
+  protected void incrementNumKeysEmitted( FlowProcess flowProcess, long amount )
+    {
+    flowProcess.increment( Cache.Num_Keys_Emitted, amount );
+    }
+
+  protected void incrementNumKeysSpilled( FlowProcess flowProcess, long amount )
+    {
+    flowProcess.increment( Cache.Num_Keys_Spilled, amount );
+    }
+
+  protected void incrementNumBytesFlushed( FlowProcess flowProcess, long amount )
+    {
+    flowProcess.increment( Cache.Num_Bytes_Flushed, amount );
+    }
+
   @Override
   public void flush( FlowProcess flowProcess, OperationCall<CompositeFunction.Context> operationCall )
     {
     // need to drain context
     TupleEntryCollector collector = ( (FunctionCall) operationCall ).getOutputCollector();
 
-    Tuple result = operationCall.getContext().result;
-    Map<Tuple, Tuple[]> context = operationCall.getContext().lru;
+    Context context = operationCall.getContext();
 
-    for( Map.Entry<Tuple, Tuple[]> entry : context.entrySet() )
-      completeFunctors( flowProcess, collector, result, entry );
+    if( context.spills.isEmpty() )
+      {
+      for( Map.Entry<Tuple, Tuple[]> entry : context.lru.entrySet() )
+        completeFunctors( flowProcess, collector, context, entry );
+      }
+    else
+      {
+      mergeSpills( flowProcess, collector, context );
+      }
+
+    context.lru.clear();
+
+    if( context.capacityBytes > 0 )
+      {
+      context.numBytesFlushed += context.bytes;
+      context.bytes = 0;
+      context.sizes.clear();
 
-    context.clear();
+      incrementNumKeysBudgetFlushed( flowProcess, context.numBudgetFlushed );
+      incrementNumKeysSpilled( flowProcess, context.numSpilled );
+      incrementNumBytesFlushed( flowProcess, context.numBytesFlushed );
+      }
+
+    incrementNumKeysEmitted( flowProcess, context.numEmitted );
+
+    if( context.numEmitted != 0 )
+      LOG.info( "partially aggregated {} tuples into {}, reduction ratio: {}", context.numTuples, context.numEmitted, String.format( "%.2f", (double) context.numTuples / context.numEmitted ) );
+
+    context.numTuples = 0;
+    context.numEmitted = 0;
+    context.numBudgetFlushed = 0;
+    context.numSpilled = 0;
+    context.numBytesFlushed = 0;
     }
 
   @Override
   public void cleanup( FlowProcess flowProcess, OperationCall<Context> operationCall )
     {
+    if( operationCall.getContext() != null )
+      deleteSpills( operationCall.getContext() );
+
     operationCall.setContext( null );
     }
 
-  private void completeFunctors( FlowProcess flowProcess, TupleEntryCollector outputCollector, Tuple result, Map.Entry<Tuple, Tuple[]> entry )
+  private void completeFunctors( FlowProcess flowProcess, TupleEntryCollector outputCollector, Context context, Map.Entry<Tuple, Tuple[]> entry )
     {
     Tuple[] results = new Tuple[ coFunctions.length + 1 ];
 
@@ -343,9 +921,11 @@ public class CompositeFunction extends BaseOperation<CompositeFunction.Context>
     for( int i = 0; i < coFunctions.length; i++ )
       results[ i + 1 ] = coFunctions[ i ].complete( flowProcess, values[ i ] );
 
-    TupleViews.reset( result, results );
+    TupleViews.reset( context.result, results );
+
+    outputCollector.add( context.result );
 
-    outputCollector.add( result );
+    context.numEmitted++;
     }
 
   @Override
@@ -24,14 +24,15 @@ import java.util.Iterator;
 
 import cascading.pipe.joiner.JoinerClosure;
 import cascading.tuple.Fields;
+import cascading.tuple.TupleBatch;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
 
 /**
  * Class OperationCall is the common base class for {@link FunctionCall}, {@link FilterCall},
- * {@link AggregatorCall}, {@link ValueAssertionCall}, and {@link GroupAssertionCall}.
+ * {@link AggregatorCall}, {@link ValueAssertionCall}, {@link GroupAssertionCall}, and {@link BatchCall}.
  */
-public class ConcreteCall<C> implements FunctionCall<C>, FilterCall<C>, AggregatorCall<C>, BufferCall<C>, ValueAssertionCall<C>, GroupAssertionCall<C>
+public class ConcreteCall<C> implements FunctionCall<C>, FilterCall<C>, AggregatorCall<C>, BufferCall<C>, ValueAssertionCall<C>, GroupAssertionCall<C>, BatchCall<C>
   {
   /** Field context */
   private C context;
@@ -51,6 +52,10 @@ public class ConcreteCall<C> implements FunctionCall<C>, FilterCall<C>, Aggregat
   private boolean retainValues = false;
   /** Fields joinerClosure * */
   private JoinerClosure joinerClosure;
+  /** Field argumentBatch */
+  private TupleBatch argumentBatch;
+  /** Field resultBatch */
+  private TupleBatch resultBatch;
 
   /** Constructor OperationCall creates a new OperationCall instance. */
   public ConcreteCall()
@@ -101,6 +106,8 @@ public class ConcreteCall<C> implements FunctionCall<C>, FilterCall<C>, Aggregat
     this.outputCollector = concreteCall.outputCollector;
     this.retainValues = concreteCall.retainValues;
     this.joinerClosure = concreteCall.joinerClosure;
+    this.argumentBatch = concreteCall.argumentBatch;
+    this.resultBatch = concreteCall.resultBatch;
     }
 
   /** @see AggregatorCall#getContext() */
@@ -195,4 +202,26 @@ public class ConcreteCall<C> implements FunctionCall<C>, FilterCall<C>, Aggregat
     {
     return joinerClosure;
     }
+
+  /** @see BatchCall#getArgumentBatch() */
+  public TupleBatch getArgumentBatch()
+    {
+    return argumentBatch;
+    }
+
+  public void setArgumentBatch( TupleBatch argumentBatch )
+    {
+    this.argumentBatch = argumentBatch;
+    }
+
+  /** @see BatchCall#getResultBatch() */
+  public TupleBatch getResultBatch()
+    {
+    return resultBatch;
+    }
+
+  public void setResultBatch( TupleBatch resultBatch )
+    {
+    this.resultBatch = resultBatch;
+    }
   }
\ No newline at end of file
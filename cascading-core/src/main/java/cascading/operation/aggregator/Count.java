@@ -26,6 +26,8 @@ import cascading.flow.FlowProcess;
 import cascading.operation.Aggregator;
 import cascading.operation.AggregatorCall;
 import cascading.operation.BaseOperation;
+import cascading.operation.BatchAggregator;
+import cascading.operation.BatchCall;
 import cascading.operation.OperationCall;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
@@ -36,7 +38,7 @@ import cascading.util.Pair;
  * <p>
  * Note the resulting value for count is always a long. So any comparisons should be against a long value.
  */
-public class Count extends BaseOperation<Pair<Long[], Tuple>> implements Aggregator<Pair<Long[], Tuple>>
+public class Count extends BaseOperation<Pair<Long[], Tuple>> implements BatchAggregator<Pair<Long[], Tuple>>
   {
   /** Field COUNT */
   public static final String FIELD_NAME = "count";
@@ -76,6 +78,12 @@ public class Count extends BaseOperation<Pair<Long[], Tuple>> implements Aggrega
     aggregatorCall.getContext().getLhs()[ 0 ] += 1L;
     }
 
+  @Override
+  public void aggregateBatch( FlowProcess flowProcess, BatchCall<Pair<Long[], Tuple>> batchCall )
+    {
+    batchCall.getContext().getLhs()[ 0 ] += batchCall.getArgumentBatch().getNumSelected();
+    }
+
   @Override
   public void complete( FlowProcess flowProcess, AggregatorCall<Pair<Long[], Tuple>> aggregatorCall )
     {
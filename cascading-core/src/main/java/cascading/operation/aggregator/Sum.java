@@ -27,16 +27,19 @@ import cascading.flow.FlowProcess;
 import cascading.operation.Aggregator;
 import cascading.operation.AggregatorCall;
 import cascading.operation.BaseOperation;
+import cascading.operation.BatchAggregator;
+import cascading.operation.BatchCall;
 import cascading.operation.OperationCall;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.coerce.Coercions;
 import cascading.tuple.type.CoercibleType;
 import cascading.util.Pair;
 
 /** Class Sum is an {@link Aggregator} that returns the sum of all numeric values in the current group. */
-public class Sum extends BaseOperation<Pair<Double[], Tuple>> implements Aggregator<Pair<Double[], Tuple>>
+public class Sum extends BaseOperation<Pair<Double[], Tuple>> implements BatchAggregator<Pair<Double[], Tuple>>
   {
   /** Field FIELD_NAME */
   public static final String FIELD_NAME = "sum";
@@ -121,6 +124,32 @@ public class Sum extends BaseOperation<Pair<Double[], Tuple>> implements Aggrega
     sum[ 0 ] = value + arguments.getDouble( 0 );
     }
 
+  @Override
+  public void aggregateBatch( FlowProcess flowProcess, BatchCall<Pair<Double[], Tuple>> batchCall )
+    {
+    TupleBatch arguments = batchCall.getArgumentBatch();
+    int[] selection = arguments.getSelection();
+    int numSelected = arguments.getNumSelected();
+    Double[] sum = batchCall.getContext().getLhs();
+
+    boolean found = sum[ 0 ] != null;
+    double value = found ? sum[ 0 ] : 0;
+
+    for( int i = 0; i < numSelected; i++ )
+      {
+      int row = selection[ i ];
+
+      if( arguments.isNull( row, 0 ) )
+        continue;
+
+      value += arguments.getDouble( row, 0 );
+      found = true;
+      }
+
+    if( found )
+      sum[ 0 ] = value;
+    }
+
   @Override
   public void complete( FlowProcess flowProcess, AggregatorCall<Pair<Double[], Tuple>> aggregatorCall )
     {
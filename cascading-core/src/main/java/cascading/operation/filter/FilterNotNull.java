@@ -22,8 +22,10 @@ package cascading.operation.filter;
 
 import cascading.flow.FlowProcess;
 import cascading.operation.BaseOperation;
-import cascading.operation.Filter;
+import cascading.operation.BatchCall;
+import cascading.operation.BatchFilter;
 import cascading.operation.FilterCall;
+import cascading.tuple.TupleBatch;
 
 /**
  * Class FilterNotNull verifies that every value in the argument values {@link cascading.tuple.Tuple}
@@ -31,7 +33,7 @@ import cascading.operation.FilterCall;
  *
  * @see FilterNull
  */
-public class FilterNotNull extends BaseOperation implements Filter
+public class FilterNotNull extends BaseOperation implements BatchFilter
   {
   @Override
   public boolean isRemove( FlowProcess flowProcess, FilterCall filterCall )
@@ -44,4 +46,28 @@ public class FilterNotNull extends BaseOperation implements Filter
 
     return false;
     }
+
+  @Override
+  public void removeBatch( FlowProcess flowProcess, BatchCall batchCall )
+    {
+    TupleBatch arguments = batchCall.getArgumentBatch();
+    int[] selection = arguments.getSelection();
+    int numSelected = arguments.getNumSelected();
+    int numColumns = arguments.getFields().size();
+    int retained = 0;
+
+    for( int i = 0; i < numSelected; i++ )
+      {
+      int row = selection[ i ];
+      boolean remove = false;
+
+      for( int column = 0; column < numColumns && !remove; column++ )
+        remove = !arguments.isNull( row, column );
+
+      if( !remove )
+        selection[ retained++ ] = row;
+      }
+
+    arguments.setNumSelected( retained );
+    }
   }
@@ -22,7 +22,7 @@ package cascading.operation.text;
 
 import java.beans.ConstructorProperties;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
 
@@ -31,6 +31,7 @@ import cascading.operation.Function;
 import cascading.operation.FunctionCall;
 import cascading.tuple.Fields;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.type.DateTimeType;
 import cascading.util.Pair;
 
 /**
@@ -95,16 +96,30 @@ public class DateFormatter extends DateOperation implements Function<Pair<Simple
     super( 1, fieldDeclaration, dateFormatString, zone, locale );
     }
 
+  /**
+   * Constructor DateFormatter creates a new DateFormatter instance, where the given {@link DateTimeType} is used
+   * to format the argument value.
+   *
+   * @param fieldDeclaration of type Fields
+   * @param dateTimeType     of type DateTimeType
+   */
+  @ConstructorProperties({"fieldDeclaration", "dateTimeType"})
+  public DateFormatter( Fields fieldDeclaration, DateTimeType dateTimeType )
+    {
+    super( 1, fieldDeclaration, dateTimeType );
+    }
+
   @Override
   public void operate( FlowProcess flowProcess, FunctionCall<Pair<SimpleDateFormat, TupleEntry>> functionCall )
     {
     long ts = functionCall.getArguments().getLong( 0 );
 
-    Calendar calendar = getCalendar();
-
-    calendar.setTimeInMillis( ts );
+    String formatted;
 
-    String formatted = functionCall.getContext().getLhs().format( calendar.getTime() );
+    if( dateTimeType != null )
+      formatted = dateTimeType.format( ts );
+    else
+      formatted = functionCall.getContext().getLhs().format( new Date( ts ) );
 
     functionCall.getContext().getRhs().setString( 0, formatted );
 
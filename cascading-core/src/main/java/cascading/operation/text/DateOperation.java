@@ -32,6 +32,8 @@ import cascading.operation.OperationCall;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.Tuples;
+import cascading.tuple.type.DateTimeType;
 import cascading.util.Pair;
 
 /** Class DateOperation is the base class for {@link DateFormatter} and {@link DateParser}. */
@@ -43,6 +45,8 @@ public class DateOperation extends BaseOperation<Pair<SimpleDateFormat, TupleEnt
   protected Locale locale;
   /** Field dateFormatString */
   final String dateFormatString;
+  /** Field dateTimeType */
+  protected DateTimeType dateTimeType;
 
   /**
    * Constructor DateOperation creates a new DateOperation instance.
@@ -79,11 +83,43 @@ public class DateOperation extends BaseOperation<Pair<SimpleDateFormat, TupleEnt
     this.locale = locale;
     }
 
+  /**
+   * Constructor DateOperation creates a new DateOperation instance.
+   *
+   * @param numArgs          of type int
+   * @param fieldDeclaration of type Fields
+   * @param dateTimeType     of type DateTimeType
+   */
+  @ConstructorProperties({"numArgs", "fieldDeclaration", "dateTimeType"})
+  public DateOperation( int numArgs, Fields fieldDeclaration, DateTimeType dateTimeType )
+    {
+    super( numArgs, fieldDeclaration );
+
+    if( dateTimeType == null )
+      throw new IllegalArgumentException( "dateTimeType may not be null" );
+
+    this.dateFormatString = dateTimeType.getDateFormatString();
+    this.dateTimeType = dateTimeType;
+
+    if( !fieldDeclaration.isSubstitution() && fieldDeclaration.size() != 1 )
+      throw new IllegalArgumentException( "fieldDeclaration may only declare one field name, got " + fieldDeclaration.print() );
+    }
+
   public String getDateFormatString()
     {
     return dateFormatString;
     }
 
+  /**
+   * Method getDateTimeType returns the {@link DateTimeType} used to parse or format values, if given.
+   *
+   * @return DateTimeType, may be null
+   */
+  public DateTimeType getDateTimeType()
+    {
+    return dateTimeType;
+    }
+
   /**
    * Method getDateFormat returns the dateFormat of this DateParser object.
    *
@@ -122,7 +158,13 @@ public class DateOperation extends BaseOperation<Pair<SimpleDateFormat, TupleEnt
   @Override
   public void prepare( FlowProcess flowProcess, OperationCall<Pair<SimpleDateFormat, TupleEntry>> operationCall )
     {
-    operationCall.setContext( new Pair<>( getDateFormat(), new TupleEntry( operationCall.getDeclaredFields(), Tuple.size( getDeclaredSize() ) ) ) );
+    // a DateTimeType is thread safe, so no copy of the format is required
+    SimpleDateFormat dateFormat = dateTimeType == null ? getDateFormat() : null;
+
+    Fields declaredFields = operationCall.getDeclaredFields();
+    Tuple output = declaredFields.size() == getDeclaredSize() ? Tuples.create( declaredFields ) : Tuple.size( getDeclaredSize() );
+
+    operationCall.setContext( new Pair<>( dateFormat, new TupleEntry( declaredFields, output ) ) );
     }
 
   protected int getDeclaredSize()
@@ -148,6 +190,8 @@ public class DateOperation extends BaseOperation<Pair<SimpleDateFormat, TupleEnt
       return false;
     if( zone != null ? !zone.equals( that.zone ) : that.zone != null )
       return false;
+    if( dateTimeType != null ? !dateTimeType.equals( that.dateTimeType ) : that.dateTimeType != null )
+      return false;
 
     return true;
     }
@@ -159,6 +203,7 @@ public class DateOperation extends BaseOperation<Pair<SimpleDateFormat, TupleEnt
     result = 31 * result + ( zone != null ? zone.hashCode() : 0 );
     result = 31 * result + ( locale != null ? locale.hashCode() : 0 );
     result = 31 * result + ( dateFormatString != null ? dateFormatString.hashCode() : 0 );
+    result = 31 * result + ( dateTimeType != null ? dateTimeType.hashCode() : 0 );
     return result;
     }
   }
@@ -29,12 +29,14 @@ import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
 
+import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.operation.Function;
 import cascading.operation.FunctionCall;
 import cascading.operation.OperationException;
 import cascading.tuple.Fields;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.type.DateTimeType;
 import cascading.util.Pair;
 
 /**
@@ -74,6 +76,19 @@ public class DateParser extends DateOperation implements Function<Pair<SimpleDat
     super( 1, fieldDeclaration, dateFormatString );
     }
 
+  /**
+   * Constructor DateParser creates a new DateParser instance, where the given {@link DateTimeType} is used
+   * to parse the argument value.
+   *
+   * @param fieldDeclaration of type Fields
+   * @param dateTimeType     of type DateTimeType
+   */
+  @ConstructorProperties({"fieldDeclaration", "dateTimeType"})
+  public DateParser( Fields fieldDeclaration, DateTimeType dateTimeType )
+    {
+    super( 1, fieldDeclaration, dateTimeType );
+    }
+
   /**
    * Constructor DateParser creates a new DateParser instance, where calendarFields is an int[] of {@link Calendar} field
    * values. See {@link Calendar#get(int)}.
@@ -159,6 +174,15 @@ public class DateParser extends DateOperation implements Function<Pair<SimpleDat
         return;
         }
 
+      if( dateTimeType != null )
+        {
+        output.setLong( 0, parse( value ) ); // safe to call set, tuple is size of 1
+
+        functionCall.getOutputCollector().add( output );
+
+        return;
+        }
+
       Date date = functionCall.getContext().getLhs().parse( value );
 
       if( calendarFields == null )
@@ -174,6 +198,18 @@ public class DateParser extends DateOperation implements Function<Pair<SimpleDat
     functionCall.getOutputCollector().add( output );
     }
 
+  private long parse( String value )
+    {
+    try
+      {
+      return dateTimeType.parse( value );
+      }
+    catch( CascadingException exception )
+      {
+      throw new OperationException( "unable to parse input value: " + value, exception );
+      }
+    }
+
   private void makeCalendarFields( TupleEntry output, Date date )
     {
     Calendar calendar = getCalendar();
@@ -81,6 +81,16 @@ import cascading.util.cache.BaseCacheFactory;
  * ({@link cascading.util.cache.BaseCacheFactory#DEFAULT_CAPACITY})
  * is {@code 10, 000} unique keys.
  * <p>
+ * As the size of keys and partial results vary, the cache may additionally be bounded by an estimated number of bytes
+ * via the {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_CAPACITY_BYTES} property. When the budget is
+ * exceeded and every Functor is a {@link MergeableFunctor}, as are those of {@link SumBy}, {@link CountBy},
+ * {@link AverageBy}, {@link MinBy}, {@link MaxBy}, and {@link FirstBy}, the least recently used partial results are
+ * spilled to local disk, and merged with the cache when the task completes so each key is emitted once. Otherwise the
+ * least recently used partial results are emitted and evicted until the cache is within budget. In both cases
+ * frequent keys remain cached. The {@link Cache#Num_Keys_Emitted} counter
+ * against the sum of the {@link Cache#Num_Keys_Hit} and {@link Cache#Num_Keys_Missed} counters gives the
+ * reduction ratio of the partial aggregation.
+ * <p>
  * The LRU cache is pluggable and defaults to {@link cascading.util.cache.LRUHashMapCache}. It can be changed
  * by setting {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_CACHE_FACTORY} property to the name of a sub-class of
  * {@link cascading.util.cache.BaseCacheFactory}.
@@ -108,7 +118,11 @@ public class AggregateBy extends SubAssembly
     {
       Num_Keys_Flushed,
       Num_Keys_Hit,
-      Num_Keys_Missed
+      Num_Keys_Missed,
+      Num_Keys_Budget_Flushed,
+      Num_Keys_Emitted,
+      Num_Keys_Spilled,
+      Num_Bytes_Flushed
     }
 
   /**
@@ -120,6 +134,17 @@ public class AggregateBy extends SubAssembly
     {
     }
 
+  /**
+   * Interface MergeableFunctor is a {@link Functor} whose partial results for the same grouping key may be merged.
+   * <p>
+   * If all the Functors of an AggregateBy are mergeable, partial results are spilled to local disk when the
+   * {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_CAPACITY_BYTES} budget is exceeded, and merged when
+   * the task completes.
+   */
+  public interface MergeableFunctor extends Functor, cascading.operation.CompositeFunction.MergeableCoFunction
+    {
+    }
+
   /**
    * Class CompositeFunction takes multiple Functor instances and manages them as a single {@link Function}.
    *
@@ -152,11 +177,36 @@ public class AggregateBy extends SubAssembly
       flowProcess.increment( AggregateBy.Cache.Num_Keys_Missed, 1 );
       }
 
+    protected void incrementNumKeysBudgetFlushed( FlowProcess flowProcess, long amount )
+      {
+      flowProcess.increment( AggregateBy.Cache.Num_Keys_Budget_Flushed, amount );
+      }
+
+    protected void incrementNumKeysEmitted( FlowProcess flowProcess, long amount )
+      {
+      flowProcess.increment( AggregateBy.Cache.Num_Keys_Emitted, amount );
+      }
+
+    protected void incrementNumKeysSpilled( FlowProcess flowProcess, long amount )
+      {
+      flowProcess.increment( AggregateBy.Cache.Num_Keys_Spilled, amount );
+      }
+
+    protected void incrementNumBytesFlushed( FlowProcess flowProcess, long amount )
+      {
+      flowProcess.increment( AggregateBy.Cache.Num_Bytes_Flushed, amount );
+      }
+
     protected Integer getCacheCapacity( FlowProcess flowProcess )
       {
       return getCacheCapacity( flowProcess, AggregateByProps.AGGREGATE_BY_CAPACITY, AggregateByProps.AGGREGATE_BY_DEFAULT_CAPACITY );
       }
 
+    protected long getCacheCapacityBytes( FlowProcess flowProcess )
+      {
+      return getCacheCapacityBytes( flowProcess, AggregateByProps.AGGREGATE_BY_CAPACITY_BYTES, AggregateByProps.AGGREGATE_BY_DEFAULT_CAPACITY_BYTES );
+      }
+
     protected BaseCacheFactory<Tuple, Tuple[], ?> loadCacheFactory( FlowProcess flowProcess )
       {
       return loadCacheFactory( flowProcess, AggregateByProps.AGGREGATE_BY_CACHE_FACTORY, AggregateByProps.DEFAULT_CACHE_FACTORY_CLASS );
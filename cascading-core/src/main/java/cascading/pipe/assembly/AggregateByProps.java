@@ -41,6 +41,12 @@ public class AggregateByProps extends Props
   /** default capacity of caches used in AggregateBy. */
   public static int AGGREGATE_BY_DEFAULT_CAPACITY = BaseCacheFactory.DEFAULT_CAPACITY;
 
+  /** property to control the estimated number of bytes the cache may hold, zero disables the budget. */
+  public static final String AGGREGATE_BY_CAPACITY_BYTES = "cascading.aggregateby.cache.capacity.bytes";
+
+  /** default number of bytes caches used in AggregateBy may hold, zero disables the budget. */
+  public static long AGGREGATE_BY_DEFAULT_CAPACITY_BYTES = 0;
+
   /** default factory class for creating caches. */
   public static final Class<? extends BaseCacheFactory> DEFAULT_CACHE_FACTORY_CLASS = LRUHashMapCacheFactory.class;
 
@@ -103,6 +109,32 @@ public class AggregateByProps extends Props
     return Integer.valueOf( capacityValue );
     }
 
+  /**
+   * Sets the estimated number of bytes the cache may hold before the least recently used partial results are flushed.
+   *
+   * @param capacityBytes The capacity of the cache in bytes, zero disables the budget.
+   */
+  public AggregateByProps setCapacityBytes( long capacityBytes )
+    {
+    properties.setProperty( AGGREGATE_BY_CAPACITY_BYTES, String.valueOf( capacityBytes ) );
+    return this;
+    }
+
+  /**
+   * Returns the capacity in bytes.
+   *
+   * @return The capacity in bytes.
+   */
+  public long getCapacityBytes()
+    {
+    String capacityValue = properties.getProperty( AGGREGATE_BY_CAPACITY_BYTES );
+
+    if( capacityValue == null )
+      return AGGREGATE_BY_DEFAULT_CAPACITY_BYTES;
+
+    return Long.valueOf( capacityValue );
+    }
+
   /**
    * Returns the name of the cache factory.
    *
@@ -0,0 +1,1005 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import cascading.CascadingException;
+import cascading.flow.FlowProcess;
+import cascading.operation.BaseOperation;
+import cascading.operation.Function;
+import cascading.operation.FunctionCall;
+import cascading.operation.OperationCall;
+import cascading.operation.OperationException;
+import cascading.pipe.Each;
+import cascading.pipe.Pipe;
+import cascading.pipe.SubAssembly;
+import cascading.provider.FactoryLoader;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntryCollector;
+import cascading.tuple.util.TupleHasher;
+import cascading.tuple.util.TupleViews;
+import cascading.util.cache.BaseCacheFactory;
+import cascading.util.cache.CacheEvictionCallback;
+import cascading.util.cache.CascadingCache;
+import cascading.util.cache.LRUHashMapCache;
+
+/**
+ * Class AggregateByWindowLocally is a {@link SubAssembly} that aggregates the values of each grouping key within
+ * event time windows, emitting each window as the event time of the stream advances.
+ * <p>
+ * Where {@link AggregateByLocally} only emits a partial aggregate on cache eviction or when the stream completes,
+ * this assembly bounds the state held when reading an unbounded stream, a Kafka topic in local mode for example,
+ * by assigning each tuple to one or more windows by the value of its event time field, see {@link Windows}:
+ * <ul>
+ * <li>tumbling windows, of a fixed size, that do not overlap</li>
+ * <li>sliding windows, of a fixed size, starting every slide interval, so a tuple may belong to many windows</li>
+ * <li>session windows, per grouping key, closing after a gap without any tuples</li>
+ * </ul>
+ * The watermark is the largest event time observed less the watermark delay. A window is completed and emitted
+ * once the watermark passes its end. Each result declares the grouping fields, the {@link #WINDOW_START_FIELD} and
+ * {@link #WINDOW_END_FIELD} fields in epoch milliseconds, and the fields declared by each composed assembly.
+ * <p>
+ * A tuple arriving after the watermark has passed the end of its window is late. If the allowed lateness has not
+ * also passed, the tuple is aggregated into the retained window, and the updated result for its grouping key is
+ * emitted again. Otherwise the tuple is dropped. Late tuples never start, or merge, session windows.
+ * <p>
+ * Tuples assigned to session windows are held, ordered by event time, until the watermark passes them. If more
+ * tuples are held than the capacity, the watermark is advanced to the event time of the earliest held tuple, so any
+ * tuple arriving before it is late.
+ * <p>
+ * The partial aggregates of each open window are held in a {@link CascadingCache}, created by the
+ * {@link AggregateByLocallyProps#AGGREGATE_LOCALLY_BY_CACHE_FACTORY} factory and bounded by the given capacity.
+ * Open sessions are always held in a {@link LRUHashMapCache}, as sessions are closed in order of their last update.
+ * The state retained for late tuples, over all emitted windows or closed sessions, is also bounded by the capacity,
+ * the state of the earliest window or session is discarded first, so a late tuple for it is dropped.
+ * <p>
+ * On eviction from an open window or session, the partial aggregate of the evicted key is completed and emitted
+ * early, as with AggregateByLocally. Any later tuple for the same key and window starts a new partial aggregate, so
+ * a key and window may be emitted more than once, each result holding only the tuples aggregated since the prior
+ * one. These results are not merged, a downstream aggregation must combine them, or the capacity must exceed the
+ * number of distinct keys in a window. Each update by a late tuple also emits the key and window again, holding all
+ * the tuples retained for it.
+ * <p>
+ * The aggregations are provided by composing {@link AggregateByLocally} sub-classes, for example:
+ * <pre>
+ * pipe = new AggregateByWindowLocally( pipe, new Fields( "user" ), new Fields( "time" ),
+ *   Windows.tumbling( 1, TimeUnit.MINUTES ).withWatermarkDelay( 5, TimeUnit.SECONDS ),
+ *   new CountByLocally( new Fields( "count" ) ),
+ *   new SumByLocally( new Fields( "bytes" ), new Fields( "total" ), long.class ) );
+ * </pre>
+ * The event time field must be coercible to a {@code long}, a {@link cascading.tuple.type.DateTimeType} field
+ * for example. When the stream completes, all open windows are emitted regardless of the watermark.
+ * <p>
+ * The number of windows emitted, keys flushed early, and late tuples updated or dropped are reported by the
+ * {@link Windowing} counters.
+ * <p>
+ * Note using a AggregateByWindowLocally instance does not insert a {@link cascading.pipe.GroupBy} into the resulting
+ * {@link cascading.flow.Flow}, so it is intended for Cascading local mode where a single stream is observed by a
+ * single function instance.
+ *
+ * @see AggregateByLocally
+ */
+public class AggregateByWindowLocally extends SubAssembly
+  {
+  /** Field WINDOW_START_FIELD */
+  public static final Fields WINDOW_START_FIELD = new Fields( "window_start", long.class );
+  /** Field WINDOW_END_FIELD */
+  public static final Fields WINDOW_END_FIELD = new Fields( "window_end", long.class );
+
+  public enum Windowing
+    {
+      Num_Windows_Fired,
+      Num_Keys_Flushed,
+      Num_Late_Updated,
+      Num_Late_Dropped,
+      Num_Retained_Evicted,
+      Num_Watermark_Advanced
+    }
+
+  /**
+   * Class Windows declares how tuples are assigned to windows by their event time, and when the windows are emitted.
+   * <p>
+   * Instances are immutable, {@link #withWatermarkDelay(long, TimeUnit)} and
+   * {@link #withAllowedLateness(long, TimeUnit)} return a new instance.
+   */
+  public static class Windows implements Serializable
+    {
+    enum Type
+      {
+        Tumbling,
+        Sliding,
+        Session
+      }
+
+    private final Type type;
+    private final long size;
+    private final long slide;
+    private final long watermarkDelay;
+    private final long allowedLateness;
+
+    /**
+     * Method tumbling returns windows of the given size, each starting where the prior window ended.
+     *
+     * @param size of type long
+     * @param unit of type TimeUnit
+     * @return Windows
+     */
+    public static Windows tumbling( long size, TimeUnit unit )
+      {
+      return new Windows( Type.Tumbling, unit.toMillis( size ), unit.toMillis( size ), 0, 0 );
+      }
+
+    /**
+     * Method sliding returns windows of the given size, a new window starting every slide interval.
+     *
+     * @param size  of type long
+     * @param slide of type long
+     * @param unit  of type TimeUnit
+     * @return Windows
+     */
+    public static Windows sliding( long size, long slide, TimeUnit unit )
+      {
+      return new Windows( Type.Sliding, unit.toMillis( size ), unit.toMillis( slide ), 0, 0 );
+      }
+
+    /**
+     * Method session returns windows, for each grouping key, that close once no tuple is observed for the given gap.
+     *
+     * @param gap  of type long
+     * @param unit of type TimeUnit
+     * @return Windows
+     */
+    public static Windows session( long gap, TimeUnit unit )
+      {
+      return new Windows( Type.Session, unit.toMillis( gap ), 0, 0, 0 );
+      }
+
+    private Windows( Type type, long size, long slide, long watermarkDelay, long allowedLateness )
+      {
+      if( size <= 0 )
+        throw new IllegalArgumentException( "window size must be greater than zero milliseconds, got: " + size );
+
+      if( type != Type.Session && slide <= 0 )
+        throw new IllegalArgumentException( "window slide must be greater than zero milliseconds, got: " + slide );
+
+      if( watermarkDelay < 0 )
+        throw new IllegalArgumentException( "watermark delay may not be negative, got: " + watermarkDelay );
+
+      if( allowedLateness < 0 )
+        throw new IllegalArgumentException( "allowed lateness may not be negative, got: " + allowedLateness );
+
+      this.type = type;
+      this.size = size;
+      this.slide = slide;
+      this.watermarkDelay = watermarkDelay;
+      this.allowedLateness = allowedLateness;
+      }
+
+    /**
+     * Method withWatermarkDelay returns a copy of these windows where the watermark trails the largest observed
+     * event time by the given delay, so tuples arriving out of order by less than the delay are not late.
+     *
+     * @param delay of type long
+     * @param unit  of type TimeUnit
+     * @return Windows
+     */
+    public Windows withWatermarkDelay( long delay, TimeUnit unit )
+      {
+      return new Windows( type, size, slide, unit.toMillis( delay ), allowedLateness );
+      }
+
+    /**
+     * Method withAllowedLateness returns a copy of these windows where the state of each emitted window is retained
+     * until the watermark passes the end of the window by the given lateness, so late tuples update the window.
+     *
+     * @param lateness of type long
+     * @param unit     of type TimeUnit
+     * @return Windows
+     */
+    public Windows withAllowedLateness( long lateness, TimeUnit unit )
+      {
+      return new Windows( type, size, slide, watermarkDelay, unit.toMillis( lateness ) );
+      }
+
+    public boolean isSession()
+      {
+      return type == Type.Session;
+      }
+
+    /**
+     * Method getSize returns the size of each window, or the gap closing a session, in milliseconds.
+     *
+     * @return long
+     */
+    public long getSize()
+      {
+      return size;
+      }
+
+    public long getSlide()
+      {
+      return slide;
+      }
+
+    public long getWatermarkDelay()
+      {
+      return watermarkDelay;
+      }
+
+    public long getAllowedLateness()
+      {
+      return allowedLateness;
+      }
+
+    long lastStartFor( long time )
+      {
+      return time - Math.floorMod( time, slide );
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( object == null || getClass() != object.getClass() )
+        return false;
+
+      Windows windows = (Windows) object;
+
+      return size == windows.size && slide == windows.slide && watermarkDelay == windows.watermarkDelay && allowedLateness == windows.allowedLateness && type == windows.type;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      int result = type.hashCode();
+      result = 31 * result + Long.hashCode( size );
+      result = 31 * result + Long.hashCode( slide );
+      result = 31 * result + Long.hashCode( watermarkDelay );
+      result = 31 * result + Long.hashCode( allowedLateness );
+      return result;
+      }
+
+    @Override
+    public String toString()
+      {
+      return "Windows{type=" + type + ", size=" + size + ", slide=" + slide + ", watermarkDelay=" + watermarkDelay + ", allowedLateness=" + allowedLateness + '}';
+      }
+    }
+
+  /**
+   * Class WindowFunction assigns each tuple to its windows and manages the given {@link AggregateByLocally.Functor}
+   * instances for every grouping key within each window, see {@link AggregateByWindowLocally}.
+   */
+  public static class WindowFunction extends BaseOperation<WindowFunction.Context> implements Function<WindowFunction.Context>
+    {
+    static class Session
+      {
+      final long start;
+      long last;
+      final Tuple[] values;
+
+      Session( long start, int size )
+        {
+        this.start = start;
+        this.last = start;
+        this.values = new Tuple[ size ];
+        }
+      }
+
+    static class Pending
+      {
+      final long time;
+      final long sequence;
+      final Tuple key;
+      final Tuple tuple;
+
+      Pending( long time, long sequence, Tuple key, Tuple tuple )
+        {
+        this.time = time;
+        this.sequence = sequence;
+        this.key = key;
+        this.tuple = tuple;
+        }
+      }
+
+    protected static class Context
+      {
+      TupleEntryCollector collector;
+      BaseCacheFactory<Tuple, Tuple[], ?> factory;
+      int capacity;
+      TupleEntry[] arguments;
+      Tuple result;
+      Tuple window = Tuple.size( 2 );
+      long maxTime = Long.MIN_VALUE;
+      long watermark = Long.MIN_VALUE;
+      final TreeMap<Long, CascadingCache<Tuple, Tuple[]>> open = new TreeMap<>();
+      final TreeMap<Long, Map<Tuple, Tuple[]>> retained = new TreeMap<>();
+      int numRetained;
+      long evictedStart = Long.MIN_VALUE;
+      CascadingCache<Tuple, Session> sessions;
+      final LinkedHashMap<Tuple, Session> closed = new LinkedHashMap<>();
+      final PriorityQueue<Pending> pending = new PriorityQueue<>( Comparator.<Pending>comparingLong( p -> p.time ).thenComparingLong( p -> p.sequence ) );
+      long sequence;
+      }
+
+    private final Fields groupingFields;
+    private final Fields timeField;
+    private final Fields[] argumentFields;
+    private final AggregateByLocally.Functor[] functors;
+    private final Windows windows;
+    private final int capacity;
+    private final TupleHasher tupleHasher;
+
+    /**
+     * Constructor WindowFunction creates a new WindowFunction instance.
+     *
+     * @param groupingFields of type Fields
+     * @param timeField      of type Fields
+     * @param argumentFields of type Fields[]
+     * @param functors       of type Functor[]
+     * @param windows        of type Windows
+     * @param capacity       of type int
+     */
+    public WindowFunction( Fields groupingFields, Fields timeField, Fields[] argumentFields, AggregateByLocally.Functor[] functors, Windows windows, int capacity )
+      {
+      super( getFields( groupingFields, functors ) );
+      this.groupingFields = groupingFields;
+      this.timeField = timeField;
+      this.argumentFields = argumentFields;
+      this.functors = functors;
+      this.windows = windows;
+      this.capacity = capacity;
+
+      if( timeField.size() != 1 )
+        throw new IllegalArgumentException( "time field may only declare one field, got: " + timeField );
+
+      Comparator[] hashers = TupleHasher.merge( new Fields[]{groupingFields} );
+
+      if( !TupleHasher.isNull( hashers ) )
+        this.tupleHasher = new TupleHasher( null, hashers );
+      else
+        this.tupleHasher = null;
+      }
+
+    private static Fields getFields( Fields groupingFields, AggregateByLocally.Functor[] functors )
+      {
+      Fields fields = groupingFields.append( WINDOW_START_FIELD ).append( WINDOW_END_FIELD );
+
+      for( AggregateByLocally.Functor functor : functors )
+        fields = fields.append( functor.getDeclaredFields() );
+
+      return fields;
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      Context context = new Context();
+
+      context.arguments = new TupleEntry[ functors.length ];
+
+      Fields resolvedArgumentFields = operationCall.getArgumentFields();
+
+      for( int i = 0; i < functors.length; i++ )
+        {
+        int[] pos;
+
+        if( argumentFields[ i ].isAll() )
+          pos = resolvedArgumentFields.getPos();
+        else
+          pos = resolvedArgumentFields.getPos( argumentFields[ i ] );
+
+        Fields currentFields;
+
+        if( argumentFields[ i ].isSubstitution() )
+          currentFields = resolvedArgumentFields.select( argumentFields[ i ] ); // attempt to retain comparator
+        else
+          currentFields = Fields.asDeclaration( argumentFields[ i ] );
+
+        context.arguments[ i ] = new TupleEntry( currentFields, TupleViews.createNarrow( pos ) );
+        }
+
+      Fields[] fields = new Fields[ functors.length + 2 ];
+
+      fields[ 0 ] = groupingFields;
+      fields[ 1 ] = WINDOW_START_FIELD.append( WINDOW_END_FIELD );
+
+      for( int i = 0; i < functors.length; i++ )
+        fields[ i + 2 ] = functors[ i ].getDeclaredFields();
+
+      context.result = TupleViews.createComposite( fields );
+
+      Integer cacheCapacity = capacity;
+
+      if( capacity == 0 )
+        cacheCapacity = flowProcess.getIntegerProperty( AggregateByLocallyProps.AGGREGATE_LOCALLY_BY_CAPACITY );
+
+      if( cacheCapacity == null )
+        cacheCapacity = AggregateByLocallyProps.AGGREGATE_LOCALLY_BY_DEFAULT_CAPACITY;
+
+      context.capacity = cacheCapacity;
+
+      if( windows.isSession() )
+        context.sessions = createSessions( flowProcess, context );
+      else
+        context.factory = loadCacheFactory( flowProcess );
+
+      operationCall.setContext( context );
+      }
+
+    private BaseCacheFactory<Tuple, Tuple[], ?> loadCacheFactory( FlowProcess flowProcess )
+      {
+      String property = AggregateByLocallyProps.AGGREGATE_LOCALLY_BY_CACHE_FACTORY;
+      BaseCacheFactory<Tuple, Tuple[], ?> factory = FactoryLoader.getInstance().loadFactoryFrom( flowProcess, property, AggregateByLocallyProps.DEFAULT_CACHE_FACTORY_CLASS );
+
+      if( factory == null )
+        throw new CascadingException( "unable to load cache factory, please check your '" + property + "' setting." );
+
+      return factory;
+      }
+
+    private CascadingCache<Tuple, Tuple[]> createCache( FlowProcess flowProcess, Context context, long start )
+      {
+      class Eviction implements CacheEvictionCallback<Tuple, Tuple[]>
+        {
+        @Override
+        public void evict( Map.Entry<Tuple, Tuple[]> entry )
+          {
+          emit( flowProcess, context, entry.getKey(), start, start + windows.getSize(), entry.getValue(), false );
+          flowProcess.increment( Windowing.Num_Keys_Flushed, 1 );
+          }
+        }
+
+      CascadingCache<Tuple, Tuple[]> cache = context.factory.create( flowProcess );
+
+      cache.setCacheEvictionCallback( new Eviction() );
+      cache.setCapacity( context.capacity );
+      cache.initialize();
+
+      return cache;
+      }
+
+    private CascadingCache<Tuple, Session> createSessions( FlowProcess flowProcess, Context context )
+      {
+      class Eviction implements CacheEvictionCallback<Tuple, Session>
+        {
+        @Override
+        public void evict( Map.Entry<Tuple, Session> entry )
+          {
+          Session session = entry.getValue();
+
+          emit( flowProcess, context, entry.getKey(), session.start, session.last + windows.getSize(), session.values, false );
+          flowProcess.increment( Windowing.Num_Keys_Flushed, 1 );
+          }
+        }
+
+      CascadingCache<Tuple, Session> sessions = new LRUHashMapCache<>();
+
+      sessions.setCacheEvictionCallback( new Eviction() );
+      sessions.setCapacity( context.capacity );
+      sessions.initialize();
+
+      return sessions;
+      }
+
+    @Override
+    public void operate( FlowProcess flowProcess, FunctionCall<Context> functionCall )
+      {
+      Context context = functionCall.getContext();
+      TupleEntry arguments = functionCall.getArguments();
+
+      context.collector = functionCall.getOutputCollector();
+
+      if( arguments.getObject( timeField.get( 0 ) ) == null )
+        throw new OperationException( "event time field may not be null: " + timeField );
+
+      long time = arguments.getLong( timeField.get( 0 ) );
+      Tuple key = TupleHasher.wrapTuple( tupleHasher, arguments.selectTupleCopy( groupingFields ) );
+
+      if( windows.isSession() )
+        receiveSession( flowProcess, context, key, time, arguments );
+      else
+        receiveFixed( flowProcess, context, key, time, arguments.getTuple() );
+
+      if( time > context.maxTime )
+        context.maxTime = time;
+
+      long watermark = context.maxTime - windows.getWatermarkDelay();
+
+      if( watermark <= context.watermark )
+        return;
+
+      context.watermark = watermark;
+
+      if( windows.isSession() )
+        advanceSessions( flowProcess, context );
+      else
+        advanceFixed( flowProcess, context );
+      }
+
+    private void receiveFixed( FlowProcess flowProcess, Context context, Tuple key, long time, Tuple tuple )
+      {
+      long size = windows.getSize();
+      long lateness = windows.getAllowedLateness();
+      boolean dropped = false;
+
+      for( long start = windows.lastStartFor( time ); start > time - size; start -= windows.getSlide() )
+        {
+        long end = start + size;
+
+        if( end > context.watermark )
+          {
+          CascadingCache<Tuple, Tuple[]> cache = context.open.get( start );
+
+          if( cache == null )
+            {
+            cache = createCache( flowProcess, context, start );
+            context.open.put( start, cache );
+            }
+
+          Tuple[] values = cache.get( key );
+
+          if( values == null )
+            {
+            values = new Tuple[ functors.length ];
+            cache.put( key, values );
+            }
+
+          aggregate( flowProcess, context, values, tuple );
+          }
+        else if( end + lateness > context.watermark && ( start > context.evictedStart || isRetained( context, start, key ) ) )
+          {
+          Map<Tuple, Tuple[]> state = context.retained.computeIfAbsent( start, ignore -> new HashMap<>() );
+          Tuple[] values = state.get( key );
+
+          if( values == null )
+            {
+            values = new Tuple[ functors.length ];
+            state.put( key, values );
+            context.numRetained++;
+            }
+
+          aggregate( flowProcess, context, values, tuple );
+          emit( flowProcess, context, key, start, end, values, true );
+
+          flowProcess.increment( Windowing.Num_Late_Updated, 1 );
+
+          evictRetained( flowProcess, context );
+          }
+        else
+          {
+          dropped = true;
+          }
+        }
+
+      if( dropped )
+        flowProcess.increment( Windowing.Num_Late_Dropped, 1 );
+      }
+
+    private void advanceFixed( FlowProcess flowProcess, Context context )
+      {
+      long size = windows.getSize();
+      long lateness = windows.getAllowedLateness();
+
+      while( !context.open.isEmpty() && context.open.firstKey() + size <= context.watermark )
+        {
+        Map.Entry<Long, CascadingCache<Tuple, Tuple[]>> entry = context.open.pollFirstEntry();
+        long start = entry.getKey();
+
+        fireWindow( flowProcess, context, start, entry.getValue(), start + size + lateness > context.watermark );
+        }
+
+      while( !context.retained.isEmpty() && context.retained.firstKey() + size + lateness <= context.watermark )
+        context.numRetained -= context.retained.pollFirstEntry().getValue().size();
+      }
+
+    private static boolean isRetained( Context context, long start, Tuple key )
+      {
+      Map<Tuple, Tuple[]> state = context.retained.get( start );
+
+      return state != null && state.containsKey( key );
+      }
+
+    private void evictRetained( FlowProcess flowProcess, Context context )
+      {
+      while( context.numRetained > context.capacity )
+        {
+        Map.Entry<Long, Map<Tuple, Tuple[]>> entry = context.retained.firstEntry();
+        Map<Tuple, Tuple[]> state = entry.getValue();
+        Iterator<Tuple[]> iterator = state.values().iterator();
+
+        // any key no longer retained in this, or an earlier, window is dropped if late
+        context.evictedStart = Math.max( context.evictedStart, entry.getKey() );
+
+        iterator.next();
+        iterator.remove();
+
+        if( state.isEmpty() )
+          context.retained.pollFirstEntry();
+
+        context.numRetained--;
+
+        flowProcess.increment( Windowing.Num_Retained_Evicted, 1 );
+        }
+      }
+
+    private void fireWindow( FlowProcess flowProcess, Context context, long start, CascadingCache<Tuple, Tuple[]> cache, boolean retain )
+      {
+      long end = start + windows.getSize();
+
+      for( Map.Entry<Tuple, Tuple[]> entry : cache.entrySet() )
+        emit( flowProcess, context, entry.getKey(), start, end, entry.getValue(), retain );
+
+      if( retain && !cache.isEmpty() )
+        {
+        context.retained.put( start, new HashMap<>( cache ) );
+        context.numRetained += cache.size();
+        }
+
+      cache.clear();
+
+      if( retain )
+        evictRetained( flowProcess, context );
+
+      flowProcess.increment( Windowing.Num_Windows_Fired, 1 );
+      }
+
+    private void receiveSession( FlowProcess flowProcess, Context context, Tuple key, long time, TupleEntry arguments )
+      {
+      if( time >= context.watermark )
+        {
+        context.pending.add( new Pending( time, context.sequence++, key, arguments.getTupleCopy() ) );
+
+        if( context.pending.size() > context.capacity )
+          {
+          context.watermark = context.pending.peek().time;
+
+          advanceSessions( flowProcess, context );
+
+          flowProcess.increment( Windowing.Num_Watermark_Advanced, 1 );
+          }
+
+        return;
+        }
+
+      long gap = windows.getSize();
+      Session session = context.sessions.get( key );
+
+      if( session != null && time >= session.start && time < session.last + gap )
+        {
+        aggregate( flowProcess, context, session.values, arguments.getTuple() );
+        session.last = Math.max( session.last, time );
+
+        flowProcess.increment( Windowing.Num_Late_Updated, 1 );
+        return;
+        }
+
+      session = context.closed.get( key );
+
+      if( session != null && time >= session.start && time < session.last + gap && session.last + gap + windows.getAllowedLateness() > context.watermark )
+        {
+        aggregate( flowProcess, context, session.values, arguments.getTuple() );
+        emit( flowProcess, context, key, session.start, session.last + gap, session.values, true );
+
+        flowProcess.increment( Windowing.Num_Late_Updated, 1 );
+        return;
+        }
+
+      flowProcess.increment( Windowing.Num_Late_Dropped, 1 );
+      }
+
+    private void advanceSessions( FlowProcess flowProcess, Context context )
+      {
+      long gap = windows.getSize();
+
+      // in event time order, so an open session is only extended forward
+      while( !context.pending.isEmpty() && context.pending.peek().time <= context.watermark )
+        {
+        Pending next = context.pending.poll();
+        Session session = context.sessions.get( next.key );
+
+        if( session != null && next.time >= session.last + gap )
+          {
+          context.sessions.remove( next.key );
+          closeSession( flowProcess, context, next.key, session );
+          session = null;
+          }
+
+        if( session == null )
+          {
+          session = new Session( next.time, functors.length );
+          context.sessions.put( next.key, session );
+          }
+
+        aggregate( flowProcess, context, session.values, next.tuple );
+        session.last = Math.max( session.last, next.time );
+        }
+
+      // sessions are ordered by their last update, so the eldest closes first, a late update
+      // may reorder a session, only delaying its close until those before it have closed
+      Iterator<Map.Entry<Tuple, Session>> iterator = context.sessions.entrySet().iterator();
+
+      while( iterator.hasNext() )
+        {
+        Map.Entry<Tuple, Session> entry = iterator.next();
+
+        if( entry.getValue().last + gap > context.watermark )
+          break;
+
+        iterator.remove();
+        closeSession( flowProcess, context, entry.getKey(), entry.getValue() );
+        }
+
+      Iterator<Session> closed = context.closed.values().iterator();
+
+      while( closed.hasNext() && closed.next().last + gap + windows.getAllowedLateness() <= context.watermark )
+        closed.remove();
+      }
+
+    private void closeSession( FlowProcess flowProcess, Context context, Tuple key, Session session )
+      {
+      boolean retain = windows.getAllowedLateness() > 0;
+
+      emit( flowProcess, context, key, session.start, session.last + windows.getSize(), session.values, retain );
+
+      if( retain )
+        {
+        context.closed.remove( key );
+        context.closed.put( key, session );
+
+        // in the order closed, so the eldest would also be the first discarded by the watermark
+        Iterator<Session> iterator = context.closed.values().iterator();
+
+        while( context.closed.size() > context.capacity )
+          {
+          iterator.next();
+          iterator.remove();
+
+          flowProcess.increment( Windowing.Num_Retained_Evicted, 1 );
+          }
+        }
+
+      flowProcess.increment( Windowing.Num_Windows_Fired, 1 );
+      }
+
+    private void aggregate( FlowProcess flowProcess, Context context, Tuple[] values, Tuple tuple )
+      {
+      for( int i = 0; i < functors.length; i++ )
+        {
+        TupleViews.reset( context.arguments[ i ].getTuple(), tuple );
+        values[ i ] = functors[ i ].aggregate( flowProcess, context.arguments[ i ], values[ i ] );
+        }
+      }
+
+    private void emit( FlowProcess flowProcess, Context context, Tuple key, long start, long end, Tuple[] values, boolean retain )
+      {
+      Tuple[] results = new Tuple[ functors.length + 2 ];
+
+      results[ 0 ] = key;
+      results[ 1 ] = context.window;
+
+      context.window.set( 0, start );
+      context.window.set( 1, end );
+
+      // a retained context may be aggregated again, and complete may modify the given context
+      for( int i = 0; i < functors.length; i++ )
+        results[ i + 2 ] = functors[ i ].complete( flowProcess, retain ? new Tuple( values[ i ] ) : values[ i ] );
+
+      TupleViews.reset( context.result, results );
+
+      context.collector.add( context.result );
+      }
+
+    @Override
+    public void flush( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      Context context = operationCall.getContext();
+
+      context.collector = ( (FunctionCall) operationCall ).getOutputCollector();
+
+      if( windows.isSession() )
+        {
+        context.watermark = Long.MAX_VALUE;
+
+        advanceSessions( flowProcess, context ); // drains all held tuples and closes all sessions
+
+        context.closed.clear();
+        }
+      else
+        {
+        for( Map.Entry<Long, CascadingCache<Tuple, Tuple[]>> entry : context.open.entrySet() )
+          fireWindow( flowProcess, context, entry.getKey(), entry.getValue(), false );
+
+        context.open.clear();
+        context.retained.clear();
+        context.numRetained = 0;
+        context.evictedStart = Long.MIN_VALUE;
+        }
+
+      context.maxTime = Long.MIN_VALUE;
+      context.watermark = Long.MIN_VALUE;
+      }
+
+    @Override
+    public void cleanup( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      operationCall.setContext( null );
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( !( object instanceof WindowFunction ) )
+        return false;
+      if( !super.equals( object ) )
+        return false;
+
+      WindowFunction that = (WindowFunction) object;
+
+      if( capacity != that.capacity )
+        return false;
+      if( !Arrays.equals( argumentFields, that.argumentFields ) )
+        return false;
+      if( !Arrays.equals( functors, that.functors ) )
+        return false;
+      if( groupingFields != null ? !groupingFields.equals( that.groupingFields ) : that.groupingFields != null )
+        return false;
+      if( timeField != null ? !timeField.equals( that.timeField ) : that.timeField != null )
+        return false;
+
+      return windows != null ? windows.equals( that.windows ) : that.windows == null;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      int result = super.hashCode();
+      result = 31 * result + ( groupingFields != null ? groupingFields.hashCode() : 0 );
+      result = 31 * result + ( timeField != null ? timeField.hashCode() : 0 );
+      result = 31 * result + ( argumentFields != null ? Arrays.hashCode( argumentFields ) : 0 );
+      result = 31 * result + ( functors != null ? Arrays.hashCode( functors ) : 0 );
+      result = 31 * result + ( windows != null ? windows.hashCode() : 0 );
+      result = 31 * result + capacity;
+      return result;
+      }
+    }
+
+  private Fields groupingFields;
+  private Fields timeField;
+  private Windows windows;
+  private int capacity;
+  private Fields[] argumentFields;
+  private AggregateByLocally.Functor[] functors;
+
+  /**
+   * Constructor AggregateByWindowLocally creates a new AggregateByWindowLocally instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param timeField      of type Fields
+   * @param windows        of type Windows
+   * @param assemblies     of type AggregateByLocally...
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "timeField", "windows", "assemblies"})
+  public AggregateByWindowLocally( Pipe pipe, Fields groupingFields, Fields timeField, Windows windows, AggregateByLocally... assemblies )
+    {
+    this( null, pipe, groupingFields, timeField, windows, 0, assemblies );
+    }
+
+  /**
+   * Constructor AggregateByWindowLocally creates a new AggregateByWindowLocally instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param timeField      of type Fields
+   * @param windows        of type Windows
+   * @param capacity       of type int
+   * @param assemblies     of type AggregateByLocally...
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "timeField", "windows", "capacity", "assemblies"})
+  public AggregateByWindowLocally( String name, Pipe pipe, Fields groupingFields, Fields timeField, Windows windows, int capacity, AggregateByLocally... assemblies )
+    {
+    super( pipe );
+
+    if( windows == null )
+      throw new IllegalArgumentException( "windows may not be null" );
+
+    if( assemblies.length == 0 )
+      throw new IllegalArgumentException( "at least one assembly is required" );
+
+    this.groupingFields = groupingFields;
+    this.timeField = timeField;
+    this.windows = windows;
+    this.capacity = capacity;
+
+    List<Fields> arguments = new ArrayList<>();
+    List<AggregateByLocally.Functor> functors = new ArrayList<>();
+
+    for( AggregateByLocally assembly : assemblies )
+      {
+      Collections.addAll( arguments, assembly.getArgumentFields() );
+      Collections.addAll( functors, assembly.getFunctors() );
+      }
+
+    this.argumentFields = arguments.toArray( new Fields[ arguments.size() ] );
+    this.functors = functors.toArray( new AggregateByLocally.Functor[ functors.size() ] );
+
+    Fields sortFields = Fields.copyComparators( Fields.merge( this.argumentFields ), this.argumentFields );
+    Fields argumentSelector = Fields.merge( groupingFields, timeField, sortFields );
+
+    WindowFunction function = new WindowFunction( groupingFields, timeField, this.argumentFields, this.functors, windows, capacity );
+
+    if( name != null )
+      pipe = new Pipe( name, pipe );
+
+    setTails( new Each( pipe, argumentSelector, function, Fields.RESULTS ) );
+    }
+
+  /**
+   * Method getGroupingFields returns the Fields this instances will be grouping against.
+   *
+   * @return the current grouping fields
+   */
+  public Fields getGroupingFields()
+    {
+    return groupingFields;
+    }
+
+  /**
+   * Method getTimeField returns the field holding the event time of each tuple.
+   *
+   * @return Fields
+   */
+  public Fields getTimeField()
+    {
+    return timeField;
+    }
+
+  public Windows getWindows()
+    {
+    return windows;
+    }
+
+  public int getCapacity()
+    {
+    return capacity;
+    }
+  }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.util.HyperLogLog;
+
+/**
+ * Class ApproxCountDistinctBy is used to estimate the number of distinct values in a grouping.
+ * <p>
+ * An exact count of distinct values requires a {@link Unique} followed by a {@link CountBy}, two groupings and
+ * memory proportional to the number of distinct values. This SubAssembly instead adds all values to a
+ * {@link HyperLogLog} sketch, of a fixed size, within the {@link HyperLogLogPartials}
+ * {@link AggregateBy.Functor} before the GroupBy operator, and merges all the partial sketches in the
+ * {@link HyperLogLogFinal} {@link Aggregator}. Only one GroupBy is performed.
+ * <p>
+ * The standard error of the estimate is roughly {@code 1.04 / sqrt(2^precision)}, see {@link HyperLogLog}.
+ * Argument tuples where every value is {@code null} are not counted.
+ * <p>
+ * The {@code threshold} value tells the underlying HyperLogLogPartials functions how many unique key sketches to
+ * accumulate in the LRU cache, before emitting the least recently used entry. As each sketch holds
+ * {@code 2^precision} bytes, consider lowering the threshold or precision when there are many grouping keys.
+ *
+ * @see AggregateBy
+ * @see HyperLogLog
+ */
+public class ApproxCountDistinctBy extends AggregateBy
+  {
+  public static class HyperLogLogPartials implements Functor
+    {
+    private final Fields declaredFields;
+    private final int precision;
+
+    /**
+     * Constructor HyperLogLogPartials creates a new HyperLogLogPartials instance.
+     *
+     * @param declaredFields of type Fields
+     * @param precision      of type int
+     */
+    public HyperLogLogPartials( Fields declaredFields, int precision )
+      {
+      if( declaredFields.size() != 1 )
+        throw new IllegalArgumentException( "declared fields may only have one field, got: " + declaredFields );
+
+      this.declaredFields = new Fields( ApproxCountDistinctBy.class.getPackage().getName() + "." + declaredFields.get( 0 ) + ".hll" );
+      this.precision = precision;
+
+      new HyperLogLog( precision ); // fail fast on invalid arguments
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return declaredFields;
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( context == null )
+        context = new Tuple( new HyperLogLog( precision ) );
+
+      Tuple values = args.getTuple();
+
+      if( !allNull( values ) )
+        ( (HyperLogLog) context.getObject( 0 ) ).add( values );
+
+      return context;
+      }
+
+    private static boolean allNull( Tuple values )
+      {
+      for( int i = 0; i < values.size(); i++ )
+        {
+        if( values.getObject( i ) != null )
+          return false;
+        }
+
+      return true;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      return context;
+      }
+    }
+
+  /** Class HyperLogLogFinal is an {@link Aggregator} that merges {@link HyperLogLog} sketches into an estimate. */
+  public static class HyperLogLogFinal extends BaseOperation<HyperLogLogFinal.Context> implements Aggregator<HyperLogLogFinal.Context>
+    {
+    private final int precision;
+
+    protected static class Context
+      {
+      HyperLogLog sketch;
+      final Tuple result = Tuple.size( 1 );
+      }
+
+    /**
+     * Constructor HyperLogLogFinal creates a new HyperLogLogFinal instance.
+     *
+     * @param fieldDeclaration of type Fields
+     * @param precision        of type int
+     */
+    @ConstructorProperties({"fieldDeclaration", "precision"})
+    public HyperLogLogFinal( Fields fieldDeclaration, int precision )
+      {
+      super( 1, fieldDeclaration.applyTypes( Long.TYPE ) );
+
+      if( fieldDeclaration.size() != 1 )
+        throw new IllegalArgumentException( "fieldDeclaration may only declare 1 field, got: " + fieldDeclaration.size() );
+
+      this.precision = precision;
+      }
+
+    public int getPrecision()
+      {
+      return precision;
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      operationCall.setContext( new Context() );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      aggregatorCall.getContext().sketch = new HyperLogLog( precision );
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      HyperLogLog sketch = (HyperLogLog) aggregatorCall.getArguments().getObject( 0 );
+
+      if( sketch != null )
+        aggregatorCall.getContext().sketch.merge( sketch );
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      Context context = aggregatorCall.getContext();
+
+      context.result.set( 0, context.sketch.estimate() );
+
+      aggregatorCall.getOutputCollector().add( context.result );
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( !( object instanceof HyperLogLogFinal ) )
+        return false;
+      if( !super.equals( object ) )
+        return false;
+
+      return precision == ( (HyperLogLogFinal) object ).precision;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      return 31 * super.hashCode() + precision;
+      }
+    }
+
+  /**
+   * Constructor ApproxCountDistinctBy creates a new ApproxCountDistinctBy instance. Use this constructor when used
+   * with a {@link AggregateBy} instance.
+   *
+   * @param valueFields of type Fields
+   * @param countField  of type Fields
+   */
+  @ConstructorProperties({"valueFields", "countField"})
+  public ApproxCountDistinctBy( Fields valueFields, Fields countField )
+    {
+    this( valueFields, countField, HyperLogLog.DEFAULT_PRECISION );
+    }
+
+  /**
+   * Constructor ApproxCountDistinctBy creates a new ApproxCountDistinctBy instance. Use this constructor when used
+   * with a {@link AggregateBy} instance.
+   *
+   * @param valueFields of type Fields
+   * @param countField  of type Fields
+   * @param precision   of type int
+   */
+  @ConstructorProperties({"valueFields", "countField", "precision"})
+  public ApproxCountDistinctBy( Fields valueFields, Fields countField, int precision )
+    {
+    super( valueFields, new HyperLogLogPartials( countField, precision ), new HyperLogLogFinal( countField, precision ) );
+    }
+
+  //////////////
+
+  /**
+   * Constructor ApproxCountDistinctBy creates a new ApproxCountDistinctBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param countField     of type Fields
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueFields", "countField"})
+  public ApproxCountDistinctBy( Pipe pipe, Fields groupingFields, Fields valueFields, Fields countField )
+    {
+    this( null, pipe, groupingFields, valueFields, countField, HyperLogLog.DEFAULT_PRECISION, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor ApproxCountDistinctBy creates a new ApproxCountDistinctBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param countField     of type Fields
+   * @param precision      of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "valueFields", "countField", "precision"})
+  public ApproxCountDistinctBy( String name, Pipe pipe, Fields groupingFields, Fields valueFields, Fields countField, int precision )
+    {
+    this( name, pipe, groupingFields, valueFields, countField, precision, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor ApproxCountDistinctBy creates a new ApproxCountDistinctBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param countField     of type Fields
+   * @param precision      of type int
+   * @param threshold      of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "valueFields", "countField", "precision", "threshold"})
+  public ApproxCountDistinctBy( String name, Pipe pipe, Fields groupingFields, Fields valueFields, Fields countField, int precision, int threshold )
+    {
+    super( name, Pipe.pipes( pipe ), groupingFields, valueFields, new HyperLogLogPartials( countField, precision ), new HyperLogLogFinal( countField, precision ), threshold );
+    }
+  }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.util.QuantileSketch;
+
+/**
+ * Class ApproxQuantileBy is used to estimate quantiles, the median or 95th percentile for example, of a numeric
+ * value in a grouping.
+ * <p>
+ * An exact quantile requires all values of a grouping to be sorted and held in memory or counted twice. This
+ * SubAssembly instead adds all values to a {@link QuantileSketch}, of bounded size, within the
+ * {@link QuantilePartials} {@link AggregateBy.Functor} before the GroupBy operator, and merges all the partial
+ * sketches in the {@link QuantileFinal} {@link Aggregator}.
+ * <p>
+ * One {@code quantileFields} field must be given for each requested quantile, each result is a {@code Double}, or
+ * {@code null} if the grouping held no values. {@code null} values are ignored.
+ * <p>
+ * The normalized rank error of each estimate is roughly {@code 1.7 / k}, see {@link QuantileSketch}.
+ *
+ * @see AggregateBy
+ * @see QuantileSketch
+ */
+public class ApproxQuantileBy extends AggregateBy
+  {
+  public static class QuantilePartials implements Functor
+    {
+    private final Fields declaredFields;
+    private final int k;
+
+    /**
+     * Constructor QuantilePartials creates a new QuantilePartials instance.
+     *
+     * @param declaredFields of type Fields
+     * @param k              of type int
+     */
+    public QuantilePartials( Fields declaredFields, int k )
+      {
+      if( declaredFields.size() == 0 )
+        throw new IllegalArgumentException( "declared fields may not be empty" );
+
+      this.declaredFields = new Fields( ApproxQuantileBy.class.getPackage().getName() + "." + declaredFields.get( 0 ) + ".kll" );
+      this.k = k;
+
+      new QuantileSketch( k ); // fail fast on invalid arguments
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return declaredFields;
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( context == null )
+        context = new Tuple( new QuantileSketch( k ) );
+
+      if( args.getObject( 0 ) != null )
+        ( (QuantileSketch) context.getObject( 0 ) ).add( args.getDouble( 0 ) );
+
+      return context;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      return context;
+      }
+    }
+
+  /** Class QuantileFinal is an {@link Aggregator} that merges {@link QuantileSketch} sketches into estimates. */
+  public static class QuantileFinal extends BaseOperation<QuantileFinal.Context> implements Aggregator<QuantileFinal.Context>
+    {
+    private final double[] quantiles;
+    private final int k;
+
+    protected static class Context
+      {
+      QuantileSketch sketch;
+      Tuple result;
+      }
+
+    /**
+     * Constructor QuantileFinal creates a new QuantileFinal instance.
+     *
+     * @param fieldDeclaration of type Fields
+     * @param quantiles        of type double[]
+     * @param k                of type int
+     */
+    @ConstructorProperties({"fieldDeclaration", "quantiles", "k"})
+    public QuantileFinal( Fields fieldDeclaration, double[] quantiles, int k )
+      {
+      super( 1, makeFieldDeclaration( fieldDeclaration ) );
+
+      if( quantiles.length == 0 )
+        throw new IllegalArgumentException( "at least one quantile is required" );
+
+      if( fieldDeclaration.size() != quantiles.length )
+        throw new IllegalArgumentException( "fieldDeclaration must declare one field for each quantile, got: " + fieldDeclaration.printVerbose() + ", quantiles: " + Arrays.toString( quantiles ) );
+
+      for( double quantile : quantiles )
+        {
+        if( quantile < 0 || quantile > 1 )
+          throw new IllegalArgumentException( "quantiles must be between zero and one, got: " + quantile );
+        }
+
+      this.quantiles = Arrays.copyOf( quantiles, quantiles.length );
+      this.k = k;
+      }
+
+    private static Fields makeFieldDeclaration( Fields fieldDeclaration )
+      {
+      if( fieldDeclaration.hasTypes() )
+        return fieldDeclaration;
+
+      Type[] types = new Type[ fieldDeclaration.size() ];
+
+      Arrays.fill( types, Double.class );
+
+      return fieldDeclaration.applyTypes( types );
+      }
+
+    public double[] getQuantiles()
+      {
+      return Arrays.copyOf( quantiles, quantiles.length );
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      Context context = new Context();
+
+      context.result = Tuple.size( quantiles.length );
+
+      operationCall.setContext( context );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      aggregatorCall.getContext().sketch = new QuantileSketch( k );
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      QuantileSketch sketch = (QuantileSketch) aggregatorCall.getArguments().getObject( 0 );
+
+      if( sketch != null )
+        aggregatorCall.getContext().sketch.merge( sketch );
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      Context context = aggregatorCall.getContext();
+
+      for( int i = 0; i < quantiles.length; i++ )
+        context.result.set( i, context.sketch.getCount() == 0 ? null : context.sketch.getQuantile( quantiles[ i ] ) );
+
+      aggregatorCall.getOutputCollector().add( context.result );
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( !( object instanceof QuantileFinal ) )
+        return false;
+      if( !super.equals( object ) )
+        return false;
+
+      QuantileFinal that = (QuantileFinal) object;
+
+      return k == that.k && Arrays.equals( quantiles, that.quantiles );
+      }
+
+    @Override
+    public int hashCode()
+      {
+      int result = super.hashCode();
+      result = 31 * result + Arrays.hashCode( quantiles );
+      result = 31 * result + k;
+      return result;
+      }
+    }
+
+  /**
+   * Constructor ApproxQuantileBy creates a new ApproxQuantileBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueField     of type Fields
+   * @param quantileFields of type Fields
+   * @param quantiles      of type double...
+   */
+  @ConstructorProperties({"valueField", "quantileFields", "quantiles"})
+  public ApproxQuantileBy( Fields valueField, Fields quantileFields, double... quantiles )
+    {
+    this( valueField, quantileFields, QuantileSketch.DEFAULT_K, quantiles );
+    }
+
+  /**
+   * Constructor ApproxQuantileBy creates a new ApproxQuantileBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueField     of type Fields
+   * @param quantileFields of type Fields
+   * @param k              of type int
+   * @param quantiles      of type double...
+   */
+  @ConstructorProperties({"valueField", "quantileFields", "k", "quantiles"})
+  public ApproxQuantileBy( Fields valueField, Fields quantileFields, int k, double... quantiles )
+    {
+    super( valueField, new QuantilePartials( quantileFields, k ), new QuantileFinal( quantileFields, quantiles, k ) );
+    }
+
+  //////////////
+
+  /**
+   * Constructor ApproxQuantileBy creates a new ApproxQuantileBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueField     of type Fields
+   * @param quantileFields of type Fields
+   * @param quantiles      of type double...
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueField", "quantileFields", "quantiles"})
+  public ApproxQuantileBy( Pipe pipe, Fields groupingFields, Fields valueField, Fields quantileFields, double... quantiles )
+    {
+    this( null, pipe, groupingFields, valueField, quantileFields, QuantileSketch.DEFAULT_K, USE_DEFAULT_THRESHOLD, quantiles );
+    }
+
+  /**
+   * Constructor ApproxQuantileBy creates a new ApproxQuantileBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueField     of type Fields
+   * @param quantileFields of type Fields
+   * @param k              of type int
+   * @param threshold      of type int
+   * @param quantiles      of type double...
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "valueField", "quantileFields", "k", "threshold", "quantiles"})
+  public ApproxQuantileBy( String name, Pipe pipe, Fields groupingFields, Fields valueField, Fields quantileFields, int k, int threshold, double... quantiles )
+    {
+    super( name, Pipe.pipes( pipe ), groupingFields, valueField, new QuantilePartials( quantileFields, k ), new QuantileFinal( quantileFields, quantiles, k ), threshold );
+    }
+  }
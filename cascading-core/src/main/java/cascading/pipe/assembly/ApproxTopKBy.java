@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.util.TopKSketch;
+
+/**
+ * Class ApproxTopKBy is used to find the {@code k} most frequent values, heavy hitters, in a grouping.
+ * <p>
+ * Finding the most frequent values exactly requires counting every distinct value, then sorting the counts. This
+ * SubAssembly instead counts values in a {@link TopKSketch}, holding at most {@code capacity} values, within the
+ * {@link TopKPartials} {@link AggregateBy.Functor} before the GroupBy operator, and merges all the partial sketches in
+ * the {@link TopKFinal} {@link Aggregator}.
+ * <p>
+ * For each grouping, up to {@code k} tuples are emitted in descending count order. The given {@code topFields}
+ * must declare one field for each value field, followed by a field for the estimated count. Counts are never
+ * underestimated, and a larger {@code capacity} reduces any overestimate, see {@link TopKSketch}.
+ * <p>
+ * As more than one tuple is emitted for each grouping, this assembly should not be combined with other
+ * assemblies within a single {@link AggregateBy}.
+ *
+ * @see AggregateBy
+ * @see TopKSketch
+ */
+public class ApproxTopKBy extends AggregateBy
+  {
+  /** Field DEFAULT_CAPACITY_FACTOR, the default capacity is {@code k} times this value */
+  public static final int DEFAULT_CAPACITY_FACTOR = 10;
+
+  public static class TopKPartials implements Functor
+    {
+    private final Fields declaredFields;
+    private final int capacity;
+
+    /**
+     * Constructor TopKPartials creates a new TopKPartials instance.
+     *
+     * @param declaredFields of type Fields
+     * @param capacity       of type int
+     */
+    public TopKPartials( Fields declaredFields, int capacity )
+      {
+      if( declaredFields.size() == 0 )
+        throw new IllegalArgumentException( "declared fields may not be empty" );
+
+      this.declaredFields = new Fields( ApproxTopKBy.class.getPackage().getName() + "." + declaredFields.get( 0 ) + ".topk" );
+      this.capacity = capacity;
+
+      new TopKSketch( capacity ); // fail fast on invalid arguments
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return declaredFields;
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( context == null )
+        context = new Tuple( new TopKSketch( capacity ) );
+
+      ( (TopKSketch) context.getObject( 0 ) ).add( args.getTuple() );
+
+      return context;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      return context;
+      }
+    }
+
+  /** Class TopKFinal is an {@link Aggregator} that merges {@link TopKSketch} sketches and emits the top values. */
+  public static class TopKFinal extends BaseOperation<TopKSketch[]> implements Aggregator<TopKSketch[]>
+    {
+    private final int k;
+    private final int capacity;
+
+    /**
+     * Constructor TopKFinal creates a new TopKFinal instance.
+     *
+     * @param fieldDeclaration of type Fields
+     * @param k                of type int
+     * @param capacity         of type int
+     */
+    @ConstructorProperties({"fieldDeclaration", "k", "capacity"})
+    public TopKFinal( Fields fieldDeclaration, int k, int capacity )
+      {
+      super( 1, fieldDeclaration );
+
+      if( fieldDeclaration.size() < 2 )
+        throw new IllegalArgumentException( "fieldDeclaration must declare at least one value field and a count field, got: " + fieldDeclaration.printVerbose() );
+
+      if( k < 1 )
+        throw new IllegalArgumentException( "k must be greater than zero, got: " + k );
+
+      this.k = k;
+      this.capacity = capacity;
+      }
+
+    public int getK()
+      {
+      return k;
+      }
+
+    public int getCapacity()
+      {
+      return capacity;
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<TopKSketch[]> operationCall )
+      {
+      operationCall.setContext( new TopKSketch[ 1 ] );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<TopKSketch[]> aggregatorCall )
+      {
+      aggregatorCall.getContext()[ 0 ] = new TopKSketch( capacity );
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<TopKSketch[]> aggregatorCall )
+      {
+      TopKSketch sketch = (TopKSketch) aggregatorCall.getArguments().getObject( 0 );
+
+      if( sketch != null )
+        aggregatorCall.getContext()[ 0 ].merge( sketch );
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<TopKSketch[]> aggregatorCall )
+      {
+      int size = getFieldDeclaration().size();
+
+      for( TopKSketch.Counter counter : aggregatorCall.getContext()[ 0 ].getTopK( k ) )
+        {
+        Tuple result = Tuple.size( size );
+        Tuple value = counter.getValue();
+
+        for( int i = 0; i < size - 1; i++ )
+          result.set( i, value.getObject( i ) );
+
+        result.set( size - 1, counter.getCount() );
+
+        aggregatorCall.getOutputCollector().add( result );
+        }
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( !( object instanceof TopKFinal ) )
+        return false;
+      if( !super.equals( object ) )
+        return false;
+
+      TopKFinal that = (TopKFinal) object;
+
+      return k == that.k && capacity == that.capacity;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      int result = super.hashCode();
+      result = 31 * result + k;
+      result = 31 * result + capacity;
+      return result;
+      }
+    }
+
+  /**
+   * Constructor ApproxTopKBy creates a new ApproxTopKBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueFields of type Fields
+   * @param topFields   of type Fields
+   * @param k           of type int
+   */
+  @ConstructorProperties({"valueFields", "topFields", "k"})
+  public ApproxTopKBy( Fields valueFields, Fields topFields, int k )
+    {
+    this( valueFields, topFields, k, k * DEFAULT_CAPACITY_FACTOR );
+    }
+
+  /**
+   * Constructor ApproxTopKBy creates a new ApproxTopKBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueFields of type Fields
+   * @param topFields   of type Fields
+   * @param k           of type int
+   * @param capacity    of type int
+   */
+  @ConstructorProperties({"valueFields", "topFields", "k", "capacity"})
+  public ApproxTopKBy( Fields valueFields, Fields topFields, int k, int capacity )
+    {
+    super( verify( valueFields, topFields ), new TopKPartials( topFields, capacity ), new TopKFinal( topFields, k, capacity ) );
+    }
+
+  //////////////
+
+  /**
+   * Constructor ApproxTopKBy creates a new ApproxTopKBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param topFields      of type Fields
+   * @param k              of type int
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueFields", "topFields", "k"})
+  public ApproxTopKBy( Pipe pipe, Fields groupingFields, Fields valueFields, Fields topFields, int k )
+    {
+    this( null, pipe, groupingFields, valueFields, topFields, k, k * DEFAULT_CAPACITY_FACTOR, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor ApproxTopKBy creates a new ApproxTopKBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param topFields      of type Fields
+   * @param k              of type int
+   * @param capacity       of type int
+   * @param threshold      of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "valueFields", "topFields", "k", "capacity", "threshold"})
+  public ApproxTopKBy( String name, Pipe pipe, Fields groupingFields, Fields valueFields, Fields topFields, int k, int capacity, int threshold )
+    {
+    super( name, Pipe.pipes( pipe ), groupingFields, verify( valueFields, topFields ), new TopKPartials( topFields, capacity ), new TopKFinal( topFields, k, capacity ), threshold );
+    }
+
+  private static Fields verify( Fields valueFields, Fields topFields )
+    {
+    if( valueFields.isDefined() && topFields.size() != valueFields.size() + 1 )
+      throw new IllegalArgumentException( "top fields must declare one field for each value field and a count field, got: " + topFields.printVerbose() + ", values: " + valueFields.printVerbose() );
+
+    return valueFields;
+    }
+  }
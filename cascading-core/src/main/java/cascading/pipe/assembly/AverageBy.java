@@ -30,6 +30,7 @@ import cascading.operation.BaseOperation;
 import cascading.operation.OperationCall;
 import cascading.pipe.Pipe;
 import cascading.tuple.Fields;
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.coerce.Coercions;
@@ -75,7 +76,7 @@ public class AverageBy extends AggregateBy
    *
    * @see cascading.pipe.assembly.AverageBy
    */
-  public static class AveragePartials implements Functor
+  public static class AveragePartials implements MergeableFunctor
     {
     private final Fields declaredFields;
     private final Include include;
@@ -114,17 +115,26 @@ public class AverageBy extends AggregateBy
     public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
       {
       if( context == null )
-        context = Tuple.size( 2 );
+        context = new PrimitiveTuple( Double.TYPE, Long.TYPE );
 
       if( include == Include.NO_NULLS && args.getObject( 0 ) == null )
         return context;
 
-      context.set( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
-      context.set( 1, context.getLong( 1 ) + 1 );
+      context.setDouble( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
+      context.setLong( 1, context.getLong( 1 ) + 1 );
 
       return context;
       }
 
+    @Override
+    public Tuple merge( FlowProcess flowProcess, Tuple lhs, Tuple rhs )
+      {
+      lhs.setDouble( 0, lhs.getDouble( 0 ) + rhs.getDouble( 0 ) );
+      lhs.setLong( 1, lhs.getLong( 1 ) + rhs.getLong( 1 ) );
+
+      return lhs;
+      }
+
     @Override
     public Tuple complete( FlowProcess flowProcess, Tuple context )
       {
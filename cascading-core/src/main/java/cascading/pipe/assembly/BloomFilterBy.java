@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.util.BloomFilter;
+
+/**
+ * Class BloomFilterBy is used to build a {@link BloomFilter} over the values of the given key fields in a grouping.
+ * <p>
+ * The resulting filter is declared as a single {@link String} field, see {@link BloomFilter#encode()} and
+ * {@link BloomFilter#decode(String)}.
+ * <p>
+ * This SubAssembly uses the {@link BloomPartials} {@link AggregateBy.Functor} to add all key values observed
+ * by a task to a single partial filter before the GroupBy operator, so only one filter for each grouping is
+ * sent over the network by each task. The {@link BloomMerge} {@link Aggregator} then combines all partial filters.
+ * <p>
+ * The number of inserted values, including duplicates, and the expected false positive rate of each final filter,
+ * in parts per million, are reported by the {@link Bloom} counters. Both counters are summed across all groupings.
+ * <p>
+ * Use {@link Fields#NONE} as the grouping fields to build a single filter over all tuples.
+ *
+ * @see SemiJoinFilter
+ */
+public class BloomFilterBy extends AggregateBy
+  {
+  /** Field DEFAULT_FALSE_POSITIVE_RATE */
+  public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+  public enum Bloom
+    {
+      Keys_Inserted,
+      False_Positive_Rate_PPM
+    }
+
+  public static class BloomPartials implements Functor
+    {
+    private final Fields declaredFields;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+
+    /**
+     * Constructor BloomPartials creates a new BloomPartials instance.
+     *
+     * @param declaredFields    of type Fields
+     * @param expectedKeys      of type long
+     * @param falsePositiveRate of type double
+     */
+    public BloomPartials( Fields declaredFields, long expectedKeys, double falsePositiveRate )
+      {
+      this.declaredFields = declaredFields;
+      this.expectedKeys = expectedKeys;
+      this.falsePositiveRate = falsePositiveRate;
+
+      if( declaredFields.size() != 1 )
+        throw new IllegalArgumentException( "declared fields may only have one field, got: " + declaredFields );
+
+      new BloomFilter( expectedKeys, falsePositiveRate ); // fail fast on invalid arguments
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return declaredFields;
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( context == null )
+        context = new Tuple( new BloomFilter( expectedKeys, falsePositiveRate ) );
+
+      ( (BloomFilter) context.getObject( 0 ) ).add( args.getTuple() );
+
+      return context;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      return new Tuple( ( (BloomFilter) context.getObject( 0 ) ).encode() );
+      }
+    }
+
+  /** Class BloomMerge is an {@link Aggregator} that combines encoded {@link BloomFilter} values. */
+  public static class BloomMerge extends BaseOperation<BloomFilter[]> implements Aggregator<BloomFilter[]>
+    {
+    /**
+     * Constructor BloomMerge creates a new BloomMerge instance.
+     *
+     * @param fieldDeclaration of type Fields
+     */
+    @ConstructorProperties({"fieldDeclaration"})
+    public BloomMerge( Fields fieldDeclaration )
+      {
+      super( 1, fieldDeclaration );
+
+      if( fieldDeclaration.size() != 1 )
+        throw new IllegalArgumentException( "fieldDeclaration may only declare 1 field, got: " + fieldDeclaration.size() );
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<BloomFilter[]> operationCall )
+      {
+      operationCall.setContext( new BloomFilter[ 1 ] );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<BloomFilter[]> aggregatorCall )
+      {
+      aggregatorCall.getContext()[ 0 ] = null;
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<BloomFilter[]> aggregatorCall )
+      {
+      String encoded = aggregatorCall.getArguments().getString( 0 );
+
+      if( encoded == null )
+        return;
+
+      BloomFilter[] context = aggregatorCall.getContext();
+      BloomFilter filter = BloomFilter.decode( encoded );
+
+      if( context[ 0 ] == null )
+        context[ 0 ] = filter;
+      else
+        context[ 0 ].merge( filter );
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<BloomFilter[]> aggregatorCall )
+      {
+      BloomFilter filter = aggregatorCall.getContext()[ 0 ];
+
+      if( filter == null )
+        {
+        aggregatorCall.getOutputCollector().add( Tuple.size( 1 ) );
+        return;
+        }
+
+      flowProcess.increment( Bloom.Keys_Inserted, filter.getInsertions() );
+      flowProcess.increment( Bloom.False_Positive_Rate_PPM, Math.round( filter.getExpectedFalsePositiveRate() * 1_000_000 ) );
+
+      aggregatorCall.getOutputCollector().add( new Tuple( filter.encode() ) );
+      }
+
+    @Override
+    public void cleanup( FlowProcess flowProcess, OperationCall<BloomFilter[]> operationCall )
+      {
+      operationCall.setContext( null );
+      }
+    }
+
+  /**
+   * Constructor BloomFilterBy creates a new BloomFilterBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param keyFields         of type Fields
+   * @param bloomField        of type Fields
+   * @param expectedKeys      of type long
+   * @param falsePositiveRate of type double
+   */
+  @ConstructorProperties({"keyFields", "bloomField", "expectedKeys", "falsePositiveRate"})
+  public BloomFilterBy( Fields keyFields, Fields bloomField, long expectedKeys, double falsePositiveRate )
+    {
+    super( keyFields, new BloomPartials( bloomField.applyTypes( String.class ), expectedKeys, falsePositiveRate ), new BloomMerge( bloomField.applyTypes( String.class ) ) );
+    }
+
+  //////////////
+
+  /**
+   * Constructor BloomFilterBy creates a new BloomFilterBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param keyFields      of type Fields
+   * @param bloomField     of type Fields
+   * @param expectedKeys   of type long
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "keyFields", "bloomField", "expectedKeys"})
+  public BloomFilterBy( Pipe pipe, Fields groupingFields, Fields keyFields, Fields bloomField, long expectedKeys )
+    {
+    this( null, pipe, groupingFields, keyFields, bloomField, expectedKeys, DEFAULT_FALSE_POSITIVE_RATE );
+    }
+
+  /**
+   * Constructor BloomFilterBy creates a new BloomFilterBy instance.
+   *
+   * @param name              of type String
+   * @param pipe              of type Pipe
+   * @param groupingFields    of type Fields
+   * @param keyFields         of type Fields
+   * @param bloomField        of type Fields
+   * @param expectedKeys      of type long
+   * @param falsePositiveRate of type double
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "keyFields", "bloomField", "expectedKeys", "falsePositiveRate"})
+  public BloomFilterBy( String name, Pipe pipe, Fields groupingFields, Fields keyFields, Fields bloomField, long expectedKeys, double falsePositiveRate )
+    {
+    this( name, pipe, groupingFields, keyFields, bloomField, expectedKeys, falsePositiveRate, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor BloomFilterBy creates a new BloomFilterBy instance.
+   *
+   * @param name              of type String
+   * @param pipe              of type Pipe
+   * @param groupingFields    of type Fields
+   * @param keyFields         of type Fields
+   * @param bloomField        of type Fields
+   * @param expectedKeys      of type long
+   * @param falsePositiveRate of type double
+   * @param threshold         of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "keyFields", "bloomField", "expectedKeys", "falsePositiveRate", "threshold"})
+  public BloomFilterBy( String name, Pipe pipe, Fields groupingFields, Fields keyFields, Fields bloomField, long expectedKeys, double falsePositiveRate, int threshold )
+    {
+    super( name, Pipe.pipes( pipe ), groupingFields, keyFields, new BloomPartials( bloomField.applyTypes( String.class ), expectedKeys, falsePositiveRate ), new BloomMerge( bloomField.applyTypes( String.class ) ), threshold );
+    }
+  }
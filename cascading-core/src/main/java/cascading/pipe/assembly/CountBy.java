@@ -26,6 +26,7 @@ import cascading.flow.FlowProcess;
 import cascading.operation.aggregator.Sum;
 import cascading.pipe.Pipe;
 import cascading.tuple.Fields;
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.Tuples;
@@ -78,7 +79,7 @@ public class CountBy extends AggregateBy
    *
    * @see CountBy
    */
-  public static class CountPartials implements Functor
+  public static class CountPartials implements MergeableFunctor
     {
     private final Fields declaredFields;
     private final Include include;
@@ -116,7 +117,10 @@ public class CountBy extends AggregateBy
     public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
       {
       if( context == null )
-        context = new Tuple( 0L );
+        {
+        context = new PrimitiveTuple( Long.TYPE );
+        context.setLong( 0, 0L );
+        }
 
       switch( include )
         {
@@ -136,11 +140,19 @@ public class CountBy extends AggregateBy
           break;
         }
 
-      context.set( 0, context.getLong( 0 ) + 1L );
+      context.setLong( 0, context.getLong( 0 ) + 1L );
 
       return context;
       }
 
+    @Override
+    public Tuple merge( FlowProcess flowProcess, Tuple lhs, Tuple rhs )
+      {
+      lhs.setLong( 0, lhs.getLong( 0 ) + rhs.getLong( 0 ) );
+
+      return lhs;
+      }
+
     @Override
     public Tuple complete( FlowProcess flowProcess, Tuple context )
       {
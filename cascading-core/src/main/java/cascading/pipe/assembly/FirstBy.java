@@ -65,10 +65,11 @@ public class FirstBy extends AggregateBy
    *
    * @see cascading.pipe.assembly.FirstBy
    */
-  public static class FirstPartials implements Functor
+  public static class FirstPartials implements MergeableFunctor
     {
     private final Fields declaredFields;
     private Boolean doComparison;
+    private Fields comparatorFields;
 
     /**
      * Constructor FirstPartials creates a new FirstPartials instance.
@@ -90,7 +91,10 @@ public class FirstBy extends AggregateBy
     public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
       {
       if( doComparison == null )
+        {
         doComparison = args.getFields().hasComparators(); // ensure we use resolved fields
+        comparatorFields = doComparison ? args.getFields() : null;
+        }
 
       if( context == null || ( doComparison && args.getFields().compare( context, args.getTuple() ) > 0 ) )
         return args.getTupleCopy();
@@ -98,6 +102,15 @@ public class FirstBy extends AggregateBy
       return context;
       }
 
+    @Override
+    public Tuple merge( FlowProcess flowProcess, Tuple lhs, Tuple rhs )
+      {
+      if( comparatorFields != null && comparatorFields.compare( lhs, rhs ) > 0 )
+        return rhs;
+
+      return lhs; // the lhs was seen first
+      }
+
     @Override
     public Tuple complete( FlowProcess flowProcess, Tuple context )
       {
@@ -56,7 +56,7 @@ public class MaxBy extends AggregateBy
   @Deprecated
   public static final int DEFAULT_THRESHOLD = 10000;
 
-  public static class MaxPartials implements Functor
+  public static class MaxPartials implements MergeableFunctor
     {
     private final Fields declaredFields;
 
@@ -91,6 +91,21 @@ public class MaxBy extends AggregateBy
       return context;
       }
 
+    @Override
+    public Tuple merge( FlowProcess flowProcess, Tuple lhs, Tuple rhs )
+      {
+      Comparable lhsValue = (Comparable) lhs.getObject( 0 );
+      Comparable rhsValue = (Comparable) rhs.getObject( 0 );
+
+      if( rhsValue == null )
+        return lhs;
+
+      if( ( lhsValue == null ) || ( lhsValue.compareTo( rhsValue ) < 0 ) )
+        lhs.set( 0, rhsValue );
+
+      return lhs;
+      }
+
     @Override
     public Tuple complete( FlowProcess flowProcess, Tuple context )
       {
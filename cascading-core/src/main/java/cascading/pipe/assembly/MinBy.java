@@ -52,7 +52,7 @@ import cascading.tuple.TupleEntry;
  */
 public class MinBy extends AggregateBy
   {
-  public static class MinPartials implements Functor
+  public static class MinPartials implements MergeableFunctor
     {
     private final Fields declaredFields;
 
@@ -88,6 +88,21 @@ public class MinBy extends AggregateBy
       return context;
       }
 
+    @Override
+    public Tuple merge( FlowProcess flowProcess, Tuple lhs, Tuple rhs )
+      {
+      Comparable lhsValue = (Comparable) lhs.getObject( 0 );
+      Comparable rhsValue = (Comparable) rhs.getObject( 0 );
+
+      if( rhsValue == null )
+        return lhs;
+
+      if( ( lhsValue == null ) || ( lhsValue.compareTo( rhsValue ) > 0 ) )
+        lhs.set( 0, rhsValue );
+
+      return lhs;
+      }
+
     @Override
     public Tuple complete( FlowProcess flowProcess, Tuple context )
       {
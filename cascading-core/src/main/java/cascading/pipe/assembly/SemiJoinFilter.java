@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.BaseOperation;
+import cascading.operation.Filter;
+import cascading.operation.FilterCall;
+import cascading.operation.OperationCall;
+import cascading.pipe.Each;
+import cascading.pipe.HashJoin;
+import cascading.pipe.Pipe;
+import cascading.pipe.SubAssembly;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.util.BloomFilter;
+
+/**
+ * Class SemiJoinFilter is a {@link SubAssembly} that removes all tuples from a large stream whose key values are not
+ * found in a smaller stream, before the large stream is joined against the smaller one.
+ * <p>
+ * When an inner {@link cascading.pipe.CoGroup} or {@link HashJoin} joins a large stream against a small and selective
+ * stream, most of the large stream is shuffled or streamed only to be discarded by the join. This assembly builds
+ * a {@link BloomFilter} over the keys of the small stream, via {@link BloomFilterBy}, and applies it to the large
+ * stream with a {@link BloomMatch} {@link Filter}, so the join only receives tuples likely to match.
+ * <p>
+ * The tails of this assembly declare the same fields as the given large stream, and the small stream is
+ * not modified, so both may be passed to the subsequent join unchanged, for example:
+ * <pre>
+ * Pipe filtered = new SemiJoinFilter( facts, new Fields( "id" ), dimension, new Fields( "dim_id" ), 10_000 );
+ * Pipe join = new CoGroup( filtered, new Fields( "id" ), dimension, new Fields( "dim_id" ) );
+ * </pre>
+ * The filter is delivered to the large stream through a {@link HashJoin}, so on MapReduce the filter is built in
+ * a prior step, on Apache Tez the filter is broadcast from a prior vertex, and in local mode the large stream is
+ * filtered after the small stream has been fully read.
+ * <p>
+ * As some keys will falsely be reported as matching, the subsequent join must still be performed. Key values are
+ * compared by their type and value, see {@link BloomFilter}. Key fields declaring a
+ * {@link java.util.Comparator} are rejected as equal values may differ in representation.
+ * <p>
+ * Only apply this assembly where tuples without a match are discarded by the join, an inner join or the
+ * right side of a right join, otherwise the results of the join will change.
+ * <p>
+ * The number of tuples passed and filtered are reported by the {@link SemiJoin} counters, and the false positive rate
+ * of the filter by the {@link BloomFilterBy.Bloom} counters.
+ */
+public class SemiJoinFilter extends SubAssembly
+  {
+  /** Field BLOOM_FIELD */
+  public static final Fields BLOOM_FIELD = new Fields( "__semi_join_bloom__", String.class );
+
+  public enum SemiJoin
+    {
+      Tuples_Passed,
+      Tuples_Filtered
+    }
+
+  /**
+   * Class BloomMatch is a {@link Filter} that expects the key values as the leading arguments and an encoded
+   * {@link BloomFilter} as the last argument. Any tuple whose key values are not found in the filter is removed.
+   * <p>
+   * The decoded filter is retained for as long as the same encoded value is observed.
+   */
+  public static class BloomMatch extends BaseOperation<BloomMatch.Context> implements Filter<BloomMatch.Context>
+    {
+    protected static class Context
+      {
+      String encoded;
+      BloomFilter filter;
+      Tuple key;
+      long passed;
+      long filtered;
+      }
+
+    /** Constructor BloomMatch creates a new BloomMatch instance. */
+    public BloomMatch()
+      {
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      Context context = new Context();
+
+      context.key = Tuple.size( operationCall.getArgumentFields().size() - 1 );
+
+      operationCall.setContext( context );
+      }
+
+    @Override
+    public boolean isRemove( FlowProcess flowProcess, FilterCall<Context> filterCall )
+      {
+      Context context = filterCall.getContext();
+      TupleEntry arguments = filterCall.getArguments();
+      int last = arguments.size() - 1;
+      String encoded = arguments.getString( last );
+
+      if( encoded == null )
+        {
+        context.filtered++;
+        return true;
+        }
+
+      if( !encoded.equals( context.encoded ) )
+        {
+        context.filter = BloomFilter.decode( encoded );
+        context.encoded = encoded;
+        }
+
+      for( int i = 0; i < last; i++ )
+        context.key.set( i, arguments.getObject( i ) );
+
+      if( context.filter.mightContain( context.key ) )
+        {
+        context.passed++;
+        return false;
+        }
+
+      context.filtered++;
+      return true;
+      }
+
+    @Override
+    public void cleanup( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      Context context = operationCall.getContext();
+
+      if( context == null )
+        return;
+
+      flowProcess.increment( SemiJoin.Tuples_Passed, context.passed );
+      flowProcess.increment( SemiJoin.Tuples_Filtered, context.filtered );
+
+      operationCall.setContext( null );
+      }
+    }
+
+  private Fields largeKeyFields;
+  private Fields smallKeyFields;
+  private long expectedKeys;
+  private double falsePositiveRate;
+  private transient BloomFilterBy bloomFilterBy;
+
+  /**
+   * Constructor SemiJoinFilter creates a new SemiJoinFilter instance.
+   *
+   * @param large          of type Pipe
+   * @param largeKeyFields of type Fields
+   * @param small          of type Pipe
+   * @param smallKeyFields of type Fields
+   * @param expectedKeys   of type long
+   */
+  @ConstructorProperties({"large", "largeKeyFields", "small", "smallKeyFields", "expectedKeys"})
+  public SemiJoinFilter( Pipe large, Fields largeKeyFields, Pipe small, Fields smallKeyFields, long expectedKeys )
+    {
+    this( null, large, largeKeyFields, small, smallKeyFields, expectedKeys, BloomFilterBy.DEFAULT_FALSE_POSITIVE_RATE );
+    }
+
+  /**
+   * Constructor SemiJoinFilter creates a new SemiJoinFilter instance.
+   *
+   * @param name              of type String
+   * @param large             of type Pipe
+   * @param largeKeyFields    of type Fields
+   * @param small             of type Pipe
+   * @param smallKeyFields    of type Fields
+   * @param expectedKeys      of type long
+   * @param falsePositiveRate of type double
+   */
+  @ConstructorProperties({"name", "large", "largeKeyFields", "small", "smallKeyFields", "expectedKeys", "falsePositiveRate"})
+  public SemiJoinFilter( String name, Pipe large, Fields largeKeyFields, Pipe small, Fields smallKeyFields, long expectedKeys, double falsePositiveRate )
+    {
+    super( large, small );
+
+    this.largeKeyFields = largeKeyFields;
+    this.smallKeyFields = smallKeyFields;
+    this.expectedKeys = expectedKeys;
+    this.falsePositiveRate = falsePositiveRate;
+
+    verify( "large", largeKeyFields );
+    verify( "small", smallKeyFields );
+
+    if( largeKeyFields.size() != smallKeyFields.size() )
+      throw new IllegalArgumentException( "key fields must be the same size, large: " + largeKeyFields + ", small: " + smallKeyFields );
+
+    String bloomName = name == null ? null : name + "-bloom";
+
+    bloomFilterBy = new BloomFilterBy( bloomName, small, Fields.NONE, smallKeyFields, BLOOM_FIELD, expectedKeys, falsePositiveRate );
+
+    // a cross join against the single bloom filter tuple
+    Pipe pipe = new HashJoin( name, large, Fields.NONE, bloomFilterBy, Fields.NONE );
+
+    pipe = new Each( pipe, largeKeyFields.append( BLOOM_FIELD ), new BloomMatch() );
+
+    pipe = new Discard( pipe, BLOOM_FIELD );
+
+    setTails( pipe );
+    }
+
+  private static void verify( String side, Fields keyFields )
+    {
+    if( keyFields == null || !keyFields.isDefined() || keyFields.isNone() )
+      throw new IllegalArgumentException( side + " key fields must be defined, got: " + keyFields );
+
+    if( keyFields.hasComparators() )
+      throw new IllegalArgumentException( side + " key fields may not declare comparators, got: " + keyFields );
+    }
+
+  public Fields getLargeKeyFields()
+    {
+    return largeKeyFields;
+    }
+
+  public Fields getSmallKeyFields()
+    {
+    return smallKeyFields;
+    }
+
+  /**
+   * Method getExpectedKeys returns the number of distinct keys the filter was sized to hold.
+   *
+   * @return long
+   */
+  public long getExpectedKeys()
+    {
+    return expectedKeys;
+    }
+
+  public double getFalsePositiveRate()
+    {
+    return falsePositiveRate;
+    }
+
+  /**
+   * Method getBloomFilterBy returns the internal {@link BloomFilterBy} building the filter over the small stream.
+   *
+   * @return BloomFilterBy
+   */
+  public BloomFilterBy getBloomFilterBy()
+    {
+    return bloomFilterBy;
+    }
+  }
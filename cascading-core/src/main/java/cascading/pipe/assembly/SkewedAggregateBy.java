@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.BaseOperation;
+import cascading.operation.Function;
+import cascading.operation.FunctionCall;
+import cascading.operation.OperationCall;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.pipe.SubAssembly;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+
+/**
+ * Class SkewedAggregateBy is a {@link SubAssembly} that performs the same aggregation as {@link AggregateBy}, but
+ * spreads the values of frequently occurring grouping keys, heavy hitters, across many partitions.
+ * <p>
+ * Grouping keys are hashed to exactly one partition by the underlying platform, so a single key holding a large
+ * fraction of all values will leave one reducer to do most of the work. To prevent this, each map side task samples
+ * the grouping keys it observes and marks any key found in more than the given {@code threshold} fraction of the
+ * sample as hot. Values of hot keys are then given a salt value between {@code 0} and {@code numSalts - 1},
+ * all other keys receive the salt {@code 0}.
+ * <p>
+ * The first {@link GroupBy} aggregates on the grouping and salt fields, the second {@link GroupBy} on the grouping
+ * fields alone re-applying each {@link Aggregator} to the results of the first. As only a small number of partial
+ * results exist for any key after the first grouping, the second grouping remains well balanced.
+ * <p>
+ * Because the final aggregators are applied twice, only associative aggregations may be used, for example
+ * {@link SumBy}, {@link CountBy}, {@link MinBy}, {@link MaxBy}, and {@link FirstBy}. An {@link AggregateBy} whose
+ * final {@link Aggregator} declares a different number of fields than its partial results, like {@link AverageBy},
+ * will be rejected. Argument fields declaring a {@link java.util.Comparator} are also rejected as the ordering of
+ * values is not retained across both groupings.
+ * <p>
+ * The number of sampled tuples, the number of keys found to be hot, and the number of salted tuples are
+ * reported by the {@link Skew} counters, available from {@link cascading.stats.FlowNodeStats} and the other
+ * {@link cascading.stats.CascadingStats} instances.
+ * <p>
+ * By default one in every {@link #DEFAULT_SAMPLE_INTERVAL} tuples is sampled, and no key is marked hot until
+ * {@link #DEFAULT_SAMPLE_MINIMUM} tuples have been sampled, see {@link #SKEW_SAMPLE_INTERVAL} and
+ * {@link #SKEW_SAMPLE_MINIMUM} to change these values.
+ *
+ * @see AggregateBy
+ */
+public class SkewedAggregateBy extends SubAssembly
+  {
+  /** property to control how many tuples are observed for every sampled tuple. */
+  public static final String SKEW_SAMPLE_INTERVAL = "cascading.aggregateby.skew.sample.interval";
+
+  /** property to control the number of tuples that must be sampled before any key is marked hot. */
+  public static final String SKEW_SAMPLE_MINIMUM = "cascading.aggregateby.skew.sample.minimum";
+
+  /** Field DEFAULT_SAMPLE_INTERVAL */
+  public static final int DEFAULT_SAMPLE_INTERVAL = 10;
+
+  /** Field DEFAULT_SAMPLE_MINIMUM */
+  public static final int DEFAULT_SAMPLE_MINIMUM = 1000;
+
+  /** Field DEFAULT_THRESHOLD */
+  public static final double DEFAULT_THRESHOLD = 0.01;
+
+  /** Field SALT_FIELD */
+  public static final Fields SALT_FIELD = new Fields( "__skew_salt__", Integer.TYPE );
+
+  public enum Skew
+    {
+      Tuples_Sampled,
+      Keys_Hot,
+      Tuples_Salted
+    }
+
+  /**
+   * Class SaltFunction samples the grouping keys of the argument {@link Tuple} stream, and declares a salt value
+   * for each argument. Hot keys are salted round robin across all salt values, all other keys are given the salt
+   * {@code 0}.
+   * <p>
+   * Sampled keys are counted using the Misra-Gries frequent items summary, so only a bounded number of keys
+   * are held in memory regardless of the number of distinct keys observed.
+   */
+  public static class SaltFunction extends BaseOperation<SaltFunction.Context> implements Function<SaltFunction.Context>
+    {
+    private final int numSalts;
+    private final double threshold;
+
+    protected static class Context
+      {
+      final Map<Tuple, long[]> counts = new HashMap<>();
+      final Set<Tuple> hot = new HashSet<>();
+      final Tuple result = Tuple.size( 1 );
+      int interval;
+      int minimum;
+      int capacity;
+      long observed;
+      long sampled;
+      long salted;
+      int nextSalt;
+      }
+
+    /**
+     * Constructor SaltFunction creates a new SaltFunction instance.
+     *
+     * @param saltField of type Fields
+     * @param numSalts  of type int
+     * @param threshold of type double
+     */
+    @ConstructorProperties({"saltField", "numSalts", "threshold"})
+    public SaltFunction( Fields saltField, int numSalts, double threshold )
+      {
+      super( saltField );
+
+      if( saltField.size() != 1 )
+        throw new IllegalArgumentException( "salt field may only have one field, got: " + saltField );
+
+      if( numSalts < 1 )
+        throw new IllegalArgumentException( "numSalts must be greater than zero, got: " + numSalts );
+
+      if( threshold <= 0 || threshold >= 1 )
+        throw new IllegalArgumentException( "threshold must be between zero and one, got: " + threshold );
+
+      this.numSalts = numSalts;
+      this.threshold = threshold;
+      }
+
+    public int getNumSalts()
+      {
+      return numSalts;
+      }
+
+    public double getThreshold()
+      {
+      return threshold;
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      Context context = new Context();
+
+      context.interval = Math.max( 1, flowProcess.getIntegerProperty( SKEW_SAMPLE_INTERVAL, DEFAULT_SAMPLE_INTERVAL ) );
+      context.minimum = Math.max( 1, flowProcess.getIntegerProperty( SKEW_SAMPLE_MINIMUM, DEFAULT_SAMPLE_MINIMUM ) );
+      // any key seen more than sampled / ( capacity + 1 ) times is guaranteed to remain in the summary
+      context.capacity = (int) Math.ceil( 1 / threshold );
+
+      operationCall.setContext( context );
+      }
+
+    @Override
+    public void operate( FlowProcess flowProcess, FunctionCall<Context> functionCall )
+      {
+      Context context = functionCall.getContext();
+      Tuple key = functionCall.getArguments().getTuple();
+
+      if( context.observed++ % context.interval == 0 )
+        sample( flowProcess, context, key );
+
+      int salt = 0;
+
+      if( numSalts != 1 && context.hot.contains( key ) )
+        {
+        salt = context.nextSalt;
+        context.nextSalt = ( salt + 1 ) % numSalts;
+        context.salted++;
+        }
+
+      context.result.set( 0, salt );
+
+      functionCall.getOutputCollector().add( context.result );
+      }
+
+    private void sample( FlowProcess flowProcess, Context context, Tuple key )
+      {
+      context.sampled++;
+
+      long[] count = context.counts.get( key );
+
+      if( count != null )
+        count[ 0 ]++;
+      else if( context.counts.size() < context.capacity )
+        context.counts.put( new Tuple( key ), count = new long[]{1} );
+      else
+        decrementAll( context );
+
+      if( count == null || context.sampled < context.minimum || count[ 0 ] < threshold * context.sampled )
+        return;
+
+      if( context.hot.add( new Tuple( key ) ) )
+        flowProcess.increment( Skew.Keys_Hot, 1 );
+      }
+
+    private static void decrementAll( Context context )
+      {
+      Iterator<long[]> iterator = context.counts.values().iterator();
+
+      while( iterator.hasNext() )
+        {
+        if( --iterator.next()[ 0 ] == 0 )
+          iterator.remove();
+        }
+      }
+
+    @Override
+    public void cleanup( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      Context context = operationCall.getContext();
+
+      if( context == null )
+        return;
+
+      flowProcess.increment( Skew.Tuples_Sampled, context.sampled );
+      flowProcess.increment( Skew.Tuples_Salted, context.salted );
+
+      operationCall.setContext( null );
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( !( object instanceof SaltFunction ) )
+        return false;
+      if( !super.equals( object ) )
+        return false;
+
+      SaltFunction that = (SaltFunction) object;
+
+      return numSalts == that.numSalts && Double.compare( that.threshold, threshold ) == 0;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      int result = super.hashCode();
+      result = 31 * result + numSalts;
+      result = 31 * result + Double.hashCode( threshold );
+      return result;
+      }
+    }
+
+  private Fields groupingFields;
+  private int numSalts;
+  private double threshold;
+  private transient AggregateBy saltedAggregateBy;
+  private transient GroupBy groupBy;
+
+  /**
+   * Constructor SkewedAggregateBy creates a new SkewedAggregateBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param numSalts       of type int
+   * @param assemblies     of type AggregateBy...
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "numSalts", "assemblies"})
+  public SkewedAggregateBy( Pipe pipe, Fields groupingFields, int numSalts, AggregateBy... assemblies )
+    {
+    this( null, pipe, groupingFields, numSalts, DEFAULT_THRESHOLD, AggregateBy.USE_DEFAULT_THRESHOLD, assemblies );
+    }
+
+  /**
+   * Constructor SkewedAggregateBy creates a new SkewedAggregateBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param numSalts       of type int
+   * @param threshold      of type double
+   * @param assemblies     of type AggregateBy...
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "numSalts", "threshold", "assemblies"})
+  public SkewedAggregateBy( String name, Pipe pipe, Fields groupingFields, int numSalts, double threshold, AggregateBy... assemblies )
+    {
+    this( name, pipe, groupingFields, numSalts, threshold, AggregateBy.USE_DEFAULT_THRESHOLD, assemblies );
+    }
+
+  /**
+   * Constructor SkewedAggregateBy creates a new SkewedAggregateBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param numSalts       of type int
+   * @param threshold      of type double
+   * @param capacity       of type int
+   * @param assemblies     of type AggregateBy...
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "numSalts", "threshold", "capacity", "assemblies"})
+  public SkewedAggregateBy( String name, Pipe pipe, Fields groupingFields, int numSalts, double threshold, int capacity, AggregateBy... assemblies )
+    {
+    super( pipe );
+
+    this.groupingFields = groupingFields;
+    this.numSalts = numSalts;
+    this.threshold = threshold;
+
+    if( groupingFields == null || !groupingFields.isDefined() )
+      throw new IllegalArgumentException( "grouping fields must be defined, got: " + groupingFields );
+
+    if( assemblies.length == 0 )
+      throw new IllegalArgumentException( "at least one AggregateBy assembly is required" );
+
+    for( AggregateBy assembly : assemblies )
+      verify( assembly );
+
+    Pipe salted = new Each( pipe, groupingFields, new SaltFunction( SALT_FIELD, numSalts, threshold ), Fields.ALL );
+
+    String saltedName = name == null ? null : name + "-salted";
+
+    saltedAggregateBy = new AggregateBy( saltedName, Pipe.pipes( salted ), groupingFields.append( SALT_FIELD ), capacity, assemblies );
+
+    groupBy = new GroupBy( name, saltedAggregateBy, groupingFields );
+
+    Pipe tail = groupBy;
+
+    for( AggregateBy assembly : assemblies )
+      {
+      for( Aggregator aggregator : assembly.getAggregators() )
+        tail = new Every( tail, aggregator.getFieldDeclaration(), aggregator, Fields.ALL );
+      }
+
+    setTails( tail );
+    }
+
+  private static void verify( AggregateBy assembly )
+    {
+    // the order of values is lost once salted results are combined
+    if( Fields.merge( assembly.getArgumentFields() ).hasComparators() )
+      throw new IllegalArgumentException( "argument fields may not declare comparators, got: " + Fields.merge( assembly.getArgumentFields() ) );
+
+    AggregateBy.Functor[] functors = assembly.getFunctors();
+    Aggregator[] aggregators = assembly.getAggregators();
+
+    for( int i = 0; i < aggregators.length; i++ )
+      {
+      Fields partialFields = functors[ i ].getDeclaredFields();
+      Fields finalFields = aggregators[ i ].getFieldDeclaration();
+
+      if( !finalFields.isDefined() || partialFields.size() != finalFields.size() )
+        throw new IllegalArgumentException( "aggregator: " + aggregators[ i ].getClass().getSimpleName() + ", may not be re-applied to its own results, partial fields: " + partialFields + ", final fields: " + finalFields );
+      }
+    }
+
+  /**
+   * Method getGroupingFields returns the Fields this instances will be grouping against.
+   *
+   * @return the current grouping fields
+   */
+  public Fields getGroupingFields()
+    {
+    return groupingFields;
+    }
+
+  /**
+   * Method getNumSalts returns the number of partitions the values of a hot key may be spread across.
+   *
+   * @return int
+   */
+  public int getNumSalts()
+    {
+    return numSalts;
+    }
+
+  /**
+   * Method getThreshold returns the fraction of all sampled tuples a key must be found in to be considered hot.
+   *
+   * @return double
+   */
+  public double getThreshold()
+    {
+    return threshold;
+    }
+
+  /**
+   * Method getSaltedAggregateBy returns the internal {@link AggregateBy} instance grouping on the grouping and
+   * salt fields.
+   *
+   * @return AggregateBy type
+   */
+  public AggregateBy getSaltedAggregateBy()
+    {
+    return saltedAggregateBy;
+    }
+
+  /**
+   * Method getGroupBy returns the internal {@link GroupBy} instance combining the salted results so that any custom
+   * properties can be set on it via {@link cascading.pipe.Pipe#getStepConfigDef()}.
+   *
+   * @return GroupBy type
+   */
+  public GroupBy getGroupBy()
+    {
+    return groupBy;
+    }
+  }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+
+/**
+ * Class SortedLimit is used to return the first {@code limit} Tuples of a tuple stream, in the order of the given
+ * sort fields.
+ * <p>
+ * Typically this relies on a {@link cascading.pipe.GroupBy} over {@link Fields#NONE} with secondary sorting,
+ * followed by a {@link cascading.operation.filter.Limit}, so the whole tuple stream is sorted by a single reducer.
+ * This SubAssembly is a {@link TopNBy} over {@link Fields#NONE}, so each task sends at most {@code limit} Tuples to
+ * the single grouping.
+ * <p>
+ * The result Tuples are emitted in sort order, and declare the given {@code valueFields}.
+ *
+ * @see TopNBy
+ */
+public class SortedLimit extends TopNBy
+  {
+  /**
+   * Constructor SortedLimit creates a new SortedLimit instance.
+   *
+   * @param pipe        of type Pipe
+   * @param valueFields of type Fields
+   * @param sortFields  of type Fields
+   * @param limit       of type int
+   */
+  @ConstructorProperties({"pipe", "valueFields", "sortFields", "limit"})
+  public SortedLimit( Pipe pipe, Fields valueFields, Fields sortFields, int limit )
+    {
+    this( null, pipe, valueFields, sortFields, limit, false );
+    }
+
+  /**
+   * Constructor SortedLimit creates a new SortedLimit instance.
+   *
+   * @param pipe         of type Pipe
+   * @param valueFields  of type Fields
+   * @param sortFields   of type Fields
+   * @param limit        of type int
+   * @param reverseOrder of type boolean
+   */
+  @ConstructorProperties({"pipe", "valueFields", "sortFields", "limit", "reverseOrder"})
+  public SortedLimit( Pipe pipe, Fields valueFields, Fields sortFields, int limit, boolean reverseOrder )
+    {
+    this( null, pipe, valueFields, sortFields, limit, reverseOrder );
+    }
+
+  /**
+   * Constructor SortedLimit creates a new SortedLimit instance.
+   *
+   * @param name         of type String
+   * @param pipe         of type Pipe
+   * @param valueFields  of type Fields
+   * @param sortFields   of type Fields
+   * @param limit        of type int
+   * @param reverseOrder of type boolean
+   */
+  @ConstructorProperties({"name", "pipe", "valueFields", "sortFields", "limit", "reverseOrder"})
+  public SortedLimit( String name, Pipe pipe, Fields valueFields, Fields sortFields, int limit, boolean reverseOrder )
+    {
+    super( name, pipe, Fields.NONE, valueFields, sortFields, limit, reverseOrder, USE_DEFAULT_THRESHOLD );
+    }
+  }
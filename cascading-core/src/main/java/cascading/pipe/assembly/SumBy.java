@@ -27,6 +27,7 @@ import cascading.flow.FlowProcess;
 import cascading.operation.aggregator.Sum;
 import cascading.pipe.Pipe;
 import cascading.tuple.Fields;
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.coerce.Coercions;
@@ -67,7 +68,7 @@ public class SumBy extends AggregateBy
    *
    * @see SumBy
    */
-  public static class SumPartials implements Functor
+  public static class SumPartials implements MergeableFunctor
     {
     private final Fields declaredFields;
     private final Type sumType;
@@ -110,15 +111,34 @@ public class SumBy extends AggregateBy
     public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
       {
       if( context == null )
-        return args.getTupleCopy();
+        {
+        context = new PrimitiveTuple( Double.TYPE ); // hold the running sum without boxing
+        context.set( 0, args.getObject( 0 ) );
+        return context;
+        }
       else if( args.getObject( 0 ) == null )
+        {
         return context;
+        }
 
-      context.set( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
+      context.setDouble( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
 
       return context;
       }
 
+    @Override
+    public Tuple merge( FlowProcess flowProcess, Tuple lhs, Tuple rhs )
+      {
+      if( rhs.getObject( 0 ) == null )
+        return lhs;
+      else if( lhs.getObject( 0 ) == null )
+        return rhs;
+
+      lhs.setDouble( 0, lhs.getDouble( 0 ) + rhs.getDouble( 0 ) );
+
+      return lhs;
+      }
+
     @Override
     public Tuple complete( FlowProcess flowProcess, Tuple context )
       {
@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+
+/**
+ * Class TopNBy is used to return the first {@code n} Tuples of each grouping, in the order of the given sort fields.
+ * <p>
+ * Typically finding the first N Tuples in a grouping relies on a {@link cascading.pipe.GroupBy} with secondary sorting,
+ * followed by a {@link cascading.operation.buffer.FirstNBuffer}, so every Tuple is sorted and sent over the network.
+ * <p>
+ * This SubAssembly instead keeps the first {@code n} Tuples seen for each grouping in a bounded heap within the
+ * {@link TopNPartials} {@link AggregateBy.Functor} before the GroupBy operator, so at most {@code n} Tuples for each
+ * grouping are sent by each task. The {@link TopNFinal} {@link Aggregator} then merges the partial heaps and emits
+ * up to {@code n} Tuples for each grouping, in sort order.
+ * <p>
+ * The {@code sortFields} must be a subset of the {@code valueFields}, if null all the value fields are used. Any
+ * {@link java.util.Comparator} set on the sort fields, via {@link Fields#setComparator(Comparable, Comparator)}, is
+ * honored. If {@code reverseOrder} is true, the last {@code n} Tuples in sort order are returned, largest first.
+ * <p>
+ * Tuples with equal sort values are retained in the order encountered, but as the order values arrive from
+ * each task is not deterministic, which of them is returned is not deterministic.
+ * <p>
+ * Use {@link SortedLimit}, or {@link Fields#NONE} as the grouping fields, to find the first {@code n} Tuples over all
+ * groupings.
+ * <p>
+ * As more than one tuple is emitted for each grouping, this assembly should not be combined with other
+ * assemblies within a single {@link AggregateBy}.
+ *
+ * @see AggregateBy
+ * @see SortedLimit
+ */
+public class TopNBy extends AggregateBy
+  {
+  /** Class TupleOrder compares Tuples holding the value fields by the sort field positions. */
+  protected static class TupleOrder implements Comparator<Tuple>, Serializable
+    {
+    private final int[] positions;
+    private final Comparator[] comparators;
+    private final boolean reverseOrder;
+
+    TupleOrder( Fields valueFields, Fields sortFields, boolean reverseOrder )
+      {
+      if( sortFields == null )
+        sortFields = valueFields;
+
+      this.positions = valueFields.getPos( sortFields );
+      this.comparators = sortFields.getComparators();
+      this.reverseOrder = reverseOrder;
+      }
+
+    @Override
+    public int compare( Tuple lhs, Tuple rhs )
+      {
+      for( int i = 0; i < positions.length; i++ )
+        {
+        Object lhsValue = lhs.getObject( positions[ i ] );
+        Object rhsValue = rhs.getObject( positions[ i ] );
+        int result;
+
+        if( comparators[ i ] != null )
+          result = comparators[ i ].compare( lhsValue, rhsValue );
+        else if( lhsValue == null )
+          result = rhsValue == null ? 0 : -1;
+        else if( rhsValue == null )
+          result = 1;
+        else
+          result = ( (Comparable) lhsValue ).compareTo( rhsValue );
+
+        if( result != 0 )
+          return reverseOrder ? -result : result;
+        }
+
+      return 0;
+      }
+    }
+
+  /** Class Heap retains the first {@code n} Tuples offered, in the given order. */
+  protected static class Heap
+    {
+    private final int n;
+    private final Comparator<Tuple> order;
+    private final PriorityQueue<Tuple> queue; // head is the last retained in order
+
+    Heap( int n, Comparator<Tuple> order )
+      {
+      this.n = n;
+      this.order = order;
+      this.queue = new PriorityQueue<>( Math.min( n, 1024 ) + 1, order.reversed() );
+      }
+
+    void offer( Tuple tuple, boolean copy )
+      {
+      if( queue.size() < n )
+        {
+        queue.add( copy ? new Tuple( tuple ) : tuple );
+        return;
+        }
+
+      if( order.compare( tuple, queue.peek() ) >= 0 )
+        return;
+
+      queue.poll();
+      queue.add( copy ? new Tuple( tuple ) : tuple );
+      }
+
+    List<Tuple> drain()
+      {
+      List<Tuple> result = new ArrayList<>( queue );
+
+      queue.clear();
+      result.sort( order );
+
+      return result;
+      }
+    }
+
+  public static class TopNPartials implements Functor
+    {
+    private final Fields declaredFields;
+    private final TupleOrder order;
+    private final int n;
+
+    /**
+     * Constructor TopNPartials creates a new TopNPartials instance.
+     *
+     * @param valueFields  of type Fields
+     * @param sortFields   of type Fields
+     * @param n            of type int
+     * @param reverseOrder of type boolean
+     */
+    public TopNPartials( Fields valueFields, Fields sortFields, int n, boolean reverseOrder )
+      {
+      verify( valueFields, n );
+
+      this.declaredFields = new Fields( TopNBy.class.getPackage().getName() + "." + valueFields.get( 0 ) + ".topn" );
+      this.order = new TupleOrder( valueFields, sortFields, reverseOrder );
+      this.n = n;
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return declaredFields;
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( context == null )
+        context = new Tuple( new Heap( n, order ) );
+
+      ( (Heap) context.getObject( 0 ) ).offer( args.getTuple(), true );
+
+      return context;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      List<Tuple> tuples = ( (Heap) context.getObject( 0 ) ).drain();
+
+      return new Tuple( (Object) new Tuple( tuples.toArray() ) ); // nested tuples are supported by all platforms
+      }
+    }
+
+  /** Class TopNFinal is an {@link Aggregator} that merges the partial heaps and emits the first {@code n} Tuples. */
+  public static class TopNFinal extends BaseOperation<Heap[]> implements Aggregator<Heap[]>
+    {
+    private final Fields sortFields;
+    private final int n;
+    private final boolean reverseOrder;
+    private final TupleOrder order;
+
+    /**
+     * Constructor TopNFinal creates a new TopNFinal instance.
+     *
+     * @param fieldDeclaration of type Fields
+     * @param sortFields       of type Fields
+     * @param n                of type int
+     * @param reverseOrder     of type boolean
+     */
+    @ConstructorProperties({"fieldDeclaration", "sortFields", "n", "reverseOrder"})
+    public TopNFinal( Fields fieldDeclaration, Fields sortFields, int n, boolean reverseOrder )
+      {
+      super( 1, fieldDeclaration );
+
+      verify( fieldDeclaration, n );
+
+      this.sortFields = sortFields;
+      this.n = n;
+      this.reverseOrder = reverseOrder;
+      this.order = new TupleOrder( fieldDeclaration, sortFields, reverseOrder );
+      }
+
+    public Fields getSortFields()
+      {
+      return sortFields;
+      }
+
+    public int getN()
+      {
+      return n;
+      }
+
+    public boolean isReverseOrder()
+      {
+      return reverseOrder;
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Heap[]> operationCall )
+      {
+      operationCall.setContext( new Heap[]{new Heap( n, order )} );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<Heap[]> aggregatorCall )
+      {
+      aggregatorCall.getContext()[ 0 ].drain();
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<Heap[]> aggregatorCall )
+      {
+      Tuple partial = (Tuple) aggregatorCall.getArguments().getObject( 0 );
+
+      if( partial == null )
+        return;
+
+      Heap heap = aggregatorCall.getContext()[ 0 ];
+
+      for( Object value : partial )
+        heap.offer( (Tuple) value, false ); // partials are always new instances
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<Heap[]> aggregatorCall )
+      {
+      for( Tuple tuple : aggregatorCall.getContext()[ 0 ].drain() )
+        aggregatorCall.getOutputCollector().add( tuple );
+      }
+
+    @Override
+    public void cleanup( FlowProcess flowProcess, OperationCall<Heap[]> operationCall )
+      {
+      operationCall.setContext( null );
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( !( object instanceof TopNFinal ) )
+        return false;
+      if( !super.equals( object ) )
+        return false;
+
+      TopNFinal that = (TopNFinal) object;
+
+      if( n != that.n || reverseOrder != that.reverseOrder )
+        return false;
+
+      return sortFields != null ? sortFields.equals( that.sortFields ) : that.sortFields == null;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      int result = super.hashCode();
+      result = 31 * result + ( sortFields != null ? sortFields.hashCode() : 0 );
+      result = 31 * result + n;
+      result = 31 * result + ( reverseOrder ? 1 : 0 );
+      return result;
+      }
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance. Use this constructor when used with a {@link AggregateBy}
+   * instance.
+   *
+   * @param valueFields of type Fields
+   * @param sortFields  of type Fields
+   * @param n           of type int
+   */
+  @ConstructorProperties({"valueFields", "sortFields", "n"})
+  public TopNBy( Fields valueFields, Fields sortFields, int n )
+    {
+    this( valueFields, sortFields, n, false );
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance. Use this constructor when used with a {@link AggregateBy}
+   * instance.
+   *
+   * @param valueFields  of type Fields
+   * @param sortFields   of type Fields
+   * @param n            of type int
+   * @param reverseOrder of type boolean
+   */
+  @ConstructorProperties({"valueFields", "sortFields", "n", "reverseOrder"})
+  public TopNBy( Fields valueFields, Fields sortFields, int n, boolean reverseOrder )
+    {
+    super( argumentsFor( valueFields ), new TopNPartials( valueFields, sortFor( valueFields, sortFields ), n, reverseOrder ), new TopNFinal( argumentsFor( valueFields ), sortFor( valueFields, sortFields ), n, reverseOrder ) );
+    }
+
+  //////////////
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param sortFields     of type Fields
+   * @param n              of type int
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueFields", "sortFields", "n"})
+  public TopNBy( Pipe pipe, Fields groupingFields, Fields valueFields, Fields sortFields, int n )
+    {
+    this( null, pipe, groupingFields, valueFields, sortFields, n, false, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param sortFields     of type Fields
+   * @param n              of type int
+   * @param reverseOrder   of type boolean
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueFields", "sortFields", "n", "reverseOrder"})
+  public TopNBy( Pipe pipe, Fields groupingFields, Fields valueFields, Fields sortFields, int n, boolean reverseOrder )
+    {
+    this( null, pipe, groupingFields, valueFields, sortFields, n, reverseOrder, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param sortFields     of type Fields
+   * @param n              of type int
+   * @param reverseOrder   of type boolean
+   * @param threshold      of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "valueFields", "sortFields", "n", "reverseOrder", "threshold"})
+  public TopNBy( String name, Pipe pipe, Fields groupingFields, Fields valueFields, Fields sortFields, int n, boolean reverseOrder, int threshold )
+    {
+    super( name, Pipe.pipes( pipe ), groupingFields, argumentsFor( valueFields ), new TopNPartials( valueFields, sortFor( valueFields, sortFields ), n, reverseOrder ), new TopNFinal( argumentsFor( valueFields ), sortFor( valueFields, sortFields ), n, reverseOrder ), threshold );
+    }
+
+  private static Fields sortFor( Fields valueFields, Fields sortFields )
+    {
+    return sortFields == null ? valueFields : sortFields; // retains any comparators
+    }
+
+  private static Fields argumentsFor( Fields valueFields )
+    {
+    verify( valueFields, 1 );
+
+    // comparators are only applied by the heaps, the GroupBy must not sort on the value fields
+    return valueFields.rename( name -> name );
+    }
+
+  private static void verify( Fields valueFields, int n )
+    {
+    if( valueFields == null || !valueFields.isDefined() || valueFields.isNone() )
+      throw new IllegalArgumentException( "value fields must be defined, got: " + valueFields );
+
+    if( n < 1 )
+      throw new IllegalArgumentException( "n must be greater than zero, got: " + n );
+    }
+  }
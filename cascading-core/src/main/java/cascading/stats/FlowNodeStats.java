@@ -20,8 +20,12 @@
 
 package cascading.stats;
 
+import java.util.Map;
+
+import cascading.flow.FlowElement;
 import cascading.flow.FlowNode;
 import cascading.flow.planner.BaseFlowNode;
+import cascading.flow.stream.element.ElementProfiler;
 import cascading.management.state.ClientState;
 import cascading.util.ProcessLogger;
 
@@ -87,6 +91,17 @@ public abstract class FlowNodeStats extends CascadingStats<FlowSliceStats>
 
   public abstract void recordChildStats();
 
+  /**
+   * Method getElementProfiles returns the values reported for each {@link FlowElement} of this node when profiled,
+   * see {@link cascading.flow.stream.graph.StreamGraph#PROFILE_ELEMENTS}.
+   *
+   * @return Map
+   */
+  public Map<FlowElement, Map<ElementProfiler.Metric, Long>> getElementProfiles()
+    {
+    return ElementProfiler.getProfiles( this, flowNode.getElementGraph().vertexSet() );
+    }
+
   public boolean hasCapturedFinalDetail()
     {
     return hasCapturedFinalDetail;
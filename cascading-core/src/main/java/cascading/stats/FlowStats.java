@@ -27,6 +27,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import cascading.flow.Flow;
 import cascading.management.state.ClientState;
@@ -38,6 +40,8 @@ public class FlowStats extends CascadingStats<FlowStepStats>
   {
   final Flow flow;
   final Map<String, FlowStepStats> flowStepStatsMap = new LinkedHashMap<>(); // retains topological order
+  /** Field clientCounters holds the counters incremented on the client, outside of any step */
+  final Map<String, Map<String, LongAdder>> clientCounters = new ConcurrentHashMap<>();
 
   public FlowStats( Flow flow, ClientState clientState )
     {
@@ -117,6 +121,46 @@ public class FlowStats extends CascadingStats<FlowStepStats>
     return flowStepStatsMap.size();
     }
 
+  /**
+   * Method incrementClientCounter increments the given counter by the given amount on behalf of the client, for
+   * example while initializing the configuration of each step before any step is started.
+   * <p>
+   * Client counters are added to the counters of every step when read from this instance.
+   *
+   * @param counter of type Enum
+   * @param amount  of type long
+   */
+  public void incrementClientCounter( Enum counter, long amount )
+    {
+    incrementClientCounter( counter.getDeclaringClass().getName(), counter.name(), amount );
+    }
+
+  /**
+   * Method incrementClientCounter increments the given counter by the given amount on behalf of the client.
+   *
+   * @param group   of type String
+   * @param counter of type String
+   * @param amount  of type long
+   */
+  public void incrementClientCounter( String group, String counter, long amount )
+    {
+    clientCounters.computeIfAbsent( group, ignore -> new ConcurrentHashMap<>() )
+      .computeIfAbsent( counter, ignore -> new LongAdder() )
+      .add( amount );
+    }
+
+  private long getClientCounterValue( String group, String counter )
+    {
+    Map<String, LongAdder> counters = clientCounters.get( group );
+
+    if( counters == null )
+      return 0;
+
+    LongAdder value = counters.get( counter );
+
+    return value == null ? 0 : value.sum();
+    }
+
   @Override
   public long getLastSuccessfulCounterFetchTime()
     {
@@ -136,6 +180,8 @@ public class FlowStats extends CascadingStats<FlowStepStats>
     for( FlowStepStats flowStepStats : flowStepStatsMap.values() )
       results.addAll( flowStepStats.getCounterGroups() );
 
+    results.addAll( clientCounters.keySet() );
+
     return results;
     }
 
@@ -147,6 +193,12 @@ public class FlowStats extends CascadingStats<FlowStepStats>
     for( FlowStepStats flowStepStats : flowStepStatsMap.values() )
       results.addAll( flowStepStats.getCounterGroupsMatching( regex ) );
 
+    for( String group : clientCounters.keySet() )
+      {
+      if( group.matches( regex ) )
+        results.add( group );
+      }
+
     return results;
     }
 
@@ -158,13 +210,18 @@ public class FlowStats extends CascadingStats<FlowStepStats>
     for( FlowStepStats flowStepStats : flowStepStatsMap.values() )
       results.addAll( flowStepStats.getCountersFor( group ) );
 
+    Map<String, LongAdder> counters = clientCounters.get( group );
+
+    if( counters != null )
+      results.addAll( counters.keySet() );
+
     return results;
     }
 
   @Override
   public long getCounterValue( Enum counter )
     {
-    long value = 0;
+    long value = getClientCounterValue( counter.getDeclaringClass().getName(), counter.name() );
 
     for( FlowStepStats flowStepStats : flowStepStatsMap.values() )
       value += flowStepStats.getCounterValue( counter );
@@ -175,7 +232,7 @@ public class FlowStats extends CascadingStats<FlowStepStats>
   @Override
   public long getCounterValue( String group, String counter )
     {
-    long value = 0;
+    long value = getClientCounterValue( group, counter );
 
     for( FlowStepStats flowStepStats : flowStepStatsMap.values() )
       value += flowStepStats.getCounterValue( group, counter );
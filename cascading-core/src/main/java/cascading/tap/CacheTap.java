@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap;
+
+import java.beans.ConstructorProperties;
+import java.io.IOException;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowProcess;
+import cascading.tap.cache.ColumnarTupleStore;
+import cascading.tap.cache.TupleCache;
+import cascading.tuple.Fields;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntryChainIterator;
+import cascading.tuple.TupleEntryIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class CacheTap wraps a source {@link Tap} so the tuples read from it are retained in a {@link TupleCache}, and
+ * any later read of the same resource by a {@link Flow} in the same {@link cascading.cascade.Cascade} is served from
+ * memory without reading or parsing the resource again.
+ * <p>
+ * Tuples are held column-wise in a {@link ColumnarTupleStore}, so a column of {@link Long}, {@link Integer},
+ * {@link Double}, or {@link String} values is held as primitives or dictionary codes. Once the memory given by
+ * {@link TupleCache#MEMORY_MAX} is used, further chunks are spilled to local disk.
+ * <p>
+ * A cached copy is identified by the full identifier, modified time, scheme, and source fields of the resource, so
+ * a resource replaced by a prior Flow in the Cascade is read again. A copy is only retained once the resource has been
+ * read to its end without failure.
+ * <p>
+ * Caching only applies where a Flow reads the resource within the JVM that planned it, for example on the local
+ * mode platform or when a Hadoop Flow accumulates a small resource into its planning JVM. Any read of a split of the
+ * resource, or by a remote task, is passed through to the original Tap.
+ * <p>
+ * The number of cache hits and misses, and the tuples and bytes retained are reported by the {@link Cache} counters,
+ * which are summed into the {@link cascading.stats.CascadeStats} of the parent Cascade.
+ */
+public class CacheTap<Config, Input, Output> extends DecoratorTap<Void, Config, Input, Output>
+  {
+  /** Field LOG */
+  private static final Logger LOG = LoggerFactory.getLogger( CacheTap.class );
+
+  public enum Cache
+    {
+      Hits,
+      Misses,
+      Tuples_Cached,
+      Bytes_In_Memory,
+      Bytes_Spilled
+    }
+
+  /**
+   * Constructor CacheTap creates a new CacheTap instance.
+   *
+   * @param original of type Tap
+   */
+  @ConstructorProperties({"original"})
+  public CacheTap( Tap<Config, Input, Output> original )
+    {
+    super( original );
+    }
+
+  @Override
+  public void flowConfInit( Flow<Config> flow )
+    {
+    TupleCache.register( flow );
+
+    super.flowConfInit( flow );
+    }
+
+  @Override
+  public TupleEntryIterator openForRead( FlowProcess<? extends Config> flowProcess, Input input ) throws IOException
+    {
+    TupleCache cache = input == null ? TupleCache.getCache( flowProcess ) : null;
+
+    if( cache == null )
+      return super.openForRead( flowProcess, input );
+
+    String key = getCacheKey( flowProcess );
+
+    if( key == null )
+      return super.openForRead( flowProcess, input );
+
+    ColumnarTupleStore store = cache.get( key );
+
+    if( store != null )
+      {
+      flowProcess.increment( Cache.Hits, 1 );
+
+      return new TupleEntryChainIterator( store.getFields(), store.iterator() );
+      }
+
+    flowProcess.increment( Cache.Misses, 1 );
+
+    TupleEntryIterator iterator = super.openForRead( flowProcess, input );
+
+    if( !iterator.getFields().isDefined() || iterator.getFields().isNone() )
+      return iterator;
+
+    return new CachingIterator( flowProcess, cache, key, iterator );
+    }
+
+  private String getCacheKey( FlowProcess<? extends Config> flowProcess )
+    {
+    try
+      {
+      return getScheme().getClass().getName() + ':' + getSourceFields() + ':' + getModifiedTime( flowProcess ) + ':' + getFullIdentifier( flowProcess );
+      }
+    catch( IOException exception )
+      {
+      LOG.warn( "unable to resolve resource for caching, reading: {}", getIdentifier(), exception );
+
+      return null;
+      }
+    }
+
+  /**
+   * Class CachingIterator adds each tuple read from the original Tap to a new store, retained once the original
+   * iterator is exhausted. If the read fails, or the iterator is closed early, the store is discarded.
+   */
+  private static class CachingIterator extends TupleEntryIterator
+    {
+    private final FlowProcess<?> flowProcess;
+    private final TupleCache cache;
+    private final String key;
+    private final TupleEntryIterator iterator;
+    private ColumnarTupleStore store;
+
+    CachingIterator( FlowProcess<?> flowProcess, TupleCache cache, String key, TupleEntryIterator iterator )
+      {
+      super( iterator.getFields() );
+      this.flowProcess = flowProcess;
+      this.cache = cache;
+      this.key = key;
+      this.iterator = iterator;
+      this.store = cache.create( flowProcess, iterator.getFields() );
+      }
+
+    @Override
+    public TupleEntry getTupleEntry()
+      {
+      return iterator.getTupleEntry();
+      }
+
+    @Override
+    public boolean hasNext()
+      {
+      boolean hasNext;
+
+      try
+        {
+        hasNext = iterator.hasNext();
+        }
+      catch( RuntimeException exception )
+        {
+        abandon();
+        throw exception;
+        }
+
+      if( !hasNext )
+        publish();
+
+      return hasNext;
+      }
+
+    @Override
+    public TupleEntry next()
+      {
+      TupleEntry next;
+
+      try
+        {
+        next = iterator.next();
+        }
+      catch( RuntimeException exception )
+        {
+        abandon();
+        throw exception;
+        }
+
+      if( store == null )
+        return next;
+
+      try
+        {
+        store.add( next.getTuple() );
+        }
+      catch( IOException | RuntimeException exception )
+        {
+        LOG.warn( "unable to cache resource, continuing to read: {}", key, exception );
+        abandon();
+        }
+
+      return next;
+      }
+
+    @Override
+    public void remove()
+      {
+      iterator.remove();
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      abandon();
+      iterator.close();
+      }
+
+    private void publish()
+      {
+      if( store == null )
+        return;
+
+      ColumnarTupleStore store = this.store;
+
+      this.store = null;
+
+      try
+        {
+        store.complete();
+        }
+      catch( IOException | RuntimeException exception )
+        {
+        LOG.warn( "unable to cache resource: {}", key, exception );
+        cache.discard( store );
+        return;
+        }
+
+      if( !cache.put( key, store ) )
+        return;
+
+      flowProcess.increment( Cache.Tuples_Cached, store.getNumTuples() );
+      flowProcess.increment( Cache.Bytes_In_Memory, store.getMemoryBytes() );
+      flowProcess.increment( Cache.Bytes_Spilled, store.getSpilledBytes() );
+      }
+
+    private void abandon()
+      {
+      if( store == null )
+        return;
+
+      cache.discard( store );
+      store = null;
+      }
+    }
+  }
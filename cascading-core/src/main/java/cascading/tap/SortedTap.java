@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap;
+
+import java.beans.ConstructorProperties;
+import java.util.Comparator;
+import java.util.Objects;
+
+import cascading.tuple.Fields;
+
+/**
+ * Class SortedTap is a {@link DecoratorTap} declaring that the tuples read from the wrapped {@link Tap} are
+ * already sorted, in ascending order unless declared reversed, on the given {@link Fields}, using the
+ * {@link Comparator} instances set on those fields, if any.
+ * <p>
+ * Platforms may use this declaration to avoid buffering or re-sorting the data. For example, in local mode a
+ * {@link cascading.pipe.CoGroup} whose incoming branches are all read from SortedTap instances sorted on
+ * the grouping fields will be performed as a streaming sort-merge join, holding only the current grouping per
+ * branch in memory.
+ * <p>
+ * A grouping is only performed against the declared order if the grouping fields declare equal
+ * {@link Comparator} instances, and the same reversed order, as the sorted fields. Data found to be out of order
+ * during processing will cause the Flow to fail.
+ */
+public class SortedTap<Config, Input, Output> extends DecoratorTap<Fields, Config, Input, Output>
+  {
+  /** Field reversed */
+  private final boolean reversed;
+
+  /**
+   * Constructor SortedTap creates a new SortedTap instance.
+   *
+   * @param sortedFields the fields the tuples in the original Tap are sorted on
+   * @param original     the decorated Tap instance
+   */
+  @ConstructorProperties({"sortedFields", "original"})
+  public SortedTap( Fields sortedFields, Tap<Config, Input, Output> original )
+    {
+    this( sortedFields, false, original );
+    }
+
+  /**
+   * Constructor SortedTap creates a new SortedTap instance.
+   *
+   * @param sortedFields the fields the tuples in the original Tap are sorted on
+   * @param reversed     true if the tuples are sorted in descending order
+   * @param original     the decorated Tap instance
+   */
+  @ConstructorProperties({"sortedFields", "reversed", "original"})
+  public SortedTap( Fields sortedFields, boolean reversed, Tap<Config, Input, Output> original )
+    {
+    super( sortedFields, original );
+
+    this.reversed = reversed;
+
+    if( sortedFields == null || !sortedFields.isDefined() || sortedFields.size() == 0 )
+      throw new IllegalArgumentException( "sorted fields must be declared, got: " + sortedFields );
+    }
+
+  /**
+   * Method getSortedFields returns the fields the tuples in the original Tap are sorted on.
+   *
+   * @return Fields
+   */
+  public Fields getSortedFields()
+    {
+    return getMetaInfo();
+    }
+
+  /**
+   * Method isReversed returns true if the tuples in the original Tap are sorted in descending order.
+   *
+   * @return boolean
+   */
+  public boolean isReversed()
+    {
+    return reversed;
+    }
+
+  /**
+   * Method isSortedOn returns true if the tuples in the original Tap are sorted in ascending order on the given
+   * fields, see {@link #isSortedOn(Fields, boolean)}.
+   *
+   * @param fields of Fields
+   * @return boolean
+   */
+  public boolean isSortedOn( Fields fields )
+    {
+    return isSortedOn( fields, false );
+    }
+
+  /**
+   * Method isSortedOn returns true if the tuples in the original Tap are sorted on the given fields in the given
+   * order, that is, the given fields are equal to, or are a prefix of, the sorted fields, and each given field
+   * declares a Comparator equal to that of the sorted field, or neither declare one.
+   *
+   * @param fields   of Fields
+   * @param reversed true if the given fields are sorted in descending order
+   * @return boolean
+   */
+  public boolean isSortedOn( Fields fields, boolean reversed )
+    {
+    Fields sortedFields = getSortedFields();
+
+    if( fields == null || !fields.isDefined() || fields.size() == 0 || fields.size() > sortedFields.size() )
+      return false;
+
+    if( reversed != this.reversed )
+      return false;
+
+    Comparator[] comparators = fields.getComparators();
+    Comparator[] sortedComparators = sortedFields.getComparators();
+
+    for( int i = 0; i < fields.size(); i++ )
+      {
+      if( !fields.get( i ).equals( sortedFields.get( i ) ) )
+        return false;
+
+      if( !Objects.equals( comparators[ i ], sortedComparators[ i ] ) )
+        return false;
+      }
+
+    return true;
+    }
+  }
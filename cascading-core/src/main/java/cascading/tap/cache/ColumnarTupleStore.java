@@ -0,0 +1,902 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import cascading.tap.TapException;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.io.TupleInputStream;
+import cascading.tuple.io.TupleOutputStream;
+
+/**
+ * Class ColumnarTupleStore holds a read only copy of a stream of {@link Tuple} instances, by column, so the stream
+ * may be read any number of times without being parsed again.
+ * <p>
+ * Tuples are gathered into chunks of a fixed number of rows. When a chunk is full, each column is encoded by the type
+ * of its values: {@link Long}, {@link Integer}, and {@link Double} values into primitive arrays, {@link String} values
+ * into a dictionary of distinct values and an array of codes, and all other values as given.
+ * <p>
+ * Every encoded chunk is retained in memory if the owning {@link TupleCache} has memory available, otherwise it is
+ * written to a local spill file. Values not of the above types are spilled with the streams given by the
+ * {@link TupleStreamFactory} of the Flow, or if none, must be {@link java.io.Serializable} to be spilled.
+ * <p>
+ * Values are shared by all readers, so must not be modified. A store discarded while being read is released when
+ * the last open iterator is exhausted or closed.
+ */
+public class ColumnarTupleStore
+  {
+  /** Field DEFAULT_CHUNK_SIZE */
+  public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+  private static final byte OBJECT = 0;
+  private static final byte LONG = 1;
+  private static final byte INTEGER = 2;
+  private static final byte DOUBLE = 3;
+  private static final byte STRING = 4;
+
+  /** Field cache */
+  private final TupleCache cache;
+  /** Field fields */
+  private final Fields fields;
+  /** Field numColumns */
+  private final int numColumns;
+  /** Field streams, null if values are spilled with Java serialization */
+  private final TupleStreamFactory.TupleStreams streams;
+  /** Field buffer holds the values of the current chunk, by column */
+  private Object[][] buffer;
+  /** Field buffered */
+  private int buffered;
+  /** Field chunks, in order, a spilled chunk holds no columns */
+  private final List<Chunk> chunks = new ArrayList<>();
+  /** Field spillFile */
+  private File spillFile;
+  /** Field spillOutput */
+  private DataOutputStream spillOutput;
+  /** Field numTuples */
+  private long numTuples;
+  /** Field memoryBytes */
+  private long memoryBytes;
+  /** Field spilledBytes */
+  private long spilledBytes;
+  /** Field complete */
+  private boolean complete;
+  /** Field readers, the number of open iterators */
+  private int readers;
+  /** Field discarded */
+  private boolean discarded;
+
+  /** Class Chunk holds the encoded columns of a number of consecutive rows. */
+  static class Chunk
+    {
+    final int size;
+    final Column[] columns;
+
+    Chunk( int size, Column[] columns )
+      {
+      this.size = size;
+      this.columns = columns;
+      }
+
+    boolean isSpilled()
+      {
+      return columns == null;
+      }
+
+    long getBytes()
+      {
+      long bytes = 16;
+
+      for( Column column : columns )
+        bytes += column.getBytes();
+
+      return bytes;
+      }
+
+    void write( DataOutputStream output, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      output.writeInt( size );
+
+      for( Column column : columns )
+        column.write( output, streams );
+      }
+
+    static Chunk read( DataInputStream input, int numColumns, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      int size = input.readInt();
+      Column[] columns = new Column[ numColumns ];
+
+      for( int i = 0; i < numColumns; i++ )
+        columns[ i ] = Column.read( input, size, streams );
+
+      return new Chunk( size, columns );
+      }
+    }
+
+  /** Class Column is the base class of each column encoding. */
+  abstract static class Column
+    {
+    abstract Object get( int row );
+
+    abstract long getBytes();
+
+    abstract void write( DataOutputStream output, TupleStreamFactory.TupleStreams streams ) throws IOException;
+
+    static Column encode( Object[] values, int size )
+      {
+      Class<?> type = null;
+
+      for( int i = 0; i < size; i++ )
+        {
+        Object value = values[ i ];
+
+        if( value == null )
+          continue;
+
+        if( type == null )
+          type = value.getClass();
+        else if( type != value.getClass() )
+          return new ObjectColumn( values, size );
+        }
+
+      if( type == Long.class )
+        return new LongColumn( values, size );
+
+      if( type == Integer.class )
+        return new IntegerColumn( values, size );
+
+      if( type == Double.class )
+        return new DoubleColumn( values, size );
+
+      if( type == String.class )
+        return new StringColumn( values, size );
+
+      return new ObjectColumn( values, size );
+      }
+
+    static Column read( DataInputStream input, int size, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      byte encoding = input.readByte();
+
+      switch( encoding )
+        {
+        case LONG:
+          return new LongColumn( input, size );
+        case INTEGER:
+          return new IntegerColumn( input, size );
+        case DOUBLE:
+          return new DoubleColumn( input, size );
+        case STRING:
+          return new StringColumn( input, size );
+        case OBJECT:
+          return new ObjectColumn( input, size, streams );
+        default:
+          throw new IOException( "unknown column encoding: " + encoding );
+        }
+      }
+
+    static BitSet nulls( Object[] values, int size )
+      {
+      BitSet nulls = new BitSet( size );
+
+      for( int i = 0; i < size; i++ )
+        {
+        if( values[ i ] == null )
+          nulls.set( i );
+        }
+
+      return nulls;
+      }
+
+    static void writeNulls( DataOutputStream output, BitSet nulls ) throws IOException
+      {
+      long[] words = nulls.toLongArray();
+
+      output.writeInt( words.length );
+
+      for( long word : words )
+        output.writeLong( word );
+      }
+
+    static BitSet readNulls( DataInputStream input ) throws IOException
+      {
+      long[] words = new long[ input.readInt() ];
+
+      for( int i = 0; i < words.length; i++ )
+        words[ i ] = input.readLong();
+
+      return BitSet.valueOf( words );
+      }
+    }
+
+  static class LongColumn extends Column
+    {
+    final BitSet nulls;
+    final long[] values;
+
+    LongColumn( Object[] values, int size )
+      {
+      this.nulls = nulls( values, size );
+      this.values = new long[ size ];
+
+      for( int i = 0; i < size; i++ )
+        this.values[ i ] = values[ i ] == null ? 0 : (Long) values[ i ];
+      }
+
+    LongColumn( DataInputStream input, int size ) throws IOException
+      {
+      this.nulls = readNulls( input );
+      this.values = new long[ size ];
+
+      for( int i = 0; i < size; i++ )
+        this.values[ i ] = input.readLong();
+      }
+
+    @Override
+    Object get( int row )
+      {
+      return nulls.get( row ) ? null : values[ row ];
+      }
+
+    @Override
+    long getBytes()
+      {
+      return 48 + values.length * 8L + values.length / 8;
+      }
+
+    @Override
+    void write( DataOutputStream output, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      output.writeByte( LONG );
+      writeNulls( output, nulls );
+
+      for( long value : values )
+        output.writeLong( value );
+      }
+    }
+
+  static class IntegerColumn extends Column
+    {
+    final BitSet nulls;
+    final int[] values;
+
+    IntegerColumn( Object[] values, int size )
+      {
+      this.nulls = nulls( values, size );
+      this.values = new int[ size ];
+
+      for( int i = 0; i < size; i++ )
+        this.values[ i ] = values[ i ] == null ? 0 : (Integer) values[ i ];
+      }
+
+    IntegerColumn( DataInputStream input, int size ) throws IOException
+      {
+      this.nulls = readNulls( input );
+      this.values = new int[ size ];
+
+      for( int i = 0; i < size; i++ )
+        this.values[ i ] = input.readInt();
+      }
+
+    @Override
+    Object get( int row )
+      {
+      return nulls.get( row ) ? null : values[ row ];
+      }
+
+    @Override
+    long getBytes()
+      {
+      return 48 + values.length * 4L + values.length / 8;
+      }
+
+    @Override
+    void write( DataOutputStream output, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      output.writeByte( INTEGER );
+      writeNulls( output, nulls );
+
+      for( int value : values )
+        output.writeInt( value );
+      }
+    }
+
+  static class DoubleColumn extends Column
+    {
+    final BitSet nulls;
+    final double[] values;
+
+    DoubleColumn( Object[] values, int size )
+      {
+      this.nulls = nulls( values, size );
+      this.values = new double[ size ];
+
+      for( int i = 0; i < size; i++ )
+        this.values[ i ] = values[ i ] == null ? 0 : (Double) values[ i ];
+      }
+
+    DoubleColumn( DataInputStream input, int size ) throws IOException
+      {
+      this.nulls = readNulls( input );
+      this.values = new double[ size ];
+
+      for( int i = 0; i < size; i++ )
+        this.values[ i ] = input.readDouble();
+      }
+
+    @Override
+    Object get( int row )
+      {
+      return nulls.get( row ) ? null : values[ row ];
+      }
+
+    @Override
+    long getBytes()
+      {
+      return 48 + values.length * 8L + values.length / 8;
+      }
+
+    @Override
+    void write( DataOutputStream output, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      output.writeByte( DOUBLE );
+      writeNulls( output, nulls );
+
+      for( double value : values )
+        output.writeDouble( value );
+      }
+    }
+
+  /** Class StringColumn holds each distinct value once, and a code for each row, -1 if null. */
+  static class StringColumn extends Column
+    {
+    final String[] dictionary;
+    final int[] codes;
+
+    StringColumn( Object[] values, int size )
+      {
+      Map<String, Integer> index = new HashMap<>();
+      List<String> distinct = new ArrayList<>();
+
+      this.codes = new int[ size ];
+
+      for( int i = 0; i < size; i++ )
+        {
+        String value = (String) values[ i ];
+
+        if( value == null )
+          {
+          codes[ i ] = -1;
+          continue;
+          }
+
+        Integer code = index.get( value );
+
+        if( code == null )
+          {
+          code = distinct.size();
+          index.put( value, code );
+          distinct.add( value );
+          }
+
+        codes[ i ] = code;
+        }
+
+      this.dictionary = distinct.toArray( new String[ distinct.size() ] );
+      }
+
+    StringColumn( DataInputStream input, int size ) throws IOException
+      {
+      this.dictionary = new String[ input.readInt() ];
+
+      for( int i = 0; i < dictionary.length; i++ )
+        {
+        byte[] bytes = new byte[ input.readInt() ];
+
+        input.readFully( bytes );
+
+        dictionary[ i ] = new String( bytes, StandardCharsets.UTF_8 );
+        }
+
+      this.codes = new int[ size ];
+
+      for( int i = 0; i < size; i++ )
+        codes[ i ] = input.readInt();
+      }
+
+    @Override
+    Object get( int row )
+      {
+      int code = codes[ row ];
+
+      return code == -1 ? null : dictionary[ code ];
+      }
+
+    @Override
+    long getBytes()
+      {
+      long bytes = 48 + codes.length * 4L + dictionary.length * 8L;
+
+      for( String value : dictionary )
+        bytes += 40 + value.length() * 2L;
+
+      return bytes;
+      }
+
+    @Override
+    void write( DataOutputStream output, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      output.writeByte( STRING );
+      output.writeInt( dictionary.length );
+
+      // writeUTF is limited to 64KB
+      for( String value : dictionary )
+        {
+        byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+
+        output.writeInt( bytes.length );
+        output.write( bytes );
+        }
+
+      for( int code : codes )
+        output.writeInt( code );
+      }
+    }
+
+  /** Class ObjectColumn holds the values as given, spilled as a single tuple. */
+  static class ObjectColumn extends Column
+    {
+    final Object[] values;
+
+    ObjectColumn( Object[] values, int size )
+      {
+      this.values = new Object[ size ];
+
+      System.arraycopy( values, 0, this.values, 0, size );
+      }
+
+    ObjectColumn( DataInputStream input, int size, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      byte[] bytes = new byte[ input.readInt() ];
+
+      input.readFully( bytes );
+
+      if( streams != null )
+        {
+        try( TupleInputStream tupleInput = streams.createTupleInputStream( new ByteArrayInputStream( bytes ) ) )
+          {
+          this.values = Tuple.elements( tupleInput.readTuple() ).toArray( new Object[ size ] );
+          }
+
+        return;
+        }
+
+      try( ObjectInputStream objectInput = new ObjectInputStream( new ByteArrayInputStream( bytes ) ) )
+        {
+        this.values = (Object[]) objectInput.readObject();
+        }
+      catch( ClassNotFoundException exception )
+        {
+        throw new IOException( "unable to read spilled values", exception );
+        }
+      }
+
+    @Override
+    Object get( int row )
+      {
+      return values[ row ];
+      }
+
+    @Override
+    long getBytes()
+      {
+      long bytes = 16 + values.length * 8L;
+
+      for( Object value : values )
+        bytes += value == null ? 0 : 32;
+
+      return bytes;
+      }
+
+    @Override
+    void write( DataOutputStream output, TupleStreamFactory.TupleStreams streams ) throws IOException
+      {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+      if( streams != null )
+        {
+        try( TupleOutputStream tupleOutput = streams.createTupleOutputStream( bytes ) )
+          {
+          tupleOutput.writeTuple( new Tuple( values ) );
+          }
+        }
+      else
+        {
+        try( ObjectOutputStream objectOutput = new ObjectOutputStream( bytes ) )
+          {
+          objectOutput.writeObject( values );
+          }
+        }
+
+      output.writeByte( OBJECT );
+      output.writeInt( bytes.size() );
+      bytes.writeTo( output );
+      }
+    }
+
+  /**
+   * Class StoreIterator reads each chunk in turn, spilled chunks are read back one at a time. The iterator is
+   * closed once exhausted.
+   */
+  class StoreIterator implements Iterator<Tuple>, Closeable
+    {
+    final Tuple tuple = Tuple.size( numColumns );
+    int chunkIndex = -1;
+    Chunk current;
+    int row;
+    DataInputStream spillInput;
+    boolean closed;
+
+    @Override
+    public boolean hasNext()
+      {
+      while( current == null || row == current.size )
+        {
+        if( closed || chunkIndex + 1 == chunks.size() )
+          {
+          closeQuietly();
+          return false;
+          }
+
+        current = load( chunks.get( ++chunkIndex ) );
+        row = 0;
+        }
+
+      return true;
+      }
+
+    @Override
+    public Tuple next()
+      {
+      if( !hasNext() )
+        throw new NoSuchElementException();
+
+      for( int i = 0; i < numColumns; i++ )
+        tuple.set( i, current.columns[ i ].get( row ) );
+
+      row++;
+
+      return tuple;
+      }
+
+    private Chunk load( Chunk chunk )
+      {
+      if( !chunk.isSpilled() )
+        return chunk;
+
+      try
+        {
+        if( spillInput == null )
+          spillInput = new DataInputStream( new BufferedInputStream( new FileInputStream( spillFile ) ) );
+
+        return Chunk.read( spillInput, numColumns, streams );
+        }
+      catch( IOException exception )
+        {
+        throw new TapException( "unable to read spill file: " + spillFile, exception );
+        }
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      if( closed )
+        return;
+
+      closed = true;
+
+      try
+        {
+        if( spillInput != null )
+          spillInput.close();
+        }
+      finally
+        {
+        closeReader();
+        }
+      }
+
+    private void closeQuietly()
+      {
+      try
+        {
+        close();
+        }
+      catch( IOException exception )
+        {
+        // ignore
+        }
+      }
+    }
+
+  /**
+   * Constructor ColumnarTupleStore creates a new ColumnarTupleStore instance.
+   *
+   * @param cache  of type TupleCache
+   * @param fields of type Fields
+   */
+  ColumnarTupleStore( TupleCache cache, Fields fields )
+    {
+    this( cache, fields, DEFAULT_CHUNK_SIZE, null );
+    }
+
+  /**
+   * Constructor ColumnarTupleStore creates a new ColumnarTupleStore instance.
+   *
+   * @param cache     of type TupleCache
+   * @param fields    of type Fields
+   * @param chunkSize of type int
+   * @param streams   of type TupleStreams, null to spill values with Java serialization
+   */
+  ColumnarTupleStore( TupleCache cache, Fields fields, int chunkSize, TupleStreamFactory.TupleStreams streams )
+    {
+    if( !fields.isDefined() || fields.size() == 0 )
+      throw new IllegalArgumentException( "fields must be defined, got: " + fields );
+
+    if( chunkSize < 1 )
+      throw new IllegalArgumentException( "chunk size must be greater than zero, got: " + chunkSize );
+
+    this.cache = cache;
+    this.fields = fields;
+    this.numColumns = fields.size();
+    this.streams = streams;
+    this.buffer = new Object[ numColumns ][ chunkSize ];
+    }
+
+  public Fields getFields()
+    {
+    return fields;
+    }
+
+  /**
+   * Method getNumTuples returns the number of tuples held by this store.
+   *
+   * @return long
+   */
+  public long getNumTuples()
+    {
+    return numTuples;
+    }
+
+  /**
+   * Method getMemoryBytes returns the estimated number of bytes held in memory by this store.
+   *
+   * @return long
+   */
+  public long getMemoryBytes()
+    {
+    return memoryBytes;
+    }
+
+  /**
+   * Method getSpilledBytes returns the number of bytes written to the spill file of this store.
+   *
+   * @return long
+   */
+  public long getSpilledBytes()
+    {
+    return spilledBytes;
+    }
+
+  public boolean isComplete()
+    {
+    return complete;
+    }
+
+  /**
+   * Method add appends the values of the given tuple to this store.
+   *
+   * @param tuple of type Tuple
+   * @throws IOException when the current chunk could not be spilled
+   */
+  public void add( Tuple tuple ) throws IOException
+    {
+    if( complete )
+      throw new IllegalStateException( "store is complete" );
+
+    if( tuple.size() != numColumns )
+      throw new IllegalArgumentException( "tuple size does not match fields: " + fields.printVerbose() + ", got size: " + tuple.size() );
+
+    for( int i = 0; i < numColumns; i++ )
+      buffer[ i ][ buffered ] = tuple.getObject( i );
+
+    if( ++buffered == buffer[ 0 ].length )
+      seal();
+    }
+
+  /**
+   * Method complete encodes any remaining tuples, after which this store may be read.
+   *
+   * @throws IOException when the last chunk could not be spilled
+   */
+  public void complete() throws IOException
+    {
+    if( complete )
+      return;
+
+    if( buffered != 0 )
+      seal();
+
+    if( spillOutput != null )
+      spillOutput.close();
+
+    buffer = null;
+    complete = true;
+    }
+
+  private void seal() throws IOException
+    {
+    Column[] columns = new Column[ numColumns ];
+
+    for( int i = 0; i < numColumns; i++ )
+      {
+      columns[ i ] = Column.encode( buffer[ i ], buffered );
+      Arrays.fill( buffer[ i ], 0, buffered, null );
+      }
+
+    Chunk chunk = new Chunk( buffered, columns );
+
+    numTuples += buffered;
+    buffered = 0;
+
+    long bytes = chunk.getBytes();
+
+    if( cache.reserve( bytes ) )
+      {
+      memoryBytes += bytes;
+      chunks.add( chunk );
+      return;
+      }
+
+    spill( chunk );
+    }
+
+  private void spill( Chunk chunk ) throws IOException
+    {
+    if( spillOutput == null )
+      {
+      spillFile = File.createTempFile( "cascading-tuple-cache-", ".spill", cache.getSpillDir() );
+      spillFile.deleteOnExit();
+      spillOutput = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( spillFile ) ) );
+      }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    chunk.write( new DataOutputStream( bytes ), streams );
+
+    bytes.writeTo( spillOutput );
+
+    spilledBytes += bytes.size();
+    chunks.add( new Chunk( chunk.size, null ) );
+    }
+
+  /**
+   * Method iterator returns a new {@link Iterator} over all tuples in this store, the returned Tuple is re-used and
+   * must be copied if retained. The iterator is {@link Closeable}, and must be closed if not exhausted.
+   *
+   * @return Iterator
+   */
+  public synchronized Iterator<Tuple> iterator()
+    {
+    if( !complete )
+      throw new IllegalStateException( "store is not complete" );
+
+    if( discarded )
+      throw new IllegalStateException( "store is discarded" );
+
+    readers++;
+
+    return new StoreIterator();
+    }
+
+  /**
+   * Method getReaders returns the number of open iterators over this store.
+   *
+   * @return int
+   */
+  public synchronized int getReaders()
+    {
+    return readers;
+    }
+
+  private synchronized void closeReader()
+    {
+    if( --readers == 0 && discarded )
+      release();
+    }
+
+  /**
+   * Method discard releases all memory held by this store and deletes any spill file, once every open iterator
+   * is closed.
+   */
+  synchronized void discard()
+    {
+    if( discarded )
+      return;
+
+    discarded = true;
+
+    if( readers == 0 )
+      release();
+    }
+
+  private void release()
+    {
+    cache.release( memoryBytes );
+
+    memoryBytes = 0;
+    chunks.clear();
+    buffer = null;
+
+    if( spillOutput != null )
+      {
+      try
+        {
+        spillOutput.close();
+        }
+      catch( IOException exception )
+        {
+        // ignore
+        }
+      }
+
+    if( spillFile != null )
+      spillFile.delete();
+    }
+
+  @Override
+  public String toString()
+    {
+    return "ColumnarTupleStore{fields=" + fields + ", numTuples=" + numTuples + ", memoryBytes=" + memoryBytes + ", spilledBytes=" + spilledBytes + '}';
+    }
+  }
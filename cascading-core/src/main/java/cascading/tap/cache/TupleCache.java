@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.cache;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowListener;
+import cascading.flow.FlowProcess;
+import cascading.provider.FactoryLoader;
+import cascading.tuple.Fields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class TupleCache retains a {@link ColumnarTupleStore} for each source read through a {@link cascading.tap.CacheTap}
+ * so later reads of the same source, within the same JVM, do not read and parse the source again.
+ * <p>
+ * A cache is scoped to a single {@link Flow}, or to the parent {@link cascading.cascade.Cascade} once the Flow has
+ * been added to one, and is discarded when every Flow in the scope has been stopped or has completed. Only a weak
+ * reference to each Flow is retained, so the scope of a Flow that is planned but never run is closed once the Flow
+ * is no longer referenced. Reads by a Flow not registered in this JVM, for example by a task on a cluster, are not
+ * cached.
+ * <p>
+ * All stores in a scope share the memory given by {@link #MEMORY_MAX}, any chunk of tuples beyond that is spilled
+ * to {@link #SPILL_DIR}.
+ */
+public class TupleCache
+  {
+  /** Field LOG */
+  private static final Logger LOG = LoggerFactory.getLogger( TupleCache.class );
+
+  /**
+   * Property denoting the estimated number of bytes all cached tuples in a scope may hold in memory. By default
+   * this is one quarter of the maximum heap size.
+   */
+  public static final String MEMORY_MAX = "cascading.tap.cache.memory.max";
+
+  /**
+   * Property denoting the local directory cached tuples are spilled to once {@link #MEMORY_MAX} is reached. By
+   * default this is the {@code java.io.tmpdir} directory.
+   */
+  public static final String SPILL_DIR = "cascading.tap.cache.spill.dir";
+
+  /** Field CASCADE_ID */
+  static final String CASCADE_ID = "cascading.cascade.id";
+
+  /** Field openFlows, the scope of every registered flow that has not been stopped or completed, by flow id */
+  private static final Map<String, Scope> openFlows = new HashMap<>();
+  /** Field caches */
+  private static final Map<String, TupleCache> caches = new HashMap<>();
+
+  /** Field scopeID */
+  private final String scopeID;
+  /** Field maxMemory */
+  private final long maxMemory;
+  /** Field spillDir */
+  private final File spillDir;
+  /** Field stores */
+  private final Map<String, ColumnarTupleStore> stores = new ConcurrentHashMap<>();
+  /** Field memoryBytes */
+  private long memoryBytes;
+
+  /** Class Scope holds the scope id of an open flow. */
+  private static class Scope
+    {
+    /** Field scopeID */
+    final String scopeID;
+    /** Field flow */
+    final WeakReference<Flow<?>> flow;
+
+    Scope( String scopeID, Flow<?> flow )
+      {
+      this.scopeID = scopeID;
+      this.flow = new WeakReference<>( flow );
+      }
+    }
+
+  /** Class ScopeListener closes the scope of the given Flow when it is stopped or completes. */
+  static class ScopeListener implements FlowListener
+    {
+    @Override
+    public void onStarting( Flow flow )
+      {
+      }
+
+    @Override
+    public void onStopping( Flow flow )
+      {
+      close( flow );
+      }
+
+    @Override
+    public void onCompleted( Flow flow )
+      {
+      close( flow );
+      }
+
+    @Override
+    public boolean onThrowable( Flow flow, Throwable throwable )
+      {
+      return false;
+      }
+    }
+
+  /**
+   * Method register opens a cache scope for the given Flow, to be closed when the Flow is stopped or completes.
+   * Registering the same Flow more than once is a no-op.
+   *
+   * @param flow of type Flow
+   */
+  public static void register( Flow<?> flow )
+    {
+    expunge();
+
+    synchronized( TupleCache.class )
+      {
+      if( openFlows.putIfAbsent( flow.getID(), new Scope( getScopeID( flow ), flow ) ) != null )
+        return;
+      }
+
+    flow.addListener( new ScopeListener() );
+    }
+
+  /**
+   * Method close closes the scope of the given Flow, the cache of the scope is discarded if no other open Flow
+   * shares it.
+   *
+   * @param flow of type Flow
+   */
+  public static void close( Flow<?> flow )
+    {
+    close( flow.getID() );
+    }
+
+  private static void close( String flowID )
+    {
+    TupleCache cache;
+
+    synchronized( TupleCache.class )
+      {
+      Scope scope = openFlows.remove( flowID );
+
+      if( scope == null )
+        return;
+
+      for( Scope openScope : openFlows.values() )
+        {
+        if( scope.scopeID.equals( openScope.scopeID ) )
+          return;
+        }
+
+      cache = caches.remove( scope.scopeID );
+      }
+
+    if( cache != null )
+      cache.discard();
+    }
+
+  /** Method expunge closes the scope of any flow no longer referenced, as it will never be stopped or completed. */
+  private static void expunge()
+    {
+    List<String> flowIDs = new ArrayList<>();
+
+    synchronized( TupleCache.class )
+      {
+      for( Map.Entry<String, Scope> entry : openFlows.entrySet() )
+        {
+        if( entry.getValue().flow.get() == null )
+          flowIDs.add( entry.getKey() );
+        }
+      }
+
+    for( String flowID : flowIDs )
+      close( flowID );
+    }
+
+  private static String getScopeID( Flow<?> flow )
+    {
+    String cascadeID = flow.getCascadeID();
+
+    return cascadeID != null ? cascadeID : flow.getID();
+    }
+
+  /**
+   * Method getCache returns the cache for the scope of the given FlowProcess, or null if the current Flow is not
+   * registered in this JVM.
+   *
+   * @param flowProcess of type FlowProcess
+   * @return TupleCache
+   */
+  public static TupleCache getCache( FlowProcess<?> flowProcess )
+    {
+    expunge();
+
+    return getOpenCache( flowProcess );
+    }
+
+  private static synchronized TupleCache getOpenCache( FlowProcess<?> flowProcess )
+    {
+    String flowID = flowProcess.getStringProperty( Flow.CASCADING_FLOW_ID );
+
+    if( flowID == null || !openFlows.containsKey( flowID ) )
+      return null;
+
+    String cascadeID = flowProcess.getStringProperty( CASCADE_ID );
+    String scopeID = cascadeID != null ? cascadeID : flowID;
+
+    TupleCache cache = caches.get( scopeID );
+
+    if( cache == null )
+      {
+      String maxMemory = flowProcess.getStringProperty( MEMORY_MAX );
+      String spillDir = flowProcess.getStringProperty( SPILL_DIR );
+
+      cache = new TupleCache( scopeID, maxMemory == null ? Runtime.getRuntime().maxMemory() / 4 : Long.parseLong( maxMemory ), spillDir == null ? null : new File( spillDir ) );
+
+      caches.put( scopeID, cache );
+      }
+
+    return cache;
+    }
+
+  /**
+   * Constructor TupleCache creates a new TupleCache instance.
+   *
+   * @param scopeID   of type String
+   * @param maxMemory of type long
+   * @param spillDir  of type File, null for the default temporary directory
+   */
+  TupleCache( String scopeID, long maxMemory, File spillDir )
+    {
+    this.scopeID = scopeID;
+    this.maxMemory = maxMemory;
+    this.spillDir = spillDir;
+    }
+
+  public String getScopeID()
+    {
+    return scopeID;
+    }
+
+  public long getMaxMemory()
+    {
+    return maxMemory;
+    }
+
+  File getSpillDir()
+    {
+    return spillDir;
+    }
+
+  /**
+   * Method getMemoryBytes returns the estimated number of bytes held in memory by all stores in this cache.
+   *
+   * @return long
+   */
+  public synchronized long getMemoryBytes()
+    {
+    return memoryBytes;
+    }
+
+  /**
+   * Method get returns the complete store for the given key, or null if none.
+   *
+   * @param key of type String
+   * @return ColumnarTupleStore
+   */
+  public ColumnarTupleStore get( String key )
+    {
+    return stores.get( key );
+    }
+
+  /**
+   * Method create returns a new store with the given fields, to be handed to {@link #put(String, ColumnarTupleStore)}
+   * when complete, or to {@link #discard(ColumnarTupleStore)}.
+   *
+   * @param fields of type Fields
+   * @return ColumnarTupleStore
+   */
+  public ColumnarTupleStore create( Fields fields )
+    {
+    return new ColumnarTupleStore( this, fields );
+    }
+
+  /**
+   * Method create returns a new store with the given fields, spilling values with the {@link TupleStreamFactory}
+   * given by the FlowProcess, if any.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param fields      of type Fields
+   * @return ColumnarTupleStore
+   */
+  public ColumnarTupleStore create( FlowProcess<?> flowProcess, Fields fields )
+    {
+    return new ColumnarTupleStore( this, fields, ColumnarTupleStore.DEFAULT_CHUNK_SIZE, createStreams( flowProcess ) );
+    }
+
+  /**
+   * Method createStreams returns the {@link TupleStreamFactory.TupleStreams} given by the FlowProcess, or null if
+   * none, in which case values should be written with Java serialization.
+   *
+   * @param flowProcess of type FlowProcess
+   * @return TupleStreams
+   */
+  public static TupleStreamFactory.TupleStreams createStreams( FlowProcess flowProcess )
+    {
+    if( flowProcess.getStringProperty( TupleStreamFactory.TUPLE_STREAM_FACTORY ) == null )
+      return null;
+
+    TupleStreamFactory factory = FactoryLoader.getInstance().loadFactoryFrom( flowProcess, TupleStreamFactory.TUPLE_STREAM_FACTORY, TupleStreamFactory.class );
+
+    return factory == null ? null : (TupleStreamFactory.TupleStreams) factory.create( flowProcess );
+    }
+
+  /**
+   * Method put retains the given complete store for the given key. If a store is already retained for the key, the
+   * given store is discarded and false is returned.
+   *
+   * @param key   of type String
+   * @param store of type ColumnarTupleStore
+   * @return boolean
+   */
+  public boolean put( String key, ColumnarTupleStore store )
+    {
+    if( !store.isComplete() )
+      throw new IllegalStateException( "store is not complete" );
+
+    if( stores.putIfAbsent( key, store ) == null )
+      return true;
+
+    store.discard();
+
+    return false;
+    }
+
+  /**
+   * Method discard releases all resources held by the given store, which must not have been retained.
+   *
+   * @param store of type ColumnarTupleStore
+   */
+  public void discard( ColumnarTupleStore store )
+    {
+    store.discard();
+    }
+
+  synchronized boolean reserve( long bytes )
+    {
+    if( memoryBytes + bytes > maxMemory )
+      return false;
+
+    memoryBytes += bytes;
+
+    return true;
+    }
+
+  synchronized void release( long bytes )
+    {
+    memoryBytes -= bytes;
+    }
+
+  private void discard()
+    {
+    long numTuples = 0;
+    long spilledBytes = 0;
+
+    for( ColumnarTupleStore store : stores.values() )
+      {
+      numTuples += store.getNumTuples();
+      spilledBytes += store.getSpilledBytes();
+
+      store.discard();
+      }
+
+    LOG.info( "tuple cache for: {}, discarded {} sources holding {} tuples, {} bytes spilled", scopeID, stores.size(), numTuples, spilledBytes );
+
+    stores.clear();
+    }
+
+  @Override
+  public String toString()
+    {
+    return "TupleCache{scopeID='" + scopeID + "', stores=" + stores.size() + ", memoryBytes=" + memoryBytes + ", maxMemory=" + maxMemory + '}';
+    }
+  }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tap.cache;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import cascading.provider.CascadingFactory;
+import cascading.tuple.io.TupleInputStream;
+import cascading.tuple.io.TupleOutputStream;
+
+/**
+ * Interface TupleStreamFactory allows a platform to provide the tuple serialization a {@link ColumnarTupleStore}
+ * spills values with, when they are not held as primitives or dictionary coded strings.
+ * <p>
+ * The factory class is given by the {@link #TUPLE_STREAM_FACTORY} property, the Hadoop platforms set
+ * {@code cascading.tuple.hadoop.collect.HadoopTupleStreamFactory} by default so any type registered with the
+ * {@code TupleSerialization} of the Flow may be spilled. If no factory is given, spilled values are written with
+ * Java serialization, and so must be {@link java.io.Serializable}.
+ */
+public interface TupleStreamFactory<Config> extends CascadingFactory<Config, TupleStreamFactory.TupleStreams>
+  {
+  String TUPLE_STREAM_FACTORY = "cascading.factory.tuple.stream.classname";
+
+  /** Interface TupleStreams creates a new stream to write or read tuples with. */
+  interface TupleStreams
+    {
+    TupleOutputStream createTupleOutputStream( OutputStream outputStream );
+
+    TupleInputStream createTupleInputStream( InputStream inputStream );
+    }
+  }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.manifest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class FileSourceManifest is a {@link SourceManifest} persisted as a local text file.
+ * <p>
+ * Each line of the file holds a resource identifier, its modification time, and its size, tab delimited.
+ * <p>
+ * On {@link #commit()} the file is re-written to a temporary file and atomically moved over the prior version so
+ * that a failure during commit never leaves a partially written manifest.
+ * <p>
+ * By default manifests are stored in {@code ~/.cascading/source-manifests}, see {@link #makeHidden(Path)}.
+ */
+public class FileSourceManifest implements SourceManifest
+  {
+  private static final Logger LOG = LoggerFactory.getLogger( FileSourceManifest.class );
+
+  /** Field path, held as a String as Path is not Serializable */
+  String path;
+
+  /** Field committed */
+  transient Map<String, long[]> committed;
+  /** Field pending */
+  transient Map<String, long[]> pending;
+
+  /**
+   * Method homeDir uses the System property {@code user.home} to retrieve the user's home directory
+   *
+   * @return Path
+   */
+  public static Path homeDir()
+    {
+    return Paths.get( System.getProperty( "user.home" ) );
+    }
+
+  /**
+   * Method makeHidden will append {@code .cascading/source-manifests} to the given Path instance.
+   *
+   * @param path of Path
+   * @return Path
+   */
+  public static Path makeHidden( Path path )
+    {
+    return path.resolve( ".cascading" ).resolve( "source-manifests" );
+    }
+
+  /**
+   * Method named returns a new FileSourceManifest instance stored under the users home directory
+   * with the given name.
+   *
+   * @param name of String
+   * @return FileSourceManifest
+   */
+  public static FileSourceManifest named( String name )
+    {
+    return new FileSourceManifest( makeHidden( homeDir() ).resolve( name + ".manifest" ) );
+    }
+
+  /**
+   * Constructor FileSourceManifest creates a new FileSourceManifest instance.
+   *
+   * @param path of String
+   */
+  public FileSourceManifest( String path )
+    {
+    this( Paths.get( path ) );
+    }
+
+  /**
+   * Constructor FileSourceManifest creates a new FileSourceManifest instance.
+   *
+   * @param path of Path
+   */
+  public FileSourceManifest( Path path )
+    {
+    if( path == null )
+      throw new IllegalArgumentException( "path may not be null" );
+
+    this.path = path.toAbsolutePath().toString();
+    }
+
+  /**
+   * Method getPath returns the path of the manifest file.
+   *
+   * @return Path
+   */
+  public Path getPath()
+    {
+    return Paths.get( path );
+    }
+
+  @Override
+  public synchronized boolean isModified( String identifier, long modifiedTime, long size )
+    {
+    long[] values = getCommitted().get( identifier );
+
+    return values == null || values[ 0 ] != modifiedTime || values[ 1 ] != size;
+    }
+
+  @Override
+  public synchronized void record( String identifier, long modifiedTime, long size )
+    {
+    getPending().put( identifier, new long[]{modifiedTime, size} );
+    }
+
+  @Override
+  public synchronized void commit()
+    {
+    if( getPending().isEmpty() )
+      return;
+
+    Map<String, long[]> committed = getCommitted();
+
+    committed.putAll( pending );
+
+    Path manifest = getPath();
+    Path temp = manifest.resolveSibling( manifest.getFileName() + ".tmp" );
+
+    try
+      {
+      Files.createDirectories( manifest.getParent() );
+
+      try( BufferedWriter writer = Files.newBufferedWriter( temp, StandardCharsets.UTF_8 ) )
+        {
+        for( Map.Entry<String, long[]> entry : committed.entrySet() )
+          {
+          writer.write( entry.getKey() );
+          writer.write( '\t' );
+          writer.write( Long.toString( entry.getValue()[ 0 ] ) );
+          writer.write( '\t' );
+          writer.write( Long.toString( entry.getValue()[ 1 ] ) );
+          writer.newLine();
+          }
+        }
+
+      try
+        {
+        Files.move( temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        }
+      catch( AtomicMoveNotSupportedException exception )
+        {
+        Files.move( temp, manifest, StandardCopyOption.REPLACE_EXISTING );
+        }
+      }
+    catch( IOException exception )
+      {
+      throw new UncheckedIOException( "unable to write source manifest: " + manifest, exception );
+      }
+
+    LOG.info( "committed {} new resources to source manifest: {}, total resources: {}", pending.size(), manifest, committed.size() );
+
+    pending.clear();
+    }
+
+  @Override
+  public synchronized void rollback()
+    {
+    getPending().clear();
+    }
+
+  private Map<String, long[]> getPending()
+    {
+    if( pending == null )
+      pending = new LinkedHashMap<>();
+
+    return pending;
+    }
+
+  private Map<String, long[]> getCommitted()
+    {
+    if( committed == null )
+      committed = read();
+
+    return committed;
+    }
+
+  private Map<String, long[]> read()
+    {
+    Map<String, long[]> values = new LinkedHashMap<>();
+    Path manifest = getPath();
+
+    if( !Files.exists( manifest ) )
+      return values;
+
+    try( BufferedReader reader = Files.newBufferedReader( manifest, StandardCharsets.UTF_8 ) )
+      {
+      String line;
+
+      while( ( line = reader.readLine() ) != null )
+        {
+        String[] split = line.split( "\t" );
+
+        if( split.length != 3 )
+          {
+          LOG.warn( "skipping malformed source manifest entry: {}, in: {}", line, manifest );
+          continue;
+          }
+
+        values.put( split[ 0 ], new long[]{Long.parseLong( split[ 1 ] ), Long.parseLong( split[ 2 ] )} );
+        }
+      }
+    catch( IOException exception )
+      {
+      throw new UncheckedIOException( "unable to read source manifest: " + manifest, exception );
+      }
+
+    return values;
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( this == object )
+      return true;
+    if( object == null || getClass() != object.getClass() )
+      return false;
+
+    FileSourceManifest that = (FileSourceManifest) object;
+
+    return path.equals( that.path );
+    }
+
+  @Override
+  public int hashCode()
+    {
+    return path.hashCode();
+    }
+
+  @Override
+  public String toString()
+    {
+    return "FileSourceManifest{" + path + '}';
+    }
+  }
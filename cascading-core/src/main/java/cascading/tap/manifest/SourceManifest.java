@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.manifest;
+
+import java.io.Serializable;
+
+/**
+ * Interface SourceManifest tracks the identity, modification time, and size of every resource read by a source
+ * {@link cascading.tap.Tap} so that subsequent executions of the same {@link cascading.flow.Flow} only read
+ * resources that are new or have changed since the last successful execution.
+ * <p>
+ * Taps supporting a SourceManifest will call {@link #isModified(String, long, long)} for every candidate resource,
+ * and {@link #record(String, long, long)} for every resource handed to the Flow. Recorded resources are not
+ * considered processed until {@link #commit()} is called, typically by {@link SourceManifestListener} after the
+ * Flow completes successfully.
+ * <p>
+ * Implementations must be {@link Serializable} as the Tap holding the instance may be serialized into the
+ * job configuration on some platforms.
+ *
+ * @see FileSourceManifest
+ */
+public interface SourceManifest extends Serializable
+  {
+  enum Counters
+    {
+      Files_Processed, Files_Skipped, Bytes_Processed, Bytes_Skipped
+    }
+
+  /**
+   * Method isModified returns true if the given resource has not been committed to this manifest, or if its
+   * modification time or size differ from the committed values.
+   *
+   * @param identifier   of String
+   * @param modifiedTime of long
+   * @param size         of long
+   * @return boolean
+   */
+  boolean isModified( String identifier, long modifiedTime, long size );
+
+  /**
+   * Method record marks the given resource as read, pending a call to {@link #commit()}.
+   *
+   * @param identifier   of String
+   * @param modifiedTime of long
+   * @param size         of long
+   */
+  void record( String identifier, long modifiedTime, long size );
+
+  /**
+   * Method commit persists all pending records so they will be skipped on subsequent reads.
+   */
+  void commit();
+
+  /**
+   * Method rollback discards all pending records so they will be read again on subsequent reads.
+   */
+  void rollback();
+  }
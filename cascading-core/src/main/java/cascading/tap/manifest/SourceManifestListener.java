@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.manifest;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowListener;
+import cascading.flow.FlowProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class SourceManifestListener is a {@link FlowListener} that will {@link SourceManifest#commit()} the given
+ * {@link SourceManifest} when the parent {@link Flow} completes successfully, or {@link SourceManifest#rollback()}
+ * otherwise.
+ * <p>
+ * Taps supporting a SourceManifest should call {@link #register(Flow, SourceManifest)} from
+ * {@link cascading.tap.Tap#flowConfInit(Flow)}, and {@link #accept(FlowProcess, SourceManifest, String, long, long)}
+ * for every candidate resource.
+ */
+public class SourceManifestListener implements FlowListener
+  {
+  private static final Logger LOG = LoggerFactory.getLogger( SourceManifestListener.class );
+
+  private final SourceManifest sourceManifest;
+
+  /**
+   * Method register adds a SourceManifestListener for the given SourceManifest to the given Flow, if the
+   * manifest is not null. Registering the same manifest more than once is a no-op.
+   *
+   * @param flow           of Flow
+   * @param sourceManifest of SourceManifest
+   */
+  public static void register( Flow<?> flow, SourceManifest sourceManifest )
+    {
+    if( sourceManifest == null )
+      return;
+
+    SourceManifestListener listener = new SourceManifestListener( sourceManifest );
+
+    flow.removeListener( listener );
+    flow.addListener( listener );
+    }
+
+  /**
+   * Method accept returns true if the given resource should be read. If true the resource is recorded in the
+   * given manifest.
+   * <p>
+   * The {@link SourceManifest.Counters} are incremented against the given FlowProcess to report the number of
+   * files and bytes skipped or processed.
+   *
+   * @param flowProcess    of FlowProcess
+   * @param sourceManifest of SourceManifest, may be null
+   * @param identifier     of String
+   * @param modifiedTime   of long
+   * @param size           of long
+   * @return boolean
+   */
+  public static boolean accept( FlowProcess<?> flowProcess, SourceManifest sourceManifest, String identifier, long modifiedTime, long size )
+    {
+    if( sourceManifest == null )
+      return true;
+
+    if( !sourceManifest.isModified( identifier, modifiedTime, size ) )
+      {
+      if( LOG.isDebugEnabled() )
+        LOG.debug( "source manifest skipping unmodified resource: {}", identifier );
+
+      flowProcess.increment( SourceManifest.Counters.Files_Skipped, 1 );
+      flowProcess.increment( SourceManifest.Counters.Bytes_Skipped, size );
+
+      return false;
+      }
+
+    sourceManifest.record( identifier, modifiedTime, size );
+
+    flowProcess.increment( SourceManifest.Counters.Files_Processed, 1 );
+    flowProcess.increment( SourceManifest.Counters.Bytes_Processed, size );
+
+    return true;
+    }
+
+  public SourceManifestListener( SourceManifest sourceManifest )
+    {
+    if( sourceManifest == null )
+      throw new IllegalArgumentException( "sourceManifest may not be null" );
+
+    this.sourceManifest = sourceManifest;
+    }
+
+  public SourceManifest getSourceManifest()
+    {
+    return sourceManifest;
+    }
+
+  @Override
+  public void onStarting( Flow flow )
+    {
+    }
+
+  @Override
+  public void onStopping( Flow flow )
+    {
+    }
+
+  @Override
+  public void onCompleted( Flow flow )
+    {
+    if( flow.getFlowStats().isSuccessful() )
+      {
+      sourceManifest.commit();
+      }
+    else
+      {
+      LOG.info( "flow: {}, did not complete successfully, discarding pending source manifest entries: {}", flow.getName(), sourceManifest );
+      sourceManifest.rollback();
+      }
+    }
+
+  @Override
+  public boolean onThrowable( Flow flow, Throwable throwable )
+    {
+    return false;
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( this == object )
+      return true;
+    if( object == null || getClass() != object.getClass() )
+      return false;
+
+    SourceManifestListener that = (SourceManifestListener) object;
+
+    return sourceManifest.equals( that.sourceManifest );
+    }
+
+  @Override
+  public int hashCode()
+    {
+    return sourceManifest.hashCode();
+    }
+  }
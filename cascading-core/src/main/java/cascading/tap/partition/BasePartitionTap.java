@@ -39,6 +39,8 @@ import cascading.scheme.SourceCall;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
+import cascading.tap.manifest.SourceManifest;
+import cascading.tap.manifest.SourceManifestListener;
 import cascading.tap.type.FileType;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
@@ -251,6 +253,8 @@ public abstract class BasePartitionTap<Config, Input, Output> extends Tap<Config
   protected boolean keepParentOnDelete = false;
   /** Field openTapsThreshold */
   protected int openWritesThreshold = OPEN_WRITES_THRESHOLD_DEFAULT;
+  /** Field sourceManifest */
+  protected SourceManifest sourceManifest;
 
   /** Field openedCollectors */
   private long openedCollectors = 0;
@@ -330,10 +334,85 @@ public abstract class BasePartitionTap<Config, Input, Output> extends Tap<Config
       fullyQualified
     );
 
-    if( sourcePartitionFilters.isEmpty() )
+    if( !sourcePartitionFilters.isEmpty() )
+      childIdentifiers = getFilteredPartitionIdentifiers( flowProcess, childIdentifiers );
+
+    if( sourceManifest == null )
       return childIdentifiers;
 
-    return getFilteredPartitionIdentifiers( flowProcess, childIdentifiers );
+    return getManifestPartitionIdentifiers( flowProcess, childIdentifiers );
+    }
+
+  protected String[] getManifestPartitionIdentifiers( FlowProcess<? extends Config> flowProcess, String[] childIdentifiers ) throws IOException
+    {
+    List<String> modifiedIdentifiers = new ArrayList<>( childIdentifiers.length );
+
+    for( String childIdentifier : childIdentifiers )
+      {
+      long[] stats = getChildPartitionStats( flowProcess, childIdentifier );
+
+      if( stats == null )
+        {
+        LOG.debug( "source manifest cannot resolve stats, will read partition: {}", childIdentifier );
+        modifiedIdentifiers.add( childIdentifier );
+        continue;
+        }
+
+      if( SourceManifestListener.accept( flowProcess, sourceManifest, childIdentifier, stats[ 0 ], stats[ 1 ] ) )
+        modifiedIdentifiers.add( childIdentifier );
+      }
+
+    if( LOG.isInfoEnabled() )
+      LOG.info( "source manifest accepted {} of {} partitions in: {}", modifiedIdentifiers.size(), childIdentifiers.length, getIdentifier() );
+
+    return modifiedIdentifiers.toArray( new String[ modifiedIdentifiers.size() ] );
+    }
+
+  /**
+   * Method getChildPartitionStats returns the most recent modification time and the total size of all the files
+   * in the given partition, in that order. Used to determine if a partition has changed since it was last
+   * committed to the current {@link SourceManifest}.
+   * <p>
+   * By default null is returned, and the partition is always read and never recorded. Sub-classes supporting
+   * {@link #setSourceManifest(SourceManifest)} should override this method.
+   *
+   * @param flowProcess     of type FlowProcess
+   * @param childIdentifier of type String
+   * @return long[] holding the modification time and size, or null if unknown
+   * @throws IOException
+   */
+  protected long[] getChildPartitionStats( FlowProcess<? extends Config> flowProcess, String childIdentifier ) throws IOException
+    {
+    return null;
+    }
+
+  /**
+   * Method getSourceManifest returns the sourceManifest of this PartitionTap object, if any.
+   *
+   * @return the sourceManifest (type SourceManifest) of this PartitionTap object.
+   */
+  public SourceManifest getSourceManifest()
+    {
+    return sourceManifest;
+    }
+
+  /**
+   * Method setSourceManifest sets the {@link SourceManifest} used to skip partitions read during a prior successful
+   * Flow execution. A partition is read again if any file it contains was modified, or if its total size changed.
+   *
+   * @param sourceManifest of type SourceManifest
+   */
+  public void setSourceManifest( SourceManifest sourceManifest )
+    {
+    this.sourceManifest = sourceManifest;
+    }
+
+  @Override
+  public void flowConfInit( Flow<Config> flow )
+    {
+    super.flowConfInit( flow );
+
+    SourceManifestListener.register( flow, sourceManifest );
     }
 
   protected String[] getFilteredPartitionIdentifiers( FlowProcess<? extends Config> flowProcess, String[] childIdentifiers )
@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tuple;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Class PrimitiveTuple is a {@link Tuple} that holds the values of any field declared as an {@code int},
+ * {@code long}, {@code float}, or {@code double}, or as the boxed equivalent, in a primitive array.
+ * <p>
+ * Values given to {@link #setLong(int, long)}, {@link #setDouble(int, double)}, and the other primitive setters, along
+ * with values returned from {@link #getLong(int)}, {@link #getDouble(int)}, and the other primitive getters,
+ * are not boxed when the position was declared with a numeric type. Values read as an {@link Object},
+ * via {@link #getObject(int)} or an iterator, are boxed on every call.
+ * <p>
+ * Any other value, including {@code null}, is retained as is. As the type of each primitive is retained with
+ * the value, a PrimitiveTuple will always return a value equal to, and of the same type as, the value last set on it.
+ * <p>
+ * Typically used to hold the intermediate or final results of numeric aggregations, see {@link Tuples#create(Fields)}.
+ * {@link cascading.tuple.io.TupleOutputStream} will write primitive values without boxing them where supported.
+ */
+public class PrimitiveTuple extends Tuple
+  {
+  /**
+   * Class Elements is the {@link java.util.List} holding the values of a {@link PrimitiveTuple}.
+   * <p>
+   * This class is for internal use and is subject to change scope in a future release.
+   */
+  public static final class Elements extends AbstractList<Object> implements RandomAccess, Serializable
+    {
+    /** Field declared the boxed type of each declared position, or null if values are always held as objects */
+    private final Class[] declared;
+    /** Field types the boxed type of the primitive in each position, or null if holding an object */
+    private Class[] types;
+    /** Field values the value of each primitive, floats and doubles as double bits */
+    private long[] values;
+    /** Field objects */
+    private Object[] objects;
+    /** Field size */
+    private int size;
+
+    Elements( Class[] declared )
+      {
+      this.declared = declared;
+      this.types = new Class[ declared.length ];
+      this.values = new long[ declared.length ];
+      this.objects = new Object[ declared.length ];
+      this.size = declared.length;
+      }
+
+    /**
+     * Method getPrimitiveType returns the primitive type, {@code long.class} for example, of the value held in the
+     * given position, or null if the value is an Object or null.
+     *
+     * @param index of type int
+     * @return Class
+     */
+    public Class getPrimitiveType( int index )
+      {
+      Class type = types[ checkIndex( index ) ];
+
+      if( type == null )
+        return null;
+      else if( type == Long.class )
+        return Long.TYPE;
+      else if( type == Double.class )
+        return Double.TYPE;
+      else if( type == Integer.class )
+        return Integer.TYPE;
+      else
+        return Float.TYPE;
+      }
+
+    /**
+     * Method isPrimitive returns true if the given position holds a primitive value, and thus is not null.
+     *
+     * @param index of type int
+     * @return boolean
+     */
+    public boolean isPrimitive( int index )
+      {
+      return types[ checkIndex( index ) ] != null;
+      }
+
+    public long getLong( int index )
+      {
+      Class type = types[ checkIndex( index ) ];
+
+      if( type == Long.class || type == Integer.class )
+        return values[ index ];
+
+      return (long) Double.longBitsToDouble( values[ index ] );
+      }
+
+    public int getInteger( int index )
+      {
+      return (int) getLong( index );
+      }
+
+    public double getDouble( int index )
+      {
+      Class type = types[ checkIndex( index ) ];
+
+      if( type == Double.class || type == Float.class )
+        return Double.longBitsToDouble( values[ index ] );
+
+      return values[ index ];
+      }
+
+    public float getFloat( int index )
+      {
+      return (float) getDouble( index );
+      }
+
+    boolean setLong( int index, long value )
+      {
+      return setValue( index, Long.class, value );
+      }
+
+    boolean setInteger( int index, int value )
+      {
+      return setValue( index, Integer.class, value );
+      }
+
+    boolean setDouble( int index, double value )
+      {
+      return setValue( index, Double.class, Double.doubleToRawLongBits( value ) );
+      }
+
+    boolean setFloat( int index, float value )
+      {
+      return setValue( index, Float.class, Double.doubleToRawLongBits( value ) );
+      }
+
+    private boolean setValue( int index, Class type, long value )
+      {
+      if( index < 0 || index >= size || declaredAt( index ) == null ) // out of bounds is reported by the caller
+        return false;
+
+      values[ index ] = value;
+      types[ index ] = type;
+      objects[ index ] = null;
+
+      return true;
+      }
+
+    @Override
+    public Object get( int index )
+      {
+      Class type = types[ checkIndex( index ) ];
+
+      if( type == null )
+        return objects[ index ];
+      else if( type == Long.class )
+        return getLong( index );
+      else if( type == Double.class )
+        return getDouble( index );
+      else if( type == Integer.class )
+        return getInteger( index );
+      else
+        return getFloat( index );
+      }
+
+    @Override
+    public Object set( int index, Object element )
+      {
+      Object previous = get( index );
+
+      if( !setPrimitive( index, element ) )
+        {
+        types[ index ] = null;
+        objects[ index ] = element;
+        }
+
+      return previous;
+      }
+
+    private boolean setPrimitive( int index, Object element )
+      {
+      if( element == null )
+        return false;
+
+      Class type = element.getClass();
+
+      if( type == Long.class )
+        return setLong( index, (Long) element );
+      else if( type == Double.class )
+        return setDouble( index, (Double) element );
+      else if( type == Integer.class )
+        return setInteger( index, (Integer) element );
+      else if( type == Float.class )
+        return setFloat( index, (Float) element );
+
+      return false;
+      }
+
+    @Override
+    public void add( int index, Object element )
+      {
+      if( index < 0 || index > size )
+        throw new IndexOutOfBoundsException( "index: " + index + ", size: " + size );
+
+      ensureCapacity( size + 1 );
+
+      int moved = size - index;
+
+      System.arraycopy( types, index, types, index + 1, moved );
+      System.arraycopy( values, index, values, index + 1, moved );
+      System.arraycopy( objects, index, objects, index + 1, moved );
+
+      size++;
+      modCount++;
+
+      types[ index ] = null;
+      objects[ index ] = null;
+
+      set( index, element );
+      }
+
+    @Override
+    public Object remove( int index )
+      {
+      Object previous = get( index );
+
+      int moved = size - index - 1;
+
+      System.arraycopy( types, index + 1, types, index, moved );
+      System.arraycopy( values, index + 1, values, index, moved );
+      System.arraycopy( objects, index + 1, objects, index, moved );
+
+      size--;
+      modCount++;
+
+      types[ size ] = null;
+      objects[ size ] = null;
+
+      return previous;
+      }
+
+    @Override
+    public void clear()
+      {
+      Arrays.fill( types, 0, size, null );
+      Arrays.fill( objects, 0, size, null );
+
+      size = 0;
+      modCount++;
+      }
+
+    @Override
+    public int size()
+      {
+      return size;
+      }
+
+    /**
+     * Positions keep their declared type as long as no values are inserted or removed before them, so a cleared
+     * instance re-filled by {@link #add(Object)}, when deserializing for example, will again hold primitives.
+     */
+    private Class declaredAt( int index )
+      {
+      checkIndex( index );
+
+      return index < declared.length ? declared[ index ] : null;
+      }
+
+    private void ensureCapacity( int capacity )
+      {
+      if( capacity <= types.length )
+        return;
+
+      int length = Math.max( capacity, types.length * 2 );
+
+      types = Arrays.copyOf( types, length );
+      values = Arrays.copyOf( values, length );
+      objects = Arrays.copyOf( objects, length );
+      }
+
+    private int checkIndex( int index )
+      {
+      if( index < 0 || index >= size )
+        throw new IndexOutOfBoundsException( "index: " + index + ", size: " + size );
+
+      return index;
+      }
+    }
+
+  /**
+   * Method isPrimitive returns true if the given type will be held as a primitive value by a PrimitiveTuple.
+   *
+   * @param type of type Type
+   * @return boolean
+   */
+  public static boolean isPrimitive( Type type )
+    {
+    return asDeclared( type ) != null;
+    }
+
+  private static Class asDeclared( Type type )
+    {
+    if( type == Long.TYPE || type == Long.class )
+      return Long.class;
+    else if( type == Double.TYPE || type == Double.class )
+      return Double.class;
+    else if( type == Integer.TYPE || type == Integer.class )
+      return Integer.class;
+    else if( type == Float.TYPE || type == Float.class )
+      return Float.class;
+
+    return null;
+    }
+
+  private static Class[] asDeclared( Type[] types )
+    {
+    Class[] declared = new Class[ types.length ];
+
+    for( int i = 0; i < types.length; i++ )
+      declared[ i ] = asDeclared( types[ i ] );
+
+    return declared;
+    }
+
+  /**
+   * Constructor PrimitiveTuple creates a new PrimitiveTuple instance with a null value for each of the given
+   * declared fields.
+   *
+   * @param declarator of type Fields
+   */
+  public PrimitiveTuple( Fields declarator )
+    {
+    this( declarator.hasTypes() ? declarator.getTypes() : new Type[ declarator.size() ] );
+    }
+
+  /**
+   * Constructor PrimitiveTuple creates a new PrimitiveTuple instance with a null value for each of the given types.
+   *
+   * @param types of type Type...
+   */
+  public PrimitiveTuple( Type... types )
+    {
+    super( new Elements( asDeclared( types ) ) );
+    }
+
+  /**
+   * Method isPrimitive returns true if the given position currently holds a primitive value, and thus is not null.
+   *
+   * @param pos of type int
+   * @return boolean
+   */
+  public boolean isPrimitive( int pos )
+    {
+    return elements instanceof Elements && ( (Elements) elements ).isPrimitive( pos );
+    }
+
+  @Override
+  public double getDouble( int pos )
+    {
+    if( isPrimitive( pos ) )
+      return ( (Elements) elements ).getDouble( pos );
+
+    return super.getDouble( pos );
+    }
+
+  @Override
+  public float getFloat( int pos )
+    {
+    if( isPrimitive( pos ) )
+      return ( (Elements) elements ).getFloat( pos );
+
+    return super.getFloat( pos );
+    }
+
+  @Override
+  public int getInteger( int pos )
+    {
+    if( isPrimitive( pos ) )
+      return ( (Elements) elements ).getInteger( pos );
+
+    return super.getInteger( pos );
+    }
+
+  @Override
+  public long getLong( int pos )
+    {
+    if( isPrimitive( pos ) )
+      return ( (Elements) elements ).getLong( pos );
+
+    return super.getLong( pos );
+    }
+
+  @Override
+  public void setInteger( int index, int value )
+    {
+    verifyModifiable();
+
+    if( !( elements instanceof Elements ) || !( (Elements) elements ).setInteger( index, value ) )
+      internalSet( index, value );
+    }
+
+  @Override
+  public void setLong( int index, long value )
+    {
+    verifyModifiable();
+
+    if( !( elements instanceof Elements ) || !( (Elements) elements ).setLong( index, value ) )
+      internalSet( index, value );
+    }
+
+  @Override
+  public void setFloat( int index, float value )
+    {
+    verifyModifiable();
+
+    if( !( elements instanceof Elements ) || !( (Elements) elements ).setFloat( index, value ) )
+      internalSet( index, value );
+    }
+
+  @Override
+  public void setDouble( int index, double value )
+    {
+    verifyModifiable();
+
+    if( !( elements instanceof Elements ) || !( (Elements) elements ).setDouble( index, value ) )
+      internalSet( index, value );
+    }
+  }
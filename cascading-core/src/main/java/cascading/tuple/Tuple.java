@@ -1142,7 +1142,7 @@ public class Tuple implements Comparable<Object>, Iterable<Object>, Serializable
     return buffer;
     }
 
-  private final void verifyModifiable()
+  protected final void verifyModifiable()
     {
     if( isUnmodifiable )
       throw new UnsupportedOperationException( "this tuple is unmodifiable" );
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import cascading.tuple.coerce.Coercions;
+import cascading.tuple.type.CoercibleType;
+
+/**
+ * Class TupleBatch holds the values of up to a fixed number of {@link Tuple} instances, by column, along with a
+ * selection vector of the rows currently selected.
+ * <p>
+ * A TupleBatch is handed to {@link cascading.operation.BatchFunction}, {@link cascading.operation.BatchFilter},
+ * and {@link cascading.operation.BatchAggregator} operations so a single call may process many rows. Operations
+ * should only read rows listed in the selection vector, in the order given, see {@link #getSelection()} and
+ * {@link #getNumSelected()}. A {@link cascading.operation.BatchFilter} removes rows by narrowing the selection.
+ * <p>
+ * Values are stored as given, and coerced through the {@link CoercibleType} of the column on read, see
+ * {@link #getDouble(int, int)} and {@link #getLong(int, int)}, consistent with {@link TupleEntry}.
+ * <p>
+ * Note that a TupleBatch, and the values held, should not be retained across calls, instances are cleared and
+ * re-used by Cascading.
+ */
+public class TupleBatch
+  {
+  /** Field fields */
+  private final Fields fields;
+  /** Field coercions */
+  private final CoercibleType[] coercions;
+  /** Field columns */
+  private final Object[][] columns;
+  /** Field selection */
+  private final int[] selection;
+  /** Field size */
+  private int size;
+  /** Field numSelected */
+  private int numSelected;
+
+  /**
+   * Constructor TupleBatch creates a new TupleBatch instance.
+   *
+   * @param fields   of type Fields
+   * @param capacity of type int
+   */
+  public TupleBatch( Fields fields, int capacity )
+    {
+    if( fields == null || !fields.isDefined() )
+      throw new IllegalArgumentException( "fields must be defined, got: " + fields );
+
+    if( capacity < 1 )
+      throw new IllegalArgumentException( "capacity must be greater than zero, got: " + capacity );
+
+    this.fields = fields;
+    this.coercions = Coercions.coercibleArray( fields );
+    this.columns = new Object[ fields.size() ][ capacity ];
+    this.selection = new int[ capacity ];
+    }
+
+  private TupleBatch( Fields fields, Object[][] columns, int capacity )
+    {
+    this.fields = fields;
+    this.coercions = Coercions.coercibleArray( fields );
+    this.columns = columns;
+    this.selection = new int[ capacity ];
+    }
+
+  /**
+   * Method narrow returns a new TupleBatch over the columns of this batch at the given positions, labeled by the
+   * given fields.
+   * <p>
+   * The returned batch shares the values of this batch, but not its size or selection, so rows added to this batch
+   * are only visible in the returned batch once selected by {@link #selectAll(int)}.
+   *
+   * @param fields    of type Fields
+   * @param positions of type int[]
+   * @return TupleBatch
+   */
+  public TupleBatch narrow( Fields fields, int[] positions )
+    {
+    if( fields == null || !fields.isDefined() || fields.size() != positions.length )
+      throw new IllegalArgumentException( "fields must be defined and match the number of positions, got: " + fields );
+
+    Object[][] narrowed = new Object[ positions.length ][];
+
+    for( int i = 0; i < positions.length; i++ )
+      narrowed[ i ] = columns[ positions[ i ] ];
+
+    return new TupleBatch( fields, narrowed, selection.length );
+    }
+
+  public Fields getFields()
+    {
+    return fields;
+    }
+
+  /**
+   * Method getCapacity returns the maximum number of rows this batch may hold.
+   *
+   * @return int
+   */
+  public int getCapacity()
+    {
+    return selection.length;
+    }
+
+  /**
+   * Method getSize returns the number of rows in this batch, regardless of the current selection.
+   *
+   * @return int
+   */
+  public int getSize()
+    {
+    return size;
+    }
+
+  public boolean isEmpty()
+    {
+    return size == 0;
+    }
+
+  public boolean isFull()
+    {
+    return size == selection.length;
+    }
+
+  /**
+   * Method add appends the values of the given tuple as a new selected row.
+   *
+   * @param tuple of type Tuple
+   */
+  public void add( Tuple tuple )
+    {
+    if( isFull() )
+      throw new IllegalStateException( "batch is full, capacity: " + selection.length );
+
+    for( int i = 0; i < columns.length; i++ )
+      columns[ i ][ size ] = tuple.getObject( i );
+
+    selection[ numSelected++ ] = size++;
+    }
+
+  /**
+   * Method reset clears this batch and selects the given number of rows, each holding null values, so the
+   * rows may be written to by {@link #setObject(int, int, Object)}.
+   *
+   * @param size of type int
+   */
+  public void reset( int size )
+    {
+    if( size > selection.length )
+      throw new IllegalArgumentException( "size may not exceed capacity: " + selection.length + ", got: " + size );
+
+    clear();
+
+    for( int i = 0; i < size; i++ )
+      selection[ i ] = i;
+
+    this.size = size;
+    this.numSelected = size;
+    }
+
+  /**
+   * Method selectAll selects the first given number of rows, retaining the values held, see
+   * {@link #narrow(Fields, int[])}.
+   *
+   * @param size of type int
+   */
+  public void selectAll( int size )
+    {
+    if( size < 0 || size > selection.length )
+      throw new IllegalArgumentException( "size must be between zero and capacity: " + selection.length + ", got: " + size );
+
+    for( int i = 0; i < size; i++ )
+      selection[ i ] = i;
+
+    this.size = size;
+    this.numSelected = size;
+    }
+
+  /**
+   * Method getSelection returns the selection vector, the ascending row indexes of the selected rows. Only the first
+   * {@link #getNumSelected()} values are valid.
+   * <p>
+   * The returned array may be modified in place to narrow the selection, followed by a call to
+   * {@link #setNumSelected(int)}.
+   *
+   * @return int[]
+   */
+  public int[] getSelection()
+    {
+    return selection;
+    }
+
+  public int getNumSelected()
+    {
+    return numSelected;
+    }
+
+  public void setNumSelected( int numSelected )
+    {
+    if( numSelected < 0 || numSelected > size )
+      throw new IllegalArgumentException( "num selected must be between zero and size: " + size + ", got: " + numSelected );
+
+    this.numSelected = numSelected;
+    }
+
+  /**
+   * Method getColumn returns the values of the given column, indexed by row. Only the first {@link #getSize()}
+   * values are valid.
+   *
+   * @param column of type int
+   * @return Object[]
+   */
+  public Object[] getColumn( int column )
+    {
+    return columns[ column ];
+    }
+
+  public Object getObject( int row, int column )
+    {
+    return columns[ column ][ row ];
+    }
+
+  /**
+   * Method getObject returns the value at the given row and column coerced to the given type.
+   *
+   * @param row    of type int
+   * @param column of type int
+   * @param type   of type Type
+   * @return Object
+   */
+  public Object getObject( int row, int column, Type type )
+    {
+    return Coercions.coerce( coercions[ column ], columns[ column ][ row ], type );
+    }
+
+  public void setObject( int row, int column, Object value )
+    {
+    columns[ column ][ row ] = value;
+    }
+
+  /**
+   * Method isNull returns true if the value at the given row and column is null.
+   *
+   * @param row    of type int
+   * @param column of type int
+   * @return boolean
+   */
+  public boolean isNull( int row, int column )
+    {
+    return columns[ column ][ row ] == null;
+    }
+
+  /**
+   * Method getDouble returns the value at the given row and column as a double. Zero if null.
+   *
+   * @param row    of type int
+   * @param column of type int
+   * @return double
+   */
+  public double getDouble( int row, int column )
+    {
+    Object value = columns[ column ][ row ];
+
+    if( value instanceof Double )
+      return (Double) value;
+
+    return (Double) getObject( row, column, double.class );
+    }
+
+  /**
+   * Method getLong returns the value at the given row and column as a long. Zero if null.
+   *
+   * @param row    of type int
+   * @param column of type int
+   * @return long
+   */
+  public long getLong( int row, int column )
+    {
+    Object value = columns[ column ][ row ];
+
+    if( value instanceof Long )
+      return (Long) value;
+
+    return (Long) getObject( row, column, long.class );
+    }
+
+  /**
+   * Method getTuple returns a new Tuple holding the values of the given row.
+   *
+   * @param row of type int
+   * @return Tuple
+   */
+  public Tuple getTuple( int row )
+    {
+    return getTuple( row, Tuple.size( columns.length ) );
+    }
+
+  /**
+   * Method getTuple sets the values of the given row into the given Tuple, which must be of the same size as this
+   * batch.
+   *
+   * @param row   of type int
+   * @param tuple of type Tuple
+   * @return Tuple
+   */
+  public Tuple getTuple( int row, Tuple tuple )
+    {
+    for( int i = 0; i < columns.length; i++ )
+      tuple.set( i, columns[ i ][ row ] );
+
+    return tuple;
+    }
+
+  /** Method clear removes all rows, and releases all values, held by this batch. */
+  public void clear()
+    {
+    for( Object[] column : columns )
+      Arrays.fill( column, 0, size, null );
+
+    size = 0;
+    numSelected = 0;
+    }
+
+  @Override
+  public String toString()
+    {
+    return "TupleBatch{fields=" + fields + ", size=" + size + ", numSelected=" + numSelected + '}';
+    }
+  }
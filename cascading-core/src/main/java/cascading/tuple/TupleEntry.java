@@ -629,7 +629,10 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    if( coercions[ pos ] == Coercions.INTEGER || coercions[ pos ] == Coercions.INTEGER_OBJECT )
+      tuple.setInteger( pos, value ); // canonical value is unchanged, allow a PrimitiveTuple to avoid boxing
+    else
+      tuple.set( pos, coercions[ pos ].canonical( value ) );
     }
 
   /**
@@ -645,7 +648,10 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    if( coercions[ pos ] == Coercions.LONG || coercions[ pos ] == Coercions.LONG_OBJECT )
+      tuple.setLong( pos, value ); // canonical value is unchanged, allow a PrimitiveTuple to avoid boxing
+    else
+      tuple.set( pos, coercions[ pos ].canonical( value ) );
     }
 
   /**
@@ -661,7 +667,10 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    if( coercions[ pos ] == Coercions.FLOAT || coercions[ pos ] == Coercions.FLOAT_OBJECT )
+      tuple.setFloat( pos, value ); // canonical value is unchanged, allow a PrimitiveTuple to avoid boxing
+    else
+      tuple.set( pos, coercions[ pos ].canonical( value ) );
     }
 
   /**
@@ -677,7 +686,10 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    if( coercions[ pos ] == Coercions.DOUBLE || coercions[ pos ] == Coercions.DOUBLE_OBJECT )
+      tuple.setDouble( pos, value ); // canonical value is unchanged, allow a PrimitiveTuple to avoid boxing
+    else
+      tuple.set( pos, coercions[ pos ].canonical( value ) );
     }
 
   /**
@@ -721,7 +733,12 @@ public class TupleEntry
    */
   public float getFloat( Comparable fieldName )
     {
-    return (Float) getObject( fieldName, float.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( isPrimitive( pos ) )
+      return tuple.getFloat( pos );
+
+    return (Float) getObject( pos, float.class );
     }
 
   /**
@@ -735,7 +752,12 @@ public class TupleEntry
    */
   public double getDouble( Comparable fieldName )
     {
-    return (Double) getObject( fieldName, double.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( isPrimitive( pos ) )
+      return tuple.getDouble( pos );
+
+    return (Double) getObject( pos, double.class );
     }
 
   /**
@@ -749,7 +771,12 @@ public class TupleEntry
    */
   public int getInteger( Comparable fieldName )
     {
-    return (Integer) getObject( fieldName, int.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( isPrimitive( pos ) )
+      return tuple.getInteger( pos );
+
+    return (Integer) getObject( pos, int.class );
     }
 
   /**
@@ -763,7 +790,12 @@ public class TupleEntry
    */
   public long getLong( Comparable fieldName )
     {
-    return (Long) getObject( fieldName, long.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( isPrimitive( pos ) )
+      return tuple.getLong( pos );
+
+    return (Long) getObject( pos, long.class );
     }
 
   /**
@@ -795,6 +827,20 @@ public class TupleEntry
     return (Boolean) getObject( fieldName, boolean.class );
     }
 
+  /**
+   * Returns true if the given position holds a value in a {@link PrimitiveTuple} that may be returned without
+   * coercion or boxing.
+   */
+  private boolean isPrimitive( int pos )
+    {
+    if( !( tuple instanceof PrimitiveTuple ) || pos > coercions.length - 1 )
+      return false;
+
+    CoercibleType coercion = coercions[ pos ];
+
+    return coercion instanceof Coercions.Coerce && PrimitiveTuple.isPrimitive( coercion.getCanonicalType() ) && ( (PrimitiveTuple) tuple ).isPrimitive( pos );
+    }
+
   private Comparable asFieldName( Comparable fieldName )
     {
     return Fields.asFieldName( fieldName );
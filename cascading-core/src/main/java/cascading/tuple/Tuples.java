@@ -20,6 +20,7 @@
 
 package cascading.tuple;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -330,4 +331,57 @@ public class Tuples
     {
     return new Tuple( arrayList );
     }
+
+  /**
+   * Method create returns a new Tuple of the size of the given declarator with null values. If any field is declared
+   * with a numeric primitive type, a {@link PrimitiveTuple} is returned so those values are not boxed.
+   *
+   * @param declarator of type Fields
+   * @return Tuple
+   */
+  public static Tuple create( Fields declarator )
+    {
+    if( declarator.hasTypes() )
+      {
+      for( Type type : declarator.getTypes() )
+        {
+        if( PrimitiveTuple.isPrimitive( type ) )
+          return new PrimitiveTuple( declarator );
+        }
+      }
+
+    return Tuple.size( declarator.size() );
+    }
+
+  /**
+   * Method estimateSize returns the estimated number of bytes retained on the heap by the given value, nested
+   * Tuple instances included. Values of unknown types are assumed to be small.
+   *
+   * @param value of type Object
+   * @return long
+   */
+  public static long estimateSize( Object value )
+    {
+    if( value == null )
+      return 0;
+
+    if( value instanceof Tuple )
+      {
+      Tuple tuple = (Tuple) value;
+      long size = 64 + 8L * tuple.size();
+
+      for( int i = 0; i < tuple.size(); i++ )
+        size += estimateSize( tuple.getObject( i ) );
+
+      return size;
+      }
+
+    if( value instanceof String )
+      return 40 + ( (String) value ).length();
+
+    if( value instanceof Long || value instanceof Double )
+      return 24;
+
+    return 16;
+    }
   }
@@ -26,6 +26,7 @@ import java.io.InputStream;
 import java.util.Comparator;
 import java.util.List;
 
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,22 +98,105 @@ public abstract class TupleInputStream extends DataInputStream
     return readUnTyped( tuple );
     }
 
+  /**
+   * Method readTyped returns a new Tuple holding the values of the given types. If any type is a numeric primitive,
+   * a {@link PrimitiveTuple} is returned so those values are not boxed.
+   *
+   * @param classes of type Class[]
+   * @return Tuple
+   * @throws IOException when
+   */
+  public Tuple readTyped( Class[] classes ) throws IOException
+    {
+    for( Class type : classes )
+      {
+      if( type != null && type.isPrimitive() && PrimitiveTuple.isPrimitive( type ) )
+        return readTyped( classes, new PrimitiveTuple( classes ) );
+      }
+
+    return readTyped( classes, new Tuple() );
+    }
+
   public <T extends Tuple> T readTyped( Class[] classes, T tuple ) throws IOException
     {
     List<Object> elements = Tuple.elements( tuple );
 
     elements.clear();
 
+    boolean primitive = tuple instanceof PrimitiveTuple;
+
     for( int i = 0; i < classes.length; i++ )
       {
       Class type = classes[ i ];
 
+      if( primitive && readPrimitive( type, tuple, elements, i ) )
+        continue;
+
       elements.add( readType( type ) );
       }
 
     return tuple;
     }
 
+  private boolean readPrimitive( Class type, Tuple tuple, List<Object> elements, int pos ) throws IOException
+    {
+    if( type == Long.TYPE )
+      {
+      elements.add( null );
+      tuple.setLong( pos, readPrimitiveLong() );
+      }
+    else if( type == Double.TYPE )
+      {
+      elements.add( null );
+      tuple.setDouble( pos, readPrimitiveDouble() );
+      }
+    else if( type == Integer.TYPE )
+      {
+      elements.add( null );
+      tuple.setInteger( pos, readPrimitiveInteger() );
+      }
+    else if( type == Float.TYPE )
+      {
+      elements.add( null );
+      tuple.setFloat( pos, readPrimitiveFloat() );
+      }
+    else
+      {
+      return false;
+      }
+
+    return true;
+    }
+
+  /**
+   * Method readPrimitiveLong reads a typed {@code long} value into a {@link PrimitiveTuple}.
+   * <p>
+   * Subclasses should override this method, and the other primitive methods, to read the value without
+   * boxing it.
+   *
+   * @return long
+   * @throws IOException when
+   */
+  protected long readPrimitiveLong() throws IOException
+    {
+    return (Long) readType( Long.TYPE );
+    }
+
+  protected double readPrimitiveDouble() throws IOException
+    {
+    return (Double) readType( Double.TYPE );
+    }
+
+  protected int readPrimitiveInteger() throws IOException
+    {
+    return (Integer) readType( Integer.TYPE );
+    }
+
+  protected float readPrimitiveFloat() throws IOException
+    {
+    return (Float) readType( Float.TYPE );
+    }
+
   public <T extends Tuple> T readUnTyped( T tuple ) throws IOException
     {
     List<Object> elements = Tuple.elements( tuple );
@@ -26,6 +26,7 @@ import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -129,12 +130,41 @@ public abstract class TupleOutputStream extends DataOutputStream
     {
     List<Object> elements = Tuple.elements( tuple );
 
+    if( elements instanceof PrimitiveTuple.Elements )
+      {
+      writeUnTyped( (PrimitiveTuple.Elements) elements );
+      return;
+      }
+
     writeIntInternal( elements.size() );
 
     for( Object element : elements )
       writeElement( element );
     }
 
+  private void writeUnTyped( PrimitiveTuple.Elements elements ) throws IOException
+    {
+    int size = elements.size();
+
+    writeIntInternal( size );
+
+    for( int i = 0; i < size; i++ )
+      {
+      Class type = elements.getPrimitiveType( i );
+
+      if( type == null )
+        writeElement( elements.get( i ) );
+      else if( type == Long.TYPE )
+        writeLongElement( elements.getLong( i ) );
+      else if( type == Double.TYPE )
+        writeDoubleElement( elements.getDouble( i ) );
+      else if( type == Integer.TYPE )
+        writeIntegerElement( elements.getInteger( i ) );
+      else
+        writeFloatElement( elements.getFloat( i ) );
+      }
+    }
+
   public void writeElementArray( Object[] elements ) throws IOException
     {
     writeIntInternal( elements.length );
@@ -170,6 +200,35 @@ public abstract class TupleOutputStream extends DataOutputStream
       elementWriter.write( this, element );
     }
 
+  /**
+   * Method writeLongElement writes the given long value held by a {@link PrimitiveTuple} as an untyped element.
+   * <p>
+   * Subclasses should override this method, and the other primitive element methods, to write the value without
+   * boxing it.
+   *
+   * @param value of type long
+   * @throws IOException
+   */
+  protected void writeLongElement( long value ) throws IOException
+    {
+    writeElement( value );
+    }
+
+  protected void writeDoubleElement( double value ) throws IOException
+    {
+    writeElement( value );
+    }
+
+  protected void writeIntegerElement( int value ) throws IOException
+    {
+    writeElement( value );
+    }
+
+  protected void writeFloatElement( float value ) throws IOException
+    {
+    writeElement( value );
+    }
+
   protected abstract void writeIntInternal( int value ) throws IOException;
 
   @Override
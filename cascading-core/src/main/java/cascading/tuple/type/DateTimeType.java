@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.type;
+
+import java.lang.reflect.Type;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+
+import cascading.CascadingException;
+import cascading.tuple.coerce.Coercions;
+import cascading.util.Util;
+
+/**
+ * Class DateTimeType is an implementation of {@link CoercibleType} backed by an immutable {@link DateTimeFormatter}.
+ * <p>
+ * Given a {@code dateFormatString}, using the {@link DateTimeFormatter} pattern format, this CoercibleType
+ * will convert a value from the formatted string to a {@code long} canonical type, the milliseconds since the
+ * epoch, and back.
+ * <p>
+ * Unlike {@link DateType}, instances are safe to share across threads and do not allocate a formatter or calendar
+ * per value. The most recently parsed values are held in a small cache per instance, as timestamps in log data
+ * typically repeat many times in sequence.
+ * <p>
+ * Use {@link #parse(String)} and {@link #format(long)} to convert values without boxing.
+ * <p>
+ * If no zone is given, UTC is assumed. This class when presented with a Long timestamp value will assume the value
+ * is already in canonical form.
+ * <p>
+ * See {@link ISODateTimeType} and {@link EpochDateTimeType} for specialized, faster, implementations.
+ *
+ * @see DateType
+ */
+public class DateTimeType implements CoercibleType<Long>
+  {
+  /** Field CACHE_SIZE, must be a power of two */
+  static final int CACHE_SIZE = 64;
+
+  /** Field zone */
+  protected ZoneId zone;
+  /** Field locale */
+  protected Locale locale;
+  /** Field dateFormatString */
+  protected String dateFormatString;
+  /** Field formatter */
+  private transient DateTimeFormatter formatter;
+  /** Field cache */
+  private transient Entry[] cache;
+
+  /** Class Entry holds a previously parsed value, instances are immutable so may be safely shared across threads */
+  private static final class Entry
+    {
+    final String value;
+    final long millis;
+
+    Entry( String value, long millis )
+      {
+      this.value = value;
+      this.millis = millis;
+      }
+    }
+
+  /**
+   * Create a new DateTimeType instance.
+   *
+   * @param dateFormatString of type String
+   * @param zone             of type ZoneId
+   * @param locale           of type Locale
+   */
+  public DateTimeType( String dateFormatString, ZoneId zone, Locale locale )
+    {
+    this.zone = zone;
+    this.locale = locale;
+    this.dateFormatString = dateFormatString;
+    }
+
+  /**
+   * Create a new DateTimeType instance.
+   *
+   * @param dateFormatString of type String
+   * @param zone             of type ZoneId
+   */
+  public DateTimeType( String dateFormatString, ZoneId zone )
+    {
+    this( dateFormatString, zone, null );
+    }
+
+  /**
+   * Create a new DateTimeType instance.
+   *
+   * @param dateFormatString of type String
+   */
+  public DateTimeType( String dateFormatString )
+    {
+    this( dateFormatString, null, null );
+    }
+
+  @Override
+  public Class getCanonicalType()
+    {
+    return Long.TYPE;
+    }
+
+  public String getDateFormatString()
+    {
+    return dateFormatString;
+    }
+
+  /**
+   * Method getDateTimeFormatter returns the formatter used by this instance.
+   *
+   * @return DateTimeFormatter
+   */
+  public DateTimeFormatter getDateTimeFormatter()
+    {
+    if( formatter == null )
+      formatter = createFormatter().withZone( getZone() );
+
+    return formatter;
+    }
+
+  protected DateTimeFormatter createFormatter()
+    {
+    return DateTimeFormatter.ofPattern( dateFormatString, getLocale() );
+    }
+
+  protected Locale getLocale()
+    {
+    if( locale != null )
+      return locale;
+
+    return Locale.getDefault();
+    }
+
+  protected ZoneId getZone()
+    {
+    if( zone != null )
+      return zone;
+
+    return ZoneOffset.UTC;
+    }
+
+  @Override
+  public <T> ToCanonical<T, Long> from( Type from )
+    {
+    if( from == Long.class )
+      return ( v ) -> (Long) v;
+
+    if( from == String.class )
+      return ( v ) -> v == null ? null : parse( (String) v );
+
+    if( from == Date.class )
+      return ( v ) -> v == null ? null : ( (Date) v ).getTime(); // in UTC
+
+    return this::canonical;
+    }
+
+  @Override
+  public Long canonical( Object value )
+    {
+    if( value == null )
+      return null;
+
+    Class from = value.getClass();
+
+    if( from == Long.class )
+      return (Long) value;
+
+    if( from == String.class )
+      return parse( (String) value );
+
+    if( from == Date.class )
+      return ( (Date) value ).getTime(); // in UTC
+
+    if( value instanceof TemporalAccessor )
+      return toMillis( (TemporalAccessor) value );
+
+    throw new CascadingException( "unknown type coercion requested from: " + Util.getTypeName( from ) );
+    }
+
+  @Override
+  public <T> CoercionFrom<Long, T> to( Type to )
+    {
+    boolean returnZero = Coercions.primitives.containsKey( to );
+
+    if( to == Long.class || to == Long.TYPE || to == Object.class || to instanceof DateTimeType )
+      return ( v ) -> v == null ? (T) nullCoercion( returnZero ) : (T) v;
+
+    if( to == String.class )
+      return ( v ) -> v == null ? (T) nullCoercion( returnZero ) : (T) format( v );
+
+    return CoercibleType.super.to( to );
+    }
+
+  @Override
+  public Object coerce( Object value, Type to )
+    {
+    // we are expecting a Long, as its our canonical type
+    if( value == null )
+      return nullCoercion( Coercions.primitives.containsKey( to ) );
+
+    Class<?> from = value.getClass();
+
+    if( from != Long.class )
+      throw new IllegalStateException( "was not normalized" );
+
+    // no coercion, or already in canonical form
+    if( to == Long.class || to == Long.TYPE || to == Object.class || to instanceof DateTimeType )
+      return value;
+
+    if( to == String.class )
+      return format( (Long) value );
+
+    if( to == Date.class )
+      return new Date( (Long) value );
+
+    if( to == Instant.class )
+      return Instant.ofEpochMilli( (Long) value );
+
+    Coercions.Coerce<?> coerce = Coercions.coercions.get( to );
+
+    if( coerce != null )
+      return coerce.coerce( value );
+
+    throw new CascadingException( "unknown type coercion requested, from: " + Util.getTypeName( from ) + " to: " + Util.getTypeName( to ) );
+    }
+
+  private Object nullCoercion( boolean returnZero )
+    {
+    if( returnZero )
+      return 0;
+
+    return null;
+    }
+
+  /**
+   * Method parse returns the given value as milliseconds since the epoch.
+   *
+   * @param value of type String
+   * @return long
+   */
+  public long parse( String value )
+    {
+    Entry[] entries = getCache();
+    int index = value.hashCode() & ( CACHE_SIZE - 1 );
+    Entry entry = entries[ index ];
+
+    if( entry != null && entry.value.equals( value ) )
+      return entry.millis;
+
+    long millis = parseValue( value );
+
+    entries[ index ] = new Entry( value, millis );
+
+    return millis;
+    }
+
+  private Entry[] getCache()
+    {
+    if( cache == null )
+      cache = new Entry[ CACHE_SIZE ];
+
+    return cache;
+    }
+
+  /**
+   * Method parseValue parses the given value without consulting the cache.
+   *
+   * @param value of type String
+   * @return long
+   */
+  protected long parseValue( String value )
+    {
+    try
+      {
+      return toMillis( getDateTimeFormatter().parse( value ) );
+      }
+    catch( DateTimeException exception )
+      {
+      throw new CascadingException( "unable to parse value: " + value + " with format: " + dateFormatString, exception );
+      }
+    }
+
+  protected long toMillis( TemporalAccessor accessor )
+    {
+    if( accessor.isSupported( ChronoField.INSTANT_SECONDS ) )
+      return Instant.from( accessor ).toEpochMilli();
+
+    // date only
+    return LocalDate.from( accessor ).atStartOfDay( getZone() ).toInstant().toEpochMilli();
+    }
+
+  /**
+   * Method format returns the given milliseconds since the epoch as a formatted String.
+   *
+   * @param millis of type long
+   * @return String
+   */
+  public String format( long millis )
+    {
+    return getDateTimeFormatter().format( Instant.ofEpochMilli( millis ) );
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( this == object )
+      return true;
+    if( object == null || getClass() != object.getClass() )
+      return false;
+    DateTimeType that = (DateTimeType) object;
+    return Objects.equals( zone, that.zone ) &&
+      Objects.equals( locale, that.locale ) &&
+      Objects.equals( dateFormatString, that.dateFormatString );
+    }
+
+  @Override
+  public int hashCode()
+    {
+    return Objects.hash( getClass(), zone, locale, dateFormatString );
+    }
+
+  @Override
+  public String toString()
+    {
+    final StringBuilder sb = new StringBuilder( getClass().getSimpleName() ).append( "{" );
+    sb.append( "dateFormatString='" ).append( dateFormatString ).append( '\'' );
+    sb.append( "," );
+    sb.append( "canonicalType='" ).append( getCanonicalType() ).append( '\'' );
+    sb.append( '}' );
+    return sb.toString();
+    }
+  }
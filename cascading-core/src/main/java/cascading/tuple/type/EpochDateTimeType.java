@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.type;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import cascading.CascadingException;
+
+/**
+ * Class EpochDateTimeType is a {@link DateTimeType} for values given as the number of {@link TimeUnit} since the
+ * epoch, for example {@code 1643673599} seconds or {@code 1643673599123} milliseconds.
+ * <p>
+ * String values may contain a fraction, {@code 1643673599.123} seconds, which is retained to the millisecond.
+ * Values are formatted in the same unit, only including a fraction if the value is not a whole unit.
+ * <p>
+ * As with all {@link DateTimeType} instances, {@code Long} values are assumed to be in canonical form, milliseconds
+ * since the epoch. Other {@link Number} values are assumed to be in the given unit.
+ */
+public class EpochDateTimeType extends DateTimeType
+  {
+  /** Field unit */
+  protected TimeUnit unit;
+
+  /** Create a new EpochDateTimeType instance where values are in seconds. */
+  public EpochDateTimeType()
+    {
+    this( TimeUnit.SECONDS );
+    }
+
+  /**
+   * Create a new EpochDateTimeType instance.
+   *
+   * @param unit of type TimeUnit
+   */
+  public EpochDateTimeType( TimeUnit unit )
+    {
+    super( null, null, null );
+
+    if( unit == null )
+      throw new IllegalArgumentException( "unit may not be null" );
+
+    this.unit = unit;
+    }
+
+  public TimeUnit getUnit()
+    {
+    return unit;
+    }
+
+  @Override
+  protected DateTimeFormatter createFormatter()
+    {
+    return DateTimeFormatter.ISO_INSTANT;
+    }
+
+  @Override
+  public Long canonical( Object value )
+    {
+    if( value instanceof Number && value.getClass() != Long.class )
+      return fromUnit( ( (Number) value ).doubleValue() );
+
+    return super.canonical( value );
+    }
+
+  @Override
+  public long parse( String value )
+    {
+    int length = value.length();
+    boolean negative = length != 0 && value.charAt( 0 ) == '-';
+    long whole = 0;
+    int pos = negative ? 1 : 0;
+
+    if( pos == length )
+      throw new CascadingException( "unable to parse value: " + value + " as " + unit + " since the epoch" );
+
+    for( ; pos < length; pos++ )
+      {
+      char c = value.charAt( pos );
+
+      if( c < '0' || c > '9' )
+        break;
+
+      whole = whole * 10 + ( c - '0' );
+      }
+
+    if( pos == length )
+      return unit.toMillis( negative ? -whole : whole );
+
+    // has a fraction or exponent, rare
+    try
+      {
+      return fromUnit( new BigDecimal( value ) );
+      }
+    catch( NumberFormatException exception )
+      {
+      throw new CascadingException( "unable to parse value: " + value + " as " + unit + " since the epoch", exception );
+      }
+    }
+
+  private long fromUnit( double value )
+    {
+    return fromUnit( BigDecimal.valueOf( value ) );
+    }
+
+  private long fromUnit( BigDecimal value )
+    {
+    return value.multiply( BigDecimal.valueOf( unit.toNanos( 1 ) ) ).movePointLeft( 6 ).longValue();
+    }
+
+  @Override
+  public String format( long millis )
+    {
+    long whole = unit.convert( millis, TimeUnit.MILLISECONDS );
+
+    if( unit.toMillis( whole ) == millis )
+      return Long.toString( whole );
+
+    return BigDecimal.valueOf( millis ).movePointRight( 6 ).divide( BigDecimal.valueOf( unit.toNanos( 1 ) ), MathContext.DECIMAL64 ).stripTrailingZeros().toPlainString();
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( !super.equals( object ) )
+      return false;
+
+    return unit == ( (EpochDateTimeType) object ).unit;
+    }
+
+  @Override
+  public int hashCode()
+    {
+    return Objects.hash( super.hashCode(), unit );
+    }
+
+  @Override
+  public String toString()
+    {
+    return "EpochDateTimeType{unit=" + unit + ", canonicalType='" + getCanonicalType() + "'}";
+    }
+  }
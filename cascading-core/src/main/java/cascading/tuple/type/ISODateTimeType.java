@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.type;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import cascading.CascadingException;
+
+/**
+ * Class ISODateTimeType is a {@link DateTimeType} that parses ISO-8601 date and date-time values, with an optional
+ * offset, without the use of a {@link DateTimeFormatter} for common forms like {@code 2022-01-31},
+ * {@code 2022-01-31T23:59:59Z}, and {@code 2022-01-31 23:59:59.123+01:00}.
+ * <p>
+ * The milliseconds of the most recently observed dates, the {@code yyyy-MM-dd} prefix of a value, are cached
+ * so only the time of day and offset are parsed for each value. Values not matching the common forms are parsed by
+ * {@link DateTimeFormatter#ISO_DATE_TIME} or {@link DateTimeFormatter#ISO_DATE}.
+ * <p>
+ * Values without an offset are assumed to be in the given zone, or UTC if no zone is given.
+ * <p>
+ * Values are formatted by {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME}.
+ */
+public class ISODateTimeType extends DateTimeType
+  {
+  /** Field MILLIS_PER_DAY */
+  private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+  /** Field DAY_CACHE_SIZE, must be a power of two */
+  private static final int DAY_CACHE_SIZE = 16;
+
+  /** Field days */
+  private transient Day[] days;
+
+  /** Class Day holds the milliseconds at the start of a UTC day, instances are immutable */
+  private static final class Day
+    {
+    final int key;
+    final long millis;
+
+    Day( int key, long millis )
+      {
+      this.key = key;
+      this.millis = millis;
+      }
+    }
+
+  /** Create a new ISODateTimeType instance, values without an offset are in UTC. */
+  public ISODateTimeType()
+    {
+    super( null, null, null );
+    }
+
+  /**
+   * Create a new ISODateTimeType instance.
+   *
+   * @param zone of type ZoneId
+   */
+  public ISODateTimeType( ZoneId zone )
+    {
+    super( null, zone, null );
+    }
+
+  @Override
+  protected DateTimeFormatter createFormatter()
+    {
+    return DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    }
+
+  @Override
+  public long parse( String value )
+    {
+    long millis = parseFast( value );
+
+    if( millis != Long.MIN_VALUE )
+      return millis;
+
+    return super.parse( value );
+    }
+
+  @Override
+  protected long parseValue( String value )
+    {
+    try
+      {
+      return toMillis( DateTimeFormatter.ISO_DATE_TIME.withZone( getZone() ).parse( value ) );
+      }
+    catch( DateTimeException exception )
+      {
+      try
+        {
+        return toMillis( DateTimeFormatter.ISO_DATE.withZone( getZone() ).parse( value ) );
+        }
+      catch( DateTimeException ignore )
+        {
+        throw new CascadingException( "unable to parse value: " + value + " as an ISO-8601 date", exception );
+        }
+      }
+    }
+
+  /**
+   * Method parseFast parses {@code yyyy-MM-dd['T'| ]HH:mm[:ss[.S*]][Z|+HH[:]mm|-HH[:]mm]} forms, returning
+   * {@link Long#MIN_VALUE} if the value does not match.
+   */
+  private long parseFast( String value )
+    {
+    int length = value.length();
+
+    if( length < 10 || value.charAt( 4 ) != '-' || value.charAt( 7 ) != '-' )
+      return Long.MIN_VALUE;
+
+    int year = digits( value, 0, 4 );
+    int month = digits( value, 5, 2 );
+    int day = digits( value, 8, 2 );
+
+    if( year < 0 || month < 1 || month > 12 || day < 1 || day > 31 )
+      return Long.MIN_VALUE;
+
+    long time = 0;
+    int pos = 10;
+
+    if( pos < length && ( value.charAt( pos ) == 'T' || value.charAt( pos ) == ' ' ) )
+      {
+      if( length < pos + 6 || value.charAt( pos + 3 ) != ':' )
+        return Long.MIN_VALUE;
+
+      int hour = digits( value, pos + 1, 2 );
+      int minute = digits( value, pos + 4, 2 );
+      int second = 0;
+      int millis = 0;
+
+      pos += 6;
+
+      if( pos < length && value.charAt( pos ) == ':' )
+        {
+        second = digits( value, pos + 1, 2 );
+        pos += 3;
+
+        if( pos < length && ( value.charAt( pos ) == '.' || value.charAt( pos ) == ',' ) )
+          {
+          int start = ++pos;
+          int scale = 100;
+
+          while( pos < length && Character.isDigit( value.charAt( pos ) ) )
+            {
+            millis += ( value.charAt( pos++ ) - '0' ) * scale; // truncates beyond millis
+            scale /= 10;
+            }
+
+          if( pos == start || pos - start > 9 )
+            return Long.MIN_VALUE;
+          }
+        }
+
+      if( hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 )
+        return Long.MIN_VALUE;
+
+      time = ( ( hour * 60L + minute ) * 60L + second ) * 1000L + millis;
+      }
+    else if( pos != length )
+      {
+      return Long.MIN_VALUE;
+      }
+
+    long offset;
+
+    if( pos == length )
+      {
+      ZoneId zone = getZone();
+
+      if( !( zone instanceof ZoneOffset ) && !zone.getRules().isFixedOffset() )
+        return Long.MIN_VALUE; // requires zone rules for the given local time
+
+      offset = zone.getRules().getOffset( Instant.EPOCH ).getTotalSeconds() * 1000L;
+      }
+    else if( pos == length - 1 && value.charAt( pos ) == 'Z' )
+      {
+      offset = 0;
+      }
+    else
+      {
+      offset = parseOffset( value, pos );
+
+      if( offset == Long.MIN_VALUE )
+        return Long.MIN_VALUE;
+      }
+
+    long dayMillis = dayMillis( year, month, day );
+
+    if( dayMillis == Long.MIN_VALUE )
+      return Long.MIN_VALUE;
+
+    return dayMillis + time - offset;
+    }
+
+  private static long parseOffset( String value, int pos )
+    {
+    char sign = value.charAt( pos );
+
+    if( sign != '+' && sign != '-' )
+      return Long.MIN_VALUE;
+
+    int remaining = value.length() - pos - 1;
+    int hours;
+    int minutes;
+
+    if( remaining == 2 ) // +HH
+      {
+      hours = digits( value, pos + 1, 2 );
+      minutes = 0;
+      }
+    else if( remaining == 4 ) // +HHmm
+      {
+      hours = digits( value, pos + 1, 2 );
+      minutes = digits( value, pos + 3, 2 );
+      }
+    else if( remaining == 5 && value.charAt( pos + 3 ) == ':' ) // +HH:mm
+      {
+      hours = digits( value, pos + 1, 2 );
+      minutes = digits( value, pos + 4, 2 );
+      }
+    else
+      {
+      return Long.MIN_VALUE;
+      }
+
+    if( hours < 0 || hours > 18 || minutes < 0 || minutes > 59 )
+      return Long.MIN_VALUE;
+
+    long offset = ( hours * 60L + minutes ) * 60L * 1000L;
+
+    return sign == '-' ? -offset : offset;
+    }
+
+  private long dayMillis( int year, int month, int day )
+    {
+    if( days == null )
+      days = new Day[ DAY_CACHE_SIZE ];
+
+    int key = ( year * 100 + month ) * 100 + day;
+    int index = key & ( DAY_CACHE_SIZE - 1 );
+    Day entry = days[ index ];
+
+    if( entry != null && entry.key == key )
+      return entry.millis;
+
+    long millis;
+
+    try
+      {
+      millis = LocalDate.of( year, month, day ).toEpochDay() * MILLIS_PER_DAY;
+      }
+    catch( DateTimeException exception )
+      {
+      return Long.MIN_VALUE; // let the formatter report the failure
+      }
+
+    days[ index ] = new Day( key, millis );
+
+    return millis;
+    }
+
+  /** returns -1 if any char in the range is not a digit */
+  private static int digits( String value, int start, int length )
+    {
+    if( start + length > value.length() )
+      return -1;
+
+    int result = 0;
+
+    for( int i = start; i < start + length; i++ )
+      {
+      char c = value.charAt( i );
+
+      if( c < '0' || c > '9' )
+        return -1;
+
+      result = result * 10 + ( c - '0' );
+      }
+
+    return result;
+    }
+  }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+import cascading.tuple.Tuple;
+
+/**
+ * Class BloomFilter is a simple, mergeable, Bloom filter over {@link Tuple} values.
+ * <p>
+ * Each element of a given Tuple is hashed with its type, so a String and a {@link Number} that print identically,
+ * {@code "1"} and {@code 1} for example, differ. Integral and floating point numbers of different widths,
+ * {@code 1} and {@code 1L} for example, are treated as equal. This prevents false negatives when the same key is
+ * held by different number types across two tuple streams, at the cost of a few additional false positives.
+ * <p>
+ * Two filters may only be merged if created with the same expected insertions and false positive rate. A filter
+ * may be encoded to, and decoded from, a Base64 String so it may be passed within a Tuple on any platform.
+ */
+public class BloomFilter
+  {
+  /** Field numHashes */
+  private final int numHashes;
+  /** Field numBits */
+  private final long numBits;
+  /** Field bits */
+  private final long[] bits;
+  /** Field insertions */
+  private long insertions;
+
+  /**
+   * Method decode returns a BloomFilter from the given String created by {@link #encode()}.
+   *
+   * @param encoded of type String
+   * @return BloomFilter
+   */
+  public static BloomFilter decode( String encoded )
+    {
+    ByteBuffer buffer = ByteBuffer.wrap( Base64.getDecoder().decode( encoded ) );
+
+    int numHashes = buffer.getInt();
+    long insertions = buffer.getLong();
+    long[] bits = new long[ buffer.remaining() / 8 ];
+
+    buffer.asLongBuffer().get( bits );
+
+    BloomFilter filter = new BloomFilter( numHashes, bits );
+
+    filter.insertions = insertions;
+
+    return filter;
+    }
+
+  /**
+   * Constructor BloomFilter creates a new BloomFilter instance sized to hold the expected number of insertions
+   * while retaining the given false positive rate.
+   *
+   * @param expectedInsertions of type long
+   * @param falsePositiveRate  of type double
+   */
+  public BloomFilter( long expectedInsertions, double falsePositiveRate )
+    {
+    if( expectedInsertions < 1 )
+      throw new IllegalArgumentException( "expected insertions must be greater than zero, got: " + expectedInsertions );
+
+    if( falsePositiveRate <= 0 || falsePositiveRate >= 1 )
+      throw new IllegalArgumentException( "false positive rate must be between zero and one, got: " + falsePositiveRate );
+
+    long numBits = (long) Math.ceil( -expectedInsertions * Math.log( falsePositiveRate ) / ( Math.log( 2 ) * Math.log( 2 ) ) );
+    int numWords = (int) Math.min( Integer.MAX_VALUE - 8, ( numBits + 63 ) / 64 );
+
+    this.bits = new long[ numWords ];
+    this.numBits = numWords * 64L;
+    this.numHashes = Math.max( 1, (int) Math.round( (double) this.numBits / expectedInsertions * Math.log( 2 ) ) );
+    }
+
+  private BloomFilter( int numHashes, long[] bits )
+    {
+    this.numHashes = numHashes;
+    this.bits = bits;
+    this.numBits = bits.length * 64L;
+    }
+
+  public int getNumHashes()
+    {
+    return numHashes;
+    }
+
+  public long getNumBits()
+    {
+    return numBits;
+    }
+
+  /**
+   * Method getInsertions returns the number of tuples added to this filter, including duplicates.
+   *
+   * @return long
+   */
+  public long getInsertions()
+    {
+    return insertions;
+    }
+
+  /**
+   * Method add adds the given tuple to this filter.
+   *
+   * @param tuple of type Tuple
+   */
+  public void add( Tuple tuple )
+    {
+    long hash = Sketches.hash64( tuple );
+    int h1 = (int) hash;
+    int h2 = (int) ( hash >>> 32 );
+
+    for( int i = 1; i <= numHashes; i++ )
+      {
+      long index = ( ( h1 + i * h2 ) & 0xFFFFFFFFL ) % numBits;
+
+      bits[ (int) ( index >>> 6 ) ] |= 1L << index;
+      }
+
+    insertions++;
+    }
+
+  /**
+   * Method mightContain returns false if the given tuple was never added to this filter.
+   *
+   * @param tuple of type Tuple
+   * @return boolean
+   */
+  public boolean mightContain( Tuple tuple )
+    {
+    long hash = Sketches.hash64( tuple );
+    int h1 = (int) hash;
+    int h2 = (int) ( hash >>> 32 );
+
+    for( int i = 1; i <= numHashes; i++ )
+      {
+      long index = ( ( h1 + i * h2 ) & 0xFFFFFFFFL ) % numBits;
+
+      if( ( bits[ (int) ( index >>> 6 ) ] & ( 1L << index ) ) == 0 )
+        return false;
+      }
+
+    return true;
+    }
+
+  /**
+   * Method merge adds all the values of the given filter to this filter.
+   *
+   * @param filter of type BloomFilter
+   */
+  public void merge( BloomFilter filter )
+    {
+    if( filter.numHashes != numHashes || filter.numBits != numBits )
+      throw new IllegalArgumentException( "filters must be of the same size, got bits: " + filter.numBits + ", hashes: " + filter.numHashes + ", expected bits: " + numBits + ", hashes: " + numHashes );
+
+    for( int i = 0; i < bits.length; i++ )
+      bits[ i ] |= filter.bits[ i ];
+
+    insertions += filter.insertions;
+    }
+
+  /**
+   * Method getExpectedFalsePositiveRate returns the probability a tuple never added will be reported as
+   * a possible member, given the bits currently set.
+   *
+   * @return double
+   */
+  public double getExpectedFalsePositiveRate()
+    {
+    long bitsSet = 0;
+
+    for( long word : bits )
+      bitsSet += Long.bitCount( word );
+
+    return Math.pow( (double) bitsSet / numBits, numHashes );
+    }
+
+  /**
+   * Method encode returns this filter as a Base64 String.
+   *
+   * @return String
+   */
+  public String encode()
+    {
+    ByteBuffer buffer = ByteBuffer.allocate( 4 + 8 + bits.length * 8 );
+
+    buffer.putInt( numHashes );
+    buffer.putLong( insertions );
+    buffer.asLongBuffer().put( bits );
+
+    return Base64.getEncoder().encodeToString( buffer.array() );
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( this == object )
+      return true;
+    if( object == null || getClass() != object.getClass() )
+      return false;
+
+    BloomFilter that = (BloomFilter) object;
+
+    return numHashes == that.numHashes && Arrays.equals( bits, that.bits );
+    }
+
+  @Override
+  public int hashCode()
+    {
+    return 31 * numHashes + Arrays.hashCode( bits );
+    }
+
+  @Override
+  public String toString()
+    {
+    return "BloomFilter{numBits=" + numBits + ", numHashes=" + numHashes + ", insertions=" + insertions + '}';
+    }
+  }
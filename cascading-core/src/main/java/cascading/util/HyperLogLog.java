@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import cascading.tuple.Tuple;
+
+/**
+ * Class HyperLogLog is a mergeable sketch estimating the number of distinct {@link Tuple} values added to it,
+ * using a fixed {@code 2^precision} bytes of memory regardless of the number of values.
+ * <p>
+ * The standard error of the estimate is roughly {@code 1.04 / sqrt(2^precision)}, about 0.8% for the default
+ * precision of {@link #DEFAULT_PRECISION}. Small cardinalities are corrected with linear counting.
+ * <p>
+ * As with {@link BloomFilter}, tuple elements are hashed with their type, with numbers of different widths equal.
+ * <p>
+ * Two sketches may only be merged if created with the same precision. Use {@link #toBytes()} and
+ * {@link #fromBytes(byte[])} to serialize a sketch.
+ */
+public class HyperLogLog
+  {
+  /** Field DEFAULT_PRECISION */
+  public static final int DEFAULT_PRECISION = 14;
+  /** Field MIN_PRECISION */
+  public static final int MIN_PRECISION = 4;
+  /** Field MAX_PRECISION */
+  public static final int MAX_PRECISION = 18;
+
+  /** Field precision */
+  private final int precision;
+  /** Field registers */
+  private final byte[] registers;
+
+  /**
+   * Method fromBytes returns a HyperLogLog from the given bytes created by {@link #toBytes()}.
+   *
+   * @param bytes of type byte[]
+   * @return HyperLogLog
+   */
+  public static HyperLogLog fromBytes( byte[] bytes )
+    {
+    HyperLogLog sketch = new HyperLogLog( bytes[ 0 ] );
+
+    if( bytes.length != sketch.registers.length + 1 )
+      throw new IllegalArgumentException( "invalid sketch length: " + bytes.length + ", for precision: " + sketch.precision );
+
+    System.arraycopy( bytes, 1, sketch.registers, 0, sketch.registers.length );
+
+    return sketch;
+    }
+
+  /** Constructor HyperLogLog creates a new HyperLogLog instance with the default precision. */
+  public HyperLogLog()
+    {
+    this( DEFAULT_PRECISION );
+    }
+
+  /**
+   * Constructor HyperLogLog creates a new HyperLogLog instance.
+   *
+   * @param precision of type int
+   */
+  public HyperLogLog( int precision )
+    {
+    if( precision < MIN_PRECISION || precision > MAX_PRECISION )
+      throw new IllegalArgumentException( "precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ", got: " + precision );
+
+    this.precision = precision;
+    this.registers = new byte[ 1 << precision ];
+    }
+
+  public int getPrecision()
+    {
+    return precision;
+    }
+
+  /**
+   * Method add adds the given tuple to this sketch.
+   *
+   * @param tuple of type Tuple
+   */
+  public void add( Tuple tuple )
+    {
+    addHash( Sketches.hash64( tuple ) );
+    }
+
+  /**
+   * Method addHash adds a value by its 64 bit hash to this sketch.
+   *
+   * @param hash of type long
+   */
+  public void addHash( long hash )
+    {
+    int index = (int) ( hash >>> ( 64 - precision ) );
+    // the bit guard bounds the rank when all remaining bits are zero
+    byte rank = (byte) ( Long.numberOfLeadingZeros( ( hash << precision ) | ( 1L << ( precision - 1 ) ) ) + 1 );
+
+    if( rank > registers[ index ] )
+      registers[ index ] = rank;
+    }
+
+  /**
+   * Method merge adds all the values of the given sketch to this sketch.
+   *
+   * @param sketch of type HyperLogLog
+   */
+  public void merge( HyperLogLog sketch )
+    {
+    if( sketch.precision != precision )
+      throw new IllegalArgumentException( "sketches must be of the same precision, got: " + sketch.precision + ", expected: " + precision );
+
+    for( int i = 0; i < registers.length; i++ )
+      {
+      if( sketch.registers[ i ] > registers[ i ] )
+        registers[ i ] = sketch.registers[ i ];
+      }
+    }
+
+  /**
+   * Method estimate returns the estimated number of distinct values added to this sketch.
+   *
+   * @return long
+   */
+  public long estimate()
+    {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+
+    for( byte register : registers )
+      {
+      sum += 1.0 / ( 1L << register );
+
+      if( register == 0 )
+        zeros++;
+      }
+
+    double estimate = alpha( m ) * m * m / sum;
+
+    if( estimate <= 2.5 * m && zeros != 0 )
+      estimate = m * Math.log( (double) m / zeros );
+
+    return Math.round( estimate );
+    }
+
+  private static double alpha( int m )
+    {
+    switch( m )
+      {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / ( 1 + 1.079 / m );
+      }
+    }
+
+  /**
+   * Method toBytes returns this sketch as a byte array.
+   *
+   * @return byte[]
+   */
+  public byte[] toBytes()
+    {
+    return ByteBuffer.allocate( registers.length + 1 ).put( (byte) precision ).put( registers ).array();
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( this == object )
+      return true;
+    if( object == null || getClass() != object.getClass() )
+      return false;
+
+    HyperLogLog that = (HyperLogLog) object;
+
+    return precision == that.precision && Arrays.equals( registers, that.registers );
+    }
+
+  @Override
+  public int hashCode()
+    {
+    return 31 * precision + Arrays.hashCode( registers );
+    }
+
+  @Override
+  public String toString()
+    {
+    return "HyperLogLog{precision=" + precision + ", estimate=" + estimate() + '}';
+    }
+  }
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import cascading.CascadingException;
+
+/**
+ * Class QuantileSketch is a mergeable sketch estimating the quantiles of the {@code double} values added to it,
+ * based on the KLL sketch by Karnin, Lang, and Liberty.
+ * <p>
+ * Values are held in a hierarchy of levels, when a level fills up it is sorted and every other value is promoted
+ * to the next level with twice the weight. The capacity of each level shrinks geometrically with its depth so
+ * the memory used grows with the log of the number of values added, bounded by roughly {@code 3 * k} values.
+ * <p>
+ * The normalized rank error of an estimated quantile is roughly {@code 1.7 / k}, under 1% for the default
+ * {@code k} of {@link #DEFAULT_K}. The minimum and maximum values are retained exactly.
+ * <p>
+ * Use {@link #toBytes()} and {@link #fromBytes(byte[])} to serialize a sketch.
+ */
+public class QuantileSketch
+  {
+  /** Field DEFAULT_K */
+  public static final int DEFAULT_K = 200;
+  /** Field MIN_K */
+  public static final int MIN_K = 8;
+
+  private static final double DECAY = 2.0 / 3.0;
+
+  /** Field k */
+  private final int k;
+  /** Field levels */
+  private double[][] levels = new double[ 1 ][];
+  /** Field sizes */
+  private int[] sizes = new int[ 1 ];
+  /** Field count */
+  private long count;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+  /** Field offset, alternates which half of a compacted level is promoted */
+  private boolean offset;
+
+  /**
+   * Method fromBytes returns a QuantileSketch from the given bytes created by {@link #toBytes()}.
+   *
+   * @param bytes of type byte[]
+   * @return QuantileSketch
+   */
+  public static QuantileSketch fromBytes( byte[] bytes )
+    {
+    try( DataInputStream input = new DataInputStream( new ByteArrayInputStream( bytes ) ) )
+      {
+      QuantileSketch sketch = new QuantileSketch( input.readInt() );
+
+      sketch.count = input.readLong();
+      sketch.min = input.readDouble();
+      sketch.max = input.readDouble();
+      sketch.offset = input.readBoolean();
+
+      int numLevels = input.readInt();
+
+      sketch.levels = new double[ numLevels ][];
+      sketch.sizes = new int[ numLevels ];
+
+      for( int level = 0; level < numLevels; level++ )
+        {
+        int size = input.readInt();
+
+        sketch.levels[ level ] = new double[ Math.max( size, 2 ) ];
+        sketch.sizes[ level ] = size;
+
+        for( int i = 0; i < size; i++ )
+          sketch.levels[ level ][ i ] = input.readDouble();
+        }
+
+      return sketch;
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to read sketch", exception );
+      }
+    }
+
+  /** Constructor QuantileSketch creates a new QuantileSketch instance with the default {@code k}. */
+  public QuantileSketch()
+    {
+    this( DEFAULT_K );
+    }
+
+  /**
+   * Constructor QuantileSketch creates a new QuantileSketch instance.
+   *
+   * @param k of type int
+   */
+  public QuantileSketch( int k )
+    {
+    if( k < MIN_K )
+      throw new IllegalArgumentException( "k must be at least " + MIN_K + ", got: " + k );
+
+    this.k = k;
+    }
+
+  public int getK()
+    {
+    return k;
+    }
+
+  /**
+   * Method getCount returns the number of values added to this sketch.
+   *
+   * @return long
+   */
+  public long getCount()
+    {
+    return count;
+    }
+
+  public double getMin()
+    {
+    return min;
+    }
+
+  public double getMax()
+    {
+    return max;
+    }
+
+  /**
+   * Method add adds the given value to this sketch, {@code NaN} values are ignored.
+   *
+   * @param value of type double
+   */
+  public void add( double value )
+    {
+    if( Double.isNaN( value ) )
+      return;
+
+    if( count++ == 0 )
+      {
+      min = value;
+      max = value;
+      }
+    else
+      {
+      min = Math.min( min, value );
+      max = Math.max( max, value );
+      }
+
+    append( 0, value );
+    compress();
+    }
+
+  /**
+   * Method merge adds all the values of the given sketch to this sketch.
+   *
+   * @param sketch of type QuantileSketch
+   */
+  public void merge( QuantileSketch sketch )
+    {
+    if( sketch.count == 0 )
+      return;
+
+    if( count == 0 )
+      {
+      min = sketch.min;
+      max = sketch.max;
+      }
+    else
+      {
+      min = Math.min( min, sketch.min );
+      max = Math.max( max, sketch.max );
+      }
+
+    count += sketch.count;
+
+    for( int level = 0; level < sketch.sizes.length; level++ )
+      {
+      for( int i = 0; i < sketch.sizes[ level ]; i++ )
+        append( level, sketch.levels[ level ][ i ] );
+      }
+
+    compress();
+    }
+
+  /**
+   * Method getQuantile returns the estimated value at the given normalized rank, between {@code 0} and {@code 1}.
+   * Returns {@code NaN} if no values were added.
+   *
+   * @param rank of type double
+   * @return double
+   */
+  public double getQuantile( double rank )
+    {
+    if( rank < 0 || rank > 1 )
+      throw new IllegalArgumentException( "rank must be between zero and one, got: " + rank );
+
+    if( count == 0 )
+      return Double.NaN;
+
+    if( rank == 0 )
+      return min;
+
+    if( rank == 1 )
+      return max;
+
+    int retained = retained();
+    double[] values = new double[ retained ];
+    long[] weights = new long[ retained ];
+    long total = 0;
+    int pos = 0;
+
+    for( int level = 0; level < sizes.length; level++ )
+      {
+      for( int i = 0; i < sizes[ level ]; i++ )
+        {
+        values[ pos ] = levels[ level ][ i ];
+        weights[ pos ] = 1L << level;
+        total += weights[ pos ];
+        pos++;
+        }
+      }
+
+    // sort values by index to retain the weight of each value
+    Integer[] order = new Integer[ retained ];
+
+    for( int i = 0; i < retained; i++ )
+      order[ i ] = i;
+
+    Arrays.sort( order, ( lhs, rhs ) -> Double.compare( values[ lhs ], values[ rhs ] ) );
+
+    double target = rank * total;
+    long cumulative = 0;
+
+    for( int i = 0; i < retained; i++ )
+      {
+      cumulative += weights[ order[ i ] ];
+
+      if( cumulative >= target )
+        return values[ order[ i ] ];
+      }
+
+    return max;
+    }
+
+  private void append( int level, double value )
+    {
+    if( level >= sizes.length )
+      {
+      levels = Arrays.copyOf( levels, level + 1 );
+      sizes = Arrays.copyOf( sizes, level + 1 );
+      }
+
+    double[] values = levels[ level ];
+
+    if( values == null )
+      values = levels[ level ] = new double[ Math.max( 2, capacity( level ) ) ];
+    else if( sizes[ level ] == values.length )
+      values = levels[ level ] = Arrays.copyOf( values, values.length * 2 );
+
+    values[ sizes[ level ]++ ] = value;
+    }
+
+  private int capacity( int level )
+    {
+    return Math.max( 2, (int) Math.ceil( k * Math.pow( DECAY, sizes.length - 1 - level ) ) );
+    }
+
+  private int retained()
+    {
+    int retained = 0;
+
+    for( int size : sizes )
+      retained += size;
+
+    return retained;
+    }
+
+  private int totalCapacity()
+    {
+    int total = 0;
+
+    for( int level = 0; level < sizes.length; level++ )
+      total += capacity( level );
+
+    return total;
+    }
+
+  private void compress()
+    {
+    while( retained() > totalCapacity() )
+      {
+      for( int level = 0; level < sizes.length; level++ )
+        {
+        if( sizes[ level ] >= capacity( level ) )
+          {
+          compact( level );
+          break;
+          }
+        }
+      }
+    }
+
+  private void compact( int level )
+    {
+    double[] values = levels[ level ];
+    int size = sizes[ level ];
+    int odd = size & 1;
+
+    Arrays.sort( values, 0, size );
+
+    // an odd value out remains at this level
+    sizes[ level ] = 0;
+
+    for( int i = offset ? 1 : 0; i < size - odd; i += 2 )
+      append( level + 1, values[ i ] );
+
+    offset = !offset;
+
+    if( odd == 1 )
+      levels[ level ][ sizes[ level ]++ ] = values[ size - 1 ];
+    }
+
+  /**
+   * Method toBytes returns this sketch as a byte array.
+   *
+   * @return byte[]
+   */
+  public byte[] toBytes()
+    {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream( 32 + retained() * 8 );
+
+    try( DataOutputStream output = new DataOutputStream( bytes ) )
+      {
+      output.writeInt( k );
+      output.writeLong( count );
+      output.writeDouble( min );
+      output.writeDouble( max );
+      output.writeBoolean( offset );
+      output.writeInt( sizes.length );
+
+      for( int level = 0; level < sizes.length; level++ )
+        {
+        output.writeInt( sizes[ level ] );
+
+        for( int i = 0; i < sizes[ level ]; i++ )
+          output.writeDouble( levels[ level ][ i ] );
+        }
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to write sketch", exception );
+      }
+
+    return bytes.toByteArray();
+    }
+
+  @Override
+  public String toString()
+    {
+    return "QuantileSketch{k=" + k + ", count=" + count + ", retained=" + retained() + ", levels=" + sizes.length + '}';
+    }
+  }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import cascading.CascadingException;
+import cascading.tuple.Tuple;
+
+/** Class Sketches holds helper methods shared by the sketch implementations in this package. */
+final class Sketches
+  {
+  private static final int SEED2 = 0x5bd1e995;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte BOOLEAN = 5;
+  private static final byte SERIALIZABLE = 6;
+
+  // tags only used when hashing
+  private static final byte CHARACTER = 7;
+  private static final byte BIG_DECIMAL = 8;
+  private static final byte BIG_INTEGER = 9;
+  private static final byte DATE = 10;
+  private static final byte TUPLE = 11;
+  private static final byte OBJECT = 12;
+
+  private Sketches()
+    {
+    }
+
+  /**
+   * Method hash64 returns two independent 32 bit hashes of all the elements in the given tuple. Each element is
+   * hashed with a tag of its type, so values that print identically, like {@code 1} and {@code "1"}, differ.
+   * Integral and floating point numbers are hashed as long and double values respectively, so {@code 1} and
+   * {@code 1L} are equal. BigDecimal values are hashed without trailing zeros, so {@code 1.5} and {@code 1.50} are
+   * equal. Characters, BigIntegers, Dates, and nested Tuples are hashed by their values.
+   * <p>
+   * All other types are hashed by their class name and {@link Object#hashCode()}, so are only hashed consistently
+   * across JVMs, and thus tasks, if their hashCode is computed from their value and not their identity.
+   */
+  static long hash64( Tuple tuple )
+    {
+    Hash hash = new Hash();
+
+    for( int i = 0; i < tuple.size(); i++ )
+      hashValue( hash, tuple.getObject( i ) );
+
+    return hash.finish();
+    }
+
+  private static void hashValue( Hash hash, Object value )
+    {
+    if( value == null )
+      {
+      hash.mix( NULL );
+      }
+    else if( value instanceof String )
+      {
+      hash.mix( STRING );
+      hashString( hash, (String) value );
+      }
+    else if( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte )
+      {
+      hash.mix( LONG );
+      hash.mix( ( (Number) value ).longValue() );
+      }
+    else if( value instanceof Double || value instanceof Float )
+      {
+      hash.mix( DOUBLE );
+      hash.mix( Double.doubleToLongBits( ( (Number) value ).doubleValue() ) );
+      }
+    else if( value instanceof Boolean )
+      {
+      hash.mix( BOOLEAN );
+      hash.mix( (Boolean) value ? 1 : 0 );
+      }
+    else if( value instanceof Character )
+      {
+      hash.mix( CHARACTER );
+      hash.mix( (Character) value );
+      }
+    else if( value instanceof BigDecimal )
+      {
+      BigDecimal decimal = ( (BigDecimal) value ).stripTrailingZeros();
+
+      hash.mix( BIG_DECIMAL );
+      hashBytes( hash, decimal.unscaledValue().toByteArray() );
+      hash.mix( decimal.scale() );
+      }
+    else if( value instanceof BigInteger )
+      {
+      hash.mix( BIG_INTEGER );
+      hashBytes( hash, ( (BigInteger) value ).toByteArray() );
+      }
+    else if( value instanceof Date )
+      {
+      hash.mix( DATE );
+      hash.mix( ( (Date) value ).getTime() );
+      }
+    else if( value instanceof Tuple )
+      {
+      Tuple tuple = (Tuple) value;
+
+      hash.mix( TUPLE );
+
+      for( int i = 0; i < tuple.size(); i++ )
+        hashValue( hash, tuple.getObject( i ) );
+
+      hash.mix( tuple.size() );
+      }
+    else
+      {
+      hash.mix( OBJECT );
+      hashString( hash, value.getClass().getName() );
+      hash.mix( value.hashCode() );
+      }
+    }
+
+  private static void hashString( Hash hash, String string )
+    {
+    for( int i = 0; i < string.length(); i++ )
+      hash.mix( string.charAt( i ) );
+
+    // delimit each element so ("a", "bc") and ("ab", "c") differ
+    hash.mix( string.length() );
+    }
+
+  private static void hashBytes( Hash hash, byte[] bytes )
+    {
+    for( byte b : bytes )
+      hash.mix( b );
+
+    hash.mix( bytes.length );
+    }
+
+  private static class Hash
+    {
+    int h1 = Murmur3.SEED;
+    int h2 = SEED2;
+    int length;
+
+    void mix( int value )
+      {
+      h1 = Murmur3.mixH1( h1, Murmur3.mixK1( value ) );
+      h2 = Murmur3.mixH1( h2, Murmur3.mixK1( value ^ SEED2 ) );
+      length++;
+      }
+
+    void mix( long value )
+      {
+      mix( (int) value );
+      mix( (int) ( value >>> 32 ) );
+      }
+
+    long finish()
+      {
+      return ( Murmur3.fmix( h1, length ) & 0xFFFFFFFFL ) | ( (long) Murmur3.fmix( h2, length ) << 32 );
+      }
+    }
+
+  private static byte[] serialize( Object value ) throws IOException
+    {
+    if( !( value instanceof Serializable ) )
+      throw new CascadingException( "unable to serialize value of type: " + value.getClass().getName() );
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try( ObjectOutputStream stream = new ObjectOutputStream( bytes ) )
+      {
+      stream.writeObject( value );
+      }
+
+    return bytes.toByteArray();
+    }
+
+  static void writeTuple( DataOutputStream output, Tuple tuple ) throws IOException
+    {
+    output.writeInt( tuple.size() );
+
+    for( int i = 0; i < tuple.size(); i++ )
+      writeValue( output, tuple.getObject( i ) );
+    }
+
+  static Tuple readTuple( DataInputStream input ) throws IOException
+    {
+    int size = input.readInt();
+    Tuple tuple = Tuple.size( size );
+
+    for( int i = 0; i < size; i++ )
+      tuple.set( i, readValue( input ) );
+
+    return tuple;
+    }
+
+  private static void writeValue( DataOutputStream output, Object value ) throws IOException
+    {
+    if( value == null )
+      {
+      output.writeByte( NULL );
+      }
+    else if( value instanceof String )
+      {
+      byte[] bytes = ( (String) value ).getBytes( StandardCharsets.UTF_8 );
+
+      output.writeByte( STRING );
+      output.writeInt( bytes.length );
+      output.write( bytes );
+      }
+    else if( value instanceof Integer )
+      {
+      output.writeByte( INTEGER );
+      output.writeInt( (Integer) value );
+      }
+    else if( value instanceof Long )
+      {
+      output.writeByte( LONG );
+      output.writeLong( (Long) value );
+      }
+    else if( value instanceof Double )
+      {
+      output.writeByte( DOUBLE );
+      output.writeDouble( (Double) value );
+      }
+    else if( value instanceof Boolean )
+      {
+      output.writeByte( BOOLEAN );
+      output.writeBoolean( (Boolean) value );
+      }
+    else
+      {
+      byte[] bytes = serialize( value );
+
+      output.writeByte( SERIALIZABLE );
+      output.writeInt( bytes.length );
+      output.write( bytes );
+      }
+    }
+
+  private static Object readValue( DataInputStream input ) throws IOException
+    {
+    byte type = input.readByte();
+
+    switch( type )
+      {
+      case NULL:
+        return null;
+      case STRING:
+        return new String( readBytes( input ), StandardCharsets.UTF_8 );
+      case INTEGER:
+        return input.readInt();
+      case LONG:
+        return input.readLong();
+      case DOUBLE:
+        return input.readDouble();
+      case BOOLEAN:
+        return input.readBoolean();
+      case SERIALIZABLE:
+        try( ObjectInputStream stream = new ObjectInputStream( new ByteArrayInputStream( readBytes( input ) ) ) )
+          {
+          return stream.readObject();
+          }
+        catch( ClassNotFoundException exception )
+          {
+          throw new IOException( "unable to read value", exception );
+          }
+      default:
+        throw new IOException( "unknown value type: " + type );
+      }
+    }
+
+  private static byte[] readBytes( DataInputStream input ) throws IOException
+    {
+    byte[] bytes = new byte[ input.readInt() ];
+
+    input.readFully( bytes );
+
+    return bytes;
+    }
+  }
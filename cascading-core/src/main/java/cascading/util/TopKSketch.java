@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cascading.CascadingException;
+import cascading.tuple.Tuple;
+
+/**
+ * Class TopKSketch is a mergeable sketch tracking the most frequent {@link Tuple} values added to it, using the
+ * Space-Saving algorithm by Metwally, Agrawal, and El Abbadi.
+ * <p>
+ * At most {@code capacity} values are counted. When a new value is seen and the sketch is full, the value with
+ * the lowest count is replaced, and the new value inherits that count as its error. Counts are therefore
+ * never underestimated, and overestimated by at most {@link Counter#getError()}. Any value occurring more than
+ * {@code n / capacity} times in {@code n} values is guaranteed to be retained.
+ * <p>
+ * Values with the lowest counts are found through a min heap, so each value is added in {@code O(log capacity)}
+ * time.
+ * <p>
+ * Use {@link #toBytes()} and {@link #fromBytes(byte[])} to serialize a sketch. Values must be Strings, Numbers,
+ * Booleans, or otherwise {@link java.io.Serializable}.
+ */
+public class TopKSketch
+  {
+  /** Class Counter holds the estimated count of a single value. */
+  public static class Counter
+    {
+    private final Tuple value;
+    private long count;
+    private long error;
+    private int index;
+
+    Counter( Tuple value, long count, long error )
+      {
+      this.value = value;
+      this.count = count;
+      this.error = error;
+      }
+
+    public Tuple getValue()
+      {
+      return value;
+      }
+
+    /**
+     * Method getCount returns the estimated count of the value, never less than the actual count.
+     *
+     * @return long
+     */
+    public long getCount()
+      {
+      return count;
+      }
+
+    /**
+     * Method getError returns the maximum amount the count of the value may be overestimated.
+     *
+     * @return long
+     */
+    public long getError()
+      {
+      return error;
+      }
+
+    @Override
+    public String toString()
+      {
+      return "Counter{value=" + value + ", count=" + count + ", error=" + error + '}';
+      }
+    }
+
+  /** Field capacity */
+  private final int capacity;
+  /** Field counters */
+  private final Map<Tuple, Counter> counters = new HashMap<>();
+  /** Field heap, a min heap of counters by count */
+  private Counter[] heap = new Counter[ 16 ];
+
+  /**
+   * Method fromBytes returns a TopKSketch from the given bytes created by {@link #toBytes()}.
+   *
+   * @param bytes of type byte[]
+   * @return TopKSketch
+   */
+  public static TopKSketch fromBytes( byte[] bytes )
+    {
+    try( DataInputStream input = new DataInputStream( new ByteArrayInputStream( bytes ) ) )
+      {
+      TopKSketch sketch = new TopKSketch( input.readInt() );
+      int size = input.readInt();
+
+      for( int i = 0; i < size; i++ )
+        {
+        Tuple value = Sketches.readTuple( input );
+
+        sketch.insert( new Counter( value, input.readLong(), input.readLong() ) );
+        }
+
+      return sketch;
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to read sketch", exception );
+      }
+    }
+
+  /**
+   * Constructor TopKSketch creates a new TopKSketch instance.
+   *
+   * @param capacity of type int
+   */
+  public TopKSketch( int capacity )
+    {
+    if( capacity < 1 )
+      throw new IllegalArgumentException( "capacity must be greater than zero, got: " + capacity );
+
+    this.capacity = capacity;
+    }
+
+  public int getCapacity()
+    {
+    return capacity;
+    }
+
+  public int size()
+    {
+    return counters.size();
+    }
+
+  /**
+   * Method add adds the given value to this sketch.
+   *
+   * @param value of type Tuple
+   */
+  public void add( Tuple value )
+    {
+    add( value, 1 );
+    }
+
+  /**
+   * Method add adds the given value to this sketch with the given weight.
+   *
+   * @param value  of type Tuple
+   * @param weight of type long
+   */
+  public void add( Tuple value, long weight )
+    {
+    Counter counter = counters.get( value );
+
+    if( counter != null )
+      {
+      counter.count += weight;
+      siftDown( counter.index );
+      return;
+      }
+
+    if( counters.size() < capacity )
+      {
+      insert( new Counter( new Tuple( value ), weight, 0 ) );
+      return;
+      }
+
+    Counter min = heap[ 0 ];
+
+    counters.remove( min.value );
+
+    Counter replacement = new Counter( new Tuple( value ), min.count + weight, min.count );
+
+    replacement.index = 0;
+    heap[ 0 ] = replacement;
+    counters.put( replacement.value, replacement );
+
+    siftDown( 0 );
+    }
+
+  /**
+   * Method merge adds all the values of the given sketch to this sketch. Both sketches should have the same
+   * capacity.
+   * <p>
+   * A value missing from a full sketch is assumed to have the lowest count of that sketch, retaining the guarantee
+   * that counts are never underestimated.
+   *
+   * @param sketch of type TopKSketch
+   */
+  public void merge( TopKSketch sketch )
+    {
+    long thisMin = counters.size() < capacity ? 0 : heap[ 0 ].count;
+    long thatMin = sketch.counters.size() < sketch.capacity ? 0 : sketch.heap[ 0 ].count;
+
+    List<Counter> merged = new ArrayList<>( counters.size() + sketch.counters.size() );
+
+    for( Counter counter : counters.values() )
+      {
+      Counter other = sketch.counters.get( counter.value );
+
+      if( other != null )
+        merged.add( new Counter( counter.value, counter.count + other.count, counter.error + other.error ) );
+      else
+        merged.add( new Counter( counter.value, counter.count + thatMin, counter.error + thatMin ) );
+      }
+
+    for( Counter other : sketch.counters.values() )
+      {
+      if( !counters.containsKey( other.value ) )
+        merged.add( new Counter( other.value, other.count + thisMin, other.error + thisMin ) );
+      }
+
+    merged.sort( ( lhs, rhs ) -> Long.compare( rhs.count, lhs.count ) );
+
+    counters.clear();
+    Arrays.fill( heap, null );
+
+    for( int i = 0; i < Math.min( capacity, merged.size() ); i++ )
+      insert( merged.get( i ) );
+    }
+
+  /**
+   * Method getTopK returns up to {@code k} counters ordered by descending count.
+   *
+   * @param k of type int
+   * @return List
+   */
+  public List<Counter> getTopK( int k )
+    {
+    List<Counter> result = new ArrayList<>( counters.values() );
+
+    result.sort( ( lhs, rhs ) -> Long.compare( rhs.count, lhs.count ) );
+
+    return result.subList( 0, Math.min( k, result.size() ) );
+    }
+
+  private void insert( Counter counter )
+    {
+    int index = counters.size();
+
+    if( index == heap.length )
+      heap = Arrays.copyOf( heap, Math.min( capacity, heap.length * 2 ) );
+
+    counters.put( counter.value, counter );
+    counter.index = index;
+    heap[ index ] = counter;
+
+    siftUp( index );
+    }
+
+  private void siftUp( int index )
+    {
+    Counter counter = heap[ index ];
+
+    while( index > 0 )
+      {
+      int parent = ( index - 1 ) >>> 1;
+
+      if( heap[ parent ].count <= counter.count )
+        break;
+
+      place( heap[ parent ], index );
+      index = parent;
+      }
+
+    place( counter, index );
+    }
+
+  private void siftDown( int index )
+    {
+    Counter counter = heap[ index ];
+    int size = counters.size();
+
+    while( true )
+      {
+      int child = 2 * index + 1;
+
+      if( child >= size )
+        break;
+
+      if( child + 1 < size && heap[ child + 1 ].count < heap[ child ].count )
+        child++;
+
+      if( counter.count <= heap[ child ].count )
+        break;
+
+      place( heap[ child ], index );
+      index = child;
+      }
+
+    place( counter, index );
+    }
+
+  private void place( Counter counter, int index )
+    {
+    heap[ index ] = counter;
+    counter.index = index;
+    }
+
+  /**
+   * Method toBytes returns this sketch as a byte array.
+   *
+   * @return byte[]
+   */
+  public byte[] toBytes()
+    {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try( DataOutputStream output = new DataOutputStream( bytes ) )
+      {
+      output.writeInt( capacity );
+      output.writeInt( counters.size() );
+
+      for( Counter counter : counters.values() )
+        {
+        Sketches.writeTuple( output, counter.value );
+        output.writeLong( counter.count );
+        output.writeLong( counter.error );
+        }
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to write sketch", exception );
+      }
+
+    return bytes.toByteArray();
+    }
+
+  @Override
+  public String toString()
+    {
+    return "TopKSketch{capacity=" + capacity + ", size=" + counters.size() + '}';
+    }
+  }
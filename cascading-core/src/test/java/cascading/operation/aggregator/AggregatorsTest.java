@@ -23,9 +23,13 @@ package cascading.operation.aggregator;
 import java.util.Iterator;
 
 import cascading.CascadingTestCase;
+import cascading.flow.FlowProcess;
 import cascading.operation.Aggregator;
+import cascading.operation.BatchAggregator;
+import cascading.operation.ConcreteCall;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import cascading.tuple.TupleListCollector;
 import org.junit.Test;
 
@@ -148,6 +152,61 @@ public class AggregatorsTest extends CascadingTestCase
     assertEquals( "got expected value after aggregate", 5.0, tuple.getDouble( 0 ), 0.0d );
     }
 
+  @Test
+  public void testSumBatch()
+    {
+    Tuple tuple = invokeBatchAggregator( new Sum(), new Tuple( 1.0 ), new Tuple( "3" ), new Tuple( (Object) null ), new Tuple( 2 ), new Tuple( 4L ), new Tuple( -5.0 ) );
+
+    assertEquals( "got expected value after aggregate", 5.0, tuple.getDouble( 0 ), 0.0d );
+
+    tuple = invokeBatchAggregator( new Sum(), new Tuple( (Object) null ), new Tuple( (Object) null ) );
+
+    assertNull( "got expected value after aggregate", tuple.getObject( 0 ) );
+    }
+
+  @Test
+  public void testCountBatch()
+    {
+    Tuple tuple = invokeBatchAggregator( new Count(), new Tuple( 1.0 ), new Tuple( (Object) null ), new Tuple( 2.0 ), new Tuple( 4.0 ), new Tuple( -5.0 ) );
+
+    assertEquals( "got expected value after aggregate", 5, tuple.getInteger( 0 ) );
+    }
+
+  /** Hands the given arguments to the aggregator in batches of two. */
+  private static Tuple invokeBatchAggregator( BatchAggregator aggregator, Tuple... arguments )
+    {
+    Fields argumentFields = new Fields( "value" );
+    TupleBatch batch = new TupleBatch( argumentFields, 2 );
+    TupleListCollector collector = new TupleListCollector( aggregator.getFieldDeclaration(), true );
+    ConcreteCall call = new ConcreteCall( argumentFields, aggregator.getFieldDeclaration() );
+
+    call.setArgumentBatch( batch );
+
+    aggregator.prepare( FlowProcess.NULL, call );
+    aggregator.start( FlowProcess.NULL, call );
+
+    for( Tuple tuple : arguments )
+      {
+      batch.add( tuple );
+
+      if( batch.isFull() )
+        {
+        aggregator.aggregateBatch( FlowProcess.NULL, call );
+        batch.clear();
+        }
+      }
+
+    if( !batch.isEmpty() )
+      aggregator.aggregateBatch( FlowProcess.NULL, call );
+
+    call.setOutputCollector( collector );
+
+    aggregator.complete( FlowProcess.NULL, call );
+    aggregator.cleanup( FlowProcess.NULL, call );
+
+    return collector.iterator().next();
+    }
+
   @Test
   public void testMaxValue()
     {
@@ -23,13 +23,18 @@ package cascading.operation.filter;
 import cascading.CascadingTestCase;
 import cascading.flow.FlowProcess;
 import cascading.operation.BaseOperation;
+import cascading.operation.BatchFilter;
+import cascading.operation.ConcreteCall;
 import cascading.operation.Filter;
 import cascading.operation.FilterCall;
 import cascading.pipe.assembly.Unique;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
+
 /**
  *
  */
@@ -70,6 +75,43 @@ public class FilterTest extends CascadingTestCase
     assertTrue( invokeFilter( filter, new Tuple( null, null ) ) );
     }
 
+  @Test
+  public void testNotNullBatch()
+    {
+    int[] retained = invokeBatchFilter( new FilterNotNull(), new Tuple( "0", 1 ), new Tuple( null, null ), new Tuple( "0", null ), new Tuple( null, null ) );
+
+    assertArrayEquals( new int[]{1, 3}, retained );
+    }
+
+  @Test
+  public void testNullBatch()
+    {
+    int[] retained = invokeBatchFilter( new FilterNull(), new Tuple( "0", 1 ), new Tuple( null, null ), new Tuple( "0", null ), new Tuple( 1, 2 ) );
+
+    assertArrayEquals( new int[]{0, 3}, retained );
+    }
+
+  /** Returns the rows retained by the filter. */
+  private static int[] invokeBatchFilter( BatchFilter filter, Tuple... arguments )
+    {
+    Fields argumentFields = new Fields( "a", "b" );
+    TupleBatch batch = new TupleBatch( argumentFields, arguments.length );
+    ConcreteCall call = new ConcreteCall( argumentFields );
+
+    for( Tuple tuple : arguments )
+      batch.add( tuple );
+
+    call.setArgumentBatch( batch );
+
+    filter.removeBatch( FlowProcess.NULL, call );
+
+    int[] retained = new int[ batch.getNumSelected() ];
+
+    System.arraycopy( batch.getSelection(), 0, retained, 0, retained.length );
+
+    return retained;
+    }
+
   public class BooleanFilter extends BaseOperation implements Filter
     {
     private final boolean result;
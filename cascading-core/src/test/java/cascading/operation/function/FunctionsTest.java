@@ -21,15 +21,25 @@
 package cascading.operation.function;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import cascading.CascadingTestCase;
+import cascading.flow.FlowProcess;
 import cascading.operation.Function;
 import cascading.pipe.assembly.AggregateBy;
+import cascading.pipe.assembly.AggregateByProps;
 import cascading.pipe.assembly.AggregateByLocally;
+import cascading.pipe.assembly.AggregateByWindowLocally;
+import cascading.pipe.assembly.AggregateByWindowLocally.Windows;
+import cascading.pipe.assembly.AverageBy;
 import cascading.pipe.assembly.CountBy;
 import cascading.pipe.assembly.CountByLocally;
+import cascading.pipe.assembly.MaxBy;
+import cascading.pipe.assembly.MinBy;
 import cascading.pipe.assembly.SumBy;
 import cascading.pipe.assembly.SumByLocally;
 import cascading.tuple.Fields;
@@ -86,6 +96,177 @@ public class FunctionsTest extends CascadingTestCase
     assertEquals( 5, count );
     }
 
+  @Test
+  public void testPartialCountsCapacityBytes()
+    {
+    Function function = new AggregateBy.CompositeFunction( new Fields( "value" ), Fields.ALL, new CountBy.CountPartials( new Fields( "count" ) ), 100 );
+
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+
+    // room for two single character keys and their partial counts, not three
+    properties.put( AggregateByProps.AGGREGATE_BY_CAPACITY_BYTES, "700" );
+
+    Fields incoming = new Fields( "value" );
+    TupleEntry[] tuples = new TupleEntry[]{
+      new TupleEntry( incoming, new Tuple( "a" ) ),
+      new TupleEntry( incoming, new Tuple( "b" ) ),
+      new TupleEntry( incoming, new Tuple( "a" ) ),
+      new TupleEntry( incoming, new Tuple( "c" ) ),
+      new TupleEntry( incoming, new Tuple( "a" ) ),
+      new TupleEntry( incoming, new Tuple( "d" ) ),
+      new TupleEntry( incoming, new Tuple( "a" ) ),
+      };
+
+    // the hot key is never the least recently used, so is only emitted on the final flush
+    List<Tuple> expected = new ArrayList<Tuple>();
+    expected.add( new Tuple( "b", 1L ) );
+    expected.add( new Tuple( "c", 1L ) );
+    expected.add( new Tuple( "d", 1L ) );
+    expected.add( new Tuple( "a", 4L ) );
+
+    TupleListCollector collector = invokeFunction( function, tuples, new Fields( "value", "count" ), properties );
+
+    List<Tuple> results = new ArrayList<Tuple>();
+
+    for( Tuple tuple : collector )
+      results.add( tuple );
+
+    assertEquals( expected.size(), results.size() );
+
+    for( Tuple tuple : expected )
+      assertTrue( "missing: " + tuple, results.contains( tuple ) );
+    }
+
+  @Test
+  public void testPartialCountsCapacityBytesSpilled()
+    {
+    Function function = new AggregateBy.CompositeFunction( new Fields( "value" ), Fields.ALL, new CountBy.CountPartials( new Fields( "count" ) ), 100 );
+
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+
+    properties.put( AggregateByProps.AGGREGATE_BY_CAPACITY_BYTES, "700" );
+
+    TupleListCollector collector = invokeFunction( function, getRoundRobin(), new Fields( "value", "count" ), properties );
+
+    List<Tuple> results = new ArrayList<Tuple>();
+
+    for( Tuple tuple : collector )
+      results.add( tuple );
+
+    // spilled partials are merged, so each key is emitted once
+    assertEquals( 3, results.size() );
+    assertTrue( results.contains( new Tuple( "a", 3L ) ) );
+    assertTrue( results.contains( new Tuple( "b", 3L ) ) );
+    assertTrue( results.contains( new Tuple( "c", 3L ) ) );
+    }
+
+  @Test
+  public void testPartialCountsCapacityBytesNotMergeable()
+    {
+    Function function = new AggregateBy.CompositeFunction( new Fields( "value" ), Fields.ALL, new CountOnly( new Fields( "count" ) ), 100 );
+
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+
+    properties.put( AggregateByProps.AGGREGATE_BY_CAPACITY_BYTES, "700" );
+
+    TupleListCollector collector = invokeFunction( function, getRoundRobin(), new Fields( "value", "count" ), properties );
+
+    long total = 0;
+    int count = 0;
+
+    for( Tuple tuple : collector )
+      {
+      total += tuple.getLong( 1 );
+      count++;
+      }
+
+    // evicted partials are emitted, so keys are emitted more than once
+    assertEquals( 9, total );
+    assertTrue( count > 3 );
+    }
+
+  @Test
+  public void testPartialsSpilledMerged()
+    {
+    Fields value = new Fields( "value" );
+    Fields[] argumentFields = new Fields[]{value, value, value, value, value};
+    AggregateBy.Functor[] functors = new AggregateBy.Functor[]{
+      new CountBy.CountPartials( new Fields( "count" ) ),
+      new SumBy.SumPartials( new Fields( "sum" ), long.class ),
+      new MinBy.MinPartials( new Fields( "min" ) ),
+      new MaxBy.MaxPartials( new Fields( "max" ) ),
+      new AverageBy.AveragePartials( new Fields( "average" ) )
+    };
+
+    Function function = new AggregateBy.CompositeFunction( new Fields( "key" ), argumentFields, functors, 100 );
+
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+
+    // every entry is spilled as soon as it is updated
+    properties.put( AggregateByProps.AGGREGATE_BY_CAPACITY_BYTES, "1" );
+
+    Fields incoming = new Fields( "key", "value" );
+    TupleEntry[] tuples = new TupleEntry[]{
+      new TupleEntry( incoming, new Tuple( "a", 1 ) ),
+      new TupleEntry( incoming, new Tuple( "b", 5 ) ),
+      new TupleEntry( incoming, new Tuple( "a", 3 ) ),
+      new TupleEntry( incoming, new Tuple( "b", 2 ) ),
+      new TupleEntry( incoming, new Tuple( "a", 2 ) ),
+      };
+
+    Fields resultFields = new Fields( "key", "count", "sum", "min", "max" ).append( functors[ 4 ].getDeclaredFields() );
+    TupleListCollector collector = invokeFunction( function, tuples, resultFields, properties );
+
+    List<Tuple> results = new ArrayList<Tuple>();
+
+    for( Tuple tuple : collector )
+      results.add( tuple );
+
+    assertEquals( 2, results.size() );
+    assertTrue( results.contains( new Tuple( "a", 3L, 6L, 1, 3, 6D, 3L ) ) );
+    assertTrue( results.contains( new Tuple( "b", 2L, 7L, 2, 5, 7D, 2L ) ) );
+    }
+
+  private static TupleEntry[] getRoundRobin()
+    {
+    Fields incoming = new Fields( "value" );
+    TupleEntry[] tuples = new TupleEntry[ 9 ];
+
+    for( int i = 0; i < tuples.length; i++ )
+      tuples[ i ] = new TupleEntry( incoming, new Tuple( String.valueOf( (char) ( 'a' + i % 3 ) ) ) );
+
+    return tuples;
+    }
+
+  /** Class CountOnly counts values but cannot merge partial counts. */
+  private static class CountOnly implements AggregateBy.Functor
+    {
+    private final CountBy.CountPartials partials;
+
+    CountOnly( Fields declaredFields )
+      {
+      this.partials = new CountBy.CountPartials( declaredFields );
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return partials.getDeclaredFields();
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      return partials.aggregate( flowProcess, args, context );
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      return partials.complete( flowProcess, context );
+      }
+    }
+
   @Test
   public void testPartialSums()
     {
@@ -217,4 +398,142 @@ public class FunctionsTest extends CascadingTestCase
 
     assertEquals( 5, count );
     }
+
+  @Test
+  public void testWindowTumblingCounts()
+    {
+    Windows windows = Windows.tumbling( 10, TimeUnit.MILLISECONDS );
+
+    List<Tuple> results = invokeWindowFunction( windows, new Object[][]{
+      {"a", 1L}, {"a", 5L}, {"b", 7L}, {"a", 12L}, {"a", 25L}
+    } );
+
+    List<Tuple> expected = new ArrayList<Tuple>();
+    expected.add( new Tuple( "a", 0L, 10L, 2L ) );
+    expected.add( new Tuple( "b", 0L, 10L, 1L ) );
+    expected.add( new Tuple( "a", 10L, 20L, 1L ) );
+    expected.add( new Tuple( "a", 20L, 30L, 1L ) );
+
+    assertEquals( expected, results );
+    }
+
+  @Test
+  public void testWindowSlidingCounts()
+    {
+    Windows windows = Windows.sliding( 10, 5, TimeUnit.MILLISECONDS );
+
+    List<Tuple> results = invokeWindowFunction( windows, new Object[][]{
+      {"a", 1L}, {"a", 7L}, {"a", 12L}
+    } );
+
+    List<Tuple> expected = new ArrayList<Tuple>();
+    expected.add( new Tuple( "a", -5L, 5L, 1L ) );
+    expected.add( new Tuple( "a", 0L, 10L, 2L ) );
+    expected.add( new Tuple( "a", 5L, 15L, 2L ) );
+    expected.add( new Tuple( "a", 10L, 20L, 1L ) );
+
+    assertEquals( expected, results );
+    }
+
+  @Test
+  public void testWindowSessionCounts()
+    {
+    Windows windows = Windows.session( 5, TimeUnit.MILLISECONDS ).withWatermarkDelay( 2, TimeUnit.MILLISECONDS );
+
+    // a@2 arrives out of order, but within the watermark delay
+    List<Tuple> results = invokeWindowFunction( windows, new Object[][]{
+      {"a", 1L}, {"a", 3L}, {"b", 4L}, {"a", 2L}, {"a", 10L}, {"b", 20L}
+    } );
+
+    List<Tuple> expected = new ArrayList<Tuple>();
+    expected.add( new Tuple( "a", 1L, 8L, 3L ) );
+    expected.add( new Tuple( "b", 4L, 9L, 1L ) );
+    expected.add( new Tuple( "a", 10L, 15L, 1L ) );
+    expected.add( new Tuple( "b", 20L, 25L, 1L ) );
+
+    assertEquals( expected, results );
+    }
+
+  @Test
+  public void testWindowLateness()
+    {
+    Windows windows = Windows.tumbling( 10, TimeUnit.MILLISECONDS ).withAllowedLateness( 10, TimeUnit.MILLISECONDS );
+
+    // a@3 updates the emitted window, a@4 arrives after the allowed lateness and is dropped
+    List<Tuple> results = invokeWindowFunction( windows, new Object[][]{
+      {"a", 1L}, {"a", 12L}, {"a", 3L}, {"a", 25L}, {"a", 4L}
+    } );
+
+    List<Tuple> expected = new ArrayList<Tuple>();
+    expected.add( new Tuple( "a", 0L, 10L, 1L ) );
+    expected.add( new Tuple( "a", 0L, 10L, 2L ) );
+    expected.add( new Tuple( "a", 10L, 20L, 1L ) );
+    expected.add( new Tuple( "a", 20L, 30L, 1L ) );
+
+    assertEquals( expected, results );
+    }
+
+  @Test
+  public void testWindowRetainedCapacity()
+    {
+    Windows windows = Windows.tumbling( 10, TimeUnit.MILLISECONDS ).withAllowedLateness( 100, TimeUnit.MILLISECONDS );
+
+    // the state of window 0 is evicted once three windows are retained, so a@5 is dropped, a@15 updates window 10
+    List<Tuple> results = invokeWindowFunction( windows, 2, new Object[][]{
+      {"a", 1L}, {"a", 11L}, {"a", 21L}, {"a", 31L}, {"a", 5L}, {"a", 15L}
+    } );
+
+    List<Tuple> expected = new ArrayList<Tuple>();
+    expected.add( new Tuple( "a", 0L, 10L, 1L ) );
+    expected.add( new Tuple( "a", 10L, 20L, 1L ) );
+    expected.add( new Tuple( "a", 20L, 30L, 1L ) );
+    expected.add( new Tuple( "a", 10L, 20L, 2L ) );
+    expected.add( new Tuple( "a", 30L, 40L, 1L ) );
+
+    assertEquals( expected, results );
+    }
+
+  @Test
+  public void testWindowSessionHeldCapacity()
+    {
+    Windows windows = Windows.session( 5, TimeUnit.MILLISECONDS ).withWatermarkDelay( 100, TimeUnit.MILLISECONDS );
+
+    // holding a third tuple advances the watermark to the earliest held, so a@0 is late and dropped
+    List<Tuple> results = invokeWindowFunction( windows, 2, new Object[][]{
+      {"a", 1L}, {"a", 3L}, {"a", 20L}, {"b", 2L}, {"a", 0L}
+    } );
+
+    List<Tuple> expected = new ArrayList<Tuple>();
+    expected.add( new Tuple( "a", 1L, 8L, 2L ) );
+    expected.add( new Tuple( "b", 2L, 7L, 1L ) );
+    expected.add( new Tuple( "a", 20L, 25L, 1L ) );
+
+    assertEquals( expected, results );
+    }
+
+  private List<Tuple> invokeWindowFunction( Windows windows, Object[][] values )
+    {
+    return invokeWindowFunction( windows, 100, values );
+    }
+
+  private List<Tuple> invokeWindowFunction( Windows windows, int capacity, Object[][] values )
+    {
+    Function function = new AggregateByWindowLocally.WindowFunction( new Fields( "key" ), new Fields( "time" ), new Fields[]{Fields.ALL},
+      new AggregateByLocally.Functor[]{new CountByLocally.CountPartials( new Fields( "count" ) )}, windows, capacity );
+
+    Fields incoming = new Fields( "key", "time" );
+    TupleEntry[] tuples = new TupleEntry[ values.length ];
+
+    for( int i = 0; i < values.length; i++ )
+      tuples[ i ] = new TupleEntry( incoming, new Tuple( values[ i ] ) );
+
+    TupleListCollector collector = invokeFunction( function, tuples, new Fields( "key", "window_start", "window_end", "count" ) );
+
+    List<Tuple> results = new ArrayList<Tuple>();
+
+    for( Tuple tuple : collector )
+      results.add( tuple );
+
+    return results;
+    }
   }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import cascading.CascadingTestCase;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ColumnarTupleStoreTest extends CascadingTestCase
+  {
+  private final Fields fields = new Fields( "long", "int", "double", "string", "object" );
+
+  private List<Tuple> createTuples( int size )
+    {
+    List<Tuple> tuples = new ArrayList<>();
+
+    for( int i = 0; i < size; i++ )
+      {
+      Long value = i % 7 == 0 ? null : (long) i;
+      String string = i % 5 == 0 ? null : "value" + ( i % 3 );
+
+      tuples.add( new Tuple( value, i, i / 2.0, string, i % 2 == 0 ? (Object) i : "mixed" + i ) );
+      }
+
+    return tuples;
+    }
+
+  private List<Tuple> read( ColumnarTupleStore store )
+    {
+    List<Tuple> results = new ArrayList<>();
+    Iterator<Tuple> iterator = store.iterator();
+
+    while( iterator.hasNext() )
+      results.add( new Tuple( iterator.next() ) );
+
+    return results;
+    }
+
+  private ColumnarTupleStore fill( TupleCache cache, List<Tuple> tuples ) throws IOException
+    {
+    return fill( cache, fields, tuples );
+    }
+
+  private ColumnarTupleStore fill( TupleCache cache, Fields fields, List<Tuple> tuples ) throws IOException
+    {
+    ColumnarTupleStore store = new ColumnarTupleStore( cache, fields, 10, null );
+
+    for( Tuple tuple : tuples )
+      store.add( tuple );
+
+    store.complete();
+
+    return store;
+    }
+
+  @Test
+  public void testInMemory() throws IOException
+    {
+    TupleCache cache = new TupleCache( "test", Long.MAX_VALUE, null );
+    List<Tuple> tuples = createTuples( 95 );
+    ColumnarTupleStore store = fill( cache, tuples );
+
+    assertEquals( 95, store.getNumTuples() );
+    assertEquals( 0, store.getSpilledBytes() );
+    assertTrue( store.getMemoryBytes() > 0 );
+    assertEquals( store.getMemoryBytes(), cache.getMemoryBytes() );
+
+    assertEquals( tuples, read( store ) );
+    assertEquals( tuples, read( store ) ); // may be read more than once
+
+    store.discard();
+
+    assertEquals( 0, cache.getMemoryBytes() );
+    }
+
+  @Test
+  public void testSpill() throws IOException
+    {
+    File spillDir = new File( getOutputPath() );
+
+    spillDir.mkdirs();
+
+    // only the first chunks fit
+    TupleCache cache = new TupleCache( "test", 1_000, spillDir );
+    List<Tuple> tuples = createTuples( 95 );
+    ColumnarTupleStore store = fill( cache, tuples );
+
+    assertEquals( 95, store.getNumTuples() );
+    assertTrue( store.getSpilledBytes() > 0 );
+    assertTrue( store.getMemoryBytes() <= 1_000 );
+
+    assertEquals( tuples, read( store ) );
+    assertEquals( tuples, read( store ) );
+
+    store.discard();
+
+    assertEquals( 0, cache.getMemoryBytes() );
+    }
+
+  @Test
+  public void testPut() throws IOException
+    {
+    TupleCache cache = new TupleCache( "test", Long.MAX_VALUE, null );
+    List<Tuple> tuples = createTuples( 20 );
+
+    ColumnarTupleStore first = fill( cache, tuples );
+    ColumnarTupleStore second = fill( cache, tuples );
+
+    assertTrue( cache.put( "key", first ) );
+    assertFalse( cache.put( "key", second ) );
+    assertSame( first, cache.get( "key" ) );
+    assertEquals( first.getMemoryBytes(), cache.getMemoryBytes() );
+
+    try
+      {
+      cache.put( "other", cache.create( fields ) );
+      fail( "incomplete store must not be retained" );
+      }
+    catch( IllegalStateException exception )
+      {
+      // ignore
+      }
+    }
+
+  @Test
+  public void testDiscardWhileReading() throws IOException
+    {
+    File spillDir = new File( getOutputPath() );
+
+    spillDir.mkdirs();
+
+    TupleCache cache = new TupleCache( "test", 1_000, spillDir );
+    List<Tuple> tuples = createTuples( 95 );
+    ColumnarTupleStore store = fill( cache, tuples );
+
+    Iterator<Tuple> open = store.iterator();
+    Iterator<Tuple> exhausted = store.iterator();
+
+    assertEquals( new Tuple( open.next() ), tuples.get( 0 ) );
+
+    while( exhausted.hasNext() )
+      exhausted.next();
+
+    assertEquals( 1, store.getReaders() );
+
+    store.discard();
+
+    // still readable by the open iterator
+    assertTrue( cache.getMemoryBytes() > 0 );
+    assertEquals( tuples.get( 1 ), new Tuple( open.next() ) );
+
+    try
+      {
+      store.iterator();
+      fail( "discarded store must not be read" );
+      }
+    catch( IllegalStateException exception )
+      {
+      // ignore
+      }
+
+    ( (Closeable) open ).close();
+
+    assertEquals( 0, store.getReaders() );
+    assertEquals( 0, cache.getMemoryBytes() );
+    }
+
+  @Test
+  public void testSpillLongString() throws IOException
+    {
+    File spillDir = new File( getOutputPath() );
+
+    spillDir.mkdirs();
+
+    char[] chars = new char[ 70_000 ];
+
+    Arrays.fill( chars, 'a' );
+
+    TupleCache cache = new TupleCache( "test", 0, spillDir );
+    List<Tuple> tuples = new ArrayList<>();
+
+    tuples.add( new Tuple( new String( chars ) ) );
+    tuples.add( new Tuple( "short" ) );
+
+    ColumnarTupleStore store = fill( cache, new Fields( "string" ), tuples );
+
+    assertTrue( store.getSpilledBytes() > 70_000 );
+    assertEquals( tuples, read( store ) );
+
+    store.discard();
+    }
+
+  @Test
+  public void testSpillNotSerializable() throws IOException
+    {
+    File spillDir = new File( getOutputPath() );
+
+    spillDir.mkdirs();
+
+    TupleCache cache = new TupleCache( "test", 0, spillDir );
+    List<Tuple> tuples = new ArrayList<>();
+
+    tuples.add( new Tuple( new Object() ) );
+
+    try
+      {
+      fill( cache, new Fields( "object" ), tuples );
+      fail( "values must be serializable without a tuple stream factory" );
+      }
+    catch( NotSerializableException exception )
+      {
+      // ignore
+      }
+    }
+  }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tap.cache;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import cascading.CascadingTestCase;
+import cascading.flow.Flow;
+import cascading.flow.FlowListener;
+import cascading.flow.FlowProcess;
+import cascading.util.Util;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class TupleCacheTest extends CascadingTestCase
+  {
+  private final String flowID = Util.createUniqueID();
+
+  private final FlowProcess<Object> flowProcess = new FlowProcess.NullFlowProcess()
+    {
+    @Override
+    public Object getProperty( String key )
+      {
+      return Flow.CASCADING_FLOW_ID.equals( key ) ? flowID : null;
+      }
+    };
+
+  @Test
+  public void testStoppedFlowScope()
+    {
+    List<FlowListener> listeners = new ArrayList<>();
+    Flow<?> flow = createFlow( listeners );
+
+    TupleCache.register( flow );
+    TupleCache.register( flow );
+
+    assertEquals( 1, listeners.size() );
+
+    TupleCache cache = TupleCache.getCache( flowProcess );
+
+    assertNotNull( cache );
+    assertSame( cache, TupleCache.getCache( flowProcess ) );
+
+    listeners.get( 0 ).onStopping( flow );
+
+    assertNull( TupleCache.getCache( flowProcess ) );
+
+    // completing after stopping is a no-op
+    listeners.get( 0 ).onCompleted( flow );
+    }
+
+  @Test
+  public void testUnreferencedFlowScope() throws InterruptedException
+    {
+    Flow<?> flow = createFlow( new ArrayList<>() );
+
+    TupleCache.register( flow );
+
+    assertNotNull( TupleCache.getCache( flowProcess ) );
+
+    WeakReference<Flow<?>> reference = new WeakReference<>( flow );
+
+    flow = null;
+
+    for( int i = 0; i < 50 && reference.get() != null; i++ )
+      {
+      System.gc();
+      Thread.sleep( 10 );
+      }
+
+    assertNull( reference.get() );
+    assertNull( TupleCache.getCache( flowProcess ) );
+    }
+
+  private Flow<?> createFlow( List<FlowListener> listeners )
+    {
+    return (Flow<?>) Proxy.newProxyInstance( Flow.class.getClassLoader(), new Class[]{Flow.class}, ( proxy, method, args ) ->
+      {
+      switch( method.getName() )
+        {
+        case "getID":
+          return flowID;
+        case "getCascadeID":
+          return null;
+        case "addListener":
+          listeners.add( (FlowListener) args[ 0 ] );
+          return null;
+        case "hashCode":
+          return System.identityHashCode( proxy );
+        case "equals":
+          return proxy == args[ 0 ];
+        default:
+          throw new UnsupportedOperationException( method.getName() );
+        }
+      } );
+    }
+  }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.manifest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import cascading.CascadingTestCase;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class FileSourceManifestTest extends CascadingTestCase
+  {
+  private Path getManifestPath() throws IOException
+    {
+    Path path = Paths.get( getOutputPath(), "test.manifest" );
+
+    Files.deleteIfExists( path );
+
+    return path;
+    }
+
+  @Test
+  public void testCommitRollback() throws IOException
+    {
+    Path path = getManifestPath();
+
+    FileSourceManifest manifest = new FileSourceManifest( path );
+
+    assertTrue( manifest.isModified( "a", 1, 10 ) );
+
+    manifest.record( "a", 1, 10 );
+    manifest.record( "b", 2, 20 );
+
+    // pending entries are not yet processed
+    assertTrue( manifest.isModified( "a", 1, 10 ) );
+
+    manifest.rollback();
+    manifest.commit();
+
+    assertFalse( Files.exists( path ) );
+    assertTrue( manifest.isModified( "a", 1, 10 ) );
+
+    manifest.record( "a", 1, 10 );
+    manifest.record( "b", 2, 20 );
+    manifest.commit();
+
+    assertTrue( Files.exists( path ) );
+
+    FileSourceManifest reloaded = new FileSourceManifest( path );
+
+    assertFalse( reloaded.isModified( "a", 1, 10 ) );
+    assertFalse( reloaded.isModified( "b", 2, 20 ) );
+    assertTrue( reloaded.isModified( "a", 3, 10 ) );
+    assertTrue( reloaded.isModified( "b", 2, 21 ) );
+    assertTrue( reloaded.isModified( "c", 1, 1 ) );
+
+    reloaded.record( "c", 1, 1 );
+    reloaded.commit();
+
+    FileSourceManifest again = new FileSourceManifest( path );
+
+    assertFalse( again.isModified( "a", 1, 10 ) );
+    assertFalse( again.isModified( "c", 1, 1 ) );
+    }
+
+  @Test
+  public void testSerializable() throws IOException, ClassNotFoundException
+    {
+    Path path = getManifestPath();
+
+    FileSourceManifest manifest = new FileSourceManifest( path );
+
+    manifest.record( "a", 1, 10 );
+    manifest.commit();
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try( ObjectOutputStream output = new ObjectOutputStream( bytes ) )
+      {
+      output.writeObject( manifest );
+      }
+
+    FileSourceManifest copy;
+
+    try( ObjectInputStream input = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+      {
+      copy = (FileSourceManifest) input.readObject();
+      }
+
+    assertEquals( manifest, copy );
+    assertFalse( copy.isModified( "a", 1, 10 ) );
+    }
+  }
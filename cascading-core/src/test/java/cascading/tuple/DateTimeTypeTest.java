@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import cascading.CascadingException;
+import cascading.CascadingTestCase;
+import cascading.operation.text.DateFormatter;
+import cascading.operation.text.DateParser;
+import cascading.tuple.type.DateTimeType;
+import cascading.tuple.type.DateType;
+import cascading.tuple.type.EpochDateTimeType;
+import cascading.tuple.type.ISODateTimeType;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class DateTimeTypeTest extends CascadingTestCase
+  {
+  @Test
+  public void testEquality()
+    {
+    assertEquals( new DateTimeType( "yyyy-MM-dd" ), new DateTimeType( "yyyy-MM-dd" ) );
+    assertEquals( new DateTimeType( "yyyy-MM-dd", ZoneOffset.UTC, Locale.CHINA ), new DateTimeType( "yyyy-MM-dd", ZoneOffset.UTC, Locale.CHINA ) );
+    assertEquals( new ISODateTimeType(), new ISODateTimeType() );
+    assertEquals( new EpochDateTimeType(), new EpochDateTimeType( TimeUnit.SECONDS ) );
+
+    assertFalse( new DateTimeType( "yyyy-MM-dd" ).equals( new DateTimeType( "yyyy-MM-dd", ZoneId.of( "America/Los_Angeles" ) ) ) );
+    assertFalse( new ISODateTimeType().equals( new ISODateTimeType( ZoneId.of( "America/Los_Angeles" ) ) ) );
+    assertFalse( new EpochDateTimeType().equals( new EpochDateTimeType( TimeUnit.MILLISECONDS ) ) );
+    }
+
+  @Test
+  public void testDateTimeType()
+    {
+    String pattern = "dd/MMM/yyyy:HH:mm:ss Z";
+    DateTimeType dateTimeType = new DateTimeType( pattern, ZoneOffset.UTC, Locale.US );
+    DateType dateType = new DateType( pattern, TimeZone.getTimeZone( "UTC" ), Locale.US );
+
+    String value = "01/Sep/2007:00:01:03 -0700";
+
+    assertEquals( dateType.canonical( value ), dateTimeType.canonical( value ) );
+    assertEquals( dateType.canonical( value ), dateTimeType.canonical( value ) ); // cached
+    assertEquals( "01/Sep/2007:07:01:03 +0000", dateTimeType.coerce( dateTimeType.canonical( value ), String.class ) );
+
+    DateTimeType dateOnly = new DateTimeType( "yyyy-MM-dd" );
+
+    assertEquals( Instant.parse( "2022-01-31T00:00:00Z" ).toEpochMilli(), dateOnly.parse( "2022-01-31" ) );
+
+    try
+      {
+      dateOnly.parse( "2022/01/31" );
+      fail( "did not fail on invalid date" );
+      }
+    catch( CascadingException exception )
+      {
+      // ignore
+      }
+    }
+
+  @Test
+  public void testISODateTimeType()
+    {
+    ISODateTimeType type = new ISODateTimeType();
+
+    assertISO( type, "2022-01-31", "2022-01-31T00:00:00Z" );
+    assertISO( type, "2022-01-31T23:59", "2022-01-31T23:59:00Z" );
+    assertISO( type, "2022-01-31T23:59:59", "2022-01-31T23:59:59Z" );
+    assertISO( type, "2022-01-31T23:59:59Z", "2022-01-31T23:59:59Z" );
+    assertISO( type, "2022-01-31 23:59:59.1Z", "2022-01-31T23:59:59.100Z" );
+    assertISO( type, "2022-01-31T23:59:59.123456789Z", "2022-01-31T23:59:59.123Z" );
+    assertISO( type, "2022-01-31T23:59:59.123+01:00", "2022-01-31T22:59:59.123Z" );
+    assertISO( type, "2022-01-31T23:59:59-0130", "2022-02-01T01:29:59Z" );
+    assertISO( type, "1969-12-31T23:59:59.999Z", "1969-12-31T23:59:59.999Z" );
+
+    // not handled by the fast path
+    assertISO( type, "2022-01-31T23:59:59+01:00[Europe/Paris]", "2022-01-31T22:59:59Z" );
+
+    // values without an offset are in the given zone, including daylight savings
+    ISODateTimeType zoned = new ISODateTimeType( ZoneId.of( "America/Los_Angeles" ) );
+
+    assertISO( zoned, "2022-01-31T12:00:00", "2022-01-31T20:00:00Z" );
+    assertISO( zoned, "2022-07-31T12:00:00", "2022-07-31T19:00:00Z" );
+    assertISO( zoned, "2022-07-31T12:00:00Z", "2022-07-31T12:00:00Z" );
+
+    assertISO( new ISODateTimeType( ZoneOffset.ofHours( 2 ) ), "2022-07-31T12:00:00", "2022-07-31T10:00:00Z" );
+
+    long millis = type.parse( "2022-01-31T23:59:59.123Z" );
+
+    assertEquals( "2022-01-31T23:59:59.123Z", type.format( millis ) );
+    assertEquals( "2022-01-31T15:59:59.123-08:00", zoned.format( millis ) );
+
+    for( String invalid : new String[]{"2022-02-30", "2022-13-01", "2022-01-31T25:00:00", "2022-01-31T23:59:59+", "20220131"} )
+      {
+      try
+        {
+        type.parse( invalid );
+        fail( "did not fail on: " + invalid );
+        }
+      catch( CascadingException exception )
+        {
+        // ignore
+        }
+      }
+    }
+
+  private void assertISO( ISODateTimeType type, String value, String expected )
+    {
+    assertEquals( value, Instant.parse( expected ).toEpochMilli(), type.parse( value ) );
+    }
+
+  @Test
+  public void testEpochDateTimeType()
+    {
+    EpochDateTimeType seconds = new EpochDateTimeType();
+
+    assertEquals( 1643673599000L, seconds.parse( "1643673599" ) );
+    assertEquals( 1643673599123L, seconds.parse( "1643673599.123" ) );
+    assertEquals( -1500L, seconds.parse( "-1.5" ) );
+    assertEquals( 1643673599000L, (long) seconds.canonical( 1643673599 ) );
+    assertEquals( 1643673599000L, (long) seconds.canonical( 1643673599000L ) ); // canonical
+    assertEquals( "1643673599", seconds.format( 1643673599000L ) );
+    assertEquals( "1643673599.123", seconds.format( 1643673599123L ) );
+
+    EpochDateTimeType millis = new EpochDateTimeType( TimeUnit.MILLISECONDS );
+
+    assertEquals( 1643673599123L, millis.parse( "1643673599123" ) );
+    assertEquals( "1643673599123", millis.coerce( 1643673599123L, String.class ) );
+
+    try
+      {
+      seconds.parse( "now" );
+      fail( "did not fail on invalid value" );
+      }
+    catch( CascadingException exception )
+      {
+      // ignore
+      }
+    }
+
+  @Test
+  public void testCoercions()
+    {
+    ISODateTimeType type = new ISODateTimeType();
+    long millis = Instant.parse( "2022-01-31T23:59:59Z" ).toEpochMilli();
+
+    assertEquals( millis, (long) type.canonical( OffsetDateTime.parse( "2022-01-31T23:59:59Z" ) ) );
+    assertEquals( Instant.ofEpochMilli( millis ), type.coerce( millis, Instant.class ) );
+    assertEquals( millis, type.coerce( millis, Long.TYPE ) );
+    assertEquals( 0, type.coerce( null, Long.TYPE ) );
+    assertEquals( null, type.coerce( null, Long.class ) );
+
+    TupleEntry entry = new TupleEntry( new Fields( "date", type ), Tuple.size( 1 ) );
+
+    entry.setString( "date", "2022-01-31T23:59:59Z" );
+
+    assertEquals( millis, entry.getTuple().getObject( 0 ) );
+    assertEquals( millis, entry.getLong( "date" ) );
+    assertEquals( "2022-01-31T23:59:59Z", entry.getString( "date" ) );
+    }
+
+  @Test
+  public void testDateOperations()
+    {
+    ISODateTimeType type = new ISODateTimeType();
+
+    TupleListCollector collector = invokeFunction( new DateParser( new Fields( "ts", long.class ), type ), new Tuple( "2022-01-31T23:59:59Z" ), new Fields( "ts", long.class ) );
+
+    long millis = collector.entryIterator().next().getLong( 0 );
+
+    assertEquals( Instant.parse( "2022-01-31T23:59:59Z" ).toEpochMilli(), millis );
+
+    collector = invokeFunction( new DateFormatter( new Fields( "date" ), type ), new Tuple( millis ), new Fields( "date" ) );
+
+    assertEquals( "2022-01-31T23:59:59Z", collector.entryIterator().next().getString( 0 ) );
+    }
+  }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tuple;
+
+import java.util.ArrayList;
+
+import cascading.CascadingTestCase;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class PrimitiveTupleTest extends CascadingTestCase
+  {
+  @Test
+  public void testGetSet()
+    {
+    Tuple tuple = new PrimitiveTuple( new Fields( "l", long.class ).append( new Fields( "d", Double.class ) ).append( new Fields( "s", String.class ) ) );
+
+    assertEquals( 3, tuple.size() );
+    assertEquals( new Tuple( null, null, null ), tuple );
+    assertEquals( 0L, tuple.getLong( 0 ) );
+
+    tuple.setLong( 0, 42 );
+    tuple.setDouble( 1, 1.5 );
+    tuple.setString( 2, "value" );
+
+    assertTrue( ( (PrimitiveTuple) tuple ).isPrimitive( 0 ) );
+    assertTrue( ( (PrimitiveTuple) tuple ).isPrimitive( 1 ) );
+    assertFalse( ( (PrimitiveTuple) tuple ).isPrimitive( 2 ) );
+
+    assertEquals( 42L, tuple.getLong( 0 ) );
+    assertEquals( 42.0, tuple.getDouble( 0 ) );
+    assertEquals( 1, tuple.getInteger( 1 ) );
+    assertEquals( 1.5, tuple.getDouble( 1 ) );
+    assertEquals( new Tuple( 42L, 1.5, "value" ), tuple );
+    assertEquals( new Tuple( 42L, 1.5, "value" ).hashCode(), tuple.hashCode() );
+
+    // the type of the value set is retained
+    tuple.setInteger( 0, 7 );
+    assertEquals( 7, tuple.getObject( 0 ) );
+
+    tuple.set( 1, 2L );
+    assertEquals( 2L, tuple.getObject( 1 ) );
+
+    tuple.set( 0, "9" );
+    assertFalse( ( (PrimitiveTuple) tuple ).isPrimitive( 0 ) );
+    assertEquals( "9", tuple.getObject( 0 ) );
+    assertEquals( 9L, tuple.getLong( 0 ) );
+
+    tuple.set( 1, null );
+    assertNull( tuple.getObject( 1 ) );
+
+    try
+      {
+      tuple.setLong( 3, 1 );
+      fail( "did not fail on invalid position" );
+      }
+    catch( TupleException exception )
+      {
+      // ignore
+      }
+    }
+
+  @Test
+  public void testAddRemove()
+    {
+    Tuple tuple = new PrimitiveTuple( long.class, double.class );
+
+    tuple.setLong( 0, 1 );
+    tuple.setDouble( 1, 2.0 );
+    tuple.add( "three" );
+
+    assertEquals( new Tuple( 1L, 2.0, "three" ), tuple );
+    assertEquals( new Tuple( 1L ), tuple.remove( new int[]{0} ) );
+    assertEquals( new Tuple( 2.0, "three" ), tuple );
+    assertEquals( new Tuple( 2.0, "three" ), new Tuple( tuple ) );
+
+    // once cleared, positions are again held as primitives
+    Tuple.elements( tuple ).clear();
+    Tuple.elements( tuple ).addAll( new ArrayList<Object>( new Tuple( 4L, 5.0 ).elements ) );
+
+    assertTrue( ( (PrimitiveTuple) tuple ).isPrimitive( 0 ) );
+    assertTrue( ( (PrimitiveTuple) tuple ).isPrimitive( 1 ) );
+    assertEquals( new Tuple( 4L, 5.0 ), tuple );
+    }
+
+  @Test
+  public void testTupleEntry()
+    {
+    Fields fields = new Fields( "count", long.class ).append( new Fields( "sum", double.class ) );
+    Tuple tuple = Tuples.create( fields );
+
+    assertTrue( tuple instanceof PrimitiveTuple );
+    assertFalse( Tuples.create( new Fields( "name", String.class ) ) instanceof PrimitiveTuple );
+
+    TupleEntry entry = new TupleEntry( fields, tuple );
+
+    entry.setLong( "count", 3 );
+    entry.setDouble( "sum", 4.5 );
+
+    assertTrue( ( (PrimitiveTuple) tuple ).isPrimitive( 0 ) );
+    assertTrue( ( (PrimitiveTuple) tuple ).isPrimitive( 1 ) );
+    assertEquals( 3L, entry.getLong( "count" ) );
+    assertEquals( 4.5, entry.getDouble( "sum" ) );
+    assertEquals( 4, entry.getInteger( "sum" ) );
+    assertEquals( "4.5", entry.getString( "sum" ) );
+
+    // coerced to the declared type
+    entry.setDouble( "count", 5.9 );
+    assertEquals( 5L, entry.getObject( "count" ) );
+
+    Tuples.asUnmodifiable( tuple );
+
+    try
+      {
+      tuple.setLong( 0, 1 );
+      fail( "did not fail on unmodifiable tuple" );
+      }
+    catch( UnsupportedOperationException exception )
+      {
+      // ignore
+      }
+    }
+  }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.util;
+
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BloomFilterTest
+  {
+  @Test
+  public void testNoFalseNegatives()
+    {
+    BloomFilter filter = new BloomFilter( 10_000, 0.01 );
+
+    for( int i = 0; i < 10_000; i++ )
+      filter.add( new Tuple( i, "value" + i ) );
+
+    for( int i = 0; i < 10_000; i++ )
+      assertTrue( filter.mightContain( new Tuple( i, "value" + i ) ) );
+
+    // numbers of different widths are equal
+    assertTrue( filter.mightContain( new Tuple( 1L, "value1" ) ) );
+
+    assertEquals( 10_000, filter.getInsertions() );
+    }
+
+  @Test
+  public void testFalsePositiveRate()
+    {
+    BloomFilter filter = new BloomFilter( 10_000, 0.01 );
+
+    for( int i = 0; i < 10_000; i++ )
+      filter.add( new Tuple( i ) );
+
+    int falsePositives = 0;
+
+    for( int i = 10_000; i < 110_000; i++ )
+      {
+      if( filter.mightContain( new Tuple( i ) ) )
+        falsePositives++;
+      }
+
+    assertTrue( "false positives: " + falsePositives, falsePositives < 2_000 );
+    assertEquals( 0.01, filter.getExpectedFalsePositiveRate(), 0.005 );
+
+    // element boundaries are retained
+    BloomFilter pairs = new BloomFilter( 10, 0.001 );
+
+    pairs.add( new Tuple( "a", "bc" ) );
+
+    assertFalse( pairs.mightContain( new Tuple( "ab", "c" ) ) );
+    }
+
+  @Test
+  public void testMergeAndEncode()
+    {
+    BloomFilter lhs = new BloomFilter( 1_000, 0.01 );
+    BloomFilter rhs = new BloomFilter( 1_000, 0.01 );
+
+    for( int i = 0; i < 500; i++ )
+      {
+      lhs.add( new Tuple( "lhs", i ) );
+      rhs.add( new Tuple( "rhs", i ) );
+      }
+
+    BloomFilter decoded = BloomFilter.decode( rhs.encode() );
+
+    assertEquals( rhs, decoded );
+    assertEquals( 500, decoded.getInsertions() );
+
+    lhs.merge( decoded );
+
+    assertEquals( 1_000, lhs.getInsertions() );
+
+    for( int i = 0; i < 500; i++ )
+      {
+      assertTrue( lhs.mightContain( new Tuple( "lhs", i ) ) );
+      assertTrue( lhs.mightContain( new Tuple( "rhs", i ) ) );
+      }
+
+    try
+      {
+      lhs.merge( new BloomFilter( 10, 0.01 ) );
+      fail( "did not fail on different sizes" );
+      }
+    catch( IllegalArgumentException exception )
+      {
+      // ignore
+      }
+    }
+  }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SketchesTest
+  {
+  @Test
+  public void testHash64()
+    {
+    assertEquals( Sketches.hash64( new Tuple( 1, "a" ) ), Sketches.hash64( new Tuple( 1, "a" ) ) );
+
+    // equal string representations of different types differ
+    assertNotEquals( Sketches.hash64( new Tuple( 1 ) ), Sketches.hash64( new Tuple( "1" ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( 1.0 ) ), Sketches.hash64( new Tuple( "1.0" ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( (Object) null ) ), Sketches.hash64( new Tuple( "null" ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( true ) ), Sketches.hash64( new Tuple( "true" ) ) );
+
+    assertNotEquals( Sketches.hash64( new Tuple( "a", "bc" ) ), Sketches.hash64( new Tuple( "ab", "c" ) ) );
+
+    // numbers of different widths are equal
+    assertEquals( Sketches.hash64( new Tuple( 1 ) ), Sketches.hash64( new Tuple( 1L ) ) );
+    assertEquals( Sketches.hash64( new Tuple( 1.5f ) ), Sketches.hash64( new Tuple( 1.5d ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( 1 ) ), Sketches.hash64( new Tuple( 1.0 ) ) );
+
+    assertEquals( Sketches.hash64( new Tuple( new BigDecimal( "1.5" ) ) ), Sketches.hash64( new Tuple( new BigDecimal( "1.50" ) ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( new BigDecimal( "1.5" ) ) ), Sketches.hash64( new Tuple( new BigDecimal( "15" ) ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( new BigDecimal( "1.5" ) ) ), Sketches.hash64( new Tuple( "1.5" ) ) );
+    assertEquals( Sketches.hash64( new Tuple( new BigInteger( "12345678901234567890" ) ) ), Sketches.hash64( new Tuple( new BigInteger( "12345678901234567890" ) ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( BigInteger.ONE ) ), Sketches.hash64( new Tuple( 1L ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( 'a' ) ), Sketches.hash64( new Tuple( "a" ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( new Date( 1000L ) ) ), Sketches.hash64( new Tuple( 1000L ) ) );
+    assertEquals( Sketches.hash64( new Tuple( new Date( 1000L ) ) ), Sketches.hash64( new Tuple( new Date( 1000L ) ) ) );
+
+    // nested tuples are delimited
+    assertEquals( Sketches.hash64( new Tuple( (Object) new Tuple( "a", 1 ) ) ), Sketches.hash64( new Tuple( (Object) new Tuple( "a", 1 ) ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( (Object) new Tuple( "a", "b" ) ) ), Sketches.hash64( new Tuple( "a", "b" ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( new Tuple( "a" ), "b" ) ), Sketches.hash64( new Tuple( (Object) new Tuple( "a", "b" ) ) ) );
+
+    // other types are hashed by their class name and hashCode, and need not be serializable
+    UUID uuid = new UUID( 1L, 2L );
+
+    assertEquals( Sketches.hash64( new Tuple( uuid ) ), Sketches.hash64( new Tuple( new UUID( 1L, 2L ) ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( uuid ) ), Sketches.hash64( new Tuple( uuid.toString() ) ) );
+    assertNotEquals( Sketches.hash64( new Tuple( uuid ) ), Sketches.hash64( new Tuple( uuid.hashCode() ) ) );
+    assertEquals( Sketches.hash64( new Tuple( new Value( 1 ) ) ), Sketches.hash64( new Tuple( new Value( 1 ) ) ) );
+    }
+
+  /** Class Value is not serializable, but has a hashCode computed from its value. */
+  private static class Value
+    {
+    private final int value;
+
+    Value( int value )
+      {
+      this.value = value;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      return value;
+      }
+    }
+
+  @Test
+  public void testHyperLogLog()
+    {
+    HyperLogLog lhs = new HyperLogLog();
+    HyperLogLog rhs = new HyperLogLog();
+
+    for( int i = 0; i < 100_000; i++ )
+      {
+      lhs.add( new Tuple( i ) );
+      rhs.add( new Tuple( i + 50_000 ) ); // half overlaps
+      }
+
+    assertEquals( 100_000, lhs.estimate(), 100_000 * 0.03 );
+
+    // duplicates are not counted
+    lhs.add( new Tuple( 1 ) );
+
+    assertEquals( 100_000, lhs.estimate(), 100_000 * 0.03 );
+
+    HyperLogLog decoded = HyperLogLog.fromBytes( rhs.toBytes() );
+
+    assertEquals( rhs, decoded );
+
+    lhs.merge( decoded );
+
+    assertEquals( 150_000, lhs.estimate(), 150_000 * 0.03 );
+
+    // small cardinalities are near exact
+    HyperLogLog small = new HyperLogLog();
+
+    for( int i = 0; i < 10; i++ )
+      small.add( new Tuple( "value", i ) );
+
+    assertEquals( 10, small.estimate() );
+    assertEquals( 0, new HyperLogLog().estimate() );
+    }
+
+  @Test
+  public void testQuantileSketch()
+    {
+    List<Double> values = new ArrayList<>();
+
+    for( int i = 0; i < 100_000; i++ )
+      values.add( (double) i );
+
+    Collections.shuffle( values, new Random( 1 ) );
+
+    QuantileSketch lhs = new QuantileSketch();
+    QuantileSketch rhs = new QuantileSketch();
+
+    for( int i = 0; i < values.size(); i++ )
+      ( i % 2 == 0 ? lhs : rhs ).add( values.get( i ) );
+
+    assertEquals( 50_000, lhs.getCount() );
+    assertEquals( 50_000, lhs.getQuantile( 0.5 ), 100_000 * 0.02 );
+
+    QuantileSketch decoded = QuantileSketch.fromBytes( rhs.toBytes() );
+
+    assertEquals( rhs.getQuantile( 0.9 ), decoded.getQuantile( 0.9 ), 0 );
+
+    lhs.merge( decoded );
+
+    assertEquals( 100_000, lhs.getCount() );
+    assertEquals( 0, lhs.getQuantile( 0 ), 0 );
+    assertEquals( 99_999, lhs.getQuantile( 1 ), 0 );
+    assertEquals( 50_000, lhs.getQuantile( 0.5 ), 100_000 * 0.02 );
+    assertEquals( 95_000, lhs.getQuantile( 0.95 ), 100_000 * 0.02 );
+
+    assertTrue( lhs.toBytes().length < 100_000 );
+
+    assertTrue( Double.isNaN( new QuantileSketch().getQuantile( 0.5 ) ) );
+    }
+
+  @Test
+  public void testTopKSketch()
+    {
+    TopKSketch lhs = new TopKSketch( 20 );
+    TopKSketch rhs = new TopKSketch( 20 );
+    Random random = new Random( 1 );
+
+    for( int i = 0; i < 10_000; i++ )
+      {
+      TopKSketch sketch = i % 2 == 0 ? lhs : rhs;
+
+      if( i % 4 == 0 )
+        sketch.add( new Tuple( "heavy", 1 ) );
+      else if( i % 10 == 1 )
+        sketch.add( new Tuple( "heavy", 2L ) );
+      else
+        sketch.add( new Tuple( "light", random.nextInt( 1000 ) ) );
+      }
+
+    TopKSketch decoded = TopKSketch.fromBytes( rhs.toBytes() );
+
+    assertEquals( rhs.size(), decoded.size() );
+
+    lhs.merge( decoded );
+
+    assertEquals( 20, lhs.size() );
+
+    List<TopKSketch.Counter> top = lhs.getTopK( 2 );
+
+    assertEquals( new Tuple( "heavy", 1 ), top.get( 0 ).getValue() );
+    assertEquals( new Tuple( "heavy", 2L ), top.get( 1 ).getValue() );
+
+    // counts are never underestimated
+    assertTrue( top.get( 0 ).getCount() >= 2_500 );
+    assertTrue( top.get( 0 ).getCount() - top.get( 0 ).getError() <= 2_500 );
+    assertTrue( top.get( 1 ).getCount() >= 1_000 );
+    }
+
+  @Test
+  public void testTopKSketchLongString()
+    {
+    StringBuilder builder = new StringBuilder();
+
+    for( int i = 0; i < 70_000; i++ )
+      builder.append( (char) ( 'a' + i % 26 ) );
+
+    // longer than the 64KB limit of DataOutput#writeUTF
+    String value = builder.append( '\u00e9' ).toString();
+    TopKSketch sketch = new TopKSketch( 2 );
+
+    sketch.add( new Tuple( value ) );
+
+    TopKSketch decoded = TopKSketch.fromBytes( sketch.toBytes() );
+
+    assertEquals( new Tuple( value ), decoded.getTopK( 1 ).get( 0 ).getValue() );
+    }
+  }
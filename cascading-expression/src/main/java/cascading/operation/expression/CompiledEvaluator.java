@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation.expression;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.type.CoercibleType;
+
+/**
+ * Interface CompiledEvaluator is implemented by the generated classes that bind the argument {@link Tuple} values
+ * directly to the parameters of a compiled expression or script.
+ * <p>
+ * Implementations are stateless and are shared across all {@link ScriptOperation} instances using the same
+ * expression, see {@link CompiledEvaluatorCache}.
+ */
+public interface CompiledEvaluator
+  {
+  /**
+   * Method evaluate coerces each value in the given arguments Tuple into the type at the same position, and
+   * passes the result to the compiled expression or script.
+   *
+   * @param coercions of CoercibleType[]
+   * @param types     of Class[]
+   * @param arguments of Tuple
+   * @return Object
+   */
+  Object evaluate( CoercibleType[] coercions, Class[] types, Tuple arguments );
+  }
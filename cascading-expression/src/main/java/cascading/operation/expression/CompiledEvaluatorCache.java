@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation.expression;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import cascading.flow.FlowProcess;
+import cascading.tuple.coerce.Coercions;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.janino.ClassBodyEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class CompiledEvaluatorCache is a process wide cache of {@link CompiledEvaluator} instances keyed on the
+ * expression or script text, the parameter names and types, the return type, and any extended class.
+ * <p>
+ * Identical expressions used by many {@link ScriptOperation} instances within the same JVM are only compiled once.
+ * The least recently used evaluators are evicted once the cache holds more than {@link ExpressionProps#CACHE_SIZE}
+ * entries, which defaults to {@link ExpressionProps#DEFAULT_CACHE_SIZE} and is read from the current
+ * {@link FlowProcess} on each lookup.
+ * <p>
+ * The time spent compiling, and the number of compilations and cache hits, are reported via {@link Counters}.
+ * The evaluation duration is estimated from a sample of timed evaluations.
+ */
+public class CompiledEvaluatorCache
+  {
+  private static final Logger LOG = LoggerFactory.getLogger( CompiledEvaluatorCache.class );
+
+  public enum Counters
+    {
+      Compiled, Compile_Duration, Cache_Hits, Evaluations, Evaluate_Duration
+    }
+
+  /** Compiler compiles an expression or script into a static method */
+  interface Compiler
+    {
+    Method compile() throws CompileException;
+    }
+
+  /** Field maxSize, guarded by the cache lock */
+  private static int maxSize = ExpressionProps.DEFAULT_CACHE_SIZE;
+
+  private static final Map<Key, CompiledEvaluator> cache = new LinkedHashMap<Key, CompiledEvaluator>( 16, 0.75f, true )
+    {
+    @Override
+    protected boolean removeEldestEntry( Map.Entry<Key, CompiledEvaluator> eldest )
+      {
+      return size() > maxSize;
+      }
+    };
+
+  private CompiledEvaluatorCache()
+    {
+    }
+
+  /**
+   * Method size returns the number of compiled evaluators currently held in the cache.
+   *
+   * @return int
+   */
+  public static int size()
+    {
+    synchronized( cache )
+      {
+      return cache.size();
+      }
+    }
+
+  /** Method clear removes all compiled evaluators from the cache. */
+  public static void clear()
+    {
+    synchronized( cache )
+      {
+      cache.clear();
+      }
+    }
+
+  static CompiledEvaluator get( FlowProcess flowProcess, Key key, Compiler compiler ) throws CompileException
+    {
+    CompiledEvaluator evaluator;
+    String cacheSize = flowProcess.getStringProperty( ExpressionProps.CACHE_SIZE );
+
+    synchronized( cache )
+      {
+      maxSize = cacheSize == null || cacheSize.isEmpty() ? ExpressionProps.DEFAULT_CACHE_SIZE : Integer.parseInt( cacheSize );
+      evaluator = cache.get( key );
+      }
+
+    if( evaluator != null )
+      {
+      flowProcess.increment( Counters.Cache_Hits, 1 );
+      return evaluator;
+      }
+
+    // compile outside the lock, concurrent compiles of the same key are harmless
+    long start = System.currentTimeMillis();
+
+    evaluator = bind( compiler.compile() );
+
+    long duration = System.currentTimeMillis() - start;
+
+    flowProcess.increment( Counters.Compiled, 1 );
+    flowProcess.increment( Counters.Compile_Duration, duration );
+
+    if( LOG.isDebugEnabled() )
+      LOG.debug( "compiled: {}, in: {}ms", key.block, duration );
+
+    synchronized( cache )
+      {
+      CompiledEvaluator current = cache.putIfAbsent( key, evaluator );
+
+      trim();
+
+      return current == null ? evaluator : current;
+      }
+    }
+
+  /** Method trim evicts the least recently used evaluators if the cache size was lowered, must hold the cache lock. */
+  private static void trim()
+    {
+    Iterator<Key> iterator = cache.keySet().iterator();
+
+    while( cache.size() > maxSize && iterator.hasNext() )
+      {
+      iterator.next();
+      iterator.remove();
+      }
+    }
+
+  /**
+   * Method bind generates a class calling the given static method directly, unboxing each argument Tuple value
+   * after coercion, so no intermediate argument array or reflective call is required per evaluation.
+   */
+  private static CompiledEvaluator bind( Method method ) throws CompileException
+    {
+    Class<?>[] types = method.getParameterTypes();
+    StringBuilder body = new StringBuilder();
+
+    body.append( "public Object evaluate( cascading.tuple.type.CoercibleType[] coercions, Class[] types, cascading.tuple.Tuple arguments )\n" );
+    body.append( "  {\n" );
+    body.append( "  return " ).append( method.getDeclaringClass().getName() ).append( '.' ).append( method.getName() ).append( "(" );
+
+    for( int i = 0; i < types.length; i++ )
+      {
+      if( i != 0 )
+        body.append( "," );
+
+      Class<?> type = types[ i ] == char.class ? Character.class : Coercions.asNonPrimitive( types[ i ] );
+
+      body.append( " (" ).append( type.getCanonicalName() ).append( ") " );
+      body.append( "coercions[ " ).append( i ).append( " ].coerce( arguments.getObject( " ).append( i ).append( " ), types[ " ).append( i ).append( " ] )" );
+      }
+
+    body.append( types.length == 0 ? ");\n" : " );\n" );
+    body.append( "  }\n" );
+
+    ClassBodyEvaluator evaluator = new ClassBodyEvaluator();
+
+    evaluator.setParentClassLoader( method.getDeclaringClass().getClassLoader() );
+    evaluator.setClassName( method.getDeclaringClass().getName() + "Binding" );
+    evaluator.setImplementedInterfaces( new Class[]{CompiledEvaluator.class} );
+    evaluator.cook( body.toString() );
+
+    try
+      {
+      return (CompiledEvaluator) evaluator.getClazz().getConstructor().newInstance();
+      }
+    catch( ReflectiveOperationException exception )
+      {
+      throw new IllegalStateException( "unable to instantiate compiled evaluator for: " + method, exception );
+      }
+    }
+
+  static class Key
+    {
+    final Class evaluatorType;
+    final String block;
+    final Class returnType;
+    final String[] parameterNames;
+    final Class[] parameterTypes;
+    final Class extendedClass;
+    final ClassLoader classLoader;
+
+    Key( Class evaluatorType, String block, Class returnType, String[] parameterNames, Class[] parameterTypes, Class extendedClass )
+      {
+      this.evaluatorType = evaluatorType;
+      this.block = block;
+      this.returnType = returnType;
+      this.parameterNames = parameterNames;
+      this.parameterTypes = parameterTypes;
+      this.extendedClass = extendedClass;
+      this.classLoader = Thread.currentThread().getContextClassLoader();
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( this == object )
+        return true;
+      if( object == null || getClass() != object.getClass() )
+        return false;
+
+      Key key = (Key) object;
+
+      return evaluatorType == key.evaluatorType &&
+        block.equals( key.block ) &&
+        returnType == key.returnType &&
+        Arrays.equals( parameterNames, key.parameterNames ) &&
+        Arrays.equals( parameterTypes, key.parameterTypes ) &&
+        extendedClass == key.extendedClass &&
+        classLoader == key.classLoader;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      int result = Objects.hash( evaluatorType, block, returnType, extendedClass );
+      result = 31 * result + Arrays.hashCode( parameterNames );
+      result = 31 * result + Arrays.hashCode( parameterTypes );
+      result = 31 * result + System.identityHashCode( classLoader );
+      return result;
+      }
+    }
+  }
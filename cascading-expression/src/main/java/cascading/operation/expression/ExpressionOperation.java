@@ -23,8 +23,8 @@ package cascading.operation.expression;
 import java.beans.ConstructorProperties;
 import java.io.IOException;
 import java.io.StringReader;
+import java.lang.reflect.Method;
 
-import cascading.operation.OperationException;
 import cascading.tuple.Fields;
 import org.codehaus.commons.compiler.CompileException;
 import org.codehaus.janino.ExpressionEvaluator;
@@ -86,21 +86,21 @@ public class ExpressionOperation extends ScriptOperation
     }
 
   @Override
-  protected Evaluator getEvaluator( Class returnType, String[] parameterNames, Class[] parameterTypes )
+  protected Class getEvaluatorType()
     {
-    try
-      {
-      ExpressionEvaluator evaluator = new ExpressionEvaluator();
-      evaluator.setReturnType( returnType );
-      evaluator.setParameters( parameterNames, parameterTypes );
-      evaluator.setExtendedClass( getExtendedClass() );
-      evaluator.cook( block );
-
-      return evaluator::evaluate;
-      }
-    catch( CompileException exception )
-      {
-      throw new OperationException( "could not compile expression: " + block, exception );
-      }
+    return ExpressionEvaluator.class;
+    }
+
+  @Override
+  protected Method compile( Class returnType, String[] parameterNames, Class[] parameterTypes ) throws CompileException
+    {
+    ExpressionEvaluator evaluator = new ExpressionEvaluator();
+
+    evaluator.setReturnType( returnType );
+    evaluator.setParameters( parameterNames, parameterTypes );
+    evaluator.setExtendedClass( getExtendedClass() );
+    evaluator.cook( block );
+
+    return evaluator.getMethod();
     }
   }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation.expression;
+
+import java.util.Properties;
+
+import cascading.property.Props;
+
+/**
+ * Class ExpressionProps is a fluent helper for setting properties related to the compiled expressions and scripts
+ * used by {@link ScriptOperation} sub-classes.
+ *
+ * @see CompiledEvaluatorCache
+ */
+public class ExpressionProps extends Props
+  {
+  /** property to control the maximum number of compiled evaluators held in the {@link CompiledEvaluatorCache}. */
+  public static final String CACHE_SIZE = "cascading.operation.expression.cache.size";
+
+  /** default maximum number of compiled evaluators held in the cache. */
+  public static final int DEFAULT_CACHE_SIZE = 1024;
+
+  private Properties properties;
+
+  public static ExpressionProps expressionProps()
+    {
+    return new ExpressionProps();
+    }
+
+  public ExpressionProps()
+    {
+    this.properties = new Properties();
+    }
+
+  /**
+   * Sets the maximum number of compiled evaluators held in the cache.
+   *
+   * @param cacheSize The maximum number of compiled evaluators.
+   */
+  public ExpressionProps setCacheSize( int cacheSize )
+    {
+    properties.setProperty( CACHE_SIZE, String.valueOf( cacheSize ) );
+    return this;
+    }
+
+  /**
+   * Returns the maximum number of compiled evaluators held in the cache.
+   *
+   * @return The cache size.
+   */
+  public int getCacheSize()
+    {
+    String cacheSize = properties.getProperty( CACHE_SIZE );
+    if( cacheSize == null )
+      return DEFAULT_CACHE_SIZE;
+    return Integer.valueOf( cacheSize );
+    }
+
+  @Override
+  protected void addPropertiesTo( Properties properties )
+    {
+    properties.putAll( this.properties );
+    }
+  }
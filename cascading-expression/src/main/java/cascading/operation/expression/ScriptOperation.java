@@ -21,8 +21,9 @@
 package cascading.operation.expression;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 import cascading.flow.FlowProcess;
 import cascading.management.annotation.Property;
@@ -34,7 +35,6 @@ import cascading.operation.OperationException;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
-import cascading.tuple.Tuples;
 import cascading.tuple.coerce.Coercions;
 import cascading.tuple.type.CoercibleType;
 import cascading.tuple.util.TupleViews;
@@ -47,6 +47,9 @@ import org.codehaus.janino.ScriptEvaluator;
  */
 public abstract class ScriptOperation extends BaseOperation<ScriptOperation.Context>
   {
+  /** Field SAMPLE_MASK, one in every 64 evaluations is timed */
+  private static final int SAMPLE_MASK = 63;
+
   /** Field expression */
   protected final String block;
   /** Field parameterTypes */
@@ -217,22 +220,51 @@ public abstract class ScriptOperation extends BaseOperation<ScriptOperation.Cont
     return null;
     }
 
-  protected Evaluator getEvaluator( Class returnType, String[] parameterNames, Class[] parameterTypes )
+  /**
+   * Method getEvaluatorType returns the type of Janino evaluator used to compile the block. It is used
+   * to distinguish expressions from scripts in the {@link CompiledEvaluatorCache}.
+   *
+   * @return Class
+   */
+  protected Class getEvaluatorType()
     {
-    try
-      {
-      ScriptEvaluator evaluator = new ScriptEvaluator();
+    return ScriptEvaluator.class;
+    }
 
-      evaluator.setReturnType( returnType );
-      evaluator.setParameters( parameterNames, parameterTypes );
-      evaluator.setExtendedClass( getExtendedClass() );
-      evaluator.cook( block );
+  /**
+   * Method compile compiles the block into a static method with the given parameters and return type.
+   *
+   * @param returnType     of Class
+   * @param parameterNames of String[]
+   * @param parameterTypes of Class[]
+   * @return Method
+   * @throws CompileException when the block cannot be compiled
+   */
+  protected Method compile( Class returnType, String[] parameterNames, Class[] parameterTypes ) throws CompileException
+    {
+    ScriptEvaluator evaluator = new ScriptEvaluator();
 
-      return evaluator::evaluate;
+    evaluator.setReturnType( returnType );
+    evaluator.setParameters( parameterNames, parameterTypes );
+    evaluator.setExtendedClass( getExtendedClass() );
+    evaluator.cook( block );
+
+    return evaluator.getMethod();
+    }
+
+  protected CompiledEvaluator getEvaluator( FlowProcess flowProcess, Class returnType, String[] parameterNames, Class[] parameterTypes )
+    {
+    CompiledEvaluatorCache.Key key = new CompiledEvaluatorCache.Key( getEvaluatorType(), block, returnType, parameterNames, parameterTypes, getExtendedClass() );
+
+    try
+      {
+      return CompiledEvaluatorCache.get( flowProcess, key, () -> compile( returnType, parameterNames, parameterTypes ) );
       }
     catch( CompileException exception )
       {
-      throw new OperationException( "could not compile script: " + block, exception );
+      String type = getEvaluatorType() == ScriptEvaluator.class ? "script" : "expression";
+
+      throw new OperationException( "could not compile " + type + ": " + block, exception );
       }
     }
 
@@ -301,8 +333,7 @@ public abstract class ScriptOperation extends BaseOperation<ScriptOperation.Cont
       }
 
     context.parameterCoercions = Coercions.coercibleArray( context.parameterFields );
-    context.parameterArray = new Object[ context.parameterTypes.length ]; // re-use object array
-    context.scriptEvaluator = getEvaluator( getReturnType(), context.parameterNames, context.parameterTypes );
+    context.evaluator = getEvaluator( flowProcess, getReturnType(), context.parameterNames, context.parameterTypes );
     context.intermediate = TupleViews.createNarrow( argumentFields.getPos( context.parameterFields ) );
     context.result = Tuple.size( 1 ); // re-use the output tuple
     }
@@ -336,25 +367,60 @@ public abstract class ScriptOperation extends BaseOperation<ScriptOperation.Cont
    * @return Comparable
    */
   protected Object evaluate( Context context, TupleEntry input )
+    {
+    // only a sample of evaluations are timed, the total duration is estimated on cleanup
+    if( ( context.evaluations++ & SAMPLE_MASK ) != 0 )
+      return invokeEvaluator( context, input );
+
+    long start = System.nanoTime();
+
+    try
+      {
+      return invokeEvaluator( context, input );
+      }
+    finally
+      {
+      context.samples++;
+      context.sampledDuration += System.nanoTime() - start;
+      }
+    }
+
+  private Object invokeEvaluator( Context context, TupleEntry input )
     {
     try
       {
       if( context.parameterTypes.length == 0 )
-        return context.scriptEvaluator.evaluate( null );
+        return context.evaluator.evaluate( context.parameterCoercions, context.parameterTypes, null );
 
       Tuple parameterTuple = TupleViews.reset( context.intermediate, input.getTuple() );
-      Object[] arguments = Tuples.asArray( parameterTuple, context.parameterCoercions, context.parameterTypes, context.parameterArray );
 
-      return context.scriptEvaluator.evaluate( arguments );
+      return context.evaluator.evaluate( context.parameterCoercions, context.parameterTypes, parameterTuple );
       }
-    catch( IllegalArgumentException exception )
+    catch( RuntimeException exception )
       {
       throw new OperationException( "could not evaluate expression: " + block + ", typed: " + Arrays.toString( context.parameterTypes ) + " coerced by: " + Arrays.toString( context.parameterCoercions ), exception );
       }
-    catch( InvocationTargetException exception )
+    }
+
+  @Override
+  public void cleanup( FlowProcess flowProcess, OperationCall<Context> operationCall )
+    {
+    Context context = operationCall.getContext();
+
+    if( context == null )
+      return;
+
+    flowProcess.increment( CompiledEvaluatorCache.Counters.Evaluations, context.evaluations );
+    if( context.samples != 0 )
       {
-      throw new OperationException( "could not evaluate expression: " + block + ", typed: " + Arrays.toString( context.parameterTypes ) + " coerced by: " + Arrays.toString( context.parameterCoercions ), exception.getTargetException() );
+      long estimated = (long) ( (double) context.sampledDuration * context.evaluations / context.samples );
+
+      flowProcess.increment( CompiledEvaluatorCache.Counters.Evaluate_Duration, TimeUnit.NANOSECONDS.toMillis( estimated ) );
       }
+
+    context.evaluations = 0;
+    context.samples = 0;
+    context.sampledDuration = 0;
     }
 
   @Override
@@ -389,20 +455,17 @@ public abstract class ScriptOperation extends BaseOperation<ScriptOperation.Cont
     return result;
     }
 
-  protected interface Evaluator
-    {
-    Object evaluate( Object[] arguments ) throws InvocationTargetException;
-    }
-
   public static class Context
     {
     protected Tuple result;
     private Class[] parameterTypes;
-    private Evaluator scriptEvaluator;
+    private CompiledEvaluator evaluator;
     private Fields parameterFields;
     private CoercibleType[] parameterCoercions;
     private String[] parameterNames;
-    private Object[] parameterArray;
     private Tuple intermediate;
+    private long evaluations;
+    private long samples;
+    private long sampledDuration;
     }
   }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation.expression;
+
+import java.util.Map;
+
+import cascading.CascadingTestCase;
+import cascading.operation.Function;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class CompiledEvaluatorCacheTest extends CascadingTestCase
+  {
+  public CompiledEvaluatorCacheTest()
+    {
+    }
+
+  @Test
+  public void testSharedEvaluator()
+    {
+    CompiledEvaluatorCache.clear();
+
+    TupleEntry entry = new TupleEntry( new Fields( "a", "b" ), new Tuple( 1, 2 ) );
+
+    String[] names = new String[]{"a", "b"};
+    Class[] types = new Class[]{long.class, int.class};
+
+    assertEquals( 3L, evaluate( new ExpressionFunction( new Fields( "result" ), "a + b", names, types ), entry ) );
+    assertEquals( 3L, evaluate( new ExpressionFunction( new Fields( "result" ), "a + b", names, types ), entry ) );
+    assertEquals( 1, CompiledEvaluatorCache.size() );
+
+    // scripts and expressions with the same text are compiled separately
+    assertEquals( 3L, evaluate( new ScriptFunction( new Fields( "result", long.class ), "return a + b;", names, types ), entry ) );
+    assertEquals( 2, CompiledEvaluatorCache.size() );
+
+    // different parameter types are compiled separately
+    types = new Class[]{double.class, int.class};
+
+    assertEquals( 3d, evaluate( new ExpressionFunction( new Fields( "result" ), "a + b", names, types ), entry ) );
+    assertEquals( 3, CompiledEvaluatorCache.size() );
+
+    assertTrue( invokeFilter( new ExpressionFilter( "a < b", int.class ), entry ) );
+    assertFalse( invokeFilter( new ExpressionFilter( "a > b", int.class ), entry ) );
+    assertEquals( 5, CompiledEvaluatorCache.size() );
+    }
+
+  @Test
+  public void testCacheSize()
+    {
+    CompiledEvaluatorCache.clear();
+
+    TupleEntry entry = new TupleEntry( new Fields( "a", "b" ), new Tuple( 1, 2 ) );
+
+    String[] names = new String[]{"a", "b"};
+    Class[] types = new Class[]{long.class, int.class};
+
+    Map<Object, Object> properties = ExpressionProps.expressionProps().setCacheSize( 2 ).buildProperties();
+
+    evaluate( new ExpressionFunction( new Fields( "result" ), "a + b", names, types ), entry, properties );
+    evaluate( new ExpressionFunction( new Fields( "result" ), "a - b", names, types ), entry, properties );
+    evaluate( new ExpressionFunction( new Fields( "result" ), "a * b", names, types ), entry, properties );
+
+    assertEquals( 2, CompiledEvaluatorCache.size() );
+
+    // a lower size evicts the least recently used evaluators on the next compile
+    evaluate( new ExpressionFunction( new Fields( "result" ), "a / b", names, types ), entry, ExpressionProps.expressionProps().setCacheSize( 1 ).buildProperties() );
+
+    assertEquals( 1, CompiledEvaluatorCache.size() );
+
+    CompiledEvaluatorCache.clear();
+    }
+
+  private Object evaluate( ScriptOperation function, TupleEntry tupleEntry, Map<Object, Object> properties )
+    {
+    return invokeFunction( (Function) function, tupleEntry, function.getFieldDeclaration(), properties ).entryIterator().next().getObject( 0 );
+    }
+
+  private Object evaluate( ScriptOperation function, TupleEntry tupleEntry )
+    {
+    return invokeFunction( (Function) function, tupleEntry, function.getFieldDeclaration() ).entryIterator().next().getObject( 0 );
+    }
+  }
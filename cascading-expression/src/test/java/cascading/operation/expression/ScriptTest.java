@@ -23,6 +23,7 @@ package cascading.operation.expression;
 import cascading.CascadingTestCase;
 import cascading.flow.FlowProcess;
 import cascading.operation.ConcreteCall;
+import cascading.operation.OperationException;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
@@ -115,6 +116,20 @@ public class ScriptTest extends CascadingTestCase
     assertEquals( true, evaluate( script, returnType, getEntry( names, types, 2.0, "1", "2" ) ) );
     }
 
+  @Test
+  public void testScriptCompileFailure()
+    {
+    try
+      {
+      evaluate( "return a +;", Long.class, new String[]{"a", "b"}, new Class[]{long.class, int.class}, getEntry( 1, 2 ) );
+      fail( "did not throw" );
+      }
+    catch( OperationException exception )
+      {
+      assertTrue( exception.getMessage(), exception.getMessage().startsWith( "could not compile script:" ) );
+      }
+    }
+
   private Object evaluate( String expression, Class returnType, String[] names, Class[] types, TupleEntry tupleEntry )
     {
     ScriptFunction function = new ScriptFunction( new Fields( "result" ), expression, returnType, names, types );
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.hadoop.stream;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.DuctException;
+import cascading.pipe.HashJoin;
+import cascading.tap.hadoop.io.JoinIndexReader;
+import cascading.tuple.Tuple;
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Class HadoopIndexJoinGate is a {@link HadoopMemoryJoinGate} where the values of some accumulated ordinals are
+ * looked up, for each streamed key, in a {@link JoinIndexReader} instead of being read into memory.
+ * <p>
+ * The given ordinals must not have an incoming path in the current stream graph.
+ */
+public class HadoopIndexJoinGate extends HadoopMemoryJoinGate
+  {
+  public enum Index
+    {
+      Num_Lookups, Num_Hits, Num_Tuples_Read, Num_Files_Probed
+    }
+
+  private final Map<Integer, JoinIndexReader> indexes;
+  private long lookups;
+  private long hits;
+  private long tuplesRead;
+  private long filesProbed;
+
+  /**
+   * Constructor HadoopIndexJoinGate creates a new HadoopIndexJoinGate instance.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param join        of type HashJoin
+   * @param indexes     the index to look up for each accumulated ordinal
+   */
+  public HadoopIndexJoinGate( FlowProcess<? extends Configuration> flowProcess, HashJoin join, Map<Integer, JoinIndexReader> indexes )
+    {
+    super( flowProcess, join );
+
+    this.indexes = indexes;
+    }
+
+  @Override
+  protected Collection<Tuple> getAccumulated( int ordinal, Tuple keyTuple )
+    {
+    JoinIndexReader index = indexes.get( ordinal );
+
+    if( index == null )
+      return super.getAccumulated( ordinal, keyTuple );
+
+    try
+      {
+      long probeCount = index.getProbeCount();
+      List<Tuple> values = index.lookup( keyTuple );
+
+      lookups++;
+      filesProbed += index.getProbeCount() - probeCount;
+
+      if( !values.isEmpty() )
+        hits++;
+
+      tuplesRead += values.size();
+
+      return values;
+      }
+    catch( IOException exception )
+      {
+      throw new DuctException( "failed reading join index for key: " + keyTuple, exception );
+      }
+    }
+
+  @Override
+  public void complete( Duct previous )
+    {
+    super.complete( previous );
+
+    flowProcess.increment( Index.Num_Lookups, lookups );
+    flowProcess.increment( Index.Num_Hits, hits );
+    flowProcess.increment( Index.Num_Tuples_Read, tuplesRead );
+    flowProcess.increment( Index.Num_Files_Probed, filesProbed );
+
+    lookups = 0;
+    hits = 0;
+    tuplesRead = 0;
+    filesProbed = 0;
+    }
+  }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.hadoop;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import cascading.flow.hadoop.util.CompactObjectSerializer;
+import cascading.flow.hadoop.util.JavaObjectSerializer;
+import cascading.operation.aggregator.Count;
+import cascading.operation.regex.RegexSplitter;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class ObjectSerializerTest
+  {
+  @Test
+  public void testCompactRoundTrip() throws Exception
+    {
+    CompactObjectSerializer serializer = new CompactObjectSerializer();
+
+    Fields fields = new Fields( "id", "name", "count" ).applyTypes( long.class, String.class, Integer.class );
+
+    fields.setComparator( "name", (Comparator<String> & java.io.Serializable) String::compareTo );
+
+    for( boolean compress : new boolean[]{false, true} )
+      {
+      Fields result = serializer.deserialize( serializer.serialize( fields, compress ), Fields.class, compress );
+
+      assertEquals( fields, result );
+      assertArrayEquals( fields.getTypes(), result.getTypes() );
+      assertEquals( -1, result.getComparators()[ 1 ].compare( "a", "b" ) );
+
+      Tuple tuple = new Tuple( 1L, "value", null, new Tuple( 2 ) );
+
+      assertEquals( tuple, serializer.deserialize( serializer.serialize( tuple, compress ), Tuple.class, compress ) );
+
+      Map<String, Fields> map = new HashMap<>();
+
+      map.put( "fields", fields );
+
+      assertEquals( map, serializer.deserialize( serializer.serialize( map, compress ), Map.class, compress ) );
+      }
+    }
+
+  @Test
+  public void testCompactSize() throws Exception
+    {
+    Pipe pipe = new Each( "lines", new Fields( "line" ), new RegexSplitter( new Fields( "first", "second" ) ) );
+
+    pipe = new GroupBy( pipe, new Fields( "first" ) );
+    pipe = new Every( pipe, new Count() );
+
+    byte[] java = new JavaObjectSerializer().serialize( pipe, false );
+    byte[] compact = new CompactObjectSerializer().serialize( pipe, false );
+
+    assertTrue( "compact: " + compact.length + ", java: " + java.length, compact.length < java.length );
+
+    Pipe result = new CompactObjectSerializer().deserialize( compact, Pipe.class, false );
+
+    assertEquals( pipe.getName(), result.getName() );
+    assertEquals( Every.class, result.getClass() );
+
+    byte[] javaCompressed = new JavaObjectSerializer().serialize( pipe, true );
+    byte[] compactCompressed = new CompactObjectSerializer().serialize( pipe, true );
+
+    assertTrue( "compact: " + compactCompressed.length + ", java: " + javaCompressed.length, compactCompressed.length < javaCompressed.length );
+    }
+  }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tap.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.TupleSerialization;
+import cascading.tuple.hadoop.collect.HadoopTupleStreamFactory;
+import cascading.util.Util;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class HadoopColumnarTupleStoreTest
+  {
+  private File spillDir;
+
+  @Before
+  public void setUp()
+    {
+    spillDir = new File( System.getProperty( "java.io.tmpdir" ), "columnartuplestore-" + Util.createUniqueID() );
+    spillDir.mkdirs();
+    }
+
+  @After
+  public void tearDown() throws IOException
+    {
+    FileUtils.deleteDirectory( spillDir );
+    }
+
+  @Test
+  public void testSpillWritable() throws IOException
+    {
+    TupleSerialization tupleSerialization = new TupleSerialization( new Configuration() );
+    TupleCache cache = new TupleCache( "test", 0, spillDir );
+    ColumnarTupleStore store = new ColumnarTupleStore( cache, new Fields( "text" ), 10, new HadoopTupleStreamFactory.HadoopTupleStreams( tupleSerialization ) );
+    List<Tuple> tuples = new ArrayList<>();
+
+    // Text is not java.io.Serializable
+    for( int i = 0; i < 25; i++ )
+      tuples.add( new Tuple( i % 4 == 0 ? null : new Text( "value" + i ) ) );
+
+    for( Tuple tuple : tuples )
+      store.add( tuple );
+
+    store.complete();
+
+    assertTrue( store.getSpilledBytes() > 0 );
+
+    List<Tuple> results = new ArrayList<>();
+    Iterator<Tuple> iterator = store.iterator();
+
+    while( iterator.hasNext() )
+      results.add( new Tuple( iterator.next() ) );
+
+    assertEquals( tuples, results );
+    assertEquals( 0, store.getReaders() );
+
+    store.discard();
+    }
+  }
@@ -20,6 +20,7 @@
 
 package cascading.tap.hadoop;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
@@ -51,10 +52,14 @@ import cascading.scheme.SourceCall;
 import cascading.scheme.hadoop.SequenceFile;
 import cascading.scheme.hadoop.TextDelimited;
 import cascading.scheme.hadoop.TextLine;
+import cascading.stats.FlowStats;
 import cascading.tap.MultiSourceTap;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
+import cascading.tap.hadoop.util.FileStatusCache;
 import cascading.tap.hadoop.util.Hadoop18TapUtil;
+import cascading.tap.manifest.FileSourceManifest;
+import cascading.tap.manifest.SourceManifest;
 import cascading.tap.partition.DelimitedPartition;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
@@ -296,6 +301,77 @@ public class HadoopTapPlatformTest extends PlatformTestCase implements Serializa
     validateLength( concatFlow, 10 );
     }
 
+  @Test
+  public void testMetadataCacheCounters() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    GlobHfs source = new GlobHfs( new TextLine( new Fields( "offset", "line" ) ), InputData.inputPath + "?{ppe[_r],owe?}.txt" );
+
+    Tap sink = new Hfs( new TextLine(), getOutputPath( "metadatacache" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    HfsProps.setUseMetadataCache( properties, true );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, new Pipe( "copy" ) );
+
+    flow.complete();
+
+    validateLength( flow, 10 );
+
+    // the metadata calls are made on the client, but are reported with the step counters
+    FlowStats flowStats = flow.getFlowStats();
+
+    long requests = flowStats.getCounterValue( FileStatusCache.Metadata.Requests );
+
+    assertTrue( requests > 0 );
+    assertTrue( flowStats.getCounterValue( FileStatusCache.Metadata.Calls_Saved ) <= requests );
+    assertTrue( flowStats.getCountersFor( FileStatusCache.Metadata.class ).contains( FileStatusCache.Metadata.Requests.name() ) );
+    }
+
+  @Test
+  public void testGlobHfsSourceManifest() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    File manifestFile = new File( getOutputPath( "manifest" ), "manifest.txt" );
+    manifestFile.delete();
+
+    SourceManifest manifest = new FileSourceManifest( manifestFile.getPath() );
+
+    Flow first = runGlobManifestFlow( manifest, "first", 2 );
+
+    validateLength( first, 10 );
+    assertEquals( 2, first.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Processed ) );
+
+    // nothing changed, so the source is empty and the flow still completes
+    Flow second = runGlobManifestFlow( manifest, "second", 0 );
+
+    validateLength( second, 0 );
+    assertEquals( 2, second.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Skipped ) );
+    assertEquals( 0, second.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Processed ) );
+    }
+
+  private Flow runGlobManifestFlow( SourceManifest manifest, String name, int numModified )
+    {
+    GlobHfs source = new GlobHfs( new TextLine( new Fields( "offset", "line" ) ), InputData.inputPath + "?{ppe[_r],owe?}.txt" );
+    source.setSourceManifest( manifest );
+
+    // unmodified paths are excluded before the flow is run, but are only recorded by the flow
+    assertEquals( numModified, source.getTaps().length );
+
+    Tap sink = new Hfs( new TextLine(), getOutputPath( name ), SinkMode.REPLACE );
+
+    Flow flow = getPlatform().getFlowConnector( getProperties() ).connect( name, source, sink, new Pipe( "copy" ) );
+
+    flow.complete();
+
+    return flow;
+    }
+
   @Test
   public void testNestedMultiSourceGlobHfs() throws Exception
     {
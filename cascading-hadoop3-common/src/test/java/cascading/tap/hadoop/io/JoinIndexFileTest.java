@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.TupleSerialization;
+import cascading.util.Util;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class JoinIndexFileTest
+  {
+  private File root;
+  private JobConf conf;
+  private FileSystem fileSystem;
+
+  @Before
+  public void setUp() throws IOException
+    {
+    root = new File( System.getProperty( "java.io.tmpdir" ), "joinindex-" + Util.createUniqueID() );
+    conf = new JobConf();
+    fileSystem = FileSystem.getLocal( conf );
+
+    TupleSerialization.setSerializations( conf );
+    }
+
+  @After
+  public void tearDown() throws IOException
+    {
+    FileUtils.deleteDirectory( root );
+    }
+
+  private Path write( String name, Tuple... values ) throws IOException
+    {
+    return write( name, -1, 0, values );
+    }
+
+  private Path write( String name, int partition, int numPartitions, Tuple... values ) throws IOException
+    {
+    Path path = new Path( new File( root, name ).toURI() );
+    JoinIndexOutputFormat.JoinIndexRecordWriter writer = new JoinIndexOutputFormat.JoinIndexRecordWriter( fileSystem, path, new TupleSerialization( conf ), null, partition, numPartitions );
+
+    for( Tuple value : values )
+      writer.write( new Tuple( value.getObject( 0 ) ), value );
+
+    writer.close( null );
+
+    return path;
+    }
+
+  @Test
+  public void testLookup() throws IOException
+    {
+    Path path = write( "part-00000",
+      new Tuple( 3L, "c" ), new Tuple( 1L, "a1" ), new Tuple( 2L, "b" ), new Tuple( 1L, "a2" ), new Tuple( 300L, "d" ) );
+
+    JoinIndexFile file = new JoinIndexFile( JoinIndexFile.map( new File( path.toUri().getPath() ) ) );
+
+    assertEquals( 4, file.getKeyCount() );
+    assertEquals( 5, file.getRecordCount() );
+
+    JoinIndexReader reader = new JoinIndexReader( conf, new Fields( "id" ), Collections.singletonList( file ) );
+
+    assertEquals( Arrays.asList( new Tuple( 1L, "a1" ), new Tuple( 1L, "a2" ) ), reader.lookup( new Tuple( 1L ) ) );
+    assertEquals( Collections.singletonList( new Tuple( 300L, "d" ) ), reader.lookup( new Tuple( 300L ) ) );
+    assertTrue( reader.lookup( new Tuple( 4L ) ).isEmpty() );
+    assertTrue( reader.lookup( new Tuple( 0L ) ).isEmpty() );
+
+    // untyped keys are matched by their serialized form
+    assertTrue( reader.lookup( new Tuple( 1 ) ).isEmpty() );
+
+    JoinIndexReader typedReader = new JoinIndexReader( conf, new Fields( "id", Long.class ), Collections.singletonList( file ) );
+
+    assertEquals( Collections.singletonList( new Tuple( 2L, "b" ) ), typedReader.lookup( new Tuple( "2" ) ) );
+    }
+
+  @Test
+  public void testLookupAcrossFiles() throws IOException
+    {
+    Path first = write( "part-00000", new Tuple( "x", 1 ), new Tuple( "y", 2 ) );
+    Path second = write( "part-00001", new Tuple( "y", 3 ) );
+    Path empty = write( "part-00002" );
+
+    List<JoinIndexFile> files = new ArrayList<>();
+
+    files.add( new JoinIndexFile( JoinIndexFile.read( fileSystem, first ) ) );
+    files.add( new JoinIndexFile( JoinIndexFile.read( fileSystem, second ) ) );
+    files.add( new JoinIndexFile( JoinIndexFile.read( fileSystem, empty ) ) );
+
+    JoinIndexReader reader = new JoinIndexReader( conf, new Fields( "key" ), files );
+
+    assertEquals( 3, reader.getRecordCount() );
+    assertEquals( Arrays.asList( new Tuple( "y", 2 ), new Tuple( "y", 3 ) ), reader.lookup( new Tuple( "y" ) ) );
+    assertTrue( reader.lookup( new Tuple( "z" ) ).isEmpty() );
+    }
+
+  @Test
+  public void testLookupPartitioned() throws IOException
+    {
+    int numPartitions = 3;
+    List<List<Tuple>> partitions = new ArrayList<>();
+
+    for( int i = 0; i < numPartitions; i++ )
+      partitions.add( new ArrayList<>() );
+
+    for( long id = 0; id < 30; id++ )
+      partitions.get( JoinIndexFile.getPartition( new Tuple( id ), numPartitions ) ).add( new Tuple( id, "v" + id ) );
+
+    List<JoinIndexFile> files = new ArrayList<>();
+
+    for( int i = 0; i < numPartitions; i++ )
+      {
+      Path path = write( "part-0000" + i, i, numPartitions, partitions.get( i ).toArray( new Tuple[ 0 ] ) );
+      JoinIndexFile file = new JoinIndexFile( JoinIndexFile.read( fileSystem, path ) );
+
+      assertTrue( file.isPartitioned() );
+      assertEquals( i, file.getPartition() );
+      assertEquals( numPartitions, file.getNumPartitions() );
+
+      files.add( file );
+      }
+
+    // a key outside the task partition leaves the file unpartitioned
+    Path unpartitioned = write( "part-00003", 0, numPartitions, partitions.get( 1 ).get( 0 ), new Tuple( 100L, "u" ) );
+    JoinIndexFile file = new JoinIndexFile( JoinIndexFile.read( fileSystem, unpartitioned ) );
+
+    assertFalse( file.isPartitioned() );
+
+    files.add( file );
+
+    JoinIndexReader reader = new JoinIndexReader( conf, new Fields( "id", Long.class ), files );
+
+    for( long id = 0; id < 30; id++ )
+      {
+      List<Tuple> expected = new ArrayList<>();
+
+      expected.add( new Tuple( id, "v" + id ) );
+
+      if( partitions.get( 1 ).get( 0 ).getLong( 0 ) == id )
+        expected.add( partitions.get( 1 ).get( 0 ) );
+
+      assertEquals( expected, reader.lookup( new Tuple( id ) ) );
+      }
+
+    assertEquals( Collections.singletonList( new Tuple( 100L, "u" ) ), reader.lookup( new Tuple( "100" ) ) );
+
+    // each lookup searches the partition of the key and the unpartitioned file
+    assertEquals( 31 * 2, reader.getProbeCount() );
+    }
+
+  @Test
+  public void testSequentialRead() throws IOException
+    {
+    Path path = write( "part-00000", new Tuple( "b", 2 ), new Tuple( "a", 1 ), new Tuple( "c", 3 ) );
+    long length = fileSystem.getFileStatus( path ).getLen();
+
+    RecordReader<Tuple, Tuple> recordReader = new JoinIndexInputFormat.JoinIndexRecordReader( conf, new FileSplit( path, 0, length, (String[]) null ) );
+
+    Tuple key = recordReader.createKey();
+    Tuple value = recordReader.createValue();
+    List<Tuple> values = new ArrayList<>();
+
+    while( recordReader.next( key, value ) )
+      values.add( new Tuple( value ) );
+
+    recordReader.close();
+
+    assertEquals( Arrays.asList( new Tuple( "a", 1 ), new Tuple( "b", 2 ), new Tuple( "c", 3 ) ), values );
+    assertFalse( recordReader.next( key, value ) );
+    }
+  }
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowListener;
+import cascading.management.state.ClientState;
+import cascading.scheme.hadoop.TextLine;
+import cascading.stats.FlowStats;
+import cascading.tap.hadoop.Hfs;
+import cascading.util.Util;
+import org.apache.commons.io.FileUtils;
+import cascading.tap.hadoop.HfsProps;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class FileStatusCacheTest
+  {
+  private File root;
+  private String flowID;
+
+  @Before
+  public void setUp() throws IOException
+    {
+    root = new File( System.getProperty( "java.io.tmpdir" ), "filestatuscache-" + Util.createUniqueID() );
+    flowID = Util.createUniqueID();
+
+    write( "a/part-00000" );
+    write( "a/part-00001" );
+    write( "a/_SUCCESS" );
+    write( "b/part-00000" );
+    }
+
+  @After
+  public void tearDown() throws IOException
+    {
+    FileStatusCache.close( flowID );
+    FileUtils.deleteDirectory( root );
+    }
+
+  private void write( String name ) throws IOException
+    {
+    File file = new File( root, name );
+
+    file.getParentFile().mkdirs();
+
+    try( FileWriter writer = new FileWriter( file ) )
+      {
+      writer.write( name );
+      }
+    }
+
+  private Configuration createConf( String cascadeID )
+    {
+    Configuration conf = new Configuration();
+
+    conf.set( Flow.CASCADING_FLOW_ID, flowID );
+
+    if( cascadeID != null )
+      conf.set( FileStatusCache.CASCADE_ID, cascadeID );
+
+    return conf;
+    }
+
+  @Test
+  public void testCachedListing() throws IOException
+    {
+    Configuration conf = createConf( null );
+    Hfs hfs = new Hfs( new TextLine(), root.getAbsolutePath() );
+
+    assertNull( FileStatusCache.getCache( conf ) );
+
+    String[] expected = hfs.getChildIdentifiers( conf, 2, false );
+
+    assertEquals( 3, expected.length );
+
+    FileStatusCache.open( flowID );
+
+    FileStatusCache cache = FileStatusCache.getCache( conf );
+
+    assertNotNull( cache );
+
+    assertArrayEquals( expected, hfs.getChildIdentifiers( conf, 2, false ) );
+    assertEquals( 0, cache.getSaved() );
+
+    long modified = hfs.getModifiedTime( conf );
+
+    assertArrayEquals( expected, new Hfs( new TextLine(), root.getAbsolutePath() ).getChildIdentifiers( conf, 2, false ) );
+    assertEquals( modified, new Hfs( new TextLine(), root.getAbsolutePath() ).getModifiedTime( conf ) );
+    assertTrue( cache.getSaved() >= 3 );
+
+    // not observed until the path is written to by a tap
+    write( "a/part-00002" );
+
+    assertArrayEquals( expected, hfs.getChildIdentifiers( conf, 2, false ) );
+
+    new Hfs( new TextLine(), new File( root, "a" ).getAbsolutePath() ).commitResource( conf );
+
+    assertEquals( 4, hfs.getChildIdentifiers( conf, 2, false ).length );
+
+    FileStatusCache.close( flowID );
+
+    assertNull( FileStatusCache.getCache( conf ) );
+    }
+
+  @Test
+  public void testCascadeScope() throws IOException
+    {
+    FileStatusCache.open( flowID );
+
+    FileStatusCache flowCache = FileStatusCache.getCache( createConf( null ) );
+    FileStatusCache cascadeCache = FileStatusCache.getCache( createConf( "cascade" ) );
+
+    assertEquals( flowID, flowCache.getScopeID() );
+    assertEquals( "cascade", cascadeCache.getScopeID() );
+
+    String otherFlowID = Util.createUniqueID();
+
+    FileStatusCache.open( otherFlowID );
+
+    Configuration otherConf = createConf( "cascade" );
+
+    otherConf.set( Flow.CASCADING_FLOW_ID, otherFlowID );
+
+    assertSame( cascadeCache, FileStatusCache.getCache( otherConf ) );
+
+    Hfs hfs = new Hfs( new TextLine(), root.getAbsolutePath() );
+
+    assertTrue( hfs.resourceExists( otherConf ) );
+    assertTrue( hfs.resourceExists( createConf( "cascade" ) ) );
+    assertEquals( 1, cascadeCache.getSaved() );
+
+    FileStatusCache.close( flowID );
+
+    assertSame( cascadeCache, FileStatusCache.getCache( otherConf ) );
+
+    FileStatusCache.close( otherFlowID );
+
+    assertNull( FileStatusCache.getCache( otherConf ) );
+    }
+
+  @Test
+  public void testStoppedFlowScope() throws IOException
+    {
+    List<FlowListener> listeners = new ArrayList<>();
+    Flow<?> flow = createFlow( listeners );
+
+    FileStatusCache.register( flow );
+
+    assertEquals( 1, listeners.size() );
+
+    Configuration conf = createConf( null );
+    Hfs hfs = new Hfs( new TextLine(), root.getAbsolutePath() );
+
+    assertTrue( hfs.resourceExists( conf ) );
+    assertTrue( hfs.resourceExists( conf ) );
+
+    listeners.get( 0 ).onStopping( flow );
+
+    assertNull( FileStatusCache.getCache( conf ) );
+    assertEquals( 2, flow.getFlowStats().getCounterValue( FileStatusCache.Metadata.Requests ) );
+    assertEquals( 1, flow.getFlowStats().getCounterValue( FileStatusCache.Metadata.Calls_Saved ) );
+
+    // completing after stopping is a no-op
+    listeners.get( 0 ).onCompleted( flow );
+
+    assertEquals( 2, flow.getFlowStats().getCounterValue( FileStatusCache.Metadata.Requests ) );
+    }
+
+  @Test
+  public void testUnreferencedFlowScope() throws InterruptedException
+    {
+    Flow<?> flow = createFlow( new ArrayList<>() );
+
+    FileStatusCache.register( flow );
+
+    Configuration conf = createConf( null );
+
+    assertNotNull( FileStatusCache.getCache( conf ) );
+
+    WeakReference<Flow<?>> reference = new WeakReference<>( flow );
+
+    flow = null;
+
+    for( int i = 0; i < 50 && reference.get() != null; i++ )
+      {
+      System.gc();
+      Thread.sleep( 10 );
+      }
+
+    assertNull( reference.get() );
+    assertNull( FileStatusCache.getCache( conf ) );
+    assertFalse( FileStatusCache.isActive() );
+    }
+
+  private Flow<?> createFlow( List<FlowListener> listeners )
+    {
+    Configuration conf = new Configuration();
+
+    conf.setBoolean( HfsProps.METADATA_CACHE_ENABLED, true );
+
+    FlowStats[] flowStats = new FlowStats[ 1 ];
+
+    return (Flow<?>) Proxy.newProxyInstance( Flow.class.getClassLoader(), new Class[]{Flow.class}, ( proxy, method, args ) ->
+      {
+      switch( method.getName() )
+        {
+        case "getID":
+          return flowID;
+        case "getName":
+          return "test";
+        case "getConfig":
+          return conf;
+        case "getFlowStats":
+          if( flowStats[ 0 ] == null )
+            flowStats[ 0 ] = new FlowStats( (Flow) proxy, ClientState.NULL );
+
+          return flowStats[ 0 ];
+        case "addListener":
+          listeners.add( (FlowListener) args[ 0 ] );
+          return null;
+        case "hashCode":
+          return System.identityHashCode( proxy );
+        case "equals":
+          return proxy == args[ 0 ];
+        default:
+          throw new UnsupportedOperationException( method.getName() );
+        }
+      } );
+    }
+  }
@@ -20,12 +20,16 @@
 
 package cascading.tuple.hadoop;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 import cascading.PlatformTestCase;
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.hadoop.io.HadoopTupleInputStream;
 import cascading.tuple.hadoop.io.HadoopTupleOutputStream;
@@ -101,4 +105,84 @@ public class HadoopSerializationPlatformTest extends PlatformTestCase
 
     System.out.println( "time = " + ( System.currentTimeMillis() - time ) );
     }
-  }
\ No newline at end of file
+
+  @Test
+  public void testPrimitiveTupleSerialization() throws IOException
+    {
+    TupleSerialization tupleSerialization = new TupleSerialization( new Configuration() );
+
+    PrimitiveTuple primitive = new PrimitiveTuple( long.class, double.class, int.class, float.class, String.class, long.class );
+
+    primitive.setLong( 0, 123456789012L );
+    primitive.setDouble( 1, 2.5 );
+    primitive.setInteger( 2, -7 );
+    primitive.setFloat( 3, 1.25f );
+    primitive.setString( 4, "value" );
+
+    Tuple tuple = new Tuple( 123456789012L, 2.5, -7, 1.25f, "value", null );
+
+    // primitives are written without boxing, but must not change the serialized form
+    assertTrue( Arrays.equals( write( tupleSerialization, tuple ), write( tupleSerialization, primitive ) ) );
+    assertTrue( Arrays.equals( write( tupleSerialization, new Tuple( "nested", tuple ) ), write( tupleSerialization, new Tuple( "nested", primitive ) ) ) );
+
+    TupleInputStream input = new HadoopTupleInputStream( new ByteArrayInputStream( write( tupleSerialization, primitive ) ), tupleSerialization.getElementReader() );
+
+    PrimitiveTuple result = input.readTuple( new PrimitiveTuple( long.class, double.class, int.class, float.class, String.class, long.class ) );
+
+    assertEquals( tuple, result );
+    assertTrue( result.isPrimitive( 0 ) );
+    assertFalse( result.isPrimitive( 5 ) );
+    }
+
+  @Test
+  public void testPrimitiveTupleTypedSerialization() throws IOException
+    {
+    TupleSerialization tupleSerialization = new TupleSerialization( new Configuration() );
+
+    Class[] types = new Class[]{long.class, double.class, int.class, float.class, String.class, Long.class};
+    Tuple tuple = new Tuple( 123456789012L, 2.5, -7, 1.25f, "value", null );
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TupleOutputStream output = new HadoopTupleOutputStream( bytes, tupleSerialization.getElementWriter() );
+
+    output.writeTyped( types, tuple );
+    output.close();
+
+    TupleInputStream input = new HadoopTupleInputStream( new ByteArrayInputStream( bytes.toByteArray() ), tupleSerialization.getElementReader() );
+
+    Tuple result = input.readTyped( types );
+
+    assertTrue( result instanceof PrimitiveTuple );
+    assertEquals( tuple, result );
+    assertTrue( ( (PrimitiveTuple) result ).isPrimitive( 0 ) );
+    assertTrue( ( (PrimitiveTuple) result ).isPrimitive( 3 ) );
+    assertFalse( ( (PrimitiveTuple) result ).isPrimitive( 5 ) );
+
+    // boxed types may be null, so are read into a plain Tuple
+    Class[] boxed = new Class[]{Long.class, String.class};
+
+    bytes = new ByteArrayOutputStream();
+    output = new HadoopTupleOutputStream( bytes, tupleSerialization.getElementWriter() );
+
+    output.writeTyped( boxed, new Tuple( 1L, "value" ) );
+    output.close();
+
+    input = new HadoopTupleInputStream( new ByteArrayInputStream( bytes.toByteArray() ), tupleSerialization.getElementReader() );
+
+    result = input.readTyped( boxed );
+
+    assertFalse( result instanceof PrimitiveTuple );
+    assertEquals( new Tuple( 1L, "value" ), result );
+    }
+
+  private byte[] write( TupleSerialization tupleSerialization, Tuple tuple ) throws IOException
+    {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TupleOutputStream output = new HadoopTupleOutputStream( bytes, tupleSerialization.getElementWriter() );
+
+    output.writeTuple( tuple );
+    output.close();
+
+    return bytes.toByteArray();
+    }
+  }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.io.HadoopTupleInputStream;
+import cascading.tuple.hadoop.io.HadoopTupleOutputStream;
+import cascading.tuple.io.TupleInputStream;
+import cascading.tuple.io.TupleOutputStream;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.serializer.JavaSerialization;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class PojoSerializationTest
+  {
+  public enum Side
+    {
+      BUY, SELL
+    }
+
+  public static class Party implements Serializable
+    {
+    String name;
+    Party parent;
+
+    Party()
+      {
+      }
+
+    Party( String name, Party parent )
+      {
+      this.name = name;
+      this.parent = parent;
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( !( object instanceof Party ) )
+        return false;
+
+      Party party = (Party) object;
+
+      return Objects.equals( name, party.name ) && Objects.equals( parent, party.parent );
+      }
+
+    @Override
+    public int hashCode()
+      {
+      return Objects.hash( name, parent );
+      }
+    }
+
+  public static class Trade implements Serializable
+    {
+    private long id;
+    private final String symbol;
+    private double price;
+    private Integer quantity;
+    private Side side;
+    private byte[] payload;
+    private Party party;
+    private transient int hash;
+
+    private Trade()
+      {
+      this( 0, null, 0, null, null, null, null );
+      }
+
+    public Trade( long id, String symbol, double price, Integer quantity, Side side, byte[] payload, Party party )
+      {
+      this.id = id;
+      this.symbol = symbol;
+      this.price = price;
+      this.quantity = quantity;
+      this.side = side;
+      this.payload = payload;
+      this.party = party;
+      this.hash = -1;
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( !( object instanceof Trade ) )
+        return false;
+
+      Trade trade = (Trade) object;
+
+      return id == trade.id && price == trade.price && Objects.equals( symbol, trade.symbol ) && Objects.equals( quantity, trade.quantity ) &&
+        side == trade.side && Arrays.equals( payload, trade.payload ) && Objects.equals( party, trade.party );
+      }
+
+    @Override
+    public int hashCode()
+      {
+      return Objects.hash( id, symbol );
+      }
+    }
+
+  private static Configuration createPojoConf()
+    {
+    Map<Object, Object> properties = new HashMap<>();
+
+    TupleSerializationProps.addPojoType( properties, 200, Trade.class.getName() );
+    TupleSerializationProps.addPojoType( properties, Party.class.getName() );
+
+    Configuration conf = new Configuration();
+
+    for( Map.Entry<Object, Object> entry : properties.entrySet() )
+      conf.set( entry.getKey().toString(), entry.getValue().toString() );
+
+    conf.set( TupleSerializationProps.HADOOP_IO_SERIALIZATIONS, JavaSerialization.class.getName() + "," + conf.get( TupleSerializationProps.HADOOP_IO_SERIALIZATIONS ) );
+
+    TupleSerialization.setSerializations( conf );
+
+    return conf;
+    }
+
+  @Test
+  public void testRoundTrip() throws IOException
+    {
+    Configuration conf = createPojoConf();
+
+    assertTrue( conf.get( TupleSerializationProps.HADOOP_IO_SERIALIZATIONS ).indexOf( PojoSerialization.class.getName() ) < conf.get( TupleSerializationProps.HADOOP_IO_SERIALIZATIONS ).indexOf( JavaSerialization.class.getName() ) );
+
+    TupleSerialization tupleSerialization = new TupleSerialization( conf );
+
+    Party parent = new Party( "parent", null );
+    Trade trade = new Trade( 1234567890123L, "ABC", 10.25, 100, Side.SELL, new byte[]{1, 2, 3}, new Party( "child", parent ) );
+    Trade empty = new Trade( -1, null, 0, null, null, null, null );
+
+    Tuple tuple = new Tuple( trade, "value", empty, parent );
+
+    Tuple result = read( tupleSerialization, write( tupleSerialization, tuple ) );
+
+    assertEquals( tuple, result );
+    assertEquals( -1, ( (Trade) result.getObject( 0 ) ).hash ); // transient, as set by the constructor
+    assertNull( ( (Trade) result.getObject( 2 ) ).party );
+    }
+
+  @Test
+  public void testSmallerThanJavaSerialization() throws IOException
+    {
+    Configuration javaConf = new Configuration();
+
+    javaConf.set( TupleSerializationProps.HADOOP_IO_SERIALIZATIONS, JavaSerialization.class.getName() );
+    TupleSerialization.setSerializations( javaConf );
+
+    TupleSerialization pojoSerialization = new TupleSerialization( createPojoConf() );
+    TupleSerialization javaSerialization = new TupleSerialization( javaConf );
+
+    Tuple tuple = new Tuple( new Trade( 42, "XYZ", 1.5, 7, Side.BUY, new byte[ 8 ], new Party( "party", null ) ) );
+
+    byte[] pojoBytes = write( pojoSerialization, tuple );
+    byte[] javaBytes = write( javaSerialization, tuple );
+
+    assertEquals( tuple, read( javaSerialization, javaBytes ) );
+    assertEquals( tuple, read( pojoSerialization, pojoBytes ) );
+    assertTrue( "pojo: " + pojoBytes.length + ", java: " + javaBytes.length, pojoBytes.length * 4 < javaBytes.length );
+    }
+
+  private static byte[] write( TupleSerialization tupleSerialization, Tuple tuple ) throws IOException
+    {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TupleOutputStream output = new HadoopTupleOutputStream( bytes, tupleSerialization.getElementWriter() );
+
+    output.writeTuple( tuple );
+    output.close();
+
+    return bytes.toByteArray();
+    }
+
+  private static Tuple read( TupleSerialization tupleSerialization, byte[] bytes ) throws IOException
+    {
+    TupleInputStream input = new HadoopTupleInputStream( new ByteArrayInputStream( bytes ), tupleSerialization.getElementReader() );
+
+    try
+      {
+      return input.readTuple();
+      }
+    finally
+      {
+      input.close();
+      }
+    }
+  }
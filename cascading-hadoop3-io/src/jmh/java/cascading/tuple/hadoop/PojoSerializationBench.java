@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.io.HadoopTupleInputStream;
+import cascading.tuple.hadoop.io.HadoopTupleOutputStream;
+import cascading.tuple.io.TupleInputStream;
+import cascading.tuple.io.TupleOutputStream;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.serializer.JavaSerialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link PojoSerialization} against Hadoop {@link JavaSerialization} when writing and reading
+ * tuples holding a user type.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 1, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 250, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PojoSerializationBench
+  {
+  public enum Serializer
+    {
+      Pojo,
+      Java
+    }
+
+  public static class Trade implements Serializable
+    {
+    long id;
+    String symbol;
+    double price;
+    int quantity;
+    Integer venue;
+
+    Trade()
+      {
+      }
+
+    Trade( long id, String symbol, double price, int quantity, Integer venue )
+      {
+      this.id = id;
+      this.symbol = symbol;
+      this.price = price;
+      this.quantity = quantity;
+      this.venue = venue;
+      }
+    }
+
+  @Param
+  Serializer serializer = Serializer.Pojo;
+
+  @Param({"1000"})
+  int count = 1000;
+
+  TupleSerialization tupleSerialization;
+  Tuple[] tuples;
+  byte[] serialized;
+
+  @Setup
+  public void setup() throws IOException
+    {
+    Map<Object, Object> properties = new HashMap<>();
+
+    if( serializer == Serializer.Pojo )
+      TupleSerializationProps.addPojoType( properties, 200, Trade.class.getName() );
+    else
+      TupleSerializationProps.addSerialization( properties, JavaSerialization.class.getName() );
+
+    Configuration conf = new Configuration();
+
+    for( Map.Entry<Object, Object> entry : properties.entrySet() )
+      conf.set( entry.getKey().toString(), entry.getValue().toString() );
+
+    TupleSerialization.setSerializations( conf );
+
+    tupleSerialization = new TupleSerialization( conf );
+    tuples = new Tuple[ count ];
+
+    for( int i = 0; i < count; i++ )
+      tuples[ i ] = new Tuple( i, new Trade( i, "SYM" + ( i % 100 ), i * 0.25, i % 1000, i % 3 == 0 ? null : i % 7 ) );
+
+    serialized = write();
+    }
+
+  private byte[] write() throws IOException
+    {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream( 64 * count );
+    TupleOutputStream output = new HadoopTupleOutputStream( bytes, tupleSerialization.getElementWriter() );
+
+    for( Tuple tuple : tuples )
+      output.writeTuple( tuple );
+
+    output.close();
+
+    return bytes.toByteArray();
+    }
+
+  @Benchmark
+  public void write( Blackhole bh ) throws IOException
+    {
+    bh.consume( write() );
+    }
+
+  @Benchmark
+  public void read( Blackhole bh ) throws IOException
+    {
+    TupleInputStream input = new HadoopTupleInputStream( new ByteArrayInputStream( serialized ), tupleSerialization.getElementReader() );
+
+    for( int i = 0; i < count; i++ )
+      bh.consume( input.readTuple() );
+
+    input.close();
+    }
+  }
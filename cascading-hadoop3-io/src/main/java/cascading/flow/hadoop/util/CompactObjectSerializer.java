@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.hadoop.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Class CompactObjectSerializer is an {@link ObjectSerializer} that writes more compact payloads than
+ * {@link JavaObjectSerializer}, intended for the flow plans shipped to each task.
+ * <p>
+ * Java serialization writes a full description of every class observed in the object graph, its field names, field
+ * types, and serial version, and a plan references many classes. This serializer writes only the class name, and
+ * reads the description from the local class when deserializing. Compressed payloads are deflated at the highest
+ * compression level, as plans are written once and read by every task.
+ * <p>
+ * As the local class description is trusted, the writer and all readers must have the same classes on their
+ * classpath, so the payloads must never be persisted beyond the life of a {@link cascading.flow.Flow}.
+ * <p>
+ * To use, set the {@link ObjectSerializer#OBJECT_SERIALIZER_PROPERTY} property to the name of this class.
+ */
+public class CompactObjectSerializer extends JavaObjectSerializer
+  {
+  private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+  static
+    {
+    for( Class<?> type : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class} )
+      PRIMITIVES.put( type.getName(), type );
+    }
+
+  @Override
+  protected ObjectOutputStream createObjectOutputStream( OutputStream bytes, boolean compress ) throws IOException
+    {
+    if( compress )
+      bytes = new DeflaterOutputStream( bytes, new Deflater( Deflater.BEST_COMPRESSION ) )
+        {
+        @Override
+        public void close() throws IOException
+          {
+          try
+            {
+            super.close();
+            }
+          finally
+            {
+            def.end(); // not released by close when given
+            }
+          }
+        };
+
+    return new ObjectOutputStream( bytes )
+      {
+      @Override
+      protected void writeClassDescriptor( ObjectStreamClass desc ) throws IOException
+        {
+        writeUTF( desc.getName() );
+        }
+      };
+    }
+
+  @Override
+  protected ObjectInputStream createObjectInputStream( InputStream bytes, boolean decompress ) throws IOException
+    {
+    return new ObjectInputStream( decompress ? new InflaterInputStream( bytes ) : bytes )
+      {
+      @Override
+      protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException
+        {
+        return ObjectStreamClass.lookupAny( forName( readUTF() ) );
+        }
+
+      @Override
+      protected Class<?> resolveClass( ObjectStreamClass desc ) throws IOException, ClassNotFoundException
+        {
+        return forName( desc.getName() );
+        }
+      };
+    }
+
+  private static Class<?> forName( String name ) throws ClassNotFoundException
+    {
+    Class<?> type = PRIMITIVES.get( name );
+
+    if( type != null )
+      return type;
+
+    try
+      {
+      return Class.forName( name, false, Thread.currentThread().getContextClassLoader() );
+      }
+    catch( ClassNotFoundException exception )
+      {
+      return Class.forName( name, false, CompactObjectSerializer.class.getClassLoader() );
+      }
+    }
+  }
@@ -70,6 +70,12 @@ import static cascading.util.Util.invokeInstanceMethod;
 public class HadoopUtil
   {
   public static final String CASCADING_FLOW_EXECUTING = "cascading.flow.executing";
+  /**
+   * Property CASCADING_PLAN_STAGING_THRESHOLD is the size, in characters, of the serialized plan of a step or node
+   * above which the plan is staged as a distributed cache file instead of being inlined in the job configuration.
+   */
+  public static final String CASCADING_PLAN_STAGING_THRESHOLD = "cascading.flow.plan.staging.threshold";
+  public static final int DEFAULT_PLAN_STAGING_THRESHOLD = Short.MAX_VALUE;
 
   private static final Logger LOG = LoggerFactory.getLogger( HadoopUtil.class );
   private static final String ENCODING = "US-ASCII";
@@ -23,9 +23,11 @@ package cascading.flow.hadoop.util;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -50,7 +52,7 @@ public class JavaObjectSerializer implements ObjectSerializer
 
     ByteArrayOutputStream bytes = new ByteArrayOutputStream();
 
-    ObjectOutputStream out = new ObjectOutputStream( compress ? new GZIPOutputStream( bytes ) : bytes );
+    ObjectOutputStream out = createObjectOutputStream( bytes, compress );
 
     try
       {
@@ -82,21 +84,7 @@ public class JavaObjectSerializer implements ObjectSerializer
       {
       ByteArrayInputStream byteStream = new ByteArrayInputStream( bytes );
 
-      in = new ObjectInputStream( decompress ? new GZIPInputStream( byteStream ) : byteStream )
-        {
-        @Override
-        protected Class<?> resolveClass( ObjectStreamClass desc ) throws IOException, ClassNotFoundException
-          {
-          try
-            {
-            return Class.forName( desc.getName(), false, Thread.currentThread().getContextClassLoader() );
-            }
-          catch( ClassNotFoundException exception )
-            {
-            return super.resolveClass( desc );
-            }
-          }
-        };
+      in = createObjectInputStream( byteStream, decompress );
 
       return (T) in.readObject();
       }
@@ -119,10 +107,52 @@ public class JavaObjectSerializer implements ObjectSerializer
       || List.class.isAssignableFrom( type );
     }
 
+  /**
+   * Method createObjectOutputStream returns the stream all values are written to, sub-classes may override to change
+   * the encoding of the written values.
+   *
+   * @param bytes    of type OutputStream
+   * @param compress of type boolean
+   * @return ObjectOutputStream
+   * @throws IOException when the stream cannot be created
+   */
+  protected ObjectOutputStream createObjectOutputStream( OutputStream bytes, boolean compress ) throws IOException
+    {
+    return new ObjectOutputStream( compress ? new GZIPOutputStream( bytes ) : bytes );
+    }
+
+  /**
+   * Method createObjectInputStream returns the stream all values are read from, classes are resolved against the
+   * thread context class loader first.
+   *
+   * @param bytes      of type InputStream
+   * @param decompress of type boolean
+   * @return ObjectInputStream
+   * @throws IOException when the stream cannot be created
+   */
+  protected ObjectInputStream createObjectInputStream( InputStream bytes, boolean decompress ) throws IOException
+    {
+    return new ObjectInputStream( decompress ? new GZIPInputStream( bytes ) : bytes )
+      {
+      @Override
+      protected Class<?> resolveClass( ObjectStreamClass desc ) throws IOException, ClassNotFoundException
+        {
+        try
+          {
+          return Class.forName( desc.getName(), false, Thread.currentThread().getContextClassLoader() );
+          }
+        catch( ClassNotFoundException exception )
+          {
+          return super.resolveClass( desc );
+          }
+        }
+      };
+    }
+
   public <T> byte[] serializeMap( Map<String, T> map, boolean compress ) throws IOException
     {
     ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    ObjectOutputStream out = new ObjectOutputStream( compress ? new GZIPOutputStream( bytes ) : bytes );
+    ObjectOutputStream out = createObjectOutputStream( bytes, compress );
 
     Class<T> tClass;
 
@@ -159,7 +189,7 @@ public class JavaObjectSerializer implements ObjectSerializer
       {
       ByteArrayInputStream byteStream = new ByteArrayInputStream( bytes );
 
-      in = new ObjectInputStream( decompress ? new GZIPInputStream( byteStream ) : byteStream );
+      in = createObjectInputStream( byteStream, decompress );
 
       int mapSize = in.readInt();
       Class<T> tClass = (Class<T>) Class.forName( in.readUTF() );
@@ -191,7 +221,7 @@ public class JavaObjectSerializer implements ObjectSerializer
     {
     ByteArrayOutputStream bytes = new ByteArrayOutputStream();
 
-    ObjectOutputStream out = new ObjectOutputStream( compress ? new GZIPOutputStream( bytes ) : bytes );
+    ObjectOutputStream out = createObjectOutputStream( bytes, compress );
 
     Class<T> tClass;
 
@@ -228,7 +258,7 @@ public class JavaObjectSerializer implements ObjectSerializer
       {
       ByteArrayInputStream byteStream = new ByteArrayInputStream( bytes );
 
-      in = new ObjectInputStream( decompress ? new GZIPInputStream( byteStream ) : byteStream );
+      in = createObjectInputStream( byteStream, decompress );
 
       int listSize = in.readInt();
       Class<T> tClass = (Class<T>) Class.forName( in.readUTF() );
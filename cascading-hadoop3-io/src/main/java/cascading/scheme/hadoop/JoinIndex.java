@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.scheme.hadoop;
+
+import java.beans.ConstructorProperties;
+import java.io.IOException;
+
+import cascading.flow.FlowProcess;
+import cascading.scheme.FileFormat;
+import cascading.scheme.Scheme;
+import cascading.scheme.SinkCall;
+import cascading.scheme.SourceCall;
+import cascading.tap.Tap;
+import cascading.tap.hadoop.io.JoinIndexFile;
+import cascading.tap.hadoop.io.JoinIndexInputFormat;
+import cascading.tap.hadoop.io.JoinIndexOutputFormat;
+import cascading.tap.hadoop.io.JoinIndexReader;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.type.CoercibleType;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapred.InputFormat;
+import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.hadoop.mapred.OutputFormat;
+import org.apache.hadoop.mapred.RecordReader;
+
+/**
+ * A JoinIndex is a type of {@link cascading.scheme.Scheme} that writes each task output as a binary file of
+ * Tuples sorted and indexed by the given key fields, see {@link JoinIndexFile}.
+ * <p>
+ * When read as a normal source, all Tuples are returned in key order within each file. The primary use is as the
+ * accumulated side of a {@link cascading.pipe.HashJoin}, where a supporting platform may look up the Tuples for
+ * each streamed key directly in the index, instead of reading the whole file into memory in every task.
+ * <p>
+ * The key fields must not declare a {@link java.util.Comparator}, keys are matched by their serialized form.
+ * If the key fields declare types, key values are coerced to those types on write and on lookup, otherwise the key
+ * values on both sides of the join must be of the same type.
+ */
+public class JoinIndex extends Scheme<Configuration, RecordReader, OutputCollector, Object[], CoercibleType[]> implements FileFormat
+  {
+  /** Field keyFields */
+  private final Fields keyFields;
+
+  /**
+   * Creates a new JoinIndex instance that stores the given field names, indexed by the given key fields.
+   *
+   * @param fields    of type Fields
+   * @param keyFields of type Fields
+   */
+  @ConstructorProperties({"fields", "keyFields"})
+  public JoinIndex( Fields fields, Fields keyFields )
+    {
+    super( fields, fields );
+
+    if( keyFields == null || !keyFields.isDefined() || keyFields.isNone() )
+      throw new IllegalArgumentException( "key fields must be defined, got: " + keyFields );
+
+    if( keyFields.hasComparators() )
+      throw new IllegalArgumentException( "key fields may not declare comparators, got: " + keyFields );
+
+    this.keyFields = keyFields;
+    }
+
+  public Fields getKeyFields()
+    {
+    return keyFields;
+    }
+
+  @Override
+  public void sourceConfInit( FlowProcess<? extends Configuration> flowProcess, Tap<Configuration, RecordReader, OutputCollector> tap, Configuration conf )
+    {
+    conf.setBoolean( "mapred.mapper.new-api", false );
+    conf.setClass( "mapred.input.format.class", JoinIndexInputFormat.class, InputFormat.class );
+    }
+
+  @Override
+  public void sinkConfInit( FlowProcess<? extends Configuration> flowProcess, Tap<Configuration, RecordReader, OutputCollector> tap, Configuration conf )
+    {
+    conf.setBoolean( "mapred.mapper.new-api", false );
+    conf.setClass( "mapred.output.key.class", Tuple.class, Object.class );
+    conf.setClass( "mapred.output.value.class", Tuple.class, Object.class );
+    conf.setClass( "mapred.output.format.class", JoinIndexOutputFormat.class, OutputFormat.class );
+    }
+
+  @Override
+  public void sourcePrepare( FlowProcess<? extends Configuration> flowProcess, SourceCall<Object[], RecordReader> sourceCall )
+    {
+    Object[] pair = new Object[]{
+      sourceCall.getInput().createKey(),
+      sourceCall.getInput().createValue()
+    };
+
+    sourceCall.setContext( pair );
+    }
+
+  @Override
+  public boolean source( FlowProcess<? extends Configuration> flowProcess, SourceCall<Object[], RecordReader> sourceCall ) throws IOException
+    {
+    Tuple key = (Tuple) sourceCall.getContext()[ 0 ];
+    Tuple value = (Tuple) sourceCall.getContext()[ 1 ];
+    boolean result = sourceCall.getInput().next( key, value );
+
+    if( !result )
+      return false;
+
+    TupleEntry entry = sourceCall.getIncomingEntry();
+
+    if( entry.hasTypes() )
+      entry.setCanonicalTuple( value );
+    else
+      entry.setTuple( value );
+
+    return true;
+    }
+
+  @Override
+  public void sourceCleanup( FlowProcess<? extends Configuration> flowProcess, SourceCall<Object[], RecordReader> sourceCall )
+    {
+    sourceCall.setContext( null );
+    }
+
+  @Override
+  public void sinkPrepare( FlowProcess<? extends Configuration> flowProcess, SinkCall<CoercibleType[], OutputCollector> sinkCall )
+    {
+    sinkCall.setContext( JoinIndexReader.getKeyTypes( keyFields ) );
+    }
+
+  @Override
+  public void sink( FlowProcess<? extends Configuration> flowProcess, SinkCall<CoercibleType[], OutputCollector> sinkCall ) throws IOException
+    {
+    TupleEntry entry = sinkCall.getOutgoingEntry();
+    Tuple key = JoinIndexReader.coerceKey( sinkCall.getContext(), entry.selectTuple( keyFields ) );
+
+    sinkCall.getOutput().collect( key, entry.getTuple() );
+    }
+
+  @Override
+  public String getExtension()
+    {
+    return "idx";
+    }
+  }
@@ -24,19 +24,28 @@ import java.beans.ConstructorProperties;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
+import cascading.flow.Flow;
 import cascading.flow.FlowProcess;
 import cascading.scheme.Scheme;
 import cascading.tap.MultiSourceTap;
 import cascading.tap.TapException;
+import cascading.tap.manifest.SourceManifest;
+import cascading.tap.hadoop.util.FileStatusCache;
+import cascading.tap.manifest.SourceManifestListener;
 import cascading.util.LazyIterable;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Class GlobHfs is a type of {@link cascading.tap.MultiSourceTap} that accepts Hadoop style 'file globing' expressions so
@@ -59,10 +68,16 @@ import org.apache.hadoop.mapred.RecordReader;
  */
 public class GlobHfs extends MultiSourceTap<Hfs, Configuration, RecordReader>
   {
+  private static final Logger LOG = LoggerFactory.getLogger( GlobHfs.class );
+
   /** Field pathPattern */
   private final String pathPattern;
   /** Field pathFilter */
   private final PathFilter pathFilter;
+  /** Field sourceManifest */
+  private SourceManifest sourceManifest;
+  /** Field accepted */
+  private boolean accepted = false;
 
   /**
    * Constructor GlobHfs creates a new GlobHfs instance.
@@ -97,20 +112,61 @@ public class GlobHfs extends MultiSourceTap<Hfs, Configuration, RecordReader>
     return pathPattern;
     }
 
+  /**
+   * Method getSourceManifest returns the sourceManifest of this GlobHfs object, if any.
+   *
+   * @return the sourceManifest (type SourceManifest) of this GlobHfs object.
+   */
+  public SourceManifest getSourceManifest()
+    {
+    return sourceManifest;
+    }
+
+  /**
+   * Method setSourceManifest sets the {@link SourceManifest} used to skip paths read during a prior successful
+   * Flow execution. A matching directory is read again if any file it contains was modified, or if its total
+   * size changed.
+   * <p>
+   * Paths are resolved and recorded once, client side, when this tap is first initialized as a source. If no
+   * path is new or modified, this tap will present an empty source and the Flow will read no data.
+   *
+   * @param sourceManifest of type SourceManifest
+   */
+  public void setSourceManifest( SourceManifest sourceManifest )
+    {
+    this.sourceManifest = sourceManifest;
+    }
+
+  @Override
+  public void flowConfInit( Flow<Configuration> flow )
+    {
+    super.flowConfInit( flow );
+
+    SourceManifestListener.register( flow, sourceManifest );
+    FileStatusCache.register( flow );
+    }
+
   @Override
   protected Hfs[] getTaps()
     {
-    return initTapsInternal( new JobConf() );
+    return initTapsInternal( null, new JobConf() );
     }
 
-  private Hfs[] initTapsInternal( Configuration conf )
+  /**
+   * Resolves the child taps. Candidate paths are only recorded in the source manifest, and counted, when a
+   * FlowProcess is given, otherwise unmodified paths are merely excluded.
+   */
+  private Hfs[] initTapsInternal( FlowProcess<?> flowProcess, Configuration conf )
     {
-    if( taps != null )
+    boolean accept = flowProcess != null && sourceManifest != null && !accepted;
+
+    if( taps != null && !accept )
       return taps;
 
     try
       {
-      taps = makeTaps( conf );
+      taps = makeTaps( flowProcess, conf );
+      accepted |= accept;
       }
     catch( IOException exception )
       {
@@ -120,7 +176,7 @@ public class GlobHfs extends MultiSourceTap<Hfs, Configuration, RecordReader>
     return taps;
     }
 
-  private Hfs[] makeTaps( Configuration conf ) throws IOException
+  private Hfs[] makeTaps( FlowProcess<?> flowProcess, Configuration conf ) throws IOException
     {
     FileStatus[] statusList;
 
@@ -128,34 +184,88 @@ public class GlobHfs extends MultiSourceTap<Hfs, Configuration, RecordReader>
 
     FileSystem fileSystem = path.getFileSystem( conf );
 
-    if( pathFilter == null )
-      statusList = fileSystem.globStatus( path );
-    else
-      statusList = fileSystem.globStatus( path, pathFilter );
+    statusList = FileStatusCache.globStatus( conf, fileSystem, path, pathFilter );
 
     if( statusList == null || statusList.length == 0 )
       throw new TapException( "unable to find paths matching path pattern: " + pathPattern );
 
+    List<long[]> modified = sourceManifest == null ? null : getModified( conf, fileSystem, statusList );
+
     List<Hfs> notEmpty = new ArrayList<Hfs>();
 
     for( int i = 0; i < statusList.length; i++ )
       {
       // remove empty files. some hadoop versions return non-zero for dirs
       // so this jives with the expectations set in the above javadoc
-      if( statusList[ i ].isDir() || statusList[ i ].getLen() != 0 )
-        notEmpty.add( new Hfs( getScheme(), statusList[ i ].getPath().toString() ) );
+      if( !statusList[ i ].isDir() && statusList[ i ].getLen() == 0 )
+        continue;
+
+      if( modified != null && !isModified( flowProcess, statusList[ i ].getPath().toString(), modified.get( i ) ) )
+        continue;
+
+      notEmpty.add( new Hfs( getScheme(), statusList[ i ].getPath().toString() ) );
       }
 
-    if( notEmpty.isEmpty() )
+    if( modified != null && LOG.isInfoEnabled() )
+      LOG.info( "source manifest accepted {} of {} paths in: {}", notEmpty.size(), statusList.length, pathPattern );
+
+    if( notEmpty.isEmpty() && sourceManifest != null )
+      LOG.info( "no new or modified paths matching path pattern found in source manifest: {}, for: {}", sourceManifest, pathPattern );
+    else if( notEmpty.isEmpty() )
       throw new TapException( "all paths matching path pattern are zero length and not directories: " + pathPattern );
 
     return notEmpty.toArray( new Hfs[ notEmpty.size() ] );
     }
 
+  private boolean isModified( FlowProcess<?> flowProcess, String identifier, long[] stats )
+    {
+    if( flowProcess == null )
+      return sourceManifest.isModified( identifier, stats[ 0 ], stats[ 1 ] );
+
+    return SourceManifestListener.accept( flowProcess, sourceManifest, identifier, stats[ 0 ], stats[ 1 ] );
+    }
+
+  private List<long[]> getModified( Configuration conf, FileSystem fileSystem, FileStatus[] statusList ) throws IOException
+    {
+    List<Callable<long[]>> calls = new ArrayList<>( statusList.length );
+
+    // directories are walked concurrently, see FileStatusCache#invokeAll
+    for( FileStatus status : statusList )
+      calls.add( () -> getModified( fileSystem, status ) );
+
+    return FileStatusCache.invokeAll( conf, calls );
+    }
+
+  private static long[] getModified( FileSystem fileSystem, FileStatus status ) throws IOException
+    {
+    long modifiedTime = status.getModificationTime();
+    long size = status.getLen();
+
+    if( status.isDirectory() )
+      {
+      RemoteIterator<LocatedFileStatus> iterator = fileSystem.listFiles( status.getPath(), true );
+
+      size = 0;
+
+      while( iterator.hasNext() )
+        {
+        LocatedFileStatus child = iterator.next();
+
+        modifiedTime = Math.max( modifiedTime, child.getModificationTime() );
+        size += child.getLen();
+        }
+      }
+
+    return new long[]{modifiedTime, size};
+    }
+
   @Override
   public void sourceConfInit( FlowProcess<? extends Configuration> process, Configuration conf )
     {
-    Hfs[] taps = initTapsInternal( conf );
+    Hfs[] taps = initTapsInternal( process, conf );
+
+    if( taps.length == 0 )
+      taps = new Hfs[]{makeEmptyTap( conf )};
 
     taps[ 0 ].sourceConfInitAddInputPaths( conf, new LazyIterable<Hfs, Path>( taps )
       {
@@ -169,6 +279,12 @@ public class GlobHfs extends MultiSourceTap<Hfs, Configuration, RecordReader>
     taps[ 0 ].sourceConfInitComplete( process, conf );
     }
 
+  /** Creates a tap on an empty directory, so the Flow sees a source with no input splits. */
+  private Hfs makeEmptyTap( Configuration conf )
+    {
+    return new Hfs( getScheme(), Hfs.makeEmptySourcePath( conf, "glob" ) );
+    }
+
   @Override
   public boolean equals( Object object )
     {
@@ -24,11 +24,15 @@ import java.beans.ConstructorProperties;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import cascading.CascadingException;
+import cascading.flow.Flow;
 import cascading.flow.FlowProcess;
 import cascading.flow.FlowRuntimeProps;
 import cascading.flow.hadoop.util.HadoopUtil;
@@ -39,6 +43,7 @@ import cascading.tap.TapException;
 import cascading.tap.hadoop.io.CombineFileRecordReaderWrapper;
 import cascading.tap.hadoop.io.HadoopTupleEntrySchemeCollector;
 import cascading.tap.hadoop.io.HadoopTupleEntrySchemeIterator;
+import cascading.tap.hadoop.util.FileStatusCache;
 import cascading.tap.type.FileType;
 import cascading.tap.type.TapWith;
 import cascading.tuple.TupleEntryCollector;
@@ -399,6 +404,14 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     return getPath().makeQualified( getFileSystem( conf ) ).toString();
     }
 
+  @Override
+  public void flowConfInit( Flow<Configuration> flow )
+    {
+    super.flowConfInit( flow );
+
+    FileStatusCache.register( flow );
+    }
+
   @Override
   public void sourceConfInit( FlowProcess<? extends Configuration> process, Configuration conf )
     {
@@ -557,7 +570,7 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
   @Override
   public TupleEntryCollector openForWrite( FlowProcess<? extends Configuration> flowProcess, OutputCollector output ) throws IOException
     {
-    resetFileStatuses();
+    invalidateFileStatuses( flowProcess.getConfig() );
 
     // output may be null when this method is called on the client side or cluster side when creating
     // side files with the PartitionTap
@@ -570,6 +583,8 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     if( LOG.isDebugEnabled() )
       LOG.debug( "making dirs: {}", getFullIdentifier( conf ) );
 
+    invalidateFileStatuses( conf );
+
     return getFileSystem( conf ).mkdirs( getPath() );
     }
 
@@ -588,6 +603,9 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
 
     resetFileStatuses();
 
+    if( FileStatusCache.isActive() )
+      FileStatusCache.invalidate( fullIdentifier );
+
     Path fullPath = new Path( fullIdentifier );
 
     // do not delete the root directory
@@ -628,12 +646,28 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     return deleteFullIdentifier( conf, childPath.toString() );
     }
 
+  @Override
+  public boolean commitResource( Configuration conf ) throws IOException
+    {
+    invalidateFileStatuses( conf );
+
+    return super.commitResource( conf );
+    }
+
+  @Override
+  public boolean rollbackResource( Configuration conf ) throws IOException
+    {
+    invalidateFileStatuses( conf );
+
+    return super.rollbackResource( conf );
+    }
+
   @Override
   public boolean resourceExists( Configuration conf ) throws IOException
     {
     // unfortunately getFileSystem( conf ).exists( getPath() ); does not account for "/*" etc
     // nor is there an more efficient means to test for existence
-    FileStatus[] fileStatuses = getFileSystem( conf ).globStatus( getPath() );
+    FileStatus[] fileStatuses = FileStatusCache.globStatus( conf, getFileSystem( conf ), getPath() );
 
     return fileStatuses != null && fileStatuses.length > 0;
     }
@@ -650,7 +684,7 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     if( !resourceExists( conf ) )
       return false;
 
-    return getFileSystem( conf ).getFileStatus( getPath() ).isDir();
+    return getFileStatus( conf ).isDir();
     }
 
   @Override
@@ -670,7 +704,7 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     if( fileStatus.isDir() )
       return 0;
 
-    return getFileSystem( conf ).getFileStatus( getPath() ).getLen();
+    return fileStatus.getLen();
     }
 
   /**
@@ -776,36 +810,40 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     if( inputPaths.length == 0 )
       inputPaths = new Path[]{new Path( rootIdentifier )};
 
-    Set<String> results = new LinkedHashSet<>();
+    FileSystem fileSystem = getFileSystem( conf );
+    List<Path> paths = Arrays.asList( inputPaths );
 
-    for( Path identifier : inputPaths )
-      getChildPaths( conf, results, trim, identifier, depth );
+    // list every directory in a level concurrently, retaining the order the paths were found
+    for( int level = depth; level > 0 && !paths.isEmpty(); level-- )
+      {
+      List<Path> children = new ArrayList<>();
 
-    return results.toArray( new String[ 0 ] );
-    }
+      for( FileStatus[] statuses : FileStatusCache.listStatus( conf, fileSystem, paths, HIDDEN_FILES_FILTER ) )
+        {
+        if( statuses == null )
+          continue;
 
-  private void getChildPaths( Configuration conf, Set<String> results, int trim, Path path, int depth ) throws IOException
-    {
-    if( depth == 0 )
+        for( FileStatus fileStatus : statuses )
+          children.add( fileStatus.getPath() );
+        }
+
+      paths = children;
+      }
+
+    Set<String> results = new LinkedHashSet<>();
+    String identifier = getIdentifier();
+
+    for( Path path : paths )
       {
       String substring = path.toString().substring( trim );
-      String identifier = getIdentifier();
 
       if( identifier == null || identifier.isEmpty() )
         results.add( new Path( substring ).toString() );
       else
         results.add( new Path( identifier, substring ).toString() );
-
-      return;
       }
 
-    FileStatus[] statuses = getFileSystem( conf ).listStatus( path, HIDDEN_FILES_FILTER );
-
-    if( statuses == null )
-      return;
-
-    for( FileStatus fileStatus : statuses )
-      getChildPaths( conf, results, trim, fileStatus.getPath(), depth - 1 );
+    return results.toArray( new String[ 0 ] );
     }
 
   @Override
@@ -840,7 +878,7 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
 
   public FileStatus getFileStatus( Configuration conf ) throws IOException
     {
-    return getFileSystem( conf ).getFileStatus( getPath() );
+    return FileStatusCache.getFileStatus( conf, getFileSystem( conf ), getPath() );
     }
 
   public static Path getTempPath( Configuration conf )
@@ -853,6 +891,33 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     return new Path( tempDir );
     }
 
+  /**
+   * Method makeEmptySourcePath creates an empty directory, removed when the client exits, so a Flow sees a source
+   * with no input splits, for example when a {@link cascading.tap.manifest.SourceManifest} accepts no new paths.
+   *
+   * @param conf   of type Configuration
+   * @param prefix of type String
+   * @return String
+   */
+  protected static String makeEmptySourcePath( Configuration conf, String prefix )
+    {
+    Path path = new Path( getTempPath( conf ), prefix + "-empty-" + Util.createUniqueID() );
+
+    try
+      {
+      FileSystem fileSystem = path.getFileSystem( conf );
+
+      fileSystem.mkdirs( path );
+      fileSystem.deleteOnExit( path );
+      }
+    catch( IOException exception )
+      {
+      throw new TapException( "unable to create empty source path: " + path, exception );
+      }
+
+    return path.toString();
+    }
+
   protected String makeTemporaryPathDirString( String name )
     {
     // _ is treated as a hidden file, so wipe them out
@@ -875,7 +940,7 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     if( statuses != null )
       return;
 
-    statuses = getFileSystem( conf ).listStatus( getPath() );
+    statuses = FileStatusCache.listStatus( conf, getFileSystem( conf ), getPath(), null );
     }
 
   /**
@@ -886,6 +951,14 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     statuses = null;
     }
 
+  private void invalidateFileStatuses( Configuration conf ) throws IOException
+    {
+    resetFileStatuses();
+
+    if( conf != null && FileStatusCache.isActive() )
+      FileStatusCache.invalidate( getFullIdentifier( conf ) );
+    }
+
   /** Combined input format that uses the underlying individual input format to combine multiple files into a single split. */
   static class CombinedInputFormat extends CombineFileInputFormat implements Configurable
     {
@@ -42,12 +42,18 @@ public class HfsProps extends Props
   public static final String COMBINE_INPUT_FILES_SAFE_MODE = "cascading.hadoop.hfs.combine.safemode";
   /** Field COMBINE_INPUT_FILES_SIZE_MAX */
   public static final String COMBINE_INPUT_FILES_SIZE_MAX = "cascading.hadoop.hfs.combine.max.size";
+  /** Field METADATA_CACHE_ENABLED */
+  public static final String METADATA_CACHE_ENABLED = "cascading.hadoop.hfs.metadata.cache.enabled";
+  /** Field METADATA_LISTING_THREADS */
+  public static final String METADATA_LISTING_THREADS = "cascading.hadoop.hfs.metadata.listing.threads";
 
   protected String temporaryDirectory;
   protected String localModeScheme;
   protected Boolean useCombinedInput;
   protected Long combinedInputMaxSize;
   protected Boolean combinedInputSafeMode;
+  protected Boolean useMetadataCache;
+  protected Integer metadataListingThreads;
 
   /**
    * Method setTemporaryDirectory sets the temporary directory on the given properties object.
@@ -121,6 +127,34 @@ public class HfsProps extends Props
       properties.put( COMBINE_INPUT_FILES_SIZE_MAX, Long.toString( size ) );
     }
 
+  /**
+   * Method setUseMetadataCache enables caching of file system metadata, file statuses and directory listings,
+   * for the lifetime of a Flow, or the parent Cascade, see {@link cascading.tap.hadoop.util.FileStatusCache}.
+   * By default it is false.
+   *
+   * @param properties       of type Map
+   * @param useMetadataCache a boolean
+   */
+  public static void setUseMetadataCache( Map<Object, Object> properties, Boolean useMetadataCache )
+    {
+    if( useMetadataCache != null )
+      properties.put( METADATA_CACHE_ENABLED, Boolean.toString( useMetadataCache ) );
+    }
+
+  /**
+   * Method setMetadataListingThreads sets the number of threads used to list directories concurrently. The pool
+   * is shared by all Flows in the current JVM and is sized when first used. By default it is 8, values less than
+   * 2 disable concurrent listing.
+   *
+   * @param properties of type Map
+   * @param threads    of type int
+   */
+  public static void setMetadataListingThreads( Map<Object, Object> properties, Integer threads )
+    {
+    if( threads != null )
+      properties.put( METADATA_LISTING_THREADS, Integer.toString( threads ) );
+    }
+
   /**
    * Creates a new HfsProps instance.
    *
@@ -235,6 +269,43 @@ public class HfsProps extends Props
     return this;
     }
 
+  public boolean isUseMetadataCache()
+    {
+    return useMetadataCache;
+    }
+
+  /**
+   * Method setUseMetadataCache enables caching of file system metadata, file statuses and directory listings,
+   * for the lifetime of a Flow, or the parent Cascade. By default it is false.
+   *
+   * @param useMetadataCache boolean
+   * @return returns this instance
+   */
+  public HfsProps setUseMetadataCache( boolean useMetadataCache )
+    {
+    this.useMetadataCache = useMetadataCache;
+
+    return this;
+    }
+
+  public Integer getMetadataListingThreads()
+    {
+    return metadataListingThreads;
+    }
+
+  /**
+   * Method setMetadataListingThreads sets the number of threads used to list directories concurrently.
+   *
+   * @param metadataListingThreads int
+   * @return returns this instance
+   */
+  public HfsProps setMetadataListingThreads( int metadataListingThreads )
+    {
+    this.metadataListingThreads = metadataListingThreads;
+
+    return this;
+    }
+
   @Override
   protected void addPropertiesTo( Properties properties )
     {
@@ -243,5 +314,7 @@ public class HfsProps extends Props
     setUseCombinedInput( properties, useCombinedInput );
     setCombinedInputMaxSize( properties, combinedInputMaxSize );
     setUseCombinedInputSafeMode( properties, combinedInputSafeMode );
+    setUseMetadataCache( properties, useMetadataCache );
+    setMetadataListingThreads( properties, metadataListingThreads );
     }
   }
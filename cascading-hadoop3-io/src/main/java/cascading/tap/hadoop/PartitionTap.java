@@ -43,7 +43,9 @@ import cascading.tuple.TupleEntryIterator;
 import cascading.tuple.TupleEntrySchemeCollector;
 import cascading.tuple.TupleEntrySchemeIterator;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.mapred.OutputCollector;
 import org.apache.hadoop.mapred.RecordReader;
 
@@ -198,6 +200,10 @@ public class PartitionTap extends BasePartitionTap<Configuration, RecordReader,
       {
       String[] childPartitions = getChildPartitionIdentifiers( flowProcess, true );
 
+      // no partition was new or modified, read an empty directory
+      if( childPartitions.length == 0 && getSourceManifest() != null )
+        childPartitions = new String[]{Hfs.makeEmptySourcePath( conf, "partition" )};
+
       ( (Hfs) getParent() ).applySourceConfInitIdentifiers( flowProcess, conf, childPartitions );
       }
     catch( IOException exception )
@@ -206,6 +212,25 @@ public class PartitionTap extends BasePartitionTap<Configuration, RecordReader,
       }
     }
 
+  @Override
+  protected long[] getChildPartitionStats( FlowProcess<? extends Configuration> flowProcess, String childIdentifier ) throws IOException
+    {
+    Path path = new Path( childIdentifier );
+    RemoteIterator<LocatedFileStatus> iterator = path.getFileSystem( flowProcess.getConfig() ).listFiles( path, true );
+
+    long[] stats = new long[]{0, 0};
+
+    while( iterator.hasNext() )
+      {
+      LocatedFileStatus status = iterator.next();
+
+      stats[ 0 ] = Math.max( stats[ 0 ], status.getModificationTime() );
+      stats[ 1 ] += status.getLen();
+      }
+
+    return stats;
+    }
+
   @Override
   public TupleEntryIterator openForRead( FlowProcess<? extends Configuration> flowProcess, RecordReader input ) throws IOException
     {
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop.io;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.util.TupleHasher;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.WritableComparator;
+
+/**
+ * Class JoinIndexFile represents a single file written by {@link JoinIndexOutputFormat}, an immutable sequence of
+ * serialized key and value pairs ordered by the unsigned byte order of the key, followed by an index over the first
+ * record of each distinct key.
+ * <p>
+ * The layout of a file is:
+ * <pre>
+ * int magic, int version
+ * { int keyLength, byte[] key, int valueLength, byte[] value } * recordCount
+ * { long recordOffset } * keyCount
+ * long indexOffset, int keyCount, long recordCount, int partition, int numPartitions, int magic
+ * </pre>
+ * A file declares a partition when every key it holds hashes to that partition of {@code numPartitions}, see
+ * {@link #getPartition(Tuple, int)}, so that a lookup need only search the files declaring the partition of the key.
+ * The partition of a file not partitioned by its key is {@code -1}.
+ * <p>
+ * As all lookups are a binary search over the index, a file is typically memory mapped, see {@link #map(File)}, so
+ * that a file localized to a node is shared by all tasks on that node through the OS page cache.
+ * <p>
+ * Files larger than 2GB cannot be mapped and are rejected, increase the number of writing tasks instead.
+ */
+public class JoinIndexFile
+  {
+  /** Field MAGIC */
+  public static final int MAGIC = 0x434A4958; // CJIX
+  /** Field VERSION */
+  public static final int VERSION = 2;
+  /** Field HEADER_LENGTH */
+  static final int HEADER_LENGTH = 8;
+  /** Field TRAILER_LENGTH */
+  static final int TRAILER_LENGTH = 32;
+
+  private static final TupleHasher HASHER = new TupleHasher( null, new Comparator[ 1 ] );
+
+  private final ByteBuffer buffer;
+  private final int indexOffset;
+  private final int keyCount;
+  private final long recordCount;
+  private final int partition;
+  private final int numPartitions;
+
+  /**
+   * Method getPartition returns the partition of the given key, using the same hash as the default
+   * {@code GroupingPartitioner}, so a file written by a task after a GroupBy on the key holds a single partition.
+   *
+   * @param key           of type Tuple
+   * @param numPartitions of type int
+   * @return int
+   */
+  public static int getPartition( Tuple key, int numPartitions )
+    {
+    return ( HASHER.hashCode( key ) & Integer.MAX_VALUE ) % numPartitions;
+    }
+
+  /**
+   * Method write sorts the given keys and values by the unsigned byte order of the keys, and writes them to the
+   * given stream as a file not partitioned by its key.
+   *
+   * @param output of type DataOutputStream
+   * @param keys   of type List
+   * @param values of type List
+   * @throws IOException when the stream cannot be written
+   */
+  public static void write( DataOutputStream output, List<byte[]> keys, List<byte[]> values ) throws IOException
+    {
+    write( output, keys, values, -1, 0 );
+    }
+
+  /**
+   * Method write sorts the given keys and values by the unsigned byte order of the keys, and writes them to the
+   * given stream. Values of equal keys retain their relative order.
+   *
+   * @param output        of type DataOutputStream
+   * @param keys          of type List
+   * @param values        of type List
+   * @param partition     the partition every key hashes to, or -1
+   * @param numPartitions of type int
+   * @throws IOException when the stream cannot be written
+   */
+  public static void write( DataOutputStream output, List<byte[]> keys, List<byte[]> values, int partition, int numPartitions ) throws IOException
+    {
+    Integer[] order = new Integer[ keys.size() ];
+
+    for( int i = 0; i < order.length; i++ )
+      order[ i ] = i;
+
+    Arrays.sort( order, ( lhs, rhs ) -> compare( keys.get( lhs ), keys.get( rhs ) ) ); // stable
+
+    long[] offsets = new long[ order.length ];
+    int keyCount = 0;
+    byte[] previous = null;
+    long position = HEADER_LENGTH;
+
+    output.writeInt( MAGIC );
+    output.writeInt( VERSION );
+
+    for( Integer index : order )
+      {
+      byte[] key = keys.get( index );
+      byte[] value = values.get( index );
+
+      if( previous == null || compare( previous, key ) != 0 )
+        offsets[ keyCount++ ] = position;
+
+      output.writeInt( key.length );
+      output.write( key );
+      output.writeInt( value.length );
+      output.write( value );
+
+      position += 8 + key.length + value.length;
+      previous = key;
+      }
+
+    for( int i = 0; i < keyCount; i++ )
+      output.writeLong( offsets[ i ] );
+
+    output.writeLong( position );
+    output.writeInt( keyCount );
+    output.writeLong( order.length );
+    output.writeInt( partition );
+    output.writeInt( numPartitions );
+    output.writeInt( MAGIC );
+    }
+
+  /**
+   * Method map returns a read only memory mapped buffer over the given local file.
+   *
+   * @param file of type File
+   * @return ByteBuffer
+   * @throws IOException when the file cannot be mapped
+   */
+  public static ByteBuffer map( File file ) throws IOException
+    {
+    try( RandomAccessFile randomAccessFile = new RandomAccessFile( file, "r" ); FileChannel channel = randomAccessFile.getChannel() )
+      {
+      long size = verifySize( file.toString(), channel.size() );
+
+      return channel.map( FileChannel.MapMode.READ_ONLY, 0, size );
+      }
+    }
+
+  /**
+   * Method read returns a heap buffer holding the given file, used when the file is not local to the current node.
+   *
+   * @param fileSystem of type FileSystem
+   * @param path       of type Path
+   * @return ByteBuffer
+   * @throws IOException when the file cannot be read
+   */
+  public static ByteBuffer read( FileSystem fileSystem, Path path ) throws IOException
+    {
+    long size = verifySize( path.toString(), fileSystem.getFileStatus( path ).getLen() );
+    byte[] bytes = new byte[ (int) size ];
+
+    try( FSDataInputStream input = fileSystem.open( path ) )
+      {
+      IOUtils.readFully( input, bytes, 0, bytes.length );
+      }
+
+    return ByteBuffer.wrap( bytes );
+    }
+
+  private static long verifySize( String name, long size ) throws IOException
+    {
+    if( size > Integer.MAX_VALUE )
+      throw new IOException( "join index file too large to map: " + name + ", size: " + size );
+
+    if( size < HEADER_LENGTH + TRAILER_LENGTH )
+      throw new IOException( "not a join index file: " + name + ", size: " + size );
+
+    return size;
+    }
+
+  /**
+   * Method compare compares the given keys by their unsigned byte order.
+   *
+   * @param lhs of type byte[]
+   * @param rhs of type byte[]
+   * @return int
+   */
+  public static int compare( byte[] lhs, byte[] rhs )
+    {
+    return WritableComparator.compareBytes( lhs, 0, lhs.length, rhs, 0, rhs.length );
+    }
+
+  /**
+   * Constructor JoinIndexFile creates a new JoinIndexFile instance over the given buffer.
+   *
+   * @param buffer of type ByteBuffer
+   * @throws IOException when the buffer does not hold a join index file
+   */
+  public JoinIndexFile( ByteBuffer buffer ) throws IOException
+    {
+    this.buffer = buffer;
+
+    int trailer = buffer.limit() - TRAILER_LENGTH;
+
+    if( buffer.getInt( 0 ) != MAGIC || buffer.getInt( trailer + 28 ) != MAGIC )
+      throw new IOException( "not a join index file, magic number not found" );
+
+    if( buffer.getInt( 4 ) != VERSION )
+      throw new IOException( "unsupported join index file version: " + buffer.getInt( 4 ) );
+
+    this.indexOffset = (int) buffer.getLong( trailer );
+    this.keyCount = buffer.getInt( trailer + 8 );
+    this.recordCount = buffer.getLong( trailer + 12 );
+    this.partition = buffer.getInt( trailer + 20 );
+    this.numPartitions = buffer.getInt( trailer + 24 );
+    }
+
+  public int getKeyCount()
+    {
+    return keyCount;
+    }
+
+  public long getRecordCount()
+    {
+    return recordCount;
+    }
+
+  public int getPartition()
+    {
+    return partition;
+    }
+
+  public int getNumPartitions()
+    {
+    return numPartitions;
+    }
+
+  /**
+   * Method isPartitioned returns true if every key in this file hashes to {@link #getPartition()}.
+   *
+   * @return boolean
+   */
+  public boolean isPartitioned()
+    {
+    return partition >= 0 && numPartitions > 0;
+    }
+
+  /**
+   * Method lookup adds the values of all records with the given key to the given list, and returns the number
+   * of values found.
+   *
+   * @param key    of type byte[]
+   * @param values of type List
+   * @return int
+   */
+  public int lookup( byte[] key, List<byte[]> values )
+    {
+    int low = 0;
+    int high = keyCount - 1;
+
+    while( low <= high )
+      {
+      int mid = ( low + high ) >>> 1;
+      int position = (int) buffer.getLong( indexOffset + mid * 8 );
+      int result = compareAt( position, key );
+
+      if( result < 0 )
+        low = mid + 1;
+      else if( result > 0 )
+        high = mid - 1;
+      else
+        return readValues( position, key, values );
+      }
+
+    return 0;
+    }
+
+  private int readValues( int position, byte[] key, List<byte[]> values )
+    {
+    int found = 0;
+
+    while( position < indexOffset && compareAt( position, key ) == 0 )
+      {
+      int valueOffset = position + 4 + key.length;
+      byte[] value = new byte[ buffer.getInt( valueOffset ) ];
+
+      copy( valueOffset + 4, value );
+      values.add( value );
+      found++;
+
+      position = valueOffset + 4 + value.length;
+      }
+
+    return found;
+    }
+
+  private int compareAt( int position, byte[] key )
+    {
+    int length = buffer.getInt( position );
+    int limit = Math.min( length, key.length );
+
+    position += 4;
+
+    for( int i = 0; i < limit; i++ )
+      {
+      int result = ( buffer.get( position + i ) & 0xff ) - ( key[ i ] & 0xff );
+
+      if( result != 0 )
+        return result;
+      }
+
+    return length - key.length;
+    }
+
+  private void copy( int position, byte[] bytes )
+    {
+    ByteBuffer duplicate = buffer.duplicate(); // position is not thread safe
+
+    duplicate.position( position );
+    duplicate.get( bytes );
+    }
+
+  @Override
+  public String toString()
+    {
+    return "JoinIndexFile{keyCount=" + keyCount + ", recordCount=" + recordCount + ", partition=" + partition + ", numPartitions=" + numPartitions + ", length=" + buffer.limit() + '}';
+    }
+  }
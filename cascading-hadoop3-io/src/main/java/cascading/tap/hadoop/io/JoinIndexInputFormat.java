@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop.io;
+
+import java.io.IOException;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.TupleSerialization;
+import cascading.tuple.hadoop.io.HadoopTupleInputStream;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+
+/**
+ * Class JoinIndexInputFormat sequentially reads every record of a {@link JoinIndexFile} written by
+ * {@link JoinIndexOutputFormat}, in key order. Files are never split.
+ */
+public class JoinIndexInputFormat extends FileInputFormat<Tuple, Tuple>
+  {
+  @Override
+  protected boolean isSplitable( FileSystem fs, Path filename )
+    {
+    return false;
+    }
+
+  @Override
+  public RecordReader<Tuple, Tuple> getRecordReader( InputSplit split, JobConf job, Reporter reporter ) throws IOException
+    {
+    reporter.setStatus( split.toString() );
+
+    return new JoinIndexRecordReader( job, (FileSplit) split );
+    }
+
+  static class JoinIndexRecordReader implements RecordReader<Tuple, Tuple>
+    {
+    private final FSDataInputStream stream;
+    private final long end;
+    private final DataInputBuffer buffer = new DataInputBuffer();
+    private final HadoopTupleInputStream input;
+    private byte[] bytes = new byte[ 1024 ];
+    private long position;
+
+    JoinIndexRecordReader( JobConf job, FileSplit split ) throws IOException
+      {
+      Path path = split.getPath();
+      FileSystem fileSystem = path.getFileSystem( job );
+      long length = fileSystem.getFileStatus( path ).getLen();
+
+      this.stream = fileSystem.open( path );
+      this.input = new HadoopTupleInputStream( buffer, new TupleSerialization( job ).getElementReader() );
+
+      if( length < JoinIndexFile.HEADER_LENGTH + JoinIndexFile.TRAILER_LENGTH || stream.readInt() != JoinIndexFile.MAGIC )
+        {
+        stream.close();
+        throw new IOException( "not a join index file: " + path );
+        }
+
+      stream.seek( length - JoinIndexFile.TRAILER_LENGTH );
+
+      this.end = stream.readLong();
+      this.position = JoinIndexFile.HEADER_LENGTH;
+
+      stream.seek( position );
+      }
+
+    @Override
+    public boolean next( Tuple key, Tuple value ) throws IOException
+      {
+      if( position >= end )
+        return false;
+
+      read( key );
+      read( value );
+
+      return true;
+      }
+
+    private void read( Tuple tuple ) throws IOException
+      {
+      int length = stream.readInt();
+
+      if( bytes.length < length )
+        bytes = new byte[ length ];
+
+      IOUtils.readFully( stream, bytes, 0, length );
+      buffer.reset( bytes, length );
+      position += 4 + length;
+
+      input.readTuple( tuple );
+      }
+
+    @Override
+    public Tuple createKey()
+      {
+      return new Tuple();
+      }
+
+    @Override
+    public Tuple createValue()
+      {
+      return new Tuple();
+      }
+
+    @Override
+    public long getPos()
+      {
+      return position;
+      }
+
+    @Override
+    public float getProgress()
+      {
+      return end == 0 ? 1.0f : Math.min( 1.0f, position / (float) end );
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      stream.close();
+      }
+    }
+  }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.TupleSerialization;
+import cascading.tuple.hadoop.io.HadoopTupleOutputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.mapred.FileOutputFormat;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordWriter;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.util.Progressable;
+
+/**
+ * Class JoinIndexOutputFormat writes each task output as a single {@link JoinIndexFile}, where the key of each
+ * collected pair is the join key and the value is the full Tuple.
+ * <p>
+ * All collected pairs are retained in memory, in serialized form, until the task completes so they may be sorted.
+ * The size of a single task output is bounded by the task heap, increase the number of writing tasks for larger
+ * indexes.
+ * <p>
+ * If every key collected by a task hashes to the partition of that task, as it will after a GroupBy on the key,
+ * the written file declares the partition so that lookups only search the files holding the partition of the key.
+ */
+public class JoinIndexOutputFormat extends FileOutputFormat<Tuple, Tuple>
+  {
+  @Override
+  public RecordWriter<Tuple, Tuple> getRecordWriter( FileSystem ignored, JobConf job, String name, Progressable progress ) throws IOException
+    {
+    Path file = FileOutputFormat.getTaskOutputPath( job, name );
+    FileSystem fileSystem = file.getFileSystem( job );
+
+    int partition = job.getInt( "mapreduce.task.partition", job.getInt( "mapred.task.partition", -1 ) );
+
+    return new JoinIndexRecordWriter( fileSystem, file, new TupleSerialization( job ), progress, partition, job.getNumReduceTasks() );
+    }
+
+  static class JoinIndexRecordWriter implements RecordWriter<Tuple, Tuple>
+    {
+    private final FileSystem fileSystem;
+    private final Path file;
+    private final Progressable progress;
+    private final DataOutputBuffer buffer = new DataOutputBuffer();
+    private final HadoopTupleOutputStream output;
+    private final List<byte[]> keys = new ArrayList<>();
+    private final List<byte[]> values = new ArrayList<>();
+    private final int numPartitions;
+    private int partition;
+
+    JoinIndexRecordWriter( FileSystem fileSystem, Path file, TupleSerialization serialization, Progressable progress, int partition, int numPartitions )
+      {
+      this.fileSystem = fileSystem;
+      this.file = file;
+      this.progress = progress;
+      this.output = new HadoopTupleOutputStream( buffer, serialization.getElementWriter() );
+      this.partition = partition < numPartitions ? partition : -1;
+      this.numPartitions = numPartitions;
+      }
+
+    @Override
+    public void write( Tuple key, Tuple value ) throws IOException
+      {
+      if( partition != -1 && JoinIndexFile.getPartition( key, numPartitions ) != partition )
+        partition = -1;
+
+      keys.add( serialize( key ) );
+      values.add( serialize( value ) );
+      }
+
+    private byte[] serialize( Tuple tuple ) throws IOException
+      {
+      buffer.reset();
+      output.writeTuple( tuple );
+      output.flush();
+
+      return Arrays.copyOf( buffer.getData(), buffer.getLength() );
+      }
+
+    @Override
+    public void close( Reporter reporter ) throws IOException
+      {
+      try( FSDataOutputStream stream = fileSystem.create( file, progress ) )
+        {
+        JoinIndexFile.write( stream, keys, values, partition, partition == -1 ? 0 : numPartitions );
+        }
+
+      keys.clear();
+      values.clear();
+      }
+    }
+  }
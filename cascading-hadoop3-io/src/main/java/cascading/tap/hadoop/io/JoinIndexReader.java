@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.coerce.Coercions;
+import cascading.tuple.hadoop.TupleSerialization;
+import cascading.tuple.hadoop.io.HadoopTupleInputStream;
+import cascading.tuple.hadoop.io.HadoopTupleOutputStream;
+import cascading.tuple.type.CoercibleType;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+
+/**
+ * Class JoinIndexReader returns all the Tuples with a given key across a set of {@link JoinIndexFile} instances,
+ * typically all the part files written by a single {@link JoinIndexOutputFormat} job.
+ * <p>
+ * Keys are matched by their serialized form, so the key values being looked up must be of the same types as
+ * the values written. If the given key fields declare types, the key values are coerced to those types
+ * before being written and before being looked up.
+ * <p>
+ * If every partitioned file declares the same number of partitions, a lookup only searches the files declaring the
+ * partition of the key, along with any files not partitioned by their key. Otherwise every file is searched, skipping
+ * those partitioned files that cannot hold the key.
+ * <p>
+ * This class is not thread safe.
+ */
+public class JoinIndexReader
+  {
+  private final List<JoinIndexFile> files;
+  private final CoercibleType[] keyTypes;
+  private final DataOutputBuffer outputBuffer = new DataOutputBuffer();
+  private final HadoopTupleOutputStream output;
+  private final DataInputBuffer inputBuffer = new DataInputBuffer();
+  private final HadoopTupleInputStream input;
+  private final List<byte[]> values = new ArrayList<>();
+  private final int numPartitions;
+  private final JoinIndexFile[][] routes;
+  private long probeCount;
+
+  /**
+   * Method coerceKey returns the given key with each value coerced to the given types, if any.
+   *
+   * @param keyTypes of type CoercibleType[], may be null
+   * @param key      of type Tuple
+   * @return Tuple
+   */
+  public static Tuple coerceKey( CoercibleType[] keyTypes, Tuple key )
+    {
+    if( keyTypes == null )
+      return key;
+
+    Tuple result = Tuple.size( keyTypes.length );
+
+    for( int i = 0; i < keyTypes.length; i++ )
+      result.set( i, keyTypes[ i ].canonical( key.getObject( i ) ) );
+
+    return result;
+    }
+
+  /**
+   * Method getKeyTypes returns the types the key values will be coerced to, or null if the key fields are not typed.
+   *
+   * @param keyFields of type Fields
+   * @return CoercibleType[]
+   */
+  public static CoercibleType[] getKeyTypes( Fields keyFields )
+    {
+    return keyFields.hasTypes() ? Coercions.coercibleArray( keyFields ) : null;
+    }
+
+  /**
+   * Constructor JoinIndexReader creates a new JoinIndexReader instance.
+   *
+   * @param conf      of type Configuration
+   * @param keyFields of type Fields
+   * @param files     of type List
+   */
+  public JoinIndexReader( Configuration conf, Fields keyFields, List<JoinIndexFile> files )
+    {
+    TupleSerialization serialization = new TupleSerialization( conf );
+
+    this.files = files;
+    this.keyTypes = getKeyTypes( keyFields );
+    this.output = new HadoopTupleOutputStream( outputBuffer, serialization.getElementWriter() );
+    this.input = new HadoopTupleInputStream( inputBuffer, serialization.getElementReader() );
+    this.numPartitions = getNumPartitions( files );
+    this.routes = numPartitions == -1 ? null : createRoutes( files, numPartitions );
+    }
+
+  private static int getNumPartitions( List<JoinIndexFile> files )
+    {
+    int numPartitions = -1;
+
+    for( JoinIndexFile file : files )
+      {
+      if( !file.isPartitioned() )
+        continue;
+
+      if( numPartitions != -1 && numPartitions != file.getNumPartitions() )
+        return -1;
+
+      numPartitions = file.getNumPartitions();
+      }
+
+    return numPartitions;
+    }
+
+  private static JoinIndexFile[][] createRoutes( List<JoinIndexFile> files, int numPartitions )
+    {
+    JoinIndexFile[][] routes = new JoinIndexFile[ numPartitions ][];
+
+    for( int partition = 0; partition < numPartitions; partition++ )
+      {
+      List<JoinIndexFile> route = new ArrayList<>();
+
+      for( JoinIndexFile file : files )
+        {
+        if( !file.isPartitioned() || file.getPartition() == partition )
+          route.add( file );
+        }
+
+      routes[ partition ] = route.toArray( new JoinIndexFile[ 0 ] );
+      }
+
+    return routes;
+    }
+
+  public List<JoinIndexFile> getFiles()
+    {
+    return Collections.unmodifiableList( files );
+    }
+
+  /**
+   * Method getProbeCount returns the number of files searched by all lookups so far.
+   *
+   * @return long
+   */
+  public long getProbeCount()
+    {
+    return probeCount;
+    }
+
+  /**
+   * Method getRecordCount returns the total number of records across all files.
+   *
+   * @return long
+   */
+  public long getRecordCount()
+    {
+    long count = 0;
+
+    for( JoinIndexFile file : files )
+      count += file.getRecordCount();
+
+    return count;
+    }
+
+  /**
+   * Method lookup returns a new List of all the Tuples written with the given key, in file order.
+   *
+   * @param key of type Tuple
+   * @return List
+   * @throws IOException when the key cannot be serialized or a value cannot be read
+   */
+  public List<Tuple> lookup( Tuple key ) throws IOException
+    {
+    outputBuffer.reset();
+    Tuple coerced = coerceKey( keyTypes, key );
+
+    output.writeTuple( coerced );
+    output.flush();
+
+    byte[] bytes = new byte[ outputBuffer.getLength() ];
+
+    System.arraycopy( outputBuffer.getData(), 0, bytes, 0, bytes.length );
+
+    values.clear();
+
+    if( routes != null )
+      {
+      for( JoinIndexFile file : routes[ JoinIndexFile.getPartition( coerced, numPartitions ) ] )
+        probe( file, bytes );
+      }
+    else
+      {
+      for( JoinIndexFile file : files )
+        {
+        if( !file.isPartitioned() || file.getPartition() == JoinIndexFile.getPartition( coerced, file.getNumPartitions() ) )
+          probe( file, bytes );
+        }
+      }
+
+    if( values.isEmpty() )
+      return Collections.emptyList();
+
+    List<Tuple> result = new ArrayList<>( values.size() );
+
+    for( byte[] value : values )
+      {
+      inputBuffer.reset( value, value.length );
+      result.add( input.readTuple() );
+      }
+
+    return result;
+    }
+
+  private void probe( JoinIndexFile file, byte[] key )
+    {
+    probeCount++;
+    file.lookup( key, values );
+    }
+  }
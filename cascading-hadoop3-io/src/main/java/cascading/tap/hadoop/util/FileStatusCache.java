@@ -0,0 +1,636 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowListener;
+import cascading.stats.FlowStats;
+import cascading.tap.hadoop.HfsProps;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class FileStatusCache retains the results of {@link FileSystem#globStatus(Path)},
+ * {@link FileSystem#getFileStatus(Path)} and {@link FileSystem#listStatus(Path)} calls made by
+ * {@link cascading.tap.hadoop.Hfs} and {@link cascading.tap.hadoop.GlobHfs} while a {@link Flow} is being planned,
+ * verified, and checked for staleness.
+ * <p>
+ * The cache is enabled by {@link HfsProps#setUseMetadataCache(boolean)}. A cache is scoped to a single Flow, or
+ * to the parent {@link cascading.cascade.Cascade} once the Flow has been added to one, and is discarded when every
+ * Flow in the scope has been stopped or has completed. Only a weak reference to each Flow is retained, so the scope
+ * of a Flow that is planned but never run is discarded once the Flow is no longer referenced. Calls made with a
+ * {@link Configuration} not belonging to an open scope, for example in the cluster or after the Flow has completed,
+ * are passed directly to the FileSystem.
+ * <p>
+ * When the scope of a Flow is closed, the calls it made and the calls answered without the FileSystem are logged and
+ * incremented as {@link Metadata} counters on the {@link cascading.stats.FlowStats} of the Flow, see
+ * {@link cascading.stats.FlowStats#incrementClientCounter(Enum, long)}, as the calls are made on the client and
+ * not within any step.
+ * <p>
+ * Any path written to or deleted by a Tap, and all its parents and children, are removed from every cache,
+ * see {@link #invalidate(String)}. Changes made outside of Cascading while a Flow is running will not be observed.
+ * <p>
+ * Independent of the cache, directories are listed concurrently on a shared bounded pool, see
+ * {@link HfsProps#setMetadataListingThreads(int)}.
+ */
+public class FileStatusCache
+  {
+  /** Field LOG */
+  private static final Logger LOG = LoggerFactory.getLogger( FileStatusCache.class );
+
+  /** Field CASCADE_ID */
+  static final String CASCADE_ID = "cascading.cascade.id";
+  /** Field DEFAULT_LISTING_THREADS */
+  public static final int DEFAULT_LISTING_THREADS = 8;
+
+  public enum Metadata
+    {
+      Requests,
+      Calls_Saved
+    }
+
+  /** Field flowScopes, the open scope of each flow id */
+  private static final Map<String, Scope> flowScopes = new HashMap<>();
+  /** Field caches */
+  private static final Map<String, FileStatusCache> caches = new HashMap<>();
+  /** Field listingPool */
+  private static ExecutorService listingPool;
+
+  /** Field scopeID */
+  private final String scopeID;
+  /** Field statuses */
+  private final Map<String, FileStatus> statuses = new ConcurrentHashMap<>();
+  /** Field missing */
+  private final Set<String> missing = ConcurrentHashMap.newKeySet();
+  /** Field listings */
+  private final Map<String, FileStatus[]> listings = new ConcurrentHashMap<>();
+  /** Field globs */
+  private final Map<String, FileStatus[]> globs = new ConcurrentHashMap<>();
+  /** Field requests */
+  private final AtomicLong requests = new AtomicLong();
+  /** Field saved */
+  private final AtomicLong saved = new AtomicLong();
+
+  /** Class Scope holds the cache scope ids an open flow is a member of, and the calls made by the flow. */
+  private static class Scope
+    {
+    /** Field flowID */
+    final String flowID;
+    /** Field flow, null if opened by id */
+    final WeakReference<Flow<?>> flow;
+    /** Field scopeIDs */
+    final Set<String> scopeIDs = new HashSet<>();
+    /** Field requests */
+    final AtomicLong requests = new AtomicLong();
+    /** Field saved */
+    final AtomicLong saved = new AtomicLong();
+
+    Scope( String flowID, Flow<?> flow )
+      {
+      this.flowID = flowID;
+      this.flow = flow == null ? null : new WeakReference<>( flow );
+      }
+
+    boolean isCollected()
+      {
+      return flow != null && flow.get() == null;
+      }
+    }
+
+  /** Class ScopeListener closes the scope of the given Flow when it is stopped or completes. */
+  static class ScopeListener implements FlowListener
+    {
+    @Override
+    public void onStarting( Flow flow )
+      {
+      }
+
+    @Override
+    public void onStopping( Flow flow )
+      {
+      close( flow );
+      }
+
+    @Override
+    public void onCompleted( Flow flow )
+      {
+      close( flow );
+      }
+
+    @Override
+    public boolean onThrowable( Flow flow, Throwable throwable )
+      {
+      return false;
+      }
+    }
+
+  /**
+   * Method isEnabled returns true if the metadata cache is enabled in the given configuration.
+   *
+   * @param conf of type Configuration
+   * @return boolean
+   */
+  public static boolean isEnabled( Configuration conf )
+    {
+    return conf != null && conf.getBoolean( HfsProps.METADATA_CACHE_ENABLED, false );
+    }
+
+  /**
+   * Method register opens a cache scope for the given Flow, if enabled, to be closed when the Flow is stopped or
+   * completes. Registering the same Flow more than once is a no-op.
+   *
+   * @param flow of type Flow
+   */
+  public static void register( Flow<?> flow )
+    {
+    if( !( flow.getConfig() instanceof Configuration ) || !isEnabled( (Configuration) flow.getConfig() ) )
+      return;
+
+    if( open( flow.getID(), flow ) )
+      flow.addListener( new ScopeListener() );
+    }
+
+  /**
+   * Method open opens a cache scope for the given flow id, to be closed by calling {@link #close(String)}.
+   *
+   * @param flowID of type String
+   * @return true if not already open
+   */
+  public static boolean open( String flowID )
+    {
+    return open( flowID, null );
+    }
+
+  private static synchronized boolean open( String flowID, Flow<?> flow )
+    {
+    expunge();
+
+    if( flowScopes.containsKey( flowID ) )
+      return false;
+
+    flowScopes.put( flowID, new Scope( flowID, flow ) );
+
+    return true;
+    }
+
+  /**
+   * Method close closes the cache scope of the given Flow and increments the {@link Metadata} counters on the
+   * FlowStats of the Flow. Any cache no longer referenced by an open flow is discarded.
+   *
+   * @param flow of type Flow
+   */
+  public static void close( Flow<?> flow )
+    {
+    Scope scope = closeScope( flow.getID() );
+
+    if( scope == null )
+      return;
+
+    FlowStats flowStats = flow.getFlowStats();
+
+    flowStats.incrementClientCounter( Metadata.Requests, scope.requests.get() );
+    flowStats.incrementClientCounter( Metadata.Calls_Saved, scope.saved.get() );
+    }
+
+  /**
+   * Method close closes the cache scope of the given flow id. Any cache no longer referenced by an open
+   * flow is discarded.
+   *
+   * @param flowID of type String
+   */
+  public static void close( String flowID )
+    {
+    closeScope( flowID );
+    }
+
+  private static synchronized Scope closeScope( String flowID )
+    {
+    Scope scope = flowScopes.remove( flowID );
+
+    if( scope == null )
+      return null;
+
+    LOG.info( "metadata cache for flow: {}, saved {} of {} file system calls", flowID, scope.saved, scope.requests );
+
+    for( String scopeID : scope.scopeIDs )
+      {
+      boolean referenced = false;
+
+      for( Scope openScope : flowScopes.values() )
+        referenced |= openScope.scopeIDs.contains( scopeID );
+
+      if( referenced )
+        continue;
+
+      FileStatusCache cache = caches.remove( scopeID );
+
+      if( cache != null )
+        LOG.info( "metadata cache for: {}, saved {} of {} file system calls", scopeID, cache.getSaved(), cache.getRequests() );
+      }
+
+    return scope;
+    }
+
+  /** Method expunge closes the scope of any flow no longer referenced, as it will never be stopped or completed. */
+  private static synchronized void expunge()
+    {
+    List<String> flowIDs = new ArrayList<>();
+
+    for( Scope scope : flowScopes.values() )
+      {
+      if( scope.isCollected() )
+        flowIDs.add( scope.flowID );
+      }
+
+    for( String flowID : flowIDs )
+      closeScope( flowID );
+    }
+
+  /**
+   * Method getCache returns the cache for the scope of the given configuration, or null if none is open.
+   *
+   * @param conf of type Configuration
+   * @return FileStatusCache
+   */
+  public static synchronized FileStatusCache getCache( Configuration conf )
+    {
+    Scope scope = getScope( conf );
+
+    return scope == null ? null : getCache( scope, conf );
+    }
+
+  private static synchronized Scope getScope( Configuration conf )
+    {
+    if( flowScopes.isEmpty() || conf == null )
+      return null;
+
+    expunge();
+
+    String flowID = conf.get( Flow.CASCADING_FLOW_ID );
+
+    return flowID == null ? null : flowScopes.get( flowID );
+    }
+
+  private static synchronized FileStatusCache getCache( Scope scope, Configuration conf )
+    {
+    String scopeID = conf.get( CASCADE_ID, scope.flowID );
+
+    scope.scopeIDs.add( scopeID );
+
+    return caches.computeIfAbsent( scopeID, FileStatusCache::new );
+    }
+
+  /**
+   * Method invalidate removes the given fully qualified path, its parents, and its children from all caches.
+   *
+   * @param qualifiedPath of type String
+   */
+  public static synchronized void invalidate( String qualifiedPath )
+    {
+    for( FileStatusCache cache : caches.values() )
+      cache.remove( qualifiedPath );
+    }
+
+  /**
+   * Method isActive returns true if any cache scope is open.
+   *
+   * @return boolean
+   */
+  public static synchronized boolean isActive()
+    {
+    return !flowScopes.isEmpty();
+    }
+
+  public static FileStatus[] globStatus( Configuration conf, FileSystem fileSystem, Path path ) throws IOException
+    {
+    return globStatus( conf, fileSystem, path, null );
+    }
+
+  /**
+   * Method globStatus returns the statuses matching the given glob path and optional filter, see
+   * {@link FileSystem#globStatus(Path, PathFilter)}.
+   *
+   * @param conf       of type Configuration
+   * @param fileSystem of type FileSystem
+   * @param path       of type Path
+   * @param filter     of type PathFilter, may be null
+   * @return FileStatus[], null or empty if no match
+   * @throws IOException when
+   */
+  public static FileStatus[] globStatus( Configuration conf, FileSystem fileSystem, Path path, PathFilter filter ) throws IOException
+    {
+    Scope scope = getScope( conf );
+
+    if( scope == null )
+      return filter == null ? fileSystem.globStatus( path ) : fileSystem.globStatus( path, filter );
+
+    FileStatusCache cache = getCache( scope, conf );
+    FileStatus[] result = cache.lookup( scope, cache.globs, fileSystem.makeQualified( path ).toString(), () ->
+      {
+      FileStatus[] statuses = fileSystem.globStatus( path );
+
+      return statuses == null ? new FileStatus[ 0 ] : statuses;
+      } );
+
+    return filter( result, filter );
+    }
+
+  /**
+   * Method getFileStatus returns the status of the given path, see {@link FileSystem#getFileStatus(Path)}.
+   *
+   * @param conf       of type Configuration
+   * @param fileSystem of type FileSystem
+   * @param path       of type Path
+   * @return FileStatus
+   * @throws IOException when the path does not exist
+   */
+  public static FileStatus getFileStatus( Configuration conf, FileSystem fileSystem, Path path ) throws IOException
+    {
+    Scope scope = getScope( conf );
+
+    if( scope == null )
+      return fileSystem.getFileStatus( path );
+
+    FileStatusCache cache = getCache( scope, conf );
+    String key = fileSystem.makeQualified( path ).toString();
+
+    cache.requests.incrementAndGet();
+    scope.requests.incrementAndGet();
+
+    FileStatus status = cache.statuses.get( key );
+
+    if( status == null && !cache.missing.contains( key ) )
+      {
+      try
+        {
+        status = fileSystem.getFileStatus( path );
+        cache.statuses.put( key, status );
+        }
+      catch( FileNotFoundException exception )
+        {
+        cache.missing.add( key );
+        throw exception;
+        }
+
+      return status;
+      }
+
+    cache.saved.incrementAndGet();
+    scope.saved.incrementAndGet();
+
+    if( status == null )
+      throw new FileNotFoundException( "file does not exist: " + key );
+
+    return status;
+    }
+
+  /**
+   * Method listStatus returns the statuses of the children of the given path accepted by the optional filter,
+   * see {@link FileSystem#listStatus(Path, PathFilter)}.
+   *
+   * @param conf       of type Configuration
+   * @param fileSystem of type FileSystem
+   * @param path       of type Path
+   * @param filter     of type PathFilter, may be null
+   * @return FileStatus[]
+   * @throws IOException when
+   */
+  public static FileStatus[] listStatus( Configuration conf, FileSystem fileSystem, Path path, PathFilter filter ) throws IOException
+    {
+    Scope scope = getScope( conf );
+
+    if( scope == null )
+      return filter == null ? fileSystem.listStatus( path ) : fileSystem.listStatus( path, filter );
+
+    FileStatusCache cache = getCache( scope, conf );
+    FileStatus[] result = cache.lookup( scope, cache.listings, fileSystem.makeQualified( path ).toString(), () -> fileSystem.listStatus( path ) );
+
+    return filter( result, filter );
+    }
+
+  /**
+   * Method listStatus lists all the given paths concurrently, returning the results in the same order as the
+   * given paths.
+   *
+   * @param conf       of type Configuration
+   * @param fileSystem of type FileSystem
+   * @param paths      of type List
+   * @param filter     of type PathFilter, may be null
+   * @return List
+   * @throws IOException when
+   */
+  public static List<FileStatus[]> listStatus( Configuration conf, FileSystem fileSystem, List<Path> paths, PathFilter filter ) throws IOException
+    {
+    List<Callable<FileStatus[]>> calls = new ArrayList<>( paths.size() );
+
+    for( Path path : paths )
+      calls.add( () -> listStatus( conf, fileSystem, path, filter ) );
+
+    return invokeAll( conf, calls );
+    }
+
+  /**
+   * Method invokeAll executes the given calls on the shared listing pool, returning the results in the same
+   * order as the given calls. A single call is executed on the current thread.
+   *
+   * @param conf  of type Configuration
+   * @param calls of type List
+   * @return List
+   * @throws IOException when any call fails
+   */
+  public static <T> List<T> invokeAll( Configuration conf, List<Callable<T>> calls ) throws IOException
+    {
+    List<T> results = new ArrayList<>( calls.size() );
+    ExecutorService pool = calls.size() < 2 ? null : getListingPool( conf );
+
+    try
+      {
+      if( pool == null )
+        {
+        for( Callable<T> call : calls )
+          results.add( call.call() );
+
+        return results;
+        }
+
+      for( Future<T> future : pool.invokeAll( calls ) )
+        results.add( future.get() );
+
+      return results;
+      }
+    catch( ExecutionException exception )
+      {
+      if( exception.getCause() instanceof IOException )
+        throw (IOException) exception.getCause();
+
+      throw new IOException( "unable to list paths", exception.getCause() );
+      }
+    catch( InterruptedException exception )
+      {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "interrupted while listing paths" );
+      }
+    catch( IOException | RuntimeException exception )
+      {
+      throw exception;
+      }
+    catch( Exception exception )
+      {
+      throw new IOException( "unable to list paths", exception );
+      }
+    }
+
+  private static synchronized ExecutorService getListingPool( Configuration conf )
+    {
+    if( listingPool != null )
+      return listingPool;
+
+    int threads = conf == null ? DEFAULT_LISTING_THREADS : conf.getInt( HfsProps.METADATA_LISTING_THREADS, DEFAULT_LISTING_THREADS );
+
+    if( threads < 2 )
+      return null;
+
+    listingPool = Executors.newFixedThreadPool( threads, runnable ->
+      {
+      Thread thread = new Thread( runnable, "hfs-metadata-listing" );
+
+      thread.setDaemon( true );
+
+      return thread;
+      } );
+
+    return listingPool;
+    }
+
+  private static FileStatus[] filter( FileStatus[] statuses, PathFilter filter )
+    {
+    if( filter == null )
+      return statuses.clone();
+
+    List<FileStatus> results = new ArrayList<>( statuses.length );
+
+    for( FileStatus status : statuses )
+      {
+      if( filter.accept( status.getPath() ) )
+        results.add( status );
+      }
+
+    return results.toArray( new FileStatus[ 0 ] );
+    }
+
+  private interface Lookup
+    {
+    FileStatus[] get() throws IOException;
+    }
+
+  FileStatusCache( String scopeID )
+    {
+    this.scopeID = scopeID;
+    }
+
+  public String getScopeID()
+    {
+    return scopeID;
+    }
+
+  /**
+   * Method getRequests returns the number of calls made against this cache.
+   *
+   * @return long
+   */
+  public long getRequests()
+    {
+    return requests.get();
+    }
+
+  /**
+   * Method getSaved returns the number of calls answered by this cache without calling the FileSystem.
+   *
+   * @return long
+   */
+  public long getSaved()
+    {
+    return saved.get();
+    }
+
+  private FileStatus[] lookup( Scope scope, Map<String, FileStatus[]> map, String key, Lookup lookup ) throws IOException
+    {
+    requests.incrementAndGet();
+    scope.requests.incrementAndGet();
+
+    FileStatus[] result = map.get( key );
+
+    if( result != null )
+      {
+      saved.incrementAndGet();
+      scope.saved.incrementAndGet();
+      return result;
+      }
+
+    result = lookup.get();
+
+    map.put( key, result );
+
+    return result;
+    }
+
+  private void remove( String qualifiedPath )
+    {
+    statuses.keySet().removeIf( key -> isRelated( key, qualifiedPath ) );
+    missing.removeIf( key -> isRelated( key, qualifiedPath ) );
+    listings.keySet().removeIf( key -> isRelated( key, qualifiedPath ) );
+    globs.clear(); // patterns may match any path
+    }
+
+  private static boolean isRelated( String key, String path )
+    {
+    return key.equals( path ) || key.startsWith( path + Path.SEPARATOR ) || path.startsWith( key + Path.SEPARATOR );
+    }
+
+  @Override
+  public String toString()
+    {
+    return "FileStatusCache{scopeID='" + scopeID + "', requests=" + requests + ", saved=" + saved + '}';
+    }
+  }
@@ -0,0 +1,617 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cascading.CascadingException;
+import cascading.util.Util;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.io.serializer.Deserializer;
+import org.apache.hadoop.io.serializer.Serialization;
+import org.apache.hadoop.io.serializer.Serializer;
+
+/**
+ * Class PojoSerialization is an implementation of Hadoop's {@link Serialization} interface for user POJO and
+ * record types that do not otherwise have a Hadoop Serialization.
+ * <p>
+ * Instead of writing a class descriptor with every value, as {@link org.apache.hadoop.io.serializer.JavaSerialization}
+ * does, a serializer is generated once per type, in every JVM, from {@link MethodHandle} instances bound to the
+ * fields of the type, and only the field values are written.
+ * <p>
+ * To use, call<br>
+ * {@code TupleSerializationProps.addPojoType(properties, token, MyType.class.getName());}
+ * <p>
+ * Registered types are serialized wherever {@link TupleSerialization} is used, during the shuffle, in spill files,
+ * and by {@link cascading.tuple.hadoop.collect.HadoopSpillableTupleList}. Giving the type a
+ * {@link SerializationToken} prevents the class name from being written with every value.
+ * <p>
+ * All non-static, non-transient fields, including those of any super-class, are written in a fixed order. Records
+ * are written by their components and created through the canonical constructor, all other types must provide
+ * a no-arg constructor, which need not be public.
+ * <p>
+ * Fields may be primitives, their boxed types, {@link String}, {@code byte[]}, an enum, or any other concrete type
+ * meeting the above requirements, which is written the same way. A field holding a sub-class of its declared
+ * type is rejected. Values written and read must be of the same class version.
+ *
+ * @see TupleSerializationProps#addPojoType(java.util.Map, int, String)
+ */
+public class PojoSerialization extends Configured implements Serialization<Object>
+  {
+  /** Field codecs, shared by all instances as the types may not change within a JVM */
+  private static final Map<Class<?>, PojoCodec> codecs = new ConcurrentHashMap<>();
+
+  /** Field types */
+  private Set<String> types;
+
+  enum Kind
+    {
+      BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, BYTES, ENUM, POJO
+    }
+
+  /** Class FieldCodec writes and reads a single field. */
+  static class FieldCodec
+    {
+    final String name;
+    final Class<?> type;
+    final Kind kind;
+    final boolean nullable;
+    final MethodHandle getter;
+    final MethodHandle setter;
+    final Object[] constants;
+    PojoCodec nested;
+
+    FieldCodec( String name, Class<?> type, MethodHandle getter, MethodHandle setter )
+      {
+      this.name = name;
+      this.type = type;
+      this.kind = kindFor( type );
+      this.nullable = !type.isPrimitive();
+      this.getter = getter.asType( MethodType.methodType( nullable ? Object.class : type, Object.class ) );
+      this.setter = setter == null ? null : setter.asType( MethodType.methodType( void.class, Object.class, nullable ? Object.class : type ) );
+      this.constants = type.isEnum() ? type.getEnumConstants() : null;
+      }
+
+    void write( DataOutputStream out, Object instance ) throws Throwable
+      {
+      if( !nullable )
+        {
+        writePrimitive( out, instance );
+        return;
+        }
+
+      Object value = getter.invokeExact( instance );
+
+      out.writeBoolean( value != null );
+
+      if( value != null )
+        writeValue( out, value );
+      }
+
+    private void writePrimitive( DataOutputStream out, Object instance ) throws Throwable
+      {
+      switch( kind )
+        {
+        case BOOLEAN:
+          out.writeBoolean( (boolean) getter.invokeExact( instance ) );
+          break;
+        case BYTE:
+          out.writeByte( (byte) getter.invokeExact( instance ) );
+          break;
+        case SHORT:
+          out.writeShort( (short) getter.invokeExact( instance ) );
+          break;
+        case CHAR:
+          out.writeChar( (char) getter.invokeExact( instance ) );
+          break;
+        case INT:
+          WritableUtils.writeVInt( out, (int) getter.invokeExact( instance ) );
+          break;
+        case LONG:
+          WritableUtils.writeVLong( out, (long) getter.invokeExact( instance ) );
+          break;
+        case FLOAT:
+          out.writeFloat( (float) getter.invokeExact( instance ) );
+          break;
+        case DOUBLE:
+          out.writeDouble( (double) getter.invokeExact( instance ) );
+          break;
+        default:
+          throw new IllegalStateException( "not a primitive kind: " + kind );
+        }
+      }
+
+    private void writeValue( DataOutputStream out, Object value ) throws Throwable
+      {
+      switch( kind )
+        {
+        case BOOLEAN:
+          out.writeBoolean( (Boolean) value );
+          break;
+        case BYTE:
+          out.writeByte( (Byte) value );
+          break;
+        case SHORT:
+          out.writeShort( (Short) value );
+          break;
+        case CHAR:
+          out.writeChar( (Character) value );
+          break;
+        case INT:
+          WritableUtils.writeVInt( out, (Integer) value );
+          break;
+        case LONG:
+          WritableUtils.writeVLong( out, (Long) value );
+          break;
+        case FLOAT:
+          out.writeFloat( (Float) value );
+          break;
+        case DOUBLE:
+          out.writeDouble( (Double) value );
+          break;
+        case STRING:
+          WritableUtils.writeString( out, (String) value );
+          break;
+        case BYTES:
+          WritableUtils.writeVInt( out, ( (byte[]) value ).length );
+          out.write( (byte[]) value );
+          break;
+        case ENUM:
+          WritableUtils.writeVInt( out, ( (Enum) value ).ordinal() );
+          break;
+        case POJO:
+          if( value.getClass() != type )
+            throw new CascadingException( "field: " + name + ", declared as: " + type.getName() + ", may not hold sub-class: " + value.getClass().getName() );
+
+          getNested().write( out, value );
+          break;
+        }
+      }
+
+    void read( DataInputStream in, Object instance ) throws Throwable
+      {
+      if( !nullable )
+        {
+        readPrimitive( in, instance );
+        return;
+        }
+
+      setter.invokeExact( instance, readValue( in ) );
+      }
+
+    private void readPrimitive( DataInputStream in, Object instance ) throws Throwable
+      {
+      switch( kind )
+        {
+        case BOOLEAN:
+          setter.invokeExact( instance, in.readBoolean() );
+          break;
+        case BYTE:
+          setter.invokeExact( instance, in.readByte() );
+          break;
+        case SHORT:
+          setter.invokeExact( instance, in.readShort() );
+          break;
+        case CHAR:
+          setter.invokeExact( instance, in.readChar() );
+          break;
+        case INT:
+          setter.invokeExact( instance, WritableUtils.readVInt( in ) );
+          break;
+        case LONG:
+          setter.invokeExact( instance, WritableUtils.readVLong( in ) );
+          break;
+        case FLOAT:
+          setter.invokeExact( instance, in.readFloat() );
+          break;
+        case DOUBLE:
+          setter.invokeExact( instance, in.readDouble() );
+          break;
+        default:
+          throw new IllegalStateException( "not a primitive kind: " + kind );
+        }
+      }
+
+    Object readValue( DataInputStream in ) throws Throwable
+      {
+      if( nullable && !in.readBoolean() )
+        return null;
+
+      switch( kind )
+        {
+        case BOOLEAN:
+          return in.readBoolean();
+        case BYTE:
+          return in.readByte();
+        case SHORT:
+          return in.readShort();
+        case CHAR:
+          return in.readChar();
+        case INT:
+          return WritableUtils.readVInt( in );
+        case LONG:
+          return WritableUtils.readVLong( in );
+        case FLOAT:
+          return in.readFloat();
+        case DOUBLE:
+          return in.readDouble();
+        case STRING:
+          return WritableUtils.readString( in );
+        case BYTES:
+          byte[] bytes = new byte[ WritableUtils.readVInt( in ) ];
+          in.readFully( bytes );
+          return bytes;
+        case ENUM:
+          return constants[ WritableUtils.readVInt( in ) ];
+        case POJO:
+          return getNested().read( in );
+        default:
+          throw new IllegalStateException( "unknown kind: " + kind );
+        }
+      }
+
+    private PojoCodec getNested()
+      {
+      // resolved lazily so self referencing types may be generated
+      if( nested == null )
+        nested = getCodec( type );
+
+      return nested;
+      }
+    }
+
+  /** Class PojoCodec writes and reads all the fields of a single type. */
+  static class PojoCodec
+    {
+    final Class<?> type;
+    final FieldCodec[] fields;
+    final MethodHandle constructor;
+    final boolean isRecord;
+
+    PojoCodec( Class<?> type )
+      {
+      this.type = type;
+
+      if( type.isInterface() || Modifier.isAbstract( type.getModifiers() ) || type.isEnum() || type.isArray() )
+        throw new CascadingException( "type may not be an interface, abstract, an enum, or an array: " + type.getName() );
+
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+      try
+        {
+        Object[] components = getRecordComponents( type );
+
+        this.isRecord = components != null;
+
+        if( isRecord )
+          {
+          this.fields = new FieldCodec[ components.length ];
+          Class<?>[] componentTypes = new Class[ components.length ];
+
+          for( int i = 0; i < components.length; i++ )
+            {
+            Class<?> componentClass = components[ i ].getClass();
+            String name = (String) componentClass.getMethod( "getName" ).invoke( components[ i ] );
+            Method accessor = (Method) componentClass.getMethod( "getAccessor" ).invoke( components[ i ] );
+
+            accessor.setAccessible( true );
+            componentTypes[ i ] = accessor.getReturnType();
+            fields[ i ] = new FieldCodec( name, componentTypes[ i ], lookup.unreflect( accessor ), null );
+            }
+
+          Constructor<?> canonical = type.getDeclaredConstructor( componentTypes );
+
+          canonical.setAccessible( true );
+
+          this.constructor = lookup.unreflectConstructor( canonical ).asSpreader( Object[].class, components.length ).asType( MethodType.methodType( Object.class, Object[].class ) );
+          }
+        else
+          {
+          List<FieldCodec> fieldCodecs = new ArrayList<>();
+
+          for( Field field : getFields( type ) )
+            {
+            field.setAccessible( true );
+            fieldCodecs.add( new FieldCodec( field.getName(), field.getType(), lookup.unreflectGetter( field ), lookup.unreflectSetter( field ) ) );
+            }
+
+          this.fields = fieldCodecs.toArray( new FieldCodec[ 0 ] );
+
+          Constructor<?> noArg = type.getDeclaredConstructor();
+
+          noArg.setAccessible( true );
+
+          this.constructor = lookup.unreflectConstructor( noArg ).asType( MethodType.methodType( Object.class ) );
+          }
+        }
+      catch( NoSuchMethodException exception )
+        {
+        throw new CascadingException( "type must declare a no-arg constructor: " + type.getName(), exception );
+        }
+      catch( ReflectiveOperationException | RuntimeException exception )
+        {
+        if( exception instanceof CascadingException )
+          throw (CascadingException) exception;
+
+        throw new CascadingException( "unable to generate serializer for type: " + type.getName(), exception );
+        }
+      }
+
+    void write( DataOutputStream out, Object instance ) throws IOException
+      {
+      try
+        {
+        for( FieldCodec field : fields )
+          field.write( out, instance );
+        }
+      catch( IOException | CascadingException exception )
+        {
+        throw exception;
+        }
+      catch( Throwable throwable )
+        {
+        throw new CascadingException( "unable to serialize type: " + type.getName(), throwable );
+        }
+      }
+
+    Object read( DataInputStream in ) throws IOException
+      {
+      try
+        {
+        if( isRecord )
+          {
+          Object[] values = new Object[ fields.length ];
+
+          for( int i = 0; i < fields.length; i++ )
+            values[ i ] = fields[ i ].readValue( in );
+
+          return constructor.invokeExact( values );
+          }
+
+        Object instance = constructor.invokeExact();
+
+        for( FieldCodec field : fields )
+          field.read( in, instance );
+
+        return instance;
+        }
+      catch( IOException | CascadingException exception )
+        {
+        throw exception;
+        }
+      catch( Throwable throwable )
+        {
+        throw new CascadingException( "unable to deserialize type: " + type.getName(), throwable );
+        }
+      }
+    }
+
+  /**
+   * Method getCodec returns the generated codec for the given type, generating it if necessary.
+   *
+   * @param type of type Class
+   * @return PojoCodec
+   */
+  static PojoCodec getCodec( Class<?> type )
+    {
+    PojoCodec codec = codecs.get( type );
+
+    if( codec == null )
+      {
+      codec = new PojoCodec( type );
+      codecs.putIfAbsent( type, codec );
+      }
+
+    return codec;
+    }
+
+  static Kind kindFor( Class<?> type )
+    {
+    if( type == boolean.class || type == Boolean.class )
+      return Kind.BOOLEAN;
+    if( type == byte.class || type == Byte.class )
+      return Kind.BYTE;
+    if( type == short.class || type == Short.class )
+      return Kind.SHORT;
+    if( type == char.class || type == Character.class )
+      return Kind.CHAR;
+    if( type == int.class || type == Integer.class )
+      return Kind.INT;
+    if( type == long.class || type == Long.class )
+      return Kind.LONG;
+    if( type == float.class || type == Float.class )
+      return Kind.FLOAT;
+    if( type == double.class || type == Double.class )
+      return Kind.DOUBLE;
+    if( type == String.class )
+      return Kind.STRING;
+    if( type == byte[].class )
+      return Kind.BYTES;
+    if( type.isEnum() )
+      return Kind.ENUM;
+    if( !type.isArray() && !type.isInterface() && !Modifier.isAbstract( type.getModifiers() ) && !type.getName().startsWith( "java." ) )
+      return Kind.POJO;
+
+    throw new CascadingException( "unsupported field type: " + type.getName() );
+    }
+
+  private static List<Field> getFields( Class<?> type )
+    {
+    List<Field> fields = new ArrayList<>();
+
+    if( type.getSuperclass() != null && type.getSuperclass() != Object.class )
+      fields.addAll( getFields( type.getSuperclass() ) );
+
+    Field[] declared = type.getDeclaredFields();
+
+    // the order of declared fields is not guaranteed
+    Arrays.sort( declared, Comparator.comparing( Field::getName ) );
+
+    for( Field field : declared )
+      {
+      int modifiers = field.getModifiers();
+
+      if( Modifier.isStatic( modifiers ) || Modifier.isTransient( modifiers ) || field.isSynthetic() )
+        continue;
+
+      fields.add( field );
+      }
+
+    return fields;
+    }
+
+  private static Object[] getRecordComponents( Class<?> type ) throws ReflectiveOperationException
+    {
+    // records are only available on Java 16 and later
+    if( type.getSuperclass() == null || !type.getSuperclass().getName().equals( "java.lang.Record" ) )
+      return null;
+
+    return (Object[]) Class.class.getMethod( "getRecordComponents" ).invoke( type );
+    }
+
+  public static class PojoDeserializer implements Deserializer<Object>
+    {
+    private final PojoCodec codec;
+    private DataInputStream in;
+
+    public PojoDeserializer( Class<?> type )
+      {
+      this.codec = getCodec( type );
+      }
+
+    @Override
+    public void open( InputStream in ) throws IOException
+      {
+      if( in instanceof DataInputStream )
+        this.in = (DataInputStream) in;
+      else
+        this.in = new DataInputStream( in );
+      }
+
+    @Override
+    public Object deserialize( Object existing ) throws IOException
+      {
+      return codec.read( in );
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      in.close();
+      }
+    }
+
+  public static class PojoSerializer implements Serializer<Object>
+    {
+    private final PojoCodec codec;
+    private DataOutputStream out;
+
+    public PojoSerializer( Class<?> type )
+      {
+      this.codec = getCodec( type );
+      }
+
+    @Override
+    public void open( OutputStream out ) throws IOException
+      {
+      if( out instanceof DataOutputStream )
+        this.out = (DataOutputStream) out;
+      else
+        this.out = new DataOutputStream( out );
+      }
+
+    @Override
+    public void serialize( Object object ) throws IOException
+      {
+      codec.write( out, object );
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      out.close();
+      }
+    }
+
+  public PojoSerialization()
+    {
+    }
+
+  @Override
+  public void setConf( Configuration conf )
+    {
+    super.setConf( conf );
+
+    types = null;
+    }
+
+  Set<String> getTypes()
+    {
+    if( types == null )
+      {
+      Configuration conf = getConf();
+      String property = conf == null ? null : conf.get( TupleSerializationProps.POJO_TYPES );
+
+      types = new HashSet<>( Util.split( String.class, ",", property == null ? null : property.replaceAll( "\\s", "" ) ) );
+      }
+
+    return types;
+    }
+
+  @Override
+  public boolean accept( Class<?> c )
+    {
+    return getTypes().contains( c.getName() );
+    }
+
+  @Override
+  public Serializer<Object> getSerializer( Class<Object> c )
+    {
+    return new PojoSerializer( c );
+    }
+
+  @Override
+  public Deserializer<Object> getDeserializer( Class<Object> c )
+    {
+    return new PojoDeserializer( c );
+    }
+  }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tuple.hadoop;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Function;
+
+import cascading.util.HyperLogLog;
+import cascading.util.QuantileSketch;
+import cascading.util.TopKSketch;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.io.serializer.Deserializer;
+import org.apache.hadoop.io.serializer.Serialization;
+import org.apache.hadoop.io.serializer.Serializer;
+
+/**
+ * Class SketchSerialization is an implementation of Hadoop's {@link Serialization} interface for use
+ * by the {@link HyperLogLog}, {@link QuantileSketch}, and {@link TopKSketch} instances emitted by the
+ * {@link cascading.pipe.assembly.ApproxCountDistinctBy}, {@link cascading.pipe.assembly.ApproxQuantileBy}, and
+ * {@link cascading.pipe.assembly.ApproxTopKBy} assemblies.
+ * <p>
+ * This serialization is registered by default by {@link TupleSerialization#setSerializations(org.apache.hadoop.conf.Configuration)}.
+ */
+@SerializationToken(
+  tokens = {122, 123, 124},
+  classNames = {"cascading.util.HyperLogLog", "cascading.util.QuantileSketch", "cascading.util.TopKSketch"})
+public class SketchSerialization extends Configured implements Serialization<Object>
+  {
+  public static class SketchDeserializer implements Deserializer<Object>
+    {
+    private final Function<byte[], Object> reader;
+    private DataInputStream in;
+
+    public SketchDeserializer( Function<byte[], Object> reader )
+      {
+      this.reader = reader;
+      }
+
+    @Override
+    public void open( InputStream in ) throws IOException
+      {
+      if( in instanceof DataInputStream )
+        this.in = (DataInputStream) in;
+      else
+        this.in = new DataInputStream( in );
+      }
+
+    @Override
+    public Object deserialize( Object existing ) throws IOException
+      {
+      byte[] bytes = new byte[ in.readInt() ];
+
+      in.readFully( bytes );
+
+      return reader.apply( bytes );
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      in.close();
+      }
+    }
+
+  public static class SketchSerializer implements Serializer<Object>
+    {
+    private final Function<Object, byte[]> writer;
+    private DataOutputStream out;
+
+    public SketchSerializer( Function<Object, byte[]> writer )
+      {
+      this.writer = writer;
+      }
+
+    @Override
+    public void open( OutputStream out ) throws IOException
+      {
+      if( out instanceof DataOutputStream )
+        this.out = (DataOutputStream) out;
+      else
+        this.out = new DataOutputStream( out );
+      }
+
+    @Override
+    public void serialize( Object sketch ) throws IOException
+      {
+      byte[] bytes = writer.apply( sketch );
+
+      out.writeInt( bytes.length );
+      out.write( bytes );
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      out.close();
+      }
+    }
+
+  public SketchSerialization()
+    {
+    }
+
+  @Override
+  public boolean accept( Class<?> c )
+    {
+    return HyperLogLog.class == c || QuantileSketch.class == c || TopKSketch.class == c;
+    }
+
+  @Override
+  public Serializer<Object> getSerializer( Class<Object> c )
+    {
+    if( HyperLogLog.class.equals( c ) )
+      return new SketchSerializer( sketch -> ( (HyperLogLog) sketch ).toBytes() );
+
+    if( QuantileSketch.class.equals( c ) )
+      return new SketchSerializer( sketch -> ( (QuantileSketch) sketch ).toBytes() );
+
+    return new SketchSerializer( sketch -> ( (TopKSketch) sketch ).toBytes() );
+    }
+
+  @Override
+  public Deserializer<Object> getDeserializer( Class<Object> c )
+    {
+    if( HyperLogLog.class.equals( c ) )
+      return new SketchDeserializer( HyperLogLog::fromBytes );
+
+    if( QuantileSketch.class.equals( c ) )
+      return new SketchDeserializer( QuantileSketch::fromBytes );
+
+    return new SketchDeserializer( TopKSketch::fromBytes );
+    }
+  }
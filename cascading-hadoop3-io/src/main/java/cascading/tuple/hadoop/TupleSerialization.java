@@ -90,6 +90,10 @@ import static cascading.tuple.hadoop.TupleSerializationProps.HADOOP_IO_SERIALIZA
  * To add or manipulate Hadoop serializations or Cascading serializations tokens, see
  * {@link TupleSerializationProps} for a fluent property builder class.
  * <p>
+ * Custom POJO and record types without a Hadoop serialization may be registered with
+ * {@link TupleSerializationProps#addPojoType(Map, int, String)} to be written field by field by
+ * {@link PojoSerialization}, instead of by a general purpose serialization.
+ * <p>
  * By default this Serialization interface registers the class {@link org.apache.hadoop.io.ByteWritable} as
  * token 127.
  */
@@ -168,7 +172,19 @@ public class TupleSerialization extends Configured implements Serialization
     list.addFirst( writable );
     list.addFirst( tuple );
 
-    // make writable last
+    // registered pojo types must not be claimed by a general serialization, like JavaSerialization
+    String pojo = PojoSerialization.class.getName();
+
+    if( list.remove( pojo ) )
+      list.add( 2, pojo );
+
+    // required by the sketches emitted by the Approx*By assemblies
+    String sketch = SketchSerialization.class.getName();
+
+    if( !list.contains( sketch ) )
+      list.addLast( sketch );
+
+    // tuple and writable first, then any pojo and provided serializations, with sketch after any provided
     jobConf.set( HADOOP_IO_SERIALIZATIONS, Util.join( list, "," ) );
     }
 
@@ -45,12 +45,14 @@ public class TupleSerializationProps extends Props
   public static final String IGNORE_TYPES = "cascading.serialization.types.ignored";
   public static final String REQUIRE_TYPES = "cascading.serialization.types.required";
   public static final String HADOOP_IO_SERIALIZATIONS = "io.serializations";
+  public static final String POJO_TYPES = "cascading.serialization.pojo.types";
 
   Map<Integer, String> serializationTokens = new LinkedHashMap<Integer, String>();
   List<String> hadoopSerializations = new ArrayList<String>();
   Boolean ignoreTypes;
   Boolean requireTypes;
   Boolean preventBitWiseComparisons;
+  Map<String, Integer> pojoTypes = new LinkedHashMap<String, Integer>();
 
   /**
    * Adds the given token and className pair as a serialization token property. During object serialization and deserialization,
@@ -91,6 +93,39 @@ public class TupleSerializationProps extends Props
     properties.put( HADOOP_IO_SERIALIZATIONS, Util.join( ",", Util.removeNulls( serializations, className ) ) );
     }
 
+  /**
+   * Adds the given className as a type to be serialized field by field by {@link PojoSerialization}, and
+   * adds PojoSerialization as a Hadoop IO serialization class.
+   *
+   * @param properties of type Map
+   * @param className  of type String
+   */
+  public static void addPojoType( Map<Object, Object> properties, String className )
+    {
+    String types = (String) properties.get( POJO_TYPES );
+
+    properties.put( POJO_TYPES, Util.join( ",", Util.removeNulls( types, className ) ) );
+
+    String serializations = (String) properties.get( HADOOP_IO_SERIALIZATIONS );
+
+    if( serializations == null || !serializations.contains( PojoSerialization.class.getName() ) )
+      addSerialization( properties, PojoSerialization.class.getName() );
+    }
+
+  /**
+   * Adds the given className as a type to be serialized field by field by {@link PojoSerialization}, along with the
+   * given serialization token so the className is not written with every value.
+   *
+   * @param properties of type Map
+   * @param token      of type int
+   * @param className  of type String
+   */
+  public static void addPojoType( Map<Object, Object> properties, int token, String className )
+    {
+    addSerializationToken( properties, token, className );
+    addPojoType( properties, className );
+    }
+
   /**
    * Creates a new TupleSerializationProps instance.
    *
@@ -203,6 +238,40 @@ public class TupleSerializationProps extends Props
     return this;
     }
 
+  public Map<String, Integer> getPojoTypes()
+    {
+    return pojoTypes;
+    }
+
+  /**
+   * Method addPojoType adds the given className as a type to be serialized field by field by
+   * {@link PojoSerialization}.
+   *
+   * @param className type String
+   * @return this
+   */
+  public TupleSerializationProps addPojoType( String className )
+    {
+    this.pojoTypes.put( className, null );
+
+    return this;
+    }
+
+  /**
+   * Method addPojoType adds the given className as a type to be serialized field by field by
+   * {@link PojoSerialization}, along with the given serialization token.
+   *
+   * @param token     type int
+   * @param className type String
+   * @return this
+   */
+  public TupleSerializationProps addPojoType( int token, String className )
+    {
+    this.pojoTypes.put( className, token );
+
+    return this;
+    }
+
   public Boolean getIgnoreTypes()
     {
     return ignoreTypes;
@@ -284,6 +353,14 @@ public class TupleSerializationProps extends Props
     for( String hadoopSerialization : hadoopSerializations )
       addSerialization( properties, hadoopSerialization );
 
+    for( Map.Entry<String, Integer> entry : pojoTypes.entrySet() )
+      {
+      if( entry.getValue() == null )
+        addPojoType( properties, entry.getKey() );
+      else
+        addPojoType( properties, entry.getValue(), entry.getKey() );
+      }
+
     if( ignoreTypes != null )
       properties.put( IGNORE_TYPES, ignoreTypes.toString() );
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tuple.hadoop.collect;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import cascading.flow.FlowProcess;
+import cascading.tap.cache.TupleStreamFactory;
+import cascading.tuple.hadoop.TupleSerialization;
+import cascading.tuple.hadoop.io.HadoopTupleInputStream;
+import cascading.tuple.hadoop.io.HadoopTupleOutputStream;
+import cascading.tuple.io.TupleInputStream;
+import cascading.tuple.io.TupleOutputStream;
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Class HadoopTupleStreamFactory creates tuple streams using the {@link TupleSerialization} of the current
+ * process, see {@link TupleStreamFactory}.
+ */
+public class HadoopTupleStreamFactory implements TupleStreamFactory<Configuration>
+  {
+  private TupleSerialization tupleSerialization;
+
+  /** Class HadoopTupleStreams creates tuple streams using the given TupleSerialization. */
+  public static class HadoopTupleStreams implements TupleStreams
+    {
+    private final TupleSerialization tupleSerialization;
+
+    public HadoopTupleStreams( TupleSerialization tupleSerialization )
+      {
+      this.tupleSerialization = tupleSerialization;
+      }
+
+    @Override
+    public TupleOutputStream createTupleOutputStream( OutputStream outputStream )
+      {
+      return new HadoopTupleOutputStream( outputStream, tupleSerialization.getElementWriter() );
+      }
+
+    @Override
+    public TupleInputStream createTupleInputStream( InputStream inputStream )
+      {
+      return new HadoopTupleInputStream( inputStream, tupleSerialization.getElementReader() );
+      }
+    }
+
+  @Override
+  public void initialize( FlowProcess<? extends Configuration> flowProcess )
+    {
+    this.tupleSerialization = new TupleSerialization( flowProcess );
+    }
+
+  @Override
+  public TupleStreams create( FlowProcess<? extends Configuration> flowProcess )
+    {
+    return new HadoopTupleStreams( tupleSerialization );
+    }
+  }
@@ -162,6 +162,30 @@ public class HadoopTupleInputStream extends TupleInputStream
     return WritableUtils.readVInt( this );
     }
 
+  @Override
+  protected long readPrimitiveLong() throws IOException
+    {
+    return readVLong();
+    }
+
+  @Override
+  protected double readPrimitiveDouble() throws IOException
+    {
+    return readDouble();
+    }
+
+  @Override
+  protected int readPrimitiveInteger() throws IOException
+    {
+    return readVInt();
+    }
+
+  @Override
+  protected float readPrimitiveFloat() throws IOException
+    {
+    return readFloat();
+    }
+
   public String readString() throws IOException
     {
     return WritableUtils.readString( this );
@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.util.IdentityHashMap;
 import java.util.Map;
 
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.io.IndexTuple;
 import cascading.tuple.io.TupleOutputStream;
@@ -94,6 +95,12 @@ public class HadoopTupleOutputStream extends TupleOutputStream
     stream.writeTuple( (Tuple) element );
     } );
 
+    staticTupleUnTypedElementWriters.put( PrimitiveTuple.class, ( stream, element ) ->
+    {
+    WritableUtils.writeVInt( stream, 8 );
+    stream.writeTuple( (Tuple) element );
+    } );
+
     staticTupleUnTypedElementWriters.put( TuplePair.class, ( stream, element ) ->
     {
     WritableUtils.writeVInt( stream, 9 );
@@ -278,6 +285,34 @@ public class HadoopTupleOutputStream extends TupleOutputStream
     WritableUtils.writeVInt( this, value );
     }
 
+  @Override
+  protected void writeLongElement( long value ) throws IOException
+    {
+    WritableUtils.writeVInt( this, 5 );
+    WritableUtils.writeVLong( this, value );
+    }
+
+  @Override
+  protected void writeDoubleElement( double value ) throws IOException
+    {
+    WritableUtils.writeVInt( this, 3 );
+    writeDouble( value );
+    }
+
+  @Override
+  protected void writeIntegerElement( int value ) throws IOException
+    {
+    WritableUtils.writeVInt( this, 4 );
+    WritableUtils.writeVInt( this, value );
+    }
+
+  @Override
+  protected void writeFloatElement( float value ) throws IOException
+    {
+    WritableUtils.writeVInt( this, 2 );
+    writeFloat( value );
+    }
+
   public void writeIndexTuple( IndexTuple indexTuple ) throws IOException
     {
     writeIntInternal( indexTuple.getIndex() );
@@ -50,7 +50,7 @@ public class IndexTupleDeserializer<T extends IndexTuple> extends BaseDeserializ
     if( types == null )
       tuple.setTuple( inputStream.readUnTyped( new Tuple() ) );
     else
-      tuple.setTuple( inputStream.readTyped( types, new Tuple() ) );
+      tuple.setTuple( inputStream.readTyped( types ) );
 
     return (T) tuple;
     }
@@ -60,6 +60,8 @@ public class FlowMapper implements MapRunnable
   private FlowNode flowNode;
   private HadoopMapStreamGraph streamGraph;
   private HadoopFlowProcess currentProcess;
+  private long planBytes;
+  private long planReadDuration;
 
   /** Constructor FlowMapper creates a new FlowMapper instance. */
   public FlowMapper()
@@ -83,9 +85,15 @@ public class FlowMapper implements MapRunnable
       if( mapNodeState == null )
         mapNodeState = readStateFromDistCache( jobConf, jobConf.get( FlowStep.CASCADING_FLOW_STEP_ID ), "map" );
 
+      long planReadBegin = System.currentTimeMillis();
+
       flowNode = deserializeBase64( mapNodeState, jobConf, BaseFlowNode.class );
 
+      planBytes = mapNodeState.length();
+      planReadDuration = System.currentTimeMillis() - planReadBegin;
+
       LOG.info( "flow node id: {}, ordinal: {}", flowNode.getID(), flowNode.getOrdinal() );
+      LOG.info( "flow node plan size: {}, read duration: {}ms", planBytes, planReadDuration );
 
       Tap source = Flows.getTapForID( flowNode.getSourceTaps(), jobConf.get( "cascading.step.source" ) );
 
@@ -121,6 +129,9 @@ public class FlowMapper implements MapRunnable
 
     streamGraph.prepare();
 
+    currentProcess.increment( SliceCounters.Plan_Bytes, planBytes ); // the reporter is only available once running
+    currentProcess.increment( SliceCounters.Plan_Read_Duration, planReadDuration );
+
     long processBeginTime = System.currentTimeMillis();
 
     currentProcess.increment( SliceCounters.Process_Begin_Time, processBeginTime );
@@ -69,6 +69,8 @@ public class FlowReducer extends MapReduceBase implements Reducer
   private boolean calledPrepare = false;
   private HadoopGroupGate group;
   private long processBeginTime;
+  private long planBytes;
+  private long planReadDuration;
 
   /** Constructor FlowReducer creates a new FlowReducer instance. */
   public FlowReducer()
@@ -95,9 +97,15 @@ public class FlowReducer extends MapReduceBase implements Reducer
       if( reduceNodeState == null )
         reduceNodeState = readStateFromDistCache( jobConf, jobConf.get( FlowStep.CASCADING_FLOW_STEP_ID ), "reduce" );
 
+      long planReadBegin = System.currentTimeMillis();
+
       flowNode = deserializeBase64( reduceNodeState, jobConf, BaseFlowNode.class );
 
+      planBytes = reduceNodeState.length();
+      planReadDuration = System.currentTimeMillis() - planReadBegin;
+
       LOG.info( "flow node id: {}, ordinal: {}", flowNode.getID(), flowNode.getOrdinal() );
+      LOG.info( "flow node plan size: {}, read duration: {}ms", planBytes, planReadDuration );
 
       streamGraph = new HadoopReduceStreamGraph( currentProcess, flowNode, Util.getFirst( flowNode.getSourceElements() ) );
 
@@ -138,6 +146,9 @@ public class FlowReducer extends MapReduceBase implements Reducer
 
       calledPrepare = true;
 
+      currentProcess.increment( SliceCounters.Plan_Bytes, planBytes ); // the reporter is only available once reducing
+      currentProcess.increment( SliceCounters.Plan_Read_Duration, planReadDuration );
+
       processBeginTime = System.currentTimeMillis();
       currentProcess.increment( SliceCounters.Process_Begin_Time, processBeginTime );
       currentProcess.increment( StepCounters.Process_Begin_Time, processBeginTime );
@@ -236,10 +236,12 @@ public class HadoopFlowStep extends BaseFlowStep<JobConf>
     String reduceState = pack( reducerNode, conf );
 
     // hadoop 20.2 doesn't like dist cache when using local mode
-    int maxSize = Short.MAX_VALUE;
+    int maxSize = conf.getInt( HadoopUtil.CASCADING_PLAN_STAGING_THRESHOLD, HadoopUtil.DEFAULT_PLAN_STAGING_THRESHOLD );
 
     int length = mapState.length() + reduceState.length();
 
+    logInfo( "serialized plan size, map: " + mapState.length() + ", reduce: " + reduceState.length() );
+
     if( isHadoopLocalMode( conf ) || length < maxSize ) // seems safe
       {
       conf.set( "cascading.flow.step.node.map", mapState );
@@ -44,9 +44,11 @@ import cascading.flow.planner.rule.transformer.IntermediateTapElementFactory;
 import cascading.property.AppProps;
 import cascading.property.PropertyUtil;
 import cascading.tap.Tap;
+import cascading.tap.cache.TupleStreamFactory;
 import cascading.tap.hadoop.DistCacheTap;
 import cascading.tap.hadoop.Hfs;
 import cascading.tap.hadoop.util.TempHfs;
+import cascading.tuple.hadoop.collect.HadoopTupleStreamFactory;
 import cascading.util.Util;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
@@ -161,6 +163,7 @@ public class HadoopPlanner extends FlowPlanner<HadoopFlow, JobConf>
 
     defaultJobConf = HadoopUtil.createJobConf( properties, createJobConf( properties ) );
     checkPlatform( defaultJobConf );
+    defaultJobConf.setIfUnset( TupleStreamFactory.TUPLE_STREAM_FACTORY, HadoopTupleStreamFactory.class.getName() );
     intermediateSchemeClass = flowConnector.getIntermediateSchemeClass( properties );
 
     Class type = AppProps.getApplicationJarClass( properties );
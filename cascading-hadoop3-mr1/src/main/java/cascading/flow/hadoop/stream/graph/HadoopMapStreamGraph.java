@@ -22,6 +22,7 @@ package cascading.flow.hadoop.stream.graph;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,11 +30,13 @@ import cascading.flow.FlowException;
 import cascading.flow.FlowNode;
 import cascading.flow.FlowProcess;
 import cascading.flow.hadoop.HadoopFlowProcess;
+import cascading.flow.hadoop.stream.HadoopIndexJoinGate;
 import cascading.flow.hadoop.stream.HadoopMemoryJoinGate;
 import cascading.flow.hadoop.stream.element.HadoopCoGroupGate;
 import cascading.flow.hadoop.stream.element.HadoopGroupByGate;
 import cascading.flow.hadoop.stream.element.HadoopSinkStage;
 import cascading.flow.hadoop.util.HadoopUtil;
+import cascading.flow.planner.Scope;
 import cascading.flow.planner.graph.ElementGraphs;
 import cascading.flow.stream.duct.Gate;
 import cascading.flow.stream.element.GroupingSpliceGate;
@@ -44,16 +47,26 @@ import cascading.flow.stream.graph.NodeStreamGraph;
 import cascading.pipe.CoGroup;
 import cascading.pipe.GroupBy;
 import cascading.pipe.HashJoin;
+import cascading.pipe.joiner.InnerJoin;
+import cascading.pipe.joiner.LeftJoin;
 import cascading.tap.Tap;
+import cascading.tap.hadoop.JoinIndexTap;
+import cascading.tap.hadoop.io.JoinIndexReader;
+import cascading.tuple.Fields;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.Reporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
  */
 public class HadoopMapStreamGraph extends NodeStreamGraph
   {
+  private static final Logger LOG = LoggerFactory.getLogger( HadoopMapStreamGraph.class );
+
   private final Tap source;
+  private final Map<HashJoin, Map<Integer, JoinIndexReader>> joinIndexes = new IdentityHashMap<>();
   private SourceStage streamedHead;
 
   public HadoopMapStreamGraph( HadoopFlowProcess flowProcess, FlowNode node, Tap source )
@@ -80,38 +93,115 @@ public class HadoopMapStreamGraph extends NodeStreamGraph
 
   protected void buildGraph()
     {
-    streamedHead = handleHead( this.source, flowProcess );
-
     Set<Tap> tributaries = ElementGraphs.findSources( elementGraph, Tap.class );
 
     tributaries.remove( this.source ); // we cannot stream and accumulate the same source
 
+    Map<Tap, HadoopFlowProcess> accumulatedProcesses = new IdentityHashMap<>();
+
+    // the accumulated conf must be resolved before the streamed path creates any join gates
+    for( Tap source : tributaries )
+      accumulatedProcesses.put( source, createAccumulatedProcess( source ) );
+
+    for( Tap source : tributaries )
+      {
+      if( source instanceof JoinIndexTap )
+        addJoinIndex( (JoinIndexTap) source, accumulatedProcesses.get( source ) );
+      }
+
+    streamedHead = handleHead( this.source, flowProcess );
+
     // accumulated paths
-    for( Object source : tributaries )
+    for( Tap source : tributaries )
       {
-      final HadoopFlowProcess hadoopProcess = (HadoopFlowProcess) flowProcess;
-      JobConf conf = hadoopProcess.getJobConf();
+      if( isJoinIndexed( source ) )
+        continue;
 
-      // allows client side config to be used cluster side
-      String property = conf.getRaw( "cascading.node.accumulated.source.conf." + Tap.id( (Tap) source ) );
+      handleHead( source, accumulatedProcesses.get( source ) );
+      }
+    }
 
-      if( property == null )
-        throw new IllegalStateException( "accumulated source conf property missing for: " + ( (Tap) source ).getIdentifier() );
+  private HadoopFlowProcess createAccumulatedProcess( Tap source )
+    {
+    final HadoopFlowProcess hadoopProcess = (HadoopFlowProcess) flowProcess;
+    JobConf conf = hadoopProcess.getJobConf();
 
-      conf = getSourceConf( hadoopProcess, conf, property );
+    // allows client side config to be used cluster side
+    String property = conf.getRaw( "cascading.node.accumulated.source.conf." + Tap.id( source ) );
 
-      // the reporter isn't provided until after the #run method is called
-      flowProcess = new HadoopFlowProcess( hadoopProcess, conf )
+    if( property == null )
+      throw new IllegalStateException( "accumulated source conf property missing for: " + source.getIdentifier() );
+
+    conf = getSourceConf( hadoopProcess, conf, property );
+
+    // the reporter isn't provided until after the #run method is called
+    return new HadoopFlowProcess( hadoopProcess, conf )
+      {
+      @Override
+      public Reporter getReporter()
         {
-        @Override
-        public Reporter getReporter()
-          {
-          return hadoopProcess.getReporter();
-          }
-        };
-
-      handleHead( (Tap) source, flowProcess );
+        return hadoopProcess.getReporter();
+        }
+      };
+    }
+
+  /**
+   * Adds the index of the given tap to the join it is the accumulated side of, if the join may be performed by
+   * looking up each streamed key in the index. Otherwise the tap will be read in full.
+   */
+  private void addJoinIndex( JoinIndexTap source, HadoopFlowProcess accumulatedProcess )
+    {
+    Set<Scope> outgoing = elementGraph.outgoingEdgesOf( source );
+
+    if( outgoing.size() != 1 )
+      return;
+
+    Scope scope = outgoing.iterator().next();
+
+    if( !( elementGraph.getEdgeTarget( scope ) instanceof HashJoin ) || scope.getOrdinal() == 0 )
+      return;
+
+    HashJoin join = (HashJoin) elementGraph.getEdgeTarget( scope );
+
+    if( join.getNumSelfJoins() != 0 || !( join.getJoiner() instanceof InnerJoin || join.getJoiner() instanceof LeftJoin ) )
+      return;
+
+    for( Fields keyFields : join.getKeySelectors().values() )
+      {
+      if( keyFields.hasComparators() )
+        return;
       }
+
+    JoinIndexReader reader;
+
+    try
+      {
+      reader = source.openIndex( accumulatedProcess );
+      }
+    catch( IOException exception )
+      {
+      throw new FlowException( "unable to open join index: " + source.getIdentifier(), exception );
+      }
+
+    LOG.info( "joining with index: {}, records: {}", source.getIdentifier(), reader.getRecordCount() );
+
+    joinIndexes.computeIfAbsent( join, k -> new HashMap<>() ).put( scope.getOrdinal(), reader );
+    }
+
+  private boolean isJoinIndexed( Tap source )
+    {
+    if( !( source instanceof JoinIndexTap ) )
+      return false;
+
+    for( Scope scope : elementGraph.outgoingEdgesOf( source ) )
+      {
+      Map<Integer, JoinIndexReader> indexes = joinIndexes.get( elementGraph.getEdgeTarget( scope ) );
+
+      if( indexes != null && indexes.containsKey( scope.getOrdinal() ) )
+        return true;
+      }
+
+    return false;
     }
 
   private JobConf getSourceConf( HadoopFlowProcess flowProcess, JobConf conf, String property )
@@ -158,9 +248,22 @@ public class HadoopMapStreamGraph extends NodeStreamGraph
     return new HadoopGroupByGate( flowProcess, element, role );
     }
 
+  @Override
+  protected Gate createHashJoinGate( HashJoin join )
+    {
+    // an indexed side is never accumulated, so there is no need to block the streamed side
+    if( joinIndexes.containsKey( join ) )
+      return createNonBlockingJoinGate( join );
+
+    return super.createHashJoinGate( join );
+    }
+
   @Override
   protected GroupingSpliceGate createNonBlockingJoinGate( HashJoin join )
     {
+    if( joinIndexes.containsKey( join ) )
+      return new HadoopIndexJoinGate( flowProcess, join, joinIndexes.get( join ) );
+
     return new HadoopMemoryJoinGate( flowProcess, join ); // does not use a latch
     }
   }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.hadoop;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cascading.flow.FlowProcess;
+import cascading.flow.hadoop.util.HadoopUtil;
+import cascading.scheme.hadoop.JoinIndex;
+import cascading.tap.hadoop.io.JoinIndexFile;
+import cascading.tap.hadoop.io.JoinIndexReader;
+import cascading.tuple.Fields;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class JoinIndexTap is a {@link DistCacheTap} over a {@link JoinIndex} file or directory, typically written
+ * by a prior {@link cascading.flow.Flow} in the same {@link cascading.cascade.Cascade}.
+ * <p>
+ * When used as the accumulated side of a {@link cascading.pipe.HashJoin} performing an
+ * {@link cascading.pipe.joiner.InnerJoin} or {@link cascading.pipe.joiner.LeftJoin}, where the tap is not
+ * followed by any other operation in the mapper, the index is localized once per node by the distributed cache and
+ * memory mapped by each mapper. Each streamed key is then looked up in the index, instead of the whole accumulated
+ * side being read into memory by every mapper.
+ * <p>
+ * In all other cases, this tap behaves as a {@link DistCacheTap} and the index is read in full.
+ */
+public class JoinIndexTap extends DistCacheTap
+  {
+  /** logger. */
+  private static final Logger LOG = LoggerFactory.getLogger( JoinIndexTap.class );
+
+  /**
+   * Constructs a new JoinIndexTap instance with the given Hfs.
+   *
+   * @param parent an Hfs instance with a {@link JoinIndex} scheme
+   */
+  public JoinIndexTap( Hfs parent )
+    {
+    super( parent );
+
+    if( !( parent.getScheme() instanceof JoinIndex ) )
+      throw new IllegalArgumentException( "parent tap must have a JoinIndex scheme, got: " + parent.getScheme() );
+
+    if( parent.getIdentifier().contains( "*" ) )
+      throw new IllegalArgumentException( "parent tap may not be a glob, got: " + parent.getIdentifier() );
+    }
+
+  /**
+   * Method getKeyFields returns the key fields the index was written with.
+   *
+   * @return Fields
+   */
+  public Fields getKeyFields()
+    {
+    return ( (JoinIndex) getScheme() ).getKeyFields();
+    }
+
+  /**
+   * Method openIndex returns a {@link JoinIndexReader} over all the files of this index. Files found in the local
+   * distributed cache are memory mapped, otherwise they are read from the parent file system into memory.
+   *
+   * @param flowProcess of type FlowProcess
+   * @return JoinIndexReader
+   * @throws IOException when the index files cannot be read
+   */
+  public JoinIndexReader openIndex( FlowProcess<? extends Configuration> flowProcess ) throws IOException
+    {
+    Configuration conf = flowProcess.getConfig();
+    Path path = ( (Hfs) getOriginal() ).getPath();
+    List<JoinIndexFile> files = new ArrayList<>();
+
+    if( !HadoopUtil.isLocal( conf ) )
+      {
+      Path[] cachedFiles = getLocalCacheFiles( flowProcess );
+
+      if( cachedFiles != null )
+        {
+        for( Path cachedFile : cachedFiles )
+          {
+          if( cachedFile.toString().endsWith( path.getName() ) )
+            mapLocal( new File( cachedFile.toUri().getPath() ), files );
+          }
+        }
+      }
+
+    if( files.isEmpty() )
+      {
+      LOG.info( "could not find index in local resource path, reading from: {}", path );
+
+      FileSystem fileSystem = path.getFileSystem( conf );
+      FileStatus status = fileSystem.getFileStatus( path );
+      FileStatus[] statuses = status.isDirectory() ? fileSystem.listStatus( path ) : new FileStatus[]{status};
+
+      Arrays.sort( statuses );
+
+      for( FileStatus child : statuses )
+        {
+        if( child.isFile() && isIndexFile( child.getPath().getName() ) )
+          files.add( new JoinIndexFile( JoinIndexFile.read( fileSystem, child.getPath() ) ) );
+        }
+      }
+    else
+      {
+      LOG.info( "mapped {} index files from local resource path for: {}", files.size(), path );
+      }
+
+    return new JoinIndexReader( conf, getKeyFields(), files );
+    }
+
+  private static void mapLocal( File file, List<JoinIndexFile> files ) throws IOException
+    {
+    if( file.isFile() )
+      {
+      files.add( new JoinIndexFile( JoinIndexFile.map( file ) ) );
+      return;
+      }
+
+    File[] children = file.listFiles();
+
+    if( children == null )
+      return;
+
+    Arrays.sort( children );
+
+    for( File child : children )
+      {
+      if( child.isFile() && isIndexFile( child.getName() ) )
+        files.add( new JoinIndexFile( JoinIndexFile.map( child ) ) );
+      }
+    }
+
+  private static boolean isIndexFile( String name )
+    {
+    return !name.startsWith( "_" ) && !name.startsWith( "." ) && !name.endsWith( ".crc" );
+    }
+  }
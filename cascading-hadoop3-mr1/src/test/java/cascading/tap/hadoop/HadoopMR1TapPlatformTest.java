@@ -22,16 +22,21 @@ package cascading.tap.hadoop;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import cascading.PlatformTestCase;
 import cascading.flow.Flow;
 import cascading.flow.FlowProcess;
+import cascading.flow.hadoop.stream.HadoopIndexJoinGate;
 import cascading.operation.BaseOperation;
 import cascading.operation.Filter;
 import cascading.operation.FilterCall;
+import cascading.pipe.GroupBy;
+import cascading.pipe.HashJoin;
 import cascading.pipe.Pipe;
+import cascading.scheme.hadoop.JoinIndex;
 import cascading.scheme.hadoop.TextLine;
 import cascading.tap.MultiSourceTap;
 import cascading.tap.SinkMode;
@@ -136,6 +141,53 @@ public class HadoopMR1TapPlatformTest extends PlatformTestCase implements Serial
     assertTrue( values.contains( new Tuple( "5", "e" ) ) );
     }
 
+  @Test
+  public void testHashJoinJoinIndexTap() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    Fields upperFields = new Fields( "num2", "upper" );
+    Tap sourceUpper = getPlatform().getDelimitedFile( upperFields, " ", inputFileUpper );
+    Hfs index = new Hfs( new JoinIndex( upperFields, new Fields( "num2" ) ), getOutputPath( "/joinindex/index" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    getPlatform().setNumReduceTasks( properties, 2 );
+
+    // grouping on the key partitions the index files by the key
+    Flow indexFlow = getPlatform().getFlowConnector( properties ).connect( sourceUpper, index, new GroupBy( new Pipe( "upper" ), new Fields( "num2" ) ) );
+
+    indexFlow.complete();
+
+    Map<String, Tap> sources = new HashMap<>();
+
+    sources.put( "lower", getPlatform().getDelimitedFile( new Fields( "num", "lower" ), " ", inputFileLower ) );
+    sources.put( "upper", new JoinIndexTap( new Hfs( new JoinIndex( upperFields, new Fields( "num2" ) ), index.getIdentifier() ) ) );
+
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "lower", "num2", "upper" ), "\t", getOutputPath( "/joinindex/join" ), SinkMode.REPLACE );
+
+    Pipe join = new HashJoin( new Pipe( "lower" ), new Fields( "num" ), new Pipe( "upper" ), new Fields( "num2" ) );
+
+    Flow joinFlow = getPlatform().getFlowConnector().connect( sources, sink, join );
+
+    joinFlow.complete();
+
+    List<Tuple> values = getSinkAsList( joinFlow );
+
+    assertEquals( 5, values.size() );
+    assertTrue( values.contains( new Tuple( "1", "a", "1", "A" ) ) );
+    assertTrue( values.contains( new Tuple( "2", "b", "2", "B" ) ) );
+    assertTrue( values.contains( new Tuple( "3", "c", "3", "C" ) ) );
+    assertTrue( values.contains( new Tuple( "4", "d", "4", "D" ) ) );
+    assertTrue( values.contains( new Tuple( "5", "e", "5", "E" ) ) );
+
+    // every streamed key was looked up in the single index file holding its partition
+    assertEquals( 5, joinFlow.getStats().getCounterValue( HadoopIndexJoinGate.Index.Num_Lookups ) );
+    assertEquals( 5, joinFlow.getStats().getCounterValue( HadoopIndexJoinGate.Index.Num_Hits ) );
+    assertEquals( 5, joinFlow.getStats().getCounterValue( HadoopIndexJoinGate.Index.Num_Files_Probed ) );
+    }
+
   @Test
   public void testFilteredPartitionTap_Typical() throws Exception
     {
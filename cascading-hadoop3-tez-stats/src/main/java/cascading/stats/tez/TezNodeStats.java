@@ -30,6 +30,7 @@ import javax.annotation.Nullable;
 
 import cascading.CascadingException;
 import cascading.flow.FlowNode;
+import cascading.flow.FlowRuntimeProps;
 import cascading.flow.hadoop.util.HadoopUtil;
 import cascading.flow.stream.annotations.StreamMode;
 import cascading.management.state.ClientState;
@@ -78,6 +79,15 @@ public class TezNodeStats extends BaseCachedNodeStats<Configuration, DAGClient,
       SPLIT, PARTITIONED, UNKNOWN
     }
 
+  /**
+   * Enum ContainerReuse declares the counters reported by tasks reusing deserialized node plans and accumulated
+   * {@link cascading.pipe.HashJoin} tables cached by prior task attempts within the same reused container.
+   */
+  public enum ContainerReuse
+    {
+      Plan_Hits, Plan_Misses, Join_Table_Hits, Join_Table_Misses, Evicted_Bytes
+    }
+
   private BaseCachedStepStats<Configuration, DAGClient, TezCounters> parentStepStats;
   private Kind kind;
 
@@ -87,6 +97,19 @@ public class TezNodeStats extends BaseCachedNodeStats<Configuration, DAGClient,
   private int failedTaskCount;
   private int killedTaskCount;
   private int runningTaskCount;
+  private int adaptedTaskCount = -1;
+
+  /**
+   * Method getContainerReuse returns the value of the given {@link ContainerReuse} counter summed across all tasks
+   * of this node.
+   *
+   * @param counter of type ContainerReuse
+   * @return long
+   */
+  public long getContainerReuse( ContainerReuse counter )
+    {
+    return getCounterValue( counter );
+    }
 
   private static void setFetchLimit( Configuration configuration )
     {
@@ -199,6 +222,40 @@ public class TezNodeStats extends BaseCachedNodeStats<Configuration, DAGClient,
     return runningTaskCount;
     }
 
+  /**
+   * Method isAdaptive returns true if the number of tasks of this node may be lowered at runtime based on the
+   * observed size of its input.
+   *
+   * @return boolean
+   */
+  public boolean isAdaptive()
+    {
+    return Boolean.parseBoolean( getFlowNode().getProcessAnnotations().get( FlowRuntimeProps.GATHER_PARTITIONS_ADAPTIVE ) );
+    }
+
+  /**
+   * Method getPlannedTaskCount returns the number of tasks this node was planned with, or -1 if not known.
+   *
+   * @return int
+   */
+  public int getPlannedTaskCount()
+    {
+    String partitions = getFlowNode().getProcessAnnotations().get( FlowRuntimeProps.GATHER_PARTITIONS );
+
+    return partitions == null ? -1 : Integer.parseInt( partitions );
+    }
+
+  /**
+   * Method getAdaptedTaskCount returns the number of tasks chosen at runtime if it differs from the planned
+   * number of tasks, otherwise -1.
+   *
+   * @return int
+   */
+  public int getAdaptedTaskCount()
+    {
+    return adaptedTaskCount;
+    }
+
   @Override
   protected boolean captureChildDetailInternal()
     {
@@ -489,6 +546,23 @@ public class TezNodeStats extends BaseCachedNodeStats<Configuration, DAGClient,
     failedTaskCount = progress.getFailedTaskCount();
     killedTaskCount = progress.getKilledTaskCount();
 
+    recordAdaptedTaskCount();
+
     return vertexStatus;
     }
+
+  private void recordAdaptedTaskCount()
+    {
+    if( adaptedTaskCount != -1 || totalTaskCount == 0 || !isAdaptive() )
+      return;
+
+    int plannedTaskCount = getPlannedTaskCount();
+
+    if( plannedTaskCount == -1 || plannedTaskCount == totalTaskCount )
+      return;
+
+    adaptedTaskCount = totalTaskCount;
+
+    logInfo( "adapted number of tasks from: {}, to: {}", plannedTaskCount, adaptedTaskCount );
+    }
   }
@@ -21,6 +21,9 @@
 package cascading.flow.tez;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -40,7 +43,9 @@ import cascading.flow.stream.duct.Duct;
 import cascading.flow.stream.element.ElementDuct;
 import cascading.flow.stream.element.InputSource;
 import cascading.flow.tez.stream.graph.Hadoop3TezStreamGraph;
+import cascading.flow.tez.util.TezContainerCache;
 import cascading.flow.tez.util.TezUtil;
+import cascading.stats.tez.TezNodeStats;
 import cascading.tap.Tap;
 import cascading.util.Util;
 import org.apache.tez.common.TezUtils;
@@ -65,6 +70,9 @@ public class FlowProcessor extends AbstractLogicalIOProcessor
   {
   private static final Logger LOG = LoggerFactory.getLogger( FlowProcessor.class );
 
+  /** Property naming the local file holding the serialized flow node, when too large to inline in the payload. */
+  static final String CASCADING_FLOW_NODE_STATE_FILE = "cascading.flow.node.state.file";
+
   private TezConfiguration configuration;
   private Hadoop3TezFlowProcess currentProcess;
   private FlowNode flowNode;
@@ -90,9 +98,22 @@ public class FlowProcessor extends AbstractLogicalIOProcessor
 
       currentProcess = new Hadoop3TezFlowProcess( new FlowSession(), getContext(), configuration );
 
-      flowNode = deserializeBase64( configuration.getRaw( FlowNode.CASCADING_FLOW_NODE ), configuration, BaseFlowNode.class );
+      String nodeState = configuration.getRaw( FlowNode.CASCADING_FLOW_NODE );
+
+      if( nodeState == null )
+        nodeState = readStateFromLocalFile( configuration.get( CASCADING_FLOW_NODE_STATE_FILE ) );
+
+      long planReadBegin = System.currentTimeMillis();
+
+      flowNode = readFlowNode( nodeState );
+
+      long planReadDuration = System.currentTimeMillis() - planReadBegin;
+
+      currentProcess.increment( SliceCounters.Plan_Bytes, nodeState.length() );
+      currentProcess.increment( SliceCounters.Plan_Read_Duration, planReadDuration );
 
       LOG.info( "flow node id: {}, ordinal: {}", flowNode.getID(), flowNode.getOrdinal() );
+      LOG.info( "flow node plan size: {}, read duration: {}ms", nodeState.length(), planReadDuration );
 
       logMemory( LOG, "flow node id: " + flowNode.getID() + ", mem on start" );
       }
@@ -105,6 +126,51 @@ public class FlowProcessor extends AbstractLogicalIOProcessor
       }
     }
 
+  private FlowNode readFlowNode( String nodeState ) throws IOException
+    {
+    if( !TezContainerCache.isEnabled( configuration, getContext() ) )
+      return deserializeBase64( nodeState, configuration, BaseFlowNode.class );
+
+    String digest = Util.createID( nodeState );
+
+    configuration.set( TezContainerCache.PLAN_DIGEST, digest );
+
+    TezContainerCache cache = TezContainerCache.getInstance();
+    String dagID = TezContainerCache.getDAGID( getContext() );
+    String key = TezContainerCache.createKey( "plan", digest );
+
+    FlowNode cached = (FlowNode) cache.get( dagID, key );
+
+    if( cached != null )
+      {
+      LOG.info( "reusing flow node plan cached by a prior task attempt" );
+      currentProcess.increment( TezNodeStats.ContainerReuse.Plan_Hits, 1 );
+      return cached;
+      }
+
+    currentProcess.increment( TezNodeStats.ContainerReuse.Plan_Misses, 1 );
+
+    FlowNode flowNode = deserializeBase64( nodeState, configuration, BaseFlowNode.class );
+
+    // the payload is compressed, assume the object graph retains several times the payload size
+    long evicted = cache.put( dagID, key, flowNode, nodeState.length() * 8L, TezContainerCache.getMaxBytes( configuration ) );
+
+    currentProcess.increment( TezNodeStats.ContainerReuse.Evicted_Bytes, evicted );
+
+    return flowNode;
+    }
+
+  private static String readStateFromLocalFile( String fileName ) throws IOException
+    {
+    if( fileName == null )
+      throw new FlowException( "flow node state was not found in the payload or a local resource" );
+
+    LOG.info( "reading flow node state from local resource: {}", fileName );
+
+    // local resources are localized into the task working directory
+    return new String( Files.readAllBytes( Paths.get( fileName ) ), StandardCharsets.US_ASCII );
+    }
+
   @Override
   public void run( Map<String, LogicalInput> inputMap, Map<String, LogicalOutput> outputMap ) throws Exception
     {
@@ -152,7 +218,10 @@ public class FlowProcessor extends AbstractLogicalIOProcessor
       {
       try
         {
-        while( iterator.hasNext() )
+        // accumulated tables cached by a prior task attempt in this container
+        boolean restored = streamGraph.restoreAccumulated();
+
+        while( iterator.hasNext() && !restored )
           {
           Duct next = iterator.next();
 
@@ -164,6 +233,9 @@ public class FlowProcessor extends AbstractLogicalIOProcessor
             }
           }
 
+        if( !restored )
+          streamGraph.storeAccumulated();
+
         streamedHead.run( null );
         }
       catch( OutOfMemoryError | IOException error )
@@ -22,6 +22,7 @@ package cascading.flow.tez;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -98,6 +99,8 @@ import org.apache.tez.dag.api.TezConfiguration;
 import org.apache.tez.dag.api.UserPayload;
 import org.apache.tez.dag.api.Vertex;
 import org.apache.tez.dag.api.VertexGroup;
+import org.apache.tez.dag.api.VertexManagerPluginDescriptor;
+import org.apache.tez.dag.library.vertexmanager.ShuffleVertexManager;
 import org.apache.tez.mapreduce.input.MRInput;
 import org.apache.tez.mapreduce.output.MROutput;
 import org.apache.tez.runtime.library.api.TezRuntimeConfiguration;
@@ -488,10 +491,23 @@ public class Hadoop3TezFlowStep extends BaseFlowStep<TezConfiguration>
     if( parallelism == 0 )
       throw new FlowException( getName(), "the default number of gather partitions must be set, see cascading.flow.FlowRuntimeProps" );
 
+    boolean adaptive = isAdaptiveParallelism( flowNode, conf );
+
+    // tez may only lower the parallelism, so start from the upper bound
+    if( adaptive )
+      parallelism = Math.max( parallelism, conf.getInt( FlowRuntimeProps.GATHER_PARTITIONS_MAX, parallelism ) );
+
     flowNode.addProcessAnnotation( FlowRuntimeProps.GATHER_PARTITIONS, Integer.toString( parallelism ) );
 
     Vertex vertex = newVertex( flowNode, conf, parallelism );
 
+    if( adaptive )
+      {
+      flowNode.addProcessAnnotation( FlowRuntimeProps.GATHER_PARTITIONS_ADAPTIVE, Boolean.TRUE.toString() );
+
+      vertex.setVertexManagerPlugin( createAdaptiveVertexManager( conf, parallelism ) );
+      }
+
     if( !taskLocalResources.isEmpty() )
       vertex.addTaskLocalFiles( taskLocalResources );
 
@@ -609,6 +625,47 @@ public class Hadoop3TezFlowStep extends BaseFlowStep<TezConfiguration>
     return conf.getInt( FlowRuntimeProps.GATHER_PARTITIONS, 0 );
     }
 
+  /**
+   * Only nodes gathering from scatter-gather edges, where the parallelism is not declared by a sink, may be adapted.
+   * <p>
+   * Tez will only combine adjacent partitions, so every partitioner, including those used by a CoGroup, continues to
+   * see the original number of partitions and all values of a key remain within the same task.
+   */
+  protected boolean isAdaptiveParallelism( FlowNode flowNode, JobConf conf )
+    {
+    if( !conf.getBoolean( FlowRuntimeProps.GATHER_PARTITIONS_ADAPTIVE, false ) )
+      return false;
+
+    if( getParallelism( flowNode, conf ) == -1 )
+      return false;
+
+    for( Tap tap : flowNode.getSinkTaps() )
+      {
+      if( tap.getScheme().getNumSinkParts() != 0 )
+        return false;
+      }
+
+    for( ProcessEdge processEdge : getFlowNodeGraph().incomingEdgesOf( flowNode ) )
+      {
+      if( !processEdge.getSinkAnnotations().contains( StreamMode.Accumulated ) )
+        return true;
+      }
+
+    return false;
+    }
+
+  private VertexManagerPluginDescriptor createAdaptiveVertexManager( JobConf conf, int parallelism )
+    {
+    int minParallelism = Math.min( parallelism, Math.max( 1, conf.getInt( FlowRuntimeProps.GATHER_PARTITIONS_MIN, 1 ) ) );
+    long desiredBytes = conf.getLong( FlowRuntimeProps.GATHER_PARTITION_BYTES, ShuffleVertexManager.TEZ_SHUFFLE_VERTEX_MANAGER_DESIRED_TASK_INPUT_SIZE_DEFAULT );
+
+    return ShuffleVertexManager.createConfigBuilder( conf )
+      .setAutoReduceParallelism( true )
+      .setMinTaskParallelism( minParallelism )
+      .setDesiredTaskInputSize( desiredBytes )
+      .build();
+    }
+
   private void addInputOutputMapping( JobConf conf, FlowNode flowNode )
     {
     FlowNodeGraph flowNodeGraph = getFlowNodeGraph();
@@ -755,7 +812,27 @@ public class Hadoop3TezFlowStep extends BaseFlowStep<TezConfiguration>
 
   private Vertex newVertex( FlowNode flowNode, Configuration conf, int parallelism )
     {
-    conf.set( FlowNode.CASCADING_FLOW_NODE, pack( flowNode, conf ) ); // todo: pack into payload directly
+    String nodeState = pack( flowNode, conf );
+    Map<String, LocalResource> nodeStateResources = new HashMap<>();
+
+    int maxSize = conf.getInt( HadoopUtil.CASCADING_PLAN_STAGING_THRESHOLD, HadoopUtil.DEFAULT_PLAN_STAGING_THRESHOLD );
+
+    logInfo( "serialized plan size, node: " + flowNode.getID() + ", size: " + nodeState.length() );
+
+    // local resources are not localized in local mode, large plans are staged once instead of in every payload
+    if( HadoopUtil.isLocal( conf ) || nodeState.length() < maxSize )
+      {
+      conf.set( FlowNode.CASCADING_FLOW_NODE, nodeState ); // todo: pack into payload directly
+      }
+    else
+      {
+      String fileName = "node-state-" + flowNode.getID();
+      String flowStagingPath = ( (Hadoop3TezFlow) getFlow() ).getFlowStagingPath();
+
+      TezUtil.addToLocalResources( conf, flowStagingPath, fileName, nodeState.getBytes( StandardCharsets.US_ASCII ), nodeStateResources );
+
+      conf.set( FlowProcessor.CASCADING_FLOW_NODE_STATE_FILE, fileName );
+      }
 
     ProcessorDescriptor descriptor = ProcessorDescriptor.create( FlowProcessor.class.getName() );
 
@@ -763,6 +840,9 @@ public class Hadoop3TezFlowStep extends BaseFlowStep<TezConfiguration>
 
     Vertex vertex = Vertex.create( flowNode.getID(), descriptor, parallelism );
 
+    if( !nodeStateResources.isEmpty() )
+      vertex.addTaskLocalFiles( nodeStateResources );
+
     if( environment != null )
       vertex.setTaskEnvironment( environment );
 
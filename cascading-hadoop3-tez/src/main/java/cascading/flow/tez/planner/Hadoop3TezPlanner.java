@@ -48,9 +48,11 @@ import cascading.pipe.Boundary;
 import cascading.property.AppProps;
 import cascading.property.PropertyUtil;
 import cascading.tap.Tap;
+import cascading.tap.cache.TupleStreamFactory;
 import cascading.tap.hadoop.DistCacheTap;
 import cascading.tap.hadoop.Hfs;
 import cascading.tap.hadoop.util.TempHfs;
+import cascading.tuple.hadoop.collect.HadoopTupleStreamFactory;
 import cascading.util.Util;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.tez.dag.api.DAG;
@@ -133,6 +135,7 @@ public class Hadoop3TezPlanner extends FlowPlanner<Hadoop3TezFlow, TezConfigurat
     super.initialize( flowConnector, properties );
 
     defaultConfiguration = TezUtil.createTezConf( properties, createConfiguration( properties ) );
+    defaultConfiguration.setIfUnset( TupleStreamFactory.TUPLE_STREAM_FACTORY, HadoopTupleStreamFactory.class.getName() );
     intermediateSchemeClass = flowConnector.getIntermediateSchemeClass( properties );
 
     String applicationJarPath = AppProps.getApplicationJarPath( properties );
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.tez.stream.element;
+
+import java.util.Collection;
+import java.util.Map;
+
+import cascading.flow.FlowElements;
+import cascading.flow.hadoop.stream.HadoopMemoryJoinGate;
+import cascading.flow.tez.Hadoop3TezFlowProcess;
+import cascading.flow.tez.util.TezContainerCache;
+import cascading.pipe.HashJoin;
+import cascading.stats.tez.TezNodeStats;
+import cascading.tuple.Tuple;
+import cascading.tuple.Tuples;
+import cascading.tuple.collect.Spillable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class TezMemoryJoinGate is a {@link HadoopMemoryJoinGate} that retains its accumulated tables in the
+ * {@link TezContainerCache}, so subsequent task attempts in a reused container need not read and hash the
+ * accumulated sources again.
+ * <p>
+ * Tables that spilled to disk while accumulating are never cached.
+ */
+public class TezMemoryJoinGate extends HadoopMemoryJoinGate
+  {
+  private static final Logger LOG = LoggerFactory.getLogger( TezMemoryJoinGate.class );
+
+  private final Hadoop3TezFlowProcess tezProcess;
+  private final String dagID;
+  private final String cacheKey;
+
+  public TezMemoryJoinGate( Hadoop3TezFlowProcess flowProcess, HashJoin join )
+    {
+    super( flowProcess, join );
+
+    this.tezProcess = flowProcess;
+    this.dagID = TezContainerCache.getDAGID( flowProcess.getContext() );
+    this.cacheKey = TezContainerCache.createKey( "join", flowProcess.getConfiguration().get( TezContainerCache.PLAN_DIGEST ), FlowElements.id( join ) );
+    }
+
+  /**
+   * Method isCached returns true if the accumulated tables of this gate were cached by a prior task attempt.
+   *
+   * @return boolean
+   */
+  public boolean isCached()
+    {
+    return TezContainerCache.getInstance().get( dagID, cacheKey ) != null;
+    }
+
+  /**
+   * Method restore replaces the accumulated tables with those cached by a prior task attempt, and completes all
+   * accumulated paths, so only the streamed path must be run. Must be called after {@link #prepare()}.
+   *
+   * @return true if the cached tables were restored
+   */
+  public boolean restore()
+    {
+    Map<Tuple, Collection<Tuple>>[] cached = (Map<Tuple, Collection<Tuple>>[]) TezContainerCache.getInstance().get( dagID, cacheKey );
+
+    if( cached == null )
+      return false;
+
+    keys = createKeySet();
+
+    // the streamed position is never cached, or read from
+    for( int i = 1; i < keyValues.length; i++ )
+      {
+      keyValues[ i ] = cached[ i ];
+      keys.addAll( cached[ i ].keySet() );
+      }
+
+    count.addAndGet( 1 - numIncomingEventingPaths ); // as if all accumulated paths had completed
+
+    flowProcess.increment( TezNodeStats.ContainerReuse.Join_Table_Hits, 1 );
+
+    LOG.info( "restored {} accumulated keys cached by a prior task attempt for: {}", keys.size(), splice );
+
+    return true;
+    }
+
+  /**
+   * Method store caches the accumulated tables of this gate. Must be called after all accumulated paths have
+   * completed, and before the streamed path is run.
+   */
+  public void store()
+    {
+    long size = 16L * keyValues.length;
+
+    for( int i = 1; i < keyValues.length; i++ )
+      {
+      for( Map.Entry<Tuple, Collection<Tuple>> entry : keyValues[ i ].entrySet() )
+        {
+        Collection<Tuple> values = entry.getValue();
+
+        if( values instanceof Spillable && ( (Spillable) values ).spillCount() != 0 )
+          {
+          LOG.info( "not caching accumulated tables that spilled for: {}", splice );
+          return;
+          }
+
+        size += 64 + Tuples.estimateSize( entry.getKey() ); // map entry overhead
+
+        for( Tuple value : values )
+          size += 8 + Tuples.estimateSize( value );
+        }
+      }
+
+    long evicted = TezContainerCache.getInstance().put( dagID, cacheKey, keyValues.clone(), size, TezContainerCache.getMaxBytes( tezProcess.getConfiguration() ) );
+
+    flowProcess.increment( TezNodeStats.ContainerReuse.Evicted_Bytes, evicted );
+    }
+  }
@@ -21,6 +21,7 @@
 package cascading.flow.tez.stream.graph;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -40,6 +41,7 @@ import cascading.flow.stream.annotations.StreamMode;
 import cascading.flow.stream.duct.Duct;
 import cascading.flow.stream.duct.Gate;
 import cascading.flow.stream.element.InputSource;
+import cascading.flow.stream.element.MemoryCoGroupGate;
 import cascading.flow.stream.element.MemoryHashJoinGate;
 import cascading.flow.stream.element.SinkStage;
 import cascading.flow.stream.element.SourceStage;
@@ -49,9 +51,11 @@ import cascading.flow.tez.Hadoop3TezFlowProcess;
 import cascading.flow.tez.stream.element.TezBoundaryStage;
 import cascading.flow.tez.stream.element.TezCoGroupGate;
 import cascading.flow.tez.stream.element.TezGroupByGate;
+import cascading.flow.tez.stream.element.TezMemoryJoinGate;
 import cascading.flow.tez.stream.element.TezMergeGate;
 import cascading.flow.tez.stream.element.TezSinkStage;
 import cascading.flow.tez.stream.element.TezSourceStage;
+import cascading.flow.tez.util.TezContainerCache;
 import cascading.flow.tez.util.TezUtil;
 import cascading.pipe.Boundary;
 import cascading.pipe.CoGroup;
@@ -60,6 +64,7 @@ import cascading.pipe.GroupBy;
 import cascading.pipe.HashJoin;
 import cascading.pipe.Merge;
 import cascading.pipe.Pipe;
+import cascading.stats.tez.TezNodeStats;
 import cascading.tap.Tap;
 import cascading.util.SetMultiMap;
 import cascading.util.SortedListMultiMap;
@@ -87,6 +92,8 @@ public class Hadoop3TezStreamGraph extends NodeStreamGraph
   private Map<LogicalOutput, Configuration> outputConfigMap = new HashMap<>();
   private SetMultiMap<String, LogicalInput> inputMultiMap;
   private SetMultiMap<String, LogicalOutput> outputMultiMap;
+  private List<TezMemoryJoinGate> cachingJoinGates = new ArrayList<>();
+  private boolean hasBlockingJoinGate = false;
 
   public Hadoop3TezStreamGraph( Hadoop3TezFlowProcess currentProcess, FlowNode flowNode, Map<String, LogicalInput> inputMap, Map<String, LogicalOutput> outputMap )
     {
@@ -410,6 +417,64 @@ public class Hadoop3TezStreamGraph extends NodeStreamGraph
   @Override
   protected MemoryHashJoinGate createNonBlockingJoinGate( HashJoin join )
     {
-    return new HadoopMemoryJoinGate( flowProcess, join ); // does not use a latch
+    Hadoop3TezFlowProcess tezProcess = (Hadoop3TezFlowProcess) flowProcess;
+
+    if( !TezContainerCache.isEnabled( tezProcess.getConfiguration(), tezProcess.getContext() ) )
+      return new HadoopMemoryJoinGate( flowProcess, join ); // does not use a latch
+
+    TezMemoryJoinGate joinGate = new TezMemoryJoinGate( tezProcess, join );
+
+    cachingJoinGates.add( joinGate );
+
+    return joinGate;
+    }
+
+  @Override
+  protected MemoryCoGroupGate createBlockingJoinGate( HashJoin join )
+    {
+    hasBlockingJoinGate = true;
+
+    return super.createBlockingJoinGate( join );
+    }
+
+  /**
+   * Method restoreAccumulated restores the accumulated tables of every HashJoin in this graph from those cached by
+   * a prior task attempt in this container, see {@link TezContainerCache}. If true, the accumulated sources must
+   * not be run. Must be called after {@link #prepare()}.
+   *
+   * @return true if all accumulated tables were restored
+   */
+  public boolean restoreAccumulated()
+    {
+    // all or nothing, the accumulated sources are either all run or not at all
+    if( cachingJoinGates.isEmpty() || hasBlockingJoinGate )
+      return false;
+
+    for( TezMemoryJoinGate joinGate : cachingJoinGates )
+      {
+      if( !joinGate.isCached() )
+        {
+        flowProcess.increment( TezNodeStats.ContainerReuse.Join_Table_Misses, cachingJoinGates.size() );
+        return false;
+        }
+      }
+
+    for( TezMemoryJoinGate joinGate : cachingJoinGates )
+      joinGate.restore();
+
+    return true;
+    }
+
+  /**
+   * Method storeAccumulated caches the accumulated tables of every HashJoin in this graph for subsequent task
+   * attempts in this container. Must be called after all accumulated sources have been run.
+   */
+  public void storeAccumulated()
+    {
+    if( hasBlockingJoinGate )
+      return;
+
+    for( TezMemoryJoinGate joinGate : cachingJoinGates )
+      joinGate.store();
     }
   }
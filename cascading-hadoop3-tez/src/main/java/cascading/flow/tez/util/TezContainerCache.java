@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.tez.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import cascading.util.Util;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.tez.runtime.api.TaskContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class TezContainerCache is a JVM scoped cache retaining read-only values, deserialized node plans and accumulated
+ * {@link cascading.pipe.HashJoin} tables, across the task attempts run by a reused Apache Tez container.
+ * <p>
+ * Values are keyed by a hash of their content, the serialized node plan, or the node plan and the
+ * {@link cascading.pipe.HashJoin} the table belongs to, so tasks only share values derived from identical inputs.
+ * All values are dropped when a task of a different DAG, or DAG attempt, is observed. Retried task attempts never
+ * read or write the cache, as a failed attempt may have left a cached value in an unknown state. Values are retained until the sum of their estimated sizes exceeds
+ * the {@link #CONTAINER_CACHE_MAX_BYTES} budget, then the least recently used values are evicted.
+ * <p>
+ * The cache is disabled by default, enable by setting {@link #CONTAINER_CACHE_ENABLED} to {@code true}. As a cached
+ * plan is shared by every subsequent task attempt in the container, enable only if no {@link cascading.operation.Operation}
+ * retains state outside of its {@link cascading.operation.OperationCall} context.
+ *
+ * @see cascading.stats.tez.TezNodeStats.ContainerReuse
+ */
+public class TezContainerCache
+  {
+  private static final Logger LOG = LoggerFactory.getLogger( TezContainerCache.class );
+
+  /** Property CONTAINER_CACHE_ENABLED enables caching values across task attempts in a reused container. */
+  public static final String CONTAINER_CACHE_ENABLED = "cascading.tez.container.cache.enabled";
+  /** Property CONTAINER_CACHE_MAX_BYTES is the estimated number of bytes all cached values may retain. */
+  public static final String CONTAINER_CACHE_MAX_BYTES = "cascading.tez.container.cache.max.bytes";
+  /** Field DEFAULT_MAX_HEAP_FRACTION is the fraction of the maximum heap used when no budget is given. */
+  public static final double DEFAULT_MAX_HEAP_FRACTION = 0.25;
+  /** Field PLAN_DIGEST is set on the task configuration to the content hash of the node plan. */
+  public static final String PLAN_DIGEST = "cascading.tez.container.cache.plan.digest";
+
+  private static final TezContainerCache INSTANCE = new TezContainerCache();
+
+  private static class Entry
+    {
+    final Object value;
+    final long bytes;
+
+    Entry( Object value, long bytes )
+      {
+      this.value = value;
+      this.bytes = bytes;
+      }
+    }
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+  private String dagID;
+  private long bytes;
+
+  public static TezContainerCache getInstance()
+    {
+    return INSTANCE;
+    }
+
+  /**
+   * Method isEnabled returns true if the cache is enabled and the given task is not a retried attempt.
+   *
+   * @param configuration of type Configuration
+   * @param context       of type TaskContext
+   * @return boolean
+   */
+  public static boolean isEnabled( Configuration configuration, TaskContext context )
+    {
+    return configuration.getBoolean( CONTAINER_CACHE_ENABLED, false ) && context.getTaskAttemptNumber() == 0;
+    }
+
+  /**
+   * Method getMaxBytes returns the cache budget in bytes, by default a fraction of the maximum heap.
+   *
+   * @param configuration of type Configuration
+   * @return long
+   */
+  public static long getMaxBytes( Configuration configuration )
+    {
+    return configuration.getLong( CONTAINER_CACHE_MAX_BYTES, (long) ( Runtime.getRuntime().maxMemory() * DEFAULT_MAX_HEAP_FRACTION ) );
+    }
+
+  /**
+   * Method createKey returns a key holding a hash of the given content.
+   *
+   * @param kind    of type String
+   * @param content of type String...
+   * @return String
+   */
+  public static String createKey( String kind, String... content )
+    {
+    return kind + ":" + Util.createID( Util.join( content, ":" ) );
+    }
+
+  /**
+   * Method getDAGID returns the identifier of the DAG attempt of the given task, unique within the container.
+   *
+   * @param context of type TaskContext
+   * @return String
+   */
+  public static String getDAGID( TaskContext context )
+    {
+    return context.getApplicationId() + ":" + context.getDagIdentifier() + ":" + context.getDAGAttemptNumber();
+    }
+
+  TezContainerCache()
+    {
+    }
+
+  /**
+   * Method get returns the value cached for the given key by a prior task attempt of the same DAG, or null.
+   *
+   * @param dagID of type String
+   * @param key   of type String
+   * @return Object
+   */
+  public synchronized Object get( String dagID, String key )
+    {
+    resetOnNewDAG( dagID );
+
+    Entry entry = entries.get( key );
+
+    return entry == null ? null : entry.value;
+    }
+
+  /**
+   * Method put caches the given value of the given estimated size, and returns the number of bytes evicted to remain
+   * within the given budget. Values larger than the budget are not cached.
+   *
+   * @param dagID    of type String
+   * @param key      of type String
+   * @param value    of type Object
+   * @param size     of type long
+   * @param maxBytes of type long
+   * @return long
+   */
+  public synchronized long put( String dagID, String key, Object value, long size, long maxBytes )
+    {
+    resetOnNewDAG( dagID );
+
+    if( size > maxBytes )
+      {
+      LOG.info( "not caching: {}, estimated size: {}, exceeds budget: {}", key, size, maxBytes );
+      return 0;
+      }
+
+    Entry prior = entries.put( key, new Entry( value, size ) );
+
+    if( prior != null )
+      bytes -= prior.bytes;
+
+    bytes += size;
+
+    long evicted = 0;
+    Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+
+    // eldest first, never the value just added as it is youngest
+    while( bytes > maxBytes && iterator.hasNext() )
+      {
+      Map.Entry<String, Entry> eldest = iterator.next();
+
+      iterator.remove();
+
+      bytes -= eldest.getValue().bytes;
+      evicted += eldest.getValue().bytes;
+
+      LOG.info( "evicted: {}, estimated size: {}", eldest.getKey(), eldest.getValue().bytes );
+      }
+
+    return evicted;
+    }
+
+  synchronized long getBytes()
+    {
+    return bytes;
+    }
+
+  synchronized int size()
+    {
+    return entries.size();
+    }
+
+  private void resetOnNewDAG( String dagID )
+    {
+    if( dagID.equals( this.dagID ) )
+      return;
+
+    if( !entries.isEmpty() )
+      LOG.info( "dropping {} cached values of prior dag: {}", entries.size(), this.dagID );
+
+    entries.clear();
+    bytes = 0;
+    this.dagID = dagID;
+    }
+  }
@@ -35,6 +35,7 @@ import cascading.flow.hadoop.util.HadoopUtil;
 import cascading.tap.type.FileType;
 import cascading.util.Util;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.LocalFileSystem;
@@ -264,6 +265,37 @@ public class TezUtil
     return getCommonPaths( localPaths, remotePaths );
     }
 
+  /**
+   * Method addToLocalResources writes the given bytes to a file of the given name under the staging root on the
+   * default file system, and adds the file as a local resource so it is localized into the working directory of
+   * each task.
+   *
+   * @param config         of type Configuration
+   * @param stagingRoot    of type String
+   * @param fileName       of type String
+   * @param bytes          of type byte[]
+   * @param localResources of type Map
+   */
+  public static void addToLocalResources( Configuration config, String stagingRoot, String fileName, byte[] bytes, Map<String, LocalResource> localResources )
+    {
+    try
+      {
+      FileSystem defaultFS = HadoopUtil.getDefaultFS( config );
+      Path path = defaultFS.makeQualified( new Path( stagingRoot, fileName ) );
+
+      try( FSDataOutputStream outputStream = defaultFS.create( path, true ) )
+        {
+        outputStream.write( bytes );
+        }
+
+      addResource( localResources, null, fileName, defaultFS.getFileStatus( path ), path, LocalResourceType.FILE );
+      }
+    catch( IOException exception )
+      {
+      throw new FlowException( "unable to stage local resource: " + fileName, exception );
+      }
+    }
+
   protected static void addResource( Map<String, LocalResource> localResources, Map<String, String> environment, String fileName, FileStatus stats, Path fullPath, LocalResourceType type ) throws IOException
     {
     if( localResources.containsKey( fileName ) )
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.flow.tez;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cascading.PlatformTestCase;
+import cascading.flow.Flow;
+import cascading.flow.tez.util.TezContainerCache;
+import cascading.pipe.GroupBy;
+import cascading.pipe.HashJoin;
+import cascading.pipe.Pipe;
+import cascading.stats.tez.TezNodeStats;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+import static data.InputData.inputFileLower;
+import static data.InputData.inputFileUpper;
+
+/**
+ *
+ */
+public class TezContainerCachePlatformTest extends PlatformTestCase
+  {
+  public TezContainerCachePlatformTest()
+    {
+    super( true, 1, 4 );
+    }
+
+  @Test
+  public void testHashJoinRestoredTable() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    Map<String, Tap> sources = new HashMap<>();
+
+    sources.put( "lower", getPlatform().getDelimitedFile( new Fields( "num", "lower" ), " ", inputFileLower ) );
+    sources.put( "upper", getPlatform().getDelimitedFile( new Fields( "num2", "upper" ), " ", inputFileUpper ) );
+
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "lower", "num2", "upper" ), "\t", getOutputPath( "restored" ), SinkMode.REPLACE );
+
+    // the streamed side is gathered into several tasks, each accumulating the same broadcast
+    Pipe lower = new GroupBy( new Pipe( "lower" ), new Fields( "num" ) );
+    Pipe join = new HashJoin( lower, new Fields( "num" ), new Pipe( "upper" ), new Fields( "num2" ) );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( TezContainerCache.CONTAINER_CACHE_ENABLED, "true" );
+    properties.put( "tez.am.inline.task.execution.max-tasks", "1" ); // run local tasks one at a time
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( sources, sink, join );
+
+    flow.complete();
+
+    List<Tuple> values = getSinkAsList( flow );
+
+    assertEquals( 5, values.size() );
+    assertTrue( values.contains( new Tuple( "1", "a", "1", "A" ) ) );
+    assertTrue( values.contains( new Tuple( "2", "b", "2", "B" ) ) );
+    assertTrue( values.contains( new Tuple( "3", "c", "3", "C" ) ) );
+    assertTrue( values.contains( new Tuple( "4", "d", "4", "D" ) ) );
+    assertTrue( values.contains( new Tuple( "5", "e", "5", "E" ) ) );
+
+    long hits = flow.getStats().getCounterValue( TezNodeStats.ContainerReuse.Join_Table_Hits );
+    long misses = flow.getStats().getCounterValue( TezNodeStats.ContainerReuse.Join_Table_Misses );
+
+    assertEquals( 4, hits + misses );
+
+    // local mode runs all tasks in the same jvm, a task restoring the table never reads its broadcast input
+    if( !getPlatform().isUseCluster() )
+      assertTrue( hits > 0 );
+    }
+  }
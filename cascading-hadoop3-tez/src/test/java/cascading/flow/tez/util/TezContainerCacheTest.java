@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.tez.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ */
+public class TezContainerCacheTest
+  {
+  @Test
+  public void testEviction()
+    {
+    TezContainerCache cache = new TezContainerCache();
+
+    assertEquals( 0, cache.put( "dag1", "a", "A", 40, 100 ) );
+    assertEquals( 0, cache.put( "dag1", "b", "B", 40, 100 ) );
+
+    assertEquals( "A", cache.get( "dag1", "a" ) ); // b is now eldest
+
+    assertEquals( 40, cache.put( "dag1", "c", "C", 40, 100 ) );
+
+    assertNull( cache.get( "dag1", "b" ) );
+    assertEquals( "A", cache.get( "dag1", "a" ) );
+    assertEquals( "C", cache.get( "dag1", "c" ) );
+    assertEquals( 80, cache.getBytes() );
+
+    // never cached if larger than the budget
+    assertEquals( 0, cache.put( "dag1", "d", "D", 101, 100 ) );
+    assertNull( cache.get( "dag1", "d" ) );
+    assertEquals( 2, cache.size() );
+
+    // replacing a value does not count the prior value
+    assertEquals( 0, cache.put( "dag1", "c", "C2", 20, 100 ) );
+    assertEquals( 60, cache.getBytes() );
+    }
+
+  @Test
+  public void testCreateKey()
+    {
+    assertEquals( TezContainerCache.createKey( "join", "plan", "id" ), TezContainerCache.createKey( "join", "plan", "id" ) );
+    assertNotEquals( TezContainerCache.createKey( "join", "plan", "id" ), TezContainerCache.createKey( "join", "plan2", "id" ) );
+    assertNotEquals( TezContainerCache.createKey( "join", "plan", "id" ), TezContainerCache.createKey( "plan", "plan", "id" ) );
+    }
+
+  @Test
+  public void testNewDAG()
+    {
+    TezContainerCache cache = new TezContainerCache();
+
+    cache.put( "dag1", "a", "A", 40, 100 );
+
+    assertNull( cache.get( "dag2", "a" ) );
+    assertEquals( 0, cache.size() );
+    assertEquals( 0, cache.getBytes() );
+
+    cache.put( "dag2", "a", "A2", 40, 100 );
+
+    assertEquals( "A2", cache.get( "dag2", "a" ) );
+    }
+  }
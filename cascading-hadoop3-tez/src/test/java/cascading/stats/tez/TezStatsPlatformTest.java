@@ -22,11 +22,13 @@ package cascading.stats.tez;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import cascading.PlatformTestCase;
 import cascading.cascade.Cascade;
 import cascading.cascade.CascadeConnector;
 import cascading.flow.Flow;
+import cascading.flow.FlowRuntimeProps;
 import cascading.flow.SliceCounters;
 import cascading.operation.regex.RegexParser;
 import cascading.operation.state.Counter;
@@ -199,4 +201,47 @@ public class TezStatsPlatformTest extends PlatformTestCase
       }
      */
     }
+
+  @Test
+  public void testAdaptiveGatherPartitions() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "adaptive" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+    pipe = new Each( pipe, new Counter( TestEnum.FIRST ) );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "adaptive" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = FlowRuntimeProps.flowRuntimeProps()
+      .setGatherPartitions( 4 )
+      .setAdaptiveGatherPartitions( true )
+      .setMaxGatherPartitions( 8 )
+      .setGatherPartitionBytes( 1024 * 1024 )
+      .buildProperties( getProperties() );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( "adaptive test", source, sink, pipe );
+
+    flow.complete();
+
+    assertEquals( 10, flow.getFlowStats().getCounterValue( TestEnum.FIRST ) );
+
+    List<FlowNodeStats> flowNodeStats = flow.getFlowStats().getFlowStepStats().get( 0 ).getFlowNodeStats();
+
+    assertEquals( 2, flowNodeStats.size() );
+
+    TezNodeStats node1 = (TezNodeStats) flowNodeStats.get( 0 );
+    TezNodeStats node2 = (TezNodeStats) flowNodeStats.get( 1 );
+
+    assertFalse( node1.isAdaptive() );
+    assertTrue( node2.isAdaptive() );
+    assertEquals( 8, node2.getPlannedTaskCount() );
+
+    if( getPlatform().isUseCluster() )
+      assertTrue( node2.getTotalTaskCount() < 8 );
+    }
   }
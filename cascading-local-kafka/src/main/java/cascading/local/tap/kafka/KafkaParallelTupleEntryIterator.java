@@ -0,0 +1,504 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.local.tap.kafka;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cascading.flow.FlowProcess;
+import cascading.local.tap.kafka.commit.CommitListener;
+import cascading.local.tap.kafka.commit.CommittingRebalanceListener;
+import cascading.local.tap.kafka.commit.OffsetRecorderIterator;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntryIterator;
+import cascading.tuple.TupleEntrySchemeIterator;
+import cascading.tuple.TupleException;
+import cascading.util.CloseableIterator;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class KafkaParallelTupleEntryIterator reads the topics of a {@link KafkaTap} with many {@link Consumer} instances,
+ * each polling and converting records into {@link Tuple} instances, via the {@link KafkaScheme}, on its own thread.
+ * <p>
+ * All consumers share the same group, so topic partitions are assigned across the consumers by the Kafka group
+ * protocol. Converted tuples are handed to the reading thread in batches through a bounded queue.
+ * <p>
+ * The offsets of a batch are only committed after every tuple in the batch has been returned, and the
+ * next batch is requested, by the reading thread. Offsets are committed asynchronously by the owning
+ * consumer thread as batches are completed, and synchronously on partition revocation and close, providing
+ * at-least-once delivery. A batch only partially consumed when this iterator is closed, on a failure for example,
+ * will not be committed.
+ * <p>
+ * A consumer thread completes when its poll returns no records within the {@code pollTimeout}, and this iterator
+ * completes once all the consumer threads have completed. If any consumer thread fails, {@link #hasNext()} will
+ * throw the failure, so it cannot be trapped as a bad tuple, and the remaining consumers are stopped on close.
+ * <p>
+ * The KafkaScheme must keep all source state in its source context, as it will be called concurrently.
+ */
+public class KafkaParallelTupleEntryIterator<K, V> extends TupleEntryIterator
+  {
+  /** Field LOG */
+  private static final Logger LOG = LoggerFactory.getLogger( KafkaParallelTupleEntryIterator.class );
+
+  private final KafkaTap<K, V> tap;
+  private final FlowProcess<? extends Properties> flowProcess;
+  private final int batchSize;
+  private final BlockingQueue<Batch> queue;
+  private final List<Reader> readers = new ArrayList<>();
+
+  private volatile boolean closed = false;
+  private volatile RuntimeException failure;
+  private int completed = 0;
+  private Batch current;
+  private int index;
+
+  private class Batch
+    {
+    final Reader reader;
+    final List<Object> values; // a Tuple, or a RuntimeException to be thrown in its place
+    final Map<TopicPartition, OffsetAndMetadata> offsets;
+
+    Batch( Reader reader, List<Object> values, Map<TopicPartition, OffsetAndMetadata> offsets )
+      {
+      this.reader = reader;
+      this.values = values;
+      this.offsets = offsets;
+      }
+
+    boolean isLast()
+      {
+      return values == null;
+      }
+    }
+
+  /**
+   * Constructor KafkaParallelTupleEntryIterator creates a new KafkaParallelTupleEntryIterator instance.
+   *
+   * @param flowProcess        of FlowProcess
+   * @param tap                of KafkaTap
+   * @param consumerProperties of Properties
+   * @param numThreads         of int
+   * @param batchSize          of int
+   */
+  public KafkaParallelTupleEntryIterator( FlowProcess<? extends Properties> flowProcess, KafkaTap<K, V> tap, Properties consumerProperties, int numThreads, int batchSize )
+    {
+    super( tap.getSourceFields() );
+    this.flowProcess = flowProcess;
+    this.tap = tap;
+    this.batchSize = Math.max( 1, batchSize );
+    this.queue = new ArrayBlockingQueue<>( numThreads * 2 );
+
+    String clientID = consumerProperties.getProperty( ConsumerConfig.CLIENT_ID_CONFIG );
+
+    for( int i = 0; i < numThreads; i++ )
+      {
+      Properties properties = new Properties();
+
+      properties.putAll( consumerProperties );
+
+      if( clientID != null )
+        properties.setProperty( ConsumerConfig.CLIENT_ID_CONFIG, clientID + "-" + i );
+
+      readers.add( new Reader( tap.createParallelKafkaConsumer( properties ), i ) );
+      }
+
+    for( Reader reader : readers )
+      reader.thread.start();
+    }
+
+  @Override
+  public boolean hasNext()
+    {
+    while( true )
+      {
+      if( failure != null )
+        throw new TupleException( "unable to read from: " + tap.getIdentifier(), failure );
+
+      if( current != null && index < current.values.size() )
+        return true;
+
+      completeCurrent();
+
+      if( completed == readers.size() )
+        return false;
+
+      current = take();
+      index = 0;
+
+      if( current.isLast() )
+        {
+        completed++;
+        current = null;
+        }
+      }
+    }
+
+  @Override
+  public TupleEntry next()
+    {
+    if( !hasNext() )
+      throw new NoSuchElementException( "no more elements" );
+
+    Object value = current.values.get( index++ );
+
+    if( value instanceof RuntimeException )
+      throw (RuntimeException) value;
+
+    TupleEntry entry = getTupleEntry();
+
+    entry.setTuple( (Tuple) value );
+
+    return entry;
+    }
+
+  private Batch take()
+    {
+    try
+      {
+      return queue.take();
+      }
+    catch( InterruptedException exception )
+      {
+      Thread.currentThread().interrupt();
+      throw new TupleException( "interrupted reading from: " + tap.getIdentifier(), exception );
+      }
+    }
+
+  private void completeCurrent()
+    {
+    if( current == null )
+      return;
+
+    current.reader.complete( current.offsets );
+    current = null;
+    }
+
+  @Override
+  public void remove()
+    {
+    throw new UnsupportedOperationException( "may not remove elements from this iterator" );
+    }
+
+  @Override
+  public void close() throws IOException
+    {
+    if( closed )
+      return;
+
+    if( current != null && index == current.values.size() )
+      completeCurrent();
+
+    closed = true;
+    queue.clear(); // release any waiting readers
+
+    for( Reader reader : readers )
+      {
+      try
+        {
+        reader.thread.join();
+        }
+      catch( InterruptedException exception )
+        {
+        Thread.currentThread().interrupt();
+        break;
+        }
+      }
+    }
+
+  private class Reader implements Runnable, CommitListener
+    {
+    final Consumer<K, V> consumer;
+    final Thread thread;
+    final Map<TopicPartition, OffsetAndMetadata> readOffsets = new HashMap<>();
+    final Map<TopicPartition, OffsetAndMetadata> processedOffsets = new HashMap<>();
+    final BlockingQueue<Map<TopicPartition, OffsetAndMetadata>> completed = new LinkedBlockingQueue<>();
+    final AtomicInteger outstanding = new AtomicInteger();
+    Iterator<ConsumerRecord<K, V>> records = Collections.emptyIterator();
+    boolean polling = true;
+
+    Reader( Consumer<K, V> consumer, int ordinal )
+      {
+      this.consumer = consumer;
+      this.thread = new Thread( this, "kafka-reader-" + ordinal );
+      this.thread.setDaemon( true );
+      }
+
+    void complete( Map<TopicPartition, OffsetAndMetadata> offsets )
+      {
+      completed.add( offsets );
+      outstanding.decrementAndGet();
+      }
+
+    @Override
+    public void run()
+      {
+      try
+        {
+        read();
+        }
+      catch( RuntimeException exception )
+        {
+        LOG.error( "consumer thread failed reading from: {}", tap.getIdentifier(), exception );
+
+        if( failure == null )
+          failure = exception; // fails the iterator, not a single tuple, see hasNext
+        }
+      finally
+        {
+        try
+          {
+          put( new Batch( this, null, null ) );
+
+          while( !closed && outstanding.get() > 0 )
+            commit( completed.poll( 100, TimeUnit.MILLISECONDS ) );
+
+          commit( completed.poll() );
+          commitSync();
+          }
+        catch( InterruptedException exception )
+          {
+          Thread.currentThread().interrupt();
+          }
+        finally
+          {
+          consumer.close();
+          }
+        }
+      }
+
+    private void read()
+      {
+      tap.subscribe( consumer, new CommittingRebalanceListener<>( tap.getConsumerRebalanceListener( consumer ), consumer, this, processedOffsets ) );
+
+      TupleEntrySchemeIterator<Properties, Iterator<ConsumerRecord<K, V>>> iterator = new TupleEntrySchemeIterator<>( flowProcess, tap, tap.getScheme(), new Polls() );
+
+      try
+        {
+        List<Object> values = new ArrayList<>( batchSize );
+
+        while( !closed && iterator.hasNext() )
+          {
+          try
+            {
+            values.add( iterator.next().getTupleCopy() );
+            }
+          catch( RuntimeException exception )
+            {
+            values.add( exception ); // may be trapped downstream
+            }
+
+          // hand off on a full batch, or when the current poll is exhausted so not to wait on the next poll
+          if( values.size() >= batchSize || !records.hasNext() )
+            {
+            handOff( values );
+            values = new ArrayList<>( batchSize );
+            }
+
+          drainCompleted();
+          }
+
+        if( !values.isEmpty() )
+          handOff( values );
+        }
+      finally
+        {
+        try
+          {
+          iterator.close();
+          }
+        catch( IOException exception )
+          {
+          LOG.warn( "unable to close scheme", exception );
+          }
+        }
+      }
+
+    private void handOff( List<Object> values )
+      {
+      outstanding.incrementAndGet();
+
+      if( !put( new Batch( this, values, new HashMap<>( readOffsets ) ) ) )
+        outstanding.decrementAndGet();
+      }
+
+    private boolean put( Batch batch )
+      {
+      try
+        {
+        while( !closed )
+          {
+          if( queue.offer( batch, 100, TimeUnit.MILLISECONDS ) )
+            return true;
+
+          drainCompleted();
+          }
+        }
+      catch( InterruptedException exception )
+        {
+        Thread.currentThread().interrupt();
+        }
+
+      return false;
+      }
+
+    private void drainCompleted()
+      {
+      commit( completed.poll() );
+      }
+
+    private void commit( Map<TopicPartition, OffsetAndMetadata> offsets )
+      {
+      if( offsets == null )
+        return;
+
+      // later batches hold the most recent offsets
+      for( Map<TopicPartition, OffsetAndMetadata> next = completed.poll(); next != null; next = completed.poll() )
+        offsets = next;
+
+      processedOffsets.putAll( offsets );
+      processedOffsets.keySet().retainAll( consumer.assignment() ); // revoked partitions were committed on revoke
+
+      if( processedOffsets.isEmpty() )
+        return;
+
+      consumer.commitAsync( new HashMap<>( processedOffsets ), ( committed, exception ) ->
+      {
+      if( exception != null )
+        LOG.warn( "failed committing offsets asynchronously: {}", committed, exception );
+      } );
+      }
+
+    private void commitSync()
+      {
+      processedOffsets.keySet().retainAll( consumer.assignment() );
+
+      if( processedOffsets.isEmpty() )
+        return;
+
+      try
+        {
+        consumer.commitSync( processedOffsets );
+        }
+      catch( RuntimeException exception )
+        {
+        LOG.error( "failed committing offsets on close", exception );
+        }
+      }
+
+    @Override
+    public boolean onFail( Consumer consumer, RuntimeException exception, Map<TopicPartition, OffsetAndMetadata> offsets )
+      {
+      LOG.error( "failed committing offsets on partition revoke", exception );
+
+      return false;
+      }
+
+    /** Class Polls returns the records of each poll, until a poll returns no records, or the iterator is closed. */
+    private class Polls implements CloseableIterator<Iterator<ConsumerRecord<K, V>>>
+      {
+      ConsumerRecords<K, V> polled;
+
+      @Override
+      public boolean hasNext()
+        {
+        if( polled != null )
+          return true;
+
+        if( !polling || closed )
+          return false;
+
+        polled = consumer.poll( tap.pollTimeout );
+
+        if( polled.isEmpty() )
+          {
+          polling = false;
+          polled = null;
+          }
+
+        return polled != null;
+        }
+
+      @Override
+      public Iterator<ConsumerRecord<K, V>> next()
+        {
+        if( !hasNext() )
+          throw new NoSuchElementException( "no more elements" );
+
+        records = new OffsetRecorderIterator<>( readOffsets, polled.iterator() );
+        polled = null;
+
+        return new KafkaConsumerRecordIterator<K, V>()
+          {
+          @Override
+          protected Consumer<K, V> getConsumer()
+            {
+            return consumer;
+            }
+
+          @Override
+          public void close()
+            {
+            polling = false;
+            records = Collections.emptyIterator();
+            }
+
+          @Override
+          public boolean hasNext()
+            {
+            return records.hasNext();
+            }
+
+          @Override
+          public ConsumerRecord<K, V> next()
+            {
+            return records.next();
+            }
+          };
+        }
+
+      @Override
+      public void close()
+        {
+        polling = false;
+        }
+      }
+    }
+  }
@@ -91,6 +91,9 @@ import org.slf4j.LoggerFactory;
  * Note on read, the KafkaTap will continue to retrieve data until the {@code pollTimeout} is reached, where the
  * default is 10 seconds.
  * <p>
+ * If the {@link #CONSUMER_THREADS} property is greater than one, the topic partitions are read in parallel by as many
+ * consumers, sharing the same group, each on its own thread, see {@link KafkaParallelTupleEntryIterator}.
+ * <p>
  * Use the {@code defaultProperties} argument to set Kafka Consumer/Producer specific properties.
  * <p>
  * By default, {@link #CONSUME_AUTO_COMMIT_EARLIEST} with values:
@@ -154,6 +157,12 @@ public class KafkaTap<K, V> extends Tap<Properties, KafkaConsumerRecordIterator<
   public static final short DEFAULT_REPLICATION_FACTOR = 1;
   /** Field DEFAULT_NUM_PARTITIONS */
   public static final int DEFAULT_NUM_PARTITIONS = 1;
+  /** Field CONSUMER_THREADS, the number of consumer threads to read with */
+  public static final String CONSUMER_THREADS = "cascading.tap.kafka.consumer.threads";
+  /** Field CONSUMER_BATCH_SIZE, the maximum number of tuples handed from a consumer thread at once */
+  public static final String CONSUMER_BATCH_SIZE = "cascading.tap.kafka.consumer.batch.size";
+  /** Field DEFAULT_CONSUMER_BATCH_SIZE */
+  public static final int DEFAULT_CONSUMER_BATCH_SIZE = 500;
 
   /** Field defaultProperties */
   Properties defaultProperties = PropertyUtil.merge( CONSUME_AUTO_COMMIT_EARLIEST, PRODUCE_ACK_ALL_NO_RETRY );
@@ -775,8 +784,14 @@ public class KafkaTap<K, V> extends Tap<Properties, KafkaConsumerRecordIterator<
     return new ForwardingConsumer<>( properties );
     }
 
-  @Override
-  public TupleEntryIterator openForRead( FlowProcess<? extends Properties> flowProcess, KafkaConsumerRecordIterator<K, V> consumerRecord ) throws IOException
+  /**
+   * Method createConsumerProperties returns the properties used to create a {@link Consumer}, including any
+   * properties set by the {@link KafkaScheme}.
+   *
+   * @param flowProcess of FlowProcess
+   * @return Properties
+   */
+  protected Properties createConsumerProperties( FlowProcess<? extends Properties> flowProcess )
     {
     Properties props = PropertyUtil.merge( flowProcess.getConfig(), defaultProperties );
 
@@ -793,17 +808,54 @@ public class KafkaTap<K, V> extends Tap<Properties, KafkaConsumerRecordIterator<
 
     sourceConfInit( flowProcess, props );
 
-    Properties consumerProperties = PropertyUtil.retain( props, ConsumerConfig.configNames() );
-    Consumer<K, V> consumer = createKafkaConsumer( consumerProperties );
+    return props;
+    }
 
+  void subscribe( Consumer<K, V> consumer, ConsumerRebalanceListener listener )
+    {
     preConsumerSubscribe( consumer );
 
     if( isTopicPattern )
-      consumer.subscribe( Pattern.compile( topics[ 0 ] ), getConsumerRebalanceListener( consumer ) );
+      consumer.subscribe( Pattern.compile( topics[ 0 ] ), listener );
     else
-      consumer.subscribe( Arrays.asList( getTopics() ), getConsumerRebalanceListener( consumer ) );
+      consumer.subscribe( Arrays.asList( getTopics() ), listener );
 
     postConsumerSubscribe( consumer );
+    }
+
+  /**
+   * Method createParallelKafkaConsumer returns a new {@link Consumer} for use by a single consumer thread when
+   * reading with more than one {@link #CONSUMER_THREADS}. Offsets are committed by the reading threads, so
+   * Kafka auto-commit is disabled on the given properties before they are handed to
+   * {@link #createKafkaConsumer(Properties)}.
+   *
+   * @param properties of Properties
+   * @return a Consumer instance
+   */
+  protected Consumer<K, V> createParallelKafkaConsumer( Properties properties )
+    {
+    properties.setProperty( ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false" );
+
+    return createKafkaConsumer( properties );
+    }
+
+  @Override
+  public TupleEntryIterator openForRead( FlowProcess<? extends Properties> flowProcess, KafkaConsumerRecordIterator<K, V> consumerRecord ) throws IOException
+    {
+    Properties props = createConsumerProperties( flowProcess );
+    int numThreads = Integer.parseInt( props.getProperty( CONSUMER_THREADS, "1" ) );
+
+    if( numThreads > 1 )
+      {
+      int batchSize = Integer.parseInt( props.getProperty( CONSUMER_BATCH_SIZE, String.valueOf( DEFAULT_CONSUMER_BATCH_SIZE ) ) );
+
+      return new KafkaParallelTupleEntryIterator<>( flowProcess, this, PropertyUtil.retain( props, ConsumerConfig.configNames() ), numThreads, batchSize );
+      }
+
+    Properties consumerProperties = PropertyUtil.retain( props, ConsumerConfig.configNames() );
+    Consumer<K, V> consumer = createKafkaConsumer( consumerProperties );
+
+    subscribe( consumer, getConsumerRebalanceListener( consumer ) );
 
     CloseableIterator<Iterator<ConsumerRecord<K, V>>> iterator = new CloseableIterator<Iterator<ConsumerRecord<K, V>>>()
       {
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.local.tap.kafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cascading.CascadingTestCase;
+import cascading.flow.FlowProcess;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntryIterator;
+import cascading.tuple.TupleException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class KafkaParallelTupleEntryIteratorTest extends CascadingTestCase
+  {
+  public static final String TOPIC = "parallel-topic";
+  public static final int NUM_PARTITIONS = 4;
+  public static final int NUM_RECORDS = 100;
+
+  /** Class MockKafkaTap assigns each consumer a share of the partitions, standing in for a broker. */
+  static class MockKafkaTap extends KafkaTap<String, String>
+    {
+    final int numThreads;
+    boolean failPoll = false;
+    final AtomicInteger ordinal = new AtomicInteger();
+    final Map<TopicPartition, Long> committed = new ConcurrentHashMap<>();
+
+    MockKafkaTap( int numThreads, int batchSize )
+      {
+      super( properties( numThreads, batchSize ), new TextKafkaScheme(), "localhost:9092", "test-client", new String[]{TOPIC} );
+      this.numThreads = numThreads;
+      }
+
+    static Properties properties( int numThreads, int batchSize )
+      {
+      Properties properties = new Properties();
+
+      properties.setProperty( CONSUMER_THREADS, String.valueOf( numThreads ) );
+      properties.setProperty( CONSUMER_BATCH_SIZE, String.valueOf( batchSize ) );
+
+      return properties;
+      }
+
+    @Override
+    protected Consumer<String, String> createKafkaConsumer( Properties properties )
+      {
+      assertEquals( "false", properties.getProperty( ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG ) );
+
+      MockConsumer<String, String> consumer = new MockConsumer<String, String>( OffsetResetStrategy.EARLIEST )
+        {
+        @Override
+        public synchronized void commitAsync( Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback )
+          {
+          record( offsets );
+          super.commitAsync( offsets, callback );
+          }
+
+        @Override
+        public synchronized void commitSync( Map<TopicPartition, OffsetAndMetadata> offsets )
+          {
+          record( offsets );
+          super.commitSync( offsets );
+          }
+        };
+
+      int current = ordinal.getAndIncrement();
+      List<TopicPartition> partitions = new ArrayList<>();
+      Map<TopicPartition, Long> beginning = new HashMap<>();
+
+      for( int partition = current; partition < NUM_PARTITIONS; partition += numThreads )
+        {
+        TopicPartition topicPartition = new TopicPartition( TOPIC, partition );
+
+        partitions.add( topicPartition );
+        beginning.put( topicPartition, 0L );
+        }
+
+      consumer.updateBeginningOffsets( beginning );
+
+      if( failPoll )
+        consumer.setException( new KafkaException( "poll failed" ) );
+
+      consumer.schedulePollTask( () ->
+      {
+      consumer.rebalance( partitions );
+
+      for( TopicPartition partition : partitions )
+        {
+        for( int offset = 0; offset < NUM_RECORDS; offset++ )
+          consumer.addRecord( new ConsumerRecord<>( TOPIC, partition.partition(), offset, "key", partition.partition() + ":" + offset ) );
+        }
+      } );
+
+      return consumer;
+      }
+
+    void record( Map<TopicPartition, OffsetAndMetadata> offsets )
+      {
+      for( Map.Entry<TopicPartition, OffsetAndMetadata> entry : offsets.entrySet() )
+        committed.merge( entry.getKey(), entry.getValue().offset(), Math::max );
+      }
+    }
+
+  @Test
+  public void testReadAll() throws Exception
+    {
+    MockKafkaTap tap = new MockKafkaTap( 3, 7 );
+    Set<String> values = new HashSet<>();
+
+    try( TupleEntryIterator iterator = tap.openForRead( FlowProcess.nullFlowProcess() ) )
+      {
+      assertTrue( iterator instanceof KafkaParallelTupleEntryIterator );
+
+      while( iterator.hasNext() )
+        assertTrue( values.add( iterator.next().getString( "value" ) ) );
+      }
+
+    assertEquals( NUM_PARTITIONS * NUM_RECORDS, values.size() );
+    assertEquals( 3, tap.ordinal.get() );
+
+    for( int partition = 0; partition < NUM_PARTITIONS; partition++ )
+      assertEquals( Long.valueOf( NUM_RECORDS ), tap.committed.get( new TopicPartition( TOPIC, partition ) ) );
+    }
+
+  @Test
+  public void testAtLeastOnce() throws Exception
+    {
+    MockKafkaTap tap = new MockKafkaTap( 2, 10 );
+    Map<Integer, Long> consumed = new HashMap<>();
+
+    try( TupleEntryIterator iterator = tap.openForRead( FlowProcess.nullFlowProcess() ) )
+      {
+      for( int i = 0; i < 55 && iterator.hasNext(); i++ )
+        {
+        TupleEntry entry = iterator.next();
+
+        consumed.merge( entry.getInteger( "partition" ), entry.getLong( "offset" ) + 1, Math::max );
+        }
+      }
+
+    assertFalse( tap.committed.isEmpty() );
+
+    // only offsets of fully consumed batches may be committed
+    for( Map.Entry<TopicPartition, Long> entry : tap.committed.entrySet() )
+      {
+      Long offset = consumed.get( entry.getKey().partition() );
+
+      assertNotNull( entry.getKey().toString(), offset );
+      assertTrue( entry.getKey() + " committed: " + entry.getValue() + " consumed: " + offset, entry.getValue() <= offset );
+      }
+    }
+
+  @Test
+  public void testReaderFailure() throws Exception
+    {
+    MockKafkaTap tap = new MockKafkaTap( 2, 10 );
+
+    tap.failPoll = true;
+
+    try( TupleEntryIterator iterator = tap.openForRead( FlowProcess.nullFlowProcess() ) )
+      {
+      while( iterator.hasNext() )
+        {
+        try
+          {
+          iterator.next();
+          }
+        catch( TupleException exception )
+          {
+          // as would be trapped by the source stage
+          }
+        }
+
+      fail( "did not fail the iterator" );
+      }
+    catch( TupleException exception )
+      {
+      // thrown by hasNext, so cannot be trapped as a bad tuple
+      assertTrue( exception.getCause() instanceof KafkaException );
+      }
+    }
+  }
@@ -34,6 +34,7 @@ import java.util.Properties;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
+import cascading.flow.Flow;
 import cascading.flow.FlowProcess;
 import cascading.property.PropertyUtil;
 import cascading.scheme.FileFormat;
@@ -42,6 +43,8 @@ import cascading.tap.SinkMode;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
 import cascading.tap.local.PartitionTap;
+import cascading.tap.manifest.SourceManifest;
+import cascading.tap.manifest.SourceManifestListener;
 import cascading.tap.type.FileType;
 import cascading.tap.type.TapWith;
 import cascading.tuple.TupleEntryCollector;
@@ -69,6 +72,7 @@ import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
 import com.amazonaws.services.s3.transfer.internal.S3ProgressListener;
 import com.amazonaws.services.s3.transfer.model.UploadResult;
+import com.google.common.collect.Iterators;
 import com.google.common.io.ByteSource;
 import com.google.common.io.FileBackedOutputStream;
 import org.slf4j.Logger;
@@ -104,6 +108,10 @@ import static cascading.util.Util.isEmpty;
  * consumed key is passed to the S3Checkpointer, so custom implementations can choose to persist the key more
  * frequently.
  * <p>
+ * Alternatively a {@link SourceManifest} may be set via {@link #setSourceManifest(SourceManifest)} so that every object
+ * is tracked by its key, last modified time, and size. Only objects that are new, or were modified, since the last
+ * successful Flow execution will be read, and the manifest is only committed when the Flow completes successfully.
+ * <p>
  * AWS Credentials are handled by {@link com.amazonaws.auth.DefaultAWSCredentialsProviderChain}.
  */
 public class S3Tap extends Tap<Properties, InputStream, OutputStream> implements FileType<Properties>, TapWith<Properties, InputStream, OutputStream>
@@ -130,6 +138,8 @@ public class S3Tap extends Tap<Properties, InputStream, OutputStream> implements
   String delimiter = DEFAULT_DELIMITER;
   /** Field checkpointer */
   S3Checkpointer checkpointer;
+  /** Field sourceManifest */
+  SourceManifest sourceManifest;
 
   private transient ObjectMetadata objectMetadata;
 
@@ -979,6 +989,35 @@ public class S3Tap extends Tap<Properties, InputStream, OutputStream> implements
     return checkpointer;
     }
 
+  /**
+   * Method getSourceManifest returns the sourceManifest of this S3Tap object, if any.
+   *
+   * @return the sourceManifest (type SourceManifest) of this S3Tap object.
+   */
+  public SourceManifest getSourceManifest()
+    {
+    return sourceManifest;
+    }
+
+  /**
+   * Method setSourceManifest sets the {@link SourceManifest} used to skip objects read during a prior successful
+   * Flow execution.
+   *
+   * @param sourceManifest of type SourceManifest
+   */
+  public void setSourceManifest( SourceManifest sourceManifest )
+    {
+    this.sourceManifest = sourceManifest;
+    }
+
+  @Override
+  public void flowConfInit( Flow<Properties> flow )
+    {
+    super.flowConfInit( flow );
+
+    SourceManifestListener.register( flow, sourceManifest );
+    }
+
   /**
    * Method getBucketName returns the bucketName of this S3Tap object.
    *
@@ -1121,7 +1160,7 @@ public class S3Tap extends Tap<Properties, InputStream, OutputStream> implements
         .withFilter( getFilter() )
         .withMarker( getMarker() );
 
-      Iterator<S3ObjectSummary> iterator = iterable.iterator();
+      Iterator<S3ObjectSummary> iterator = Iterators.filter( iterable.iterator(), summary -> acceptManifest( flowProcess, summary ) );
       InputStream lastInputStream;
 
       @Override
@@ -1185,6 +1224,16 @@ public class S3Tap extends Tap<Properties, InputStream, OutputStream> implements
     return new TupleEntrySchemeIterator<Properties, InputStream>( flowProcess, this, getScheme(), iterator, () -> identifier[ 0 ] );
     }
 
+  protected boolean acceptManifest( FlowProcess<? extends Properties> flowProcess, S3ObjectSummary objectSummary )
+    {
+    if( sourceManifest == null )
+      return true;
+
+    String identifier = makeStringIdentifier( objectSummary.getBucketName(), objectSummary.getKey() );
+
+    return SourceManifestListener.accept( flowProcess, sourceManifest, identifier, objectSummary.getLastModified().getTime(), objectSummary.getSize() );
+    }
+
   @Override
   public TupleEntryCollector openForWrite( FlowProcess<? extends Properties> flowProcess, OutputStream outputStream ) throws IOException
     {
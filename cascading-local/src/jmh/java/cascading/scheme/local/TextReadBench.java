@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.scheme.local;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import cascading.flow.local.LocalFlowProcess;
+import cascading.tap.local.io.MappedLineReader;
+import cascading.tuple.Fields;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntrySchemeIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading a generated delimited file through the default {@link java.io.Reader} path against the
+ * {@link MappedLineReader} path enabled by {@link CompressorScheme#MAPPED_READ_PROPERTY}.
+ * <p>
+ * Use {@code -p megabytes=4096} to measure multi-GB files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TextReadBench
+  {
+  @Param({"512"})
+  public int megabytes;
+
+  public Path path;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException
+    {
+    path = Files.createTempFile( "text-read-bench", ".csv" );
+
+    long size = megabytes * 1024L * 1024L;
+    long written = 0;
+
+    try( BufferedWriter writer = Files.newBufferedWriter( path, StandardCharsets.UTF_8 ) )
+      {
+      for( int i = 0; written < size; i++ )
+        {
+        String line = i + ",1953-09-02,Georgi,Facello,M," + ( i % 1000 ) + "\n";
+
+        writer.write( line );
+        written += line.length();
+        }
+      }
+    }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException
+    {
+    Files.deleteIfExists( path );
+    }
+
+  @Benchmark
+  public long measureReaderLines() throws IOException
+    {
+    try( InputStream input = new FileInputStream( path.toFile() ) )
+      {
+      return countChars( new TextLine( new Fields( "line" ) ).createInput( input ) );
+      }
+    }
+
+  @Benchmark
+  public long measureMappedLines() throws IOException
+    {
+    try( FileInputStream input = new FileInputStream( path.toFile() ) )
+      {
+      return countChars( new MappedLineReader( input.getChannel(), StandardCharsets.UTF_8 ) );
+      }
+    }
+
+  private static long countChars( LineNumberReader reader ) throws IOException
+    {
+    long count = 0;
+    String line;
+
+    while( ( line = reader.readLine() ) != null )
+      count += line.length();
+
+    return count;
+    }
+
+  @Benchmark
+  public long measureReaderDelimited() throws IOException
+    {
+    return sumLast( new Properties() );
+    }
+
+  @Benchmark
+  public long measureMappedDelimited() throws IOException
+    {
+    Properties properties = new Properties();
+
+    properties.setProperty( CompressorScheme.MAPPED_READ_PROPERTY, "true" );
+
+    return sumLast( properties );
+    }
+
+  private long sumLast( Properties properties ) throws IOException
+    {
+    Fields fields = new Fields( "id", "dob", "first", "last", "gender", "value" )
+      .applyTypes( Long.TYPE, String.class, String.class, String.class, String.class, Integer.TYPE );
+    TextDelimited scheme = new TextDelimited( fields, "," );
+    LocalFlowProcess flowProcess = new LocalFlowProcess( properties );
+    long sum = 0;
+
+    try( TupleEntrySchemeIterator<Properties, InputStream> iterator = new TupleEntrySchemeIterator<>( flowProcess, scheme, new FileInputStream( path.toFile() ) ) )
+      {
+      while( iterator.hasNext() )
+        {
+        TupleEntry entry = iterator.next();
+
+        sum += entry.getInteger( 5 );
+        }
+      }
+
+    return sum;
+    }
+  }
@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local.stream.element;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import cascading.CascadingException;
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.StopDataNotificationException;
+import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.DuctException;
+import cascading.flow.stream.duct.OrdinalDuct;
+import cascading.flow.stream.element.MemorySpliceGate;
+import cascading.pipe.Splice;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class SortMergeCoGroupGate performs a streaming sort-merge of all incoming branches of a
+ * {@link cascading.pipe.CoGroup} where each branch is known to be sorted on the grouping fields.
+ * <p>
+ * Each incoming branch is read by its own source thread in local mode. Incoming tuples are handed to a bounded
+ * queue per branch, and a single merge thread consumes the queues in key order, holding only the current
+ * grouping of each branch in memory before handing it to the {@link cascading.pipe.Joiner}.
+ * <p>
+ * If a branch is found to not be sorted on the grouping fields, the Flow will fail.
+ *
+ * @see cascading.tap.SortedTap
+ */
+public class SortMergeCoGroupGate extends MemorySpliceGate
+  {
+  private static final Logger LOG = LoggerFactory.getLogger( SortMergeCoGroupGate.class );
+
+  public enum Merge
+    {
+      Num_Groupings_Merged
+    }
+
+  /** Field QUEUE_CAPACITY */
+  static final int QUEUE_CAPACITY = 1024;
+  /** Field END, marks the end of a branch */
+  private static final Tuple END = new Tuple();
+
+  /** Field queues */
+  private BlockingQueue<Tuple>[] queues;
+  /** Field started */
+  private final AtomicBoolean started = new AtomicBoolean( false );
+  /** Field merger */
+  private Thread merger;
+  /** Field failure */
+  private volatile Throwable failure;
+  /** Field stopped */
+  private volatile boolean stopped;
+
+  public SortMergeCoGroupGate( FlowProcess flowProcess, Splice splice )
+    {
+    super( flowProcess, splice );
+    }
+
+  @Override
+  protected boolean isBlockingStreamed()
+    {
+    return true;
+    }
+
+  @Override
+  public void prepare()
+    {
+    super.prepare();
+
+    queues = new BlockingQueue[ getNumDeclaredIncomingBranches() ];
+
+    for( int i = 0; i < queues.length; i++ )
+      queues[ i ] = new ArrayBlockingQueue<>( QUEUE_CAPACITY );
+    }
+
+  @Override
+  public void start( Duct previous )
+    {
+    if( !started.compareAndSet( false, true ) )
+      return;
+
+    failure = null;
+    stopped = false;
+
+    merger = new Thread( this::merge, "sort-merge-" + splice.getName() );
+
+    merger.setDaemon( true );
+    merger.start();
+    }
+
+  @Override
+  public void receive( Duct previous, int ordinal, TupleEntry incomingEntry )
+    {
+    if( stopped )
+      throw new StopDataNotificationException( "sort-merge completed" );
+
+    offer( ordinal, incomingEntry.getTupleCopy() );
+    }
+
+  @Override
+  public void complete( Duct previous )
+    {
+    offer( previous instanceof OrdinalDuct ? ( (OrdinalDuct) previous ).getOrdinal() : 0, END );
+
+    if( count.decrementAndGet() != 0 )
+      return;
+
+    try
+      {
+      merger.join();
+      }
+    catch( InterruptedException exception )
+      {
+      Thread.currentThread().interrupt();
+      throw new DuctException( "interrupted waiting on sort-merge", exception );
+      }
+    finally
+      {
+      count.set( numIncomingEventingPaths );
+      started.set( false );
+      }
+
+    rethrowFailure();
+    }
+
+  @Override
+  public void cleanup()
+    {
+    if( merger != null && merger.isAlive() )
+      merger.interrupt();
+
+    super.cleanup();
+    }
+
+  private void offer( int ordinal, Tuple tuple )
+    {
+    try
+      {
+      while( !queues[ ordinal ].offer( tuple, 100, TimeUnit.MILLISECONDS ) )
+        {
+        rethrowFailure();
+
+        if( stopped )
+          return;
+        }
+      }
+    catch( InterruptedException exception )
+      {
+      Thread.currentThread().interrupt();
+      throw new DuctException( "interrupted waiting on sort-merge", exception );
+      }
+    }
+
+  private void rethrowFailure()
+    {
+    Throwable throwable = failure;
+
+    if( throwable == null )
+      return;
+
+    if( throwable instanceof RuntimeException )
+      throw (RuntimeException) throwable;
+
+    if( throwable instanceof Error )
+      throw (Error) throwable;
+
+    throw new DuctException( "failed during sort-merge", throwable );
+    }
+
+  private void merge()
+    {
+    try
+      {
+      next.start( this );
+
+      Branch[] branches = new Branch[ queues.length ];
+
+      for( int i = 0; i < branches.length; i++ )
+        {
+        branches[ i ] = new Branch( i );
+        branches[ i ].advance();
+        }
+
+      Collection<Tuple>[] collections = new Collection[ branches.length ];
+      Comparator<Tuple> comparator = getKeyComparator();
+
+      while( true )
+        {
+        Tuple keysTuple = null;
+
+        for( Branch branch : branches )
+          {
+          if( branch.key != null && ( keysTuple == null || comparator.compare( branch.key, keysTuple ) < 0 ) )
+            keysTuple = branch.key;
+          }
+
+        if( keysTuple == null )
+          break;
+
+        for( int i = 0; i < branches.length; i++ )
+          collections[ i ] = branches[ i ].takeGroup( keysTuple, comparator );
+
+        try
+          {
+          // provides sql like semantics
+          if( nullsAreNotEqual && Tuples.frequency( keysTuple, null ) != 0 )
+            pushEach( collections, keysTuple );
+          else
+            push( collections, keysTuple );
+
+          flowProcess.increment( Merge.Num_Groupings_Merged, 1 );
+          }
+        catch( StopDataNotificationException exception )
+          {
+          LOG.info( "received stop data notification: {}", exception.getMessage() );
+          break;
+          }
+        }
+
+      stopped = true;
+
+      next.complete( this );
+      }
+    catch( Throwable throwable )
+      {
+      if( !( throwable instanceof InterruptedException ) )
+        LOG.error( "failed during sort-merge", throwable );
+
+      failure = throwable;
+      }
+    finally
+      {
+      stopped = true;
+
+      // unblock any waiting source threads
+      for( BlockingQueue<Tuple> queue : queues )
+        queue.clear();
+      }
+    }
+
+  private void pushEach( Collection<Tuple>[] collections, Tuple keysTuple )
+    {
+    Collection<Tuple>[] single = new Collection[ collections.length ];
+
+    for( int i = 0; i < collections.length; i++ )
+      {
+      if( collections[ i ].isEmpty() )
+        continue;
+
+      for( int j = 0; j < single.length; j++ )
+        single[ j ] = Collections.emptyList();
+
+      single[ i ] = collections[ i ];
+
+      push( single, keysTuple );
+      }
+    }
+
+  private void push( Collection<Tuple>[] collections, Tuple keysTuple )
+    {
+    closure.reset( collections );
+
+    keyEntry.setTuple( closure.getGroupTuple( keysTuple ) );
+
+    tupleEntryIterator.reset( splice.getJoiner().getIterator( closure ) );
+
+    next.receive( this, 0, grouping );
+    }
+
+  /** Class Branch holds the current position within an incoming branch */
+  private class Branch
+    {
+    final int ordinal;
+    Tuple key;
+    Tuple values;
+
+    Branch( int ordinal )
+      {
+      this.ordinal = ordinal;
+      }
+
+    void advance() throws InterruptedException
+      {
+      Tuple tuple = queues[ ordinal ].take();
+
+      if( tuple == END )
+        {
+        key = null;
+        values = null;
+        return;
+        }
+
+      values = tuple;
+      key = getDelegatedTuple( keyBuilder[ ordinal ].makeResult( tuple, null ) ); // view on values
+      }
+
+    Collection<Tuple> takeGroup( Tuple keysTuple, Comparator<Tuple> comparator ) throws InterruptedException
+      {
+      if( key == null || comparator.compare( key, keysTuple ) != 0 )
+        return Collections.emptyList();
+
+      List<Tuple> group = new ArrayList<>();
+
+      while( key != null && comparator.compare( key, keysTuple ) == 0 )
+        {
+        group.add( values );
+        advance();
+        }
+
+      if( key != null && comparator.compare( key, keysTuple ) < 0 )
+        throw new CascadingException( "incoming branch: " + ordinal + ", of: " + splice.getName() + ", is not sorted on the grouping fields, found: " + key + ", after: " + keysTuple );
+
+      return group;
+      }
+    }
+  }
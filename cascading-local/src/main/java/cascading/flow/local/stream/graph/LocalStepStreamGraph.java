@@ -20,16 +20,22 @@
 
 package cascading.flow.local.stream.graph;
 
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import cascading.flow.FlowElement;
 import cascading.flow.FlowNode;
 import cascading.flow.FlowProcess;
+import cascading.flow.FlowProps;
 import cascading.flow.local.LocalFlowProcess;
 import cascading.flow.local.LocalFlowStep;
 import cascading.flow.local.stream.duct.ParallelFork;
 import cascading.flow.local.stream.element.LocalGroupByGate;
+import cascading.flow.local.stream.element.SortMergeCoGroupGate;
 import cascading.flow.local.stream.element.SyncMergeStage;
+import cascading.flow.planner.Scope;
 import cascading.flow.stream.duct.Duct;
 import cascading.flow.stream.duct.Gate;
 import cascading.flow.stream.element.MemoryCoGroupGate;
@@ -38,10 +44,14 @@ import cascading.flow.stream.element.SourceStage;
 import cascading.flow.stream.graph.IORole;
 import cascading.flow.stream.graph.NodeStreamGraph;
 import cascading.pipe.CoGroup;
+import cascading.pipe.Each;
 import cascading.pipe.GroupBy;
 import cascading.pipe.Merge;
+import cascading.pipe.Pipe;
 import cascading.property.PropertyUtil;
+import cascading.tap.SortedTap;
 import cascading.tap.Tap;
+import cascading.tuple.Fields;
 
 /**
  *
@@ -86,9 +96,110 @@ public class LocalStepStreamGraph extends NodeStreamGraph
 
   protected Gate createCoGroupGate( CoGroup element, IORole role )
     {
+    if( isSortMergeCoGroup( element ) )
+      return new SortMergeCoGroupGate( flowProcess, element );
+
     return new MemoryCoGroupGate( flowProcess, element );
     }
 
+  /**
+   * Method isSortMergeCoGroup returns true if every incoming branch of the given CoGroup is read from a distinct
+   * {@link SortedTap} sorted on the grouping fields, comparators, and order of that branch, and no element between
+   * the tap and the CoGroup may change the values of, or fork, the grouping fields.
+   * <p>
+   * As a SortedTap cannot declare the default element comparator, none may be set.
+   *
+   * @param element of CoGroup
+   * @return boolean
+   */
+  protected boolean isSortMergeCoGroup( CoGroup element )
+    {
+    if( element.isSelfJoin() || flowProcess.getProperty( FlowProps.DEFAULT_ELEMENT_COMPARATOR ) != null )
+      return false;
+
+    Set<Scope> incomingScopes = elementGraph.incomingEdgesOf( element );
+
+    if( incomingScopes.size() != element.getPrevious().length )
+      return false;
+
+    Scope outgoingScope = elementGraph.outgoingEdgesOf( element ).iterator().next();
+    Set<Tap> sources = new HashSet<>();
+
+    for( Scope incomingScope : incomingScopes )
+      {
+      Fields keyFields = outgoingScope.getKeySelectors().get( incomingScope.getName() );
+      FlowElement current = elementGraph.getEdgeSource( incomingScope );
+
+      while( !( current instanceof Tap ) )
+        {
+        if( !isKeyPreserving( current, keyFields ) )
+          return false;
+
+        current = elementGraph.predecessorListOf( current ).get( 0 );
+        }
+
+      if( elementGraph.outDegreeOf( current ) != 1 || !( current instanceof SortedTap ) )
+        return false;
+
+      Fields sortedOn = applyComparators( keyFields, element.getKeySelectors().get( incomingScope.getName() ) );
+
+      if( !( (SortedTap) current ).isSortedOn( sortedOn, element.isSortReversed() ) || !sources.add( (Tap) current ) )
+        return false;
+      }
+
+    return true;
+    }
+
+  // the resolved key fields do not retain the comparators declared on the key selectors
+  private static Fields applyComparators( Fields keyFields, Fields keySelector )
+    {
+    Comparable[] names = new Comparable[ keyFields.size() ];
+
+    for( int i = 0; i < names.length; i++ )
+      names[ i ] = keyFields.get( i );
+
+    Fields fields = new Fields( names );
+    Comparator[] comparators = keySelector.getComparators();
+
+    for( int i = 0; i < comparators.length && i < names.length; i++ )
+      {
+      if( comparators[ i ] != null )
+        fields.setComparator( i, comparators[ i ] );
+      }
+
+    return fields;
+    }
+
+  private boolean isKeyPreserving( FlowElement flowElement, Fields keyFields )
+    {
+    if( elementGraph.inDegreeOf( flowElement ) != 1 || elementGraph.outDegreeOf( flowElement ) != 1 )
+      return false;
+
+    if( flowElement.getClass() == Pipe.class )
+      return true;
+
+    if( !( flowElement instanceof Each ) )
+      return false;
+
+    Each each = (Each) flowElement;
+
+    if( each.isFilter() )
+      return true;
+
+    Fields declared = each.getFieldDeclaration();
+
+    if( !each.isFunction() || !declared.isDefined() )
+      return false;
+
+    for( Comparable keyField : keyFields )
+      {
+      if( declared.contains( new Fields( keyField ) ) )
+        return false;
+      }
+
+    return true;
+    }
+
   protected Gate createGroupByGate( GroupBy element, IORole source )
     {
     return new LocalGroupByGate( flowProcess, element );
@@ -20,14 +20,20 @@
 
 package cascading.scheme.local;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.LineNumberReader;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.Properties;
 
 import cascading.flow.FlowProcess;
 import cascading.scheme.Scheme;
+import cascading.tap.local.io.FileRangeInputStream;
+import cascading.tap.local.io.MappedLineReader;
 import cascading.tuple.Fields;
 
 /**
@@ -37,6 +43,12 @@ import cascading.tuple.Fields;
  */
 public abstract class CompressorScheme<SourceContext, SinkContext> extends Scheme<Properties, InputStream, OutputStream, SourceContext, SinkContext>
   {
+  /**
+   * Property MAPPED_READ_PROPERTY enables reading uncompressed local files with a {@link MappedLineReader}, where
+   * supported by the current scheme. Defaults to false.
+   */
+  public static final String MAPPED_READ_PROPERTY = "cascading.local.scheme.text.mapped";
+
   public static final Compressor NO_COMPRESSOR = new Compressor()
     {
     @Override
@@ -56,6 +68,11 @@ public abstract class CompressorScheme<SourceContext, SinkContext> extends Schem
       {
       return "";
       }
+
+    private Object readResolve()
+      {
+      return NO_COMPRESSOR; // retain identity across copies
+      }
     };
 
   public interface Compressor extends Serializable
@@ -140,6 +157,77 @@ public abstract class CompressorScheme<SourceContext, SinkContext> extends Schem
     return compressor.inputStream( inputStream );
     }
 
+  /**
+   * Method isSourceSplittable returns true if a single file read by this Scheme may be divided into byte ranges, each
+   * ending on a line feed, and each range read concurrently by a separate copy of this Scheme.
+   * <p>
+   * Returns false by default, sub-classes must only return true if every record ends on a line feed, and no record
+   * depends on the values of any prior record. Also see {@link cascading.tap.local.FileTap#SPLIT_THREADS_PROPERTY}.
+   *
+   * @return boolean
+   */
+  public boolean isSourceSplittable()
+    {
+    return false;
+    }
+
+  /**
+   * Method isLineFeedSplittable returns true if no {@link Compressor} is set, and the given character set encodes a
+   * line feed as a single byte, as with UTF-8 or ISO-8859-1, but not UTF-16.
+   *
+   * @param charsetName of type String
+   * @return boolean
+   */
+  protected boolean isLineFeedSplittable( String charsetName )
+    {
+    if( compressor != NO_COMPRESSOR )
+      return false;
+
+    Charset charset = Charset.forName( charsetName );
+
+    if( !charset.canEncode() )
+      return false;
+
+    byte[] bytes = "\n".getBytes( charset );
+
+    return bytes.length == 1 && bytes[ 0 ] == '\n';
+    }
+
+  /**
+   * Method createMappedInput returns a {@link MappedLineReader} over the file read by the given input if
+   * {@link #MAPPED_READ_PROPERTY} is enabled, the input is an uncompressed local file, and the given character set
+   * encodes a line feed as a single byte. Otherwise returns null.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param input       of type InputStream
+   * @param charsetName of type String
+   * @return LineNumberReader
+   * @throws IOException when the file cannot be read
+   */
+  protected LineNumberReader createMappedInput( FlowProcess<? extends Properties> flowProcess, InputStream input, String charsetName ) throws IOException
+    {
+    if( !flowProcess.getBooleanProperty( MAPPED_READ_PROPERTY, false ) || !isLineFeedSplittable( charsetName ) )
+      return null;
+
+    Charset charset = Charset.forName( charsetName );
+
+    if( input instanceof FileRangeInputStream )
+      {
+      FileRangeInputStream range = (FileRangeInputStream) input;
+
+      return new MappedLineReader( range.getChannel(), range.getPosition(), range.getEnd(), charset, MappedLineReader.DEFAULT_WINDOW_SIZE );
+      }
+
+    if( input instanceof FileInputStream )
+      {
+      FileChannel channel = ( (FileInputStream) input ).getChannel();
+
+      return new MappedLineReader( channel, charset );
+      }
+
+    return null;
+    }
+
   public OutputStream sinkWrap( FlowProcess<? extends Properties> flowProcess, OutputStream outputStream ) throws IOException
     {
     return compressor.outputStream( outputStream );
@@ -33,6 +33,7 @@ import cascading.tap.SinkMode;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
 import cascading.tap.local.DirTap;
+import cascading.tap.local.io.FileRangeInputStream;
 import cascading.tap.type.TapWith;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
@@ -106,6 +107,12 @@ import java.util.Properties;
  * <p>
  * In order to read or write a compressed files, pass a {@link cascading.scheme.local.CompressorScheme.Compressor}
  * instance to the appropriate constructors. See {@link Compressors} for provided compression algorithms.
+ * <p>
+ * An uncompressed file may be read in parallel by a {@link cascading.tap.local.FileTap}, in which case only the header
+ * at the head of the file is skipped, see {@link #isSourceSplittable()}.
+ * <p>
+ * If {@link #MAPPED_READ_PROPERTY} is enabled, uncompressed files are memory mapped and read by a
+ * {@link cascading.tap.local.io.MappedLineReader}, avoiding the intermediate character buffers of a {@link java.io.Reader}.
  *
  * @see TextLine
  * @see Compressors
@@ -1007,6 +1014,13 @@ public class TextDelimited extends CompressorScheme<LineNumberReader, PrintWrite
       }
     }
 
+  private LineNumberReader createSourceInput( FlowProcess<? extends Properties> flowProcess, InputStream inputStream ) throws IOException
+    {
+    LineNumberReader reader = createMappedInput( flowProcess, inputStream, charsetName );
+
+    return reader != null ? reader : createInput( inputStream );
+    }
+
   public PrintWriter createOutput( OutputStream outputStream )
     {
     try
@@ -1084,10 +1098,20 @@ public class TextDelimited extends CompressorScheme<LineNumberReader, PrintWrite
     {
     }
 
+  @Override
+  public boolean isSourceSplittable()
+    {
+    return isLineFeedSplittable( charsetName );
+    }
+
   @Override
   public void sourcePrepare( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
-    sourceCall.setContext( createInput( sourceCall.getInput() ) );
+    sourceCall.setContext( createSourceInput( flowProcess, sourceCall.getInput() ) );
+
+    // only the split at the head of the file holds the header
+    if( sourceCall.getInput() instanceof FileRangeInputStream && ( (FileRangeInputStream) sourceCall.getInput() ).getStart() != 0 )
+      sourceCall.getContext().setLineNumber( 1 );
 
     sourceCall.getIncomingEntry().setTuple( TupleViews.createObjectArray() );
     }
@@ -1095,7 +1119,7 @@ public class TextDelimited extends CompressorScheme<LineNumberReader, PrintWrite
   @Override
   public void sourceRePrepare( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
-    sourceCall.setContext( createInput( sourceCall.getInput() ) );
+    sourceCall.setContext( createSourceInput( flowProcess, sourceCall.getInput() ) );
     }
 
   @Override
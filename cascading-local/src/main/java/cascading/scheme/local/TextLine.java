@@ -67,6 +67,12 @@ import cascading.util.Util;
  * <p>
  * In order to read or write a compressed files, pass a {@link cascading.scheme.local.CompressorScheme.Compressor}
  * instance to the appropriate constructors. See {@link Compressors} for provided compression algorithms.
+ * <p>
+ * An uncompressed file may be read in parallel by a {@link cascading.tap.local.FileTap} if only the "line" field is
+ * sourced, as line numbers cannot be known within a split, see {@link #isSourceSplittable()}.
+ * <p>
+ * If {@link #MAPPED_READ_PROPERTY} is enabled, uncompressed files are memory mapped and read by a
+ * {@link cascading.tap.local.io.MappedLineReader}, avoiding the intermediate character buffers of a {@link java.io.Reader}.
  *
  * @see TextDelimited
  * @see Compressors
@@ -265,6 +271,13 @@ public class TextLine extends CompressorScheme<LineNumberReader, PrintWriter> im
       }
     }
 
+  private LineNumberReader createSourceInput( FlowProcess<? extends Properties> flowProcess, InputStream inputStream ) throws IOException
+    {
+    LineNumberReader reader = createMappedInput( flowProcess, inputStream, charsetName );
+
+    return reader != null ? reader : createInput( inputStream );
+    }
+
   public PrintWriter createOutput( OutputStream outputStream )
     {
     try
@@ -299,16 +312,22 @@ public class TextLine extends CompressorScheme<LineNumberReader, PrintWriter> im
     {
     }
 
+  @Override
+  public boolean isSourceSplittable()
+    {
+    return getSourceFields().size() == 1 && isLineFeedSplittable( charsetName );
+    }
+
   @Override
   public void sourcePrepare( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
-    sourceCall.setContext( createInput( sourceCall.getInput() ) );
+    sourceCall.setContext( createSourceInput( flowProcess, sourceCall.getInput() ) );
     }
 
   @Override
   public void sourceRePrepare( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
-    sourceCall.setContext( createInput( sourceCall.getInput() ) );
+    sourceCall.setContext( createSourceInput( flowProcess, sourceCall.getInput() ) );
     }
 
   @Override
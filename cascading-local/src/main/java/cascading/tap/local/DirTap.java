@@ -31,15 +31,20 @@ import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Properties;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import cascading.flow.Flow;
 import cascading.flow.FlowProcess;
 import cascading.scheme.FileFormat;
 import cascading.scheme.Scheme;
 import cascading.tap.SinkMode;
 import cascading.tap.TapException;
+import cascading.tap.manifest.SourceManifest;
+import cascading.tap.manifest.SourceManifestListener;
 import cascading.tuple.TupleEntryIterator;
 import cascading.tuple.TupleEntrySchemeIterator;
 import cascading.util.CloseableIterator;
@@ -71,6 +76,13 @@ import org.slf4j.LoggerFactory;
  * starting file is visited, unless denied by the security manager.
  * <p>
  * A value of MAX_VALUE (the default) may be used to indicate that all levels should be visited.
+ * <p>
+ * When used as a source, a {@link SourceManifest} may be set via {@link #setSourceManifest(SourceManifest)} so that
+ * only files that are new or modified since the last successful Flow execution are read. The counters in
+ * {@link SourceManifest.Counters} will report the number of files and bytes skipped and processed.
+ * <p>
+ * Files are resolved against the manifest, and recorded, once per Flow when this tap is first initialized as a
+ * source, so the same files are read however many times the tap is opened within the Flow.
  */
 public class DirTap extends FileTap
   {
@@ -78,6 +90,9 @@ public class DirTap extends FileTap
 
   int maxDepth = Integer.MAX_VALUE;
   String pattern;
+  SourceManifest sourceManifest;
+  /** Field acceptedPaths holds the paths accepted by the source manifest, resolved once per Flow */
+  transient Set<Path> acceptedPaths;
 
   /**
    * Constructor DirTap creates a new DirTap instance using the given {@link cascading.scheme.Scheme} and file {@code directory}.
@@ -326,6 +341,46 @@ public class DirTap extends FileTap
     return maxDepth;
     }
 
+  /**
+   * Method getSourceManifest returns the sourceManifest of this DirTap object, if any.
+   *
+   * @return the sourceManifest (type SourceManifest) of this DirTap object.
+   */
+  public SourceManifest getSourceManifest()
+    {
+    return sourceManifest;
+    }
+
+  /**
+   * Method setSourceManifest sets the {@link SourceManifest} used to skip files read during a prior successful
+   * Flow execution.
+   *
+   * @param sourceManifest of type SourceManifest
+   */
+  public void setSourceManifest( SourceManifest sourceManifest )
+    {
+    this.sourceManifest = sourceManifest;
+    }
+
+  @Override
+  public void flowConfInit( Flow<Properties> flow )
+    {
+    super.flowConfInit( flow );
+
+    acceptedPaths = null; // resolve again for the new flow
+
+    SourceManifestListener.register( flow, sourceManifest );
+    }
+
+  @Override
+  public void sourceConfInit( FlowProcess<? extends Properties> flowProcess, Properties conf )
+    {
+    super.sourceConfInit( flowProcess, conf );
+
+    if( sourceManifest != null && acceptedPaths == null && Files.isDirectory( getPath() ) )
+      acceptedPaths = resolveAcceptedPaths( flowProcess );
+    }
+
   @Override
   public boolean deleteResource( Properties conf ) throws IOException
     {
@@ -342,12 +397,15 @@ public class DirTap extends FileTap
       return super.openForRead( flowProcess, input );
 
     PathMatcher pathMatcher = getPathMatcher();
+    // if opened outside of a Flow, resolve for this read only
+    Set<Path> accepted = sourceManifest != null && acceptedPaths == null ? resolveAcceptedPaths( flowProcess ) : acceptedPaths;
 
     CloseableIterator<InputStream> iterator = new CloseableIterator<InputStream>()
       {
       Stream<Path> stream = Files.walk( getPath(), maxDepth )
         .filter( path -> !Files.isDirectory( path ) )
-        .filter( pathMatcher::matches );
+        .filter( pathMatcher::matches )
+        .filter( path -> accepted == null || accepted.contains( path.toAbsolutePath() ) );
       Iterator<Path> iterator = stream.iterator();
       InputStream lastInputStream = null;
 
@@ -409,6 +467,47 @@ public class DirTap extends FileTap
     return new TupleEntrySchemeIterator<Properties, InputStream>( flowProcess, this, getScheme(), iterator, () -> flowProcess.getFlowProcessContext().getSourcePath() );
     }
 
+  private Set<Path> resolveAcceptedPaths( FlowProcess<? extends Properties> flowProcess )
+    {
+    PathMatcher pathMatcher = getPathMatcher();
+
+    try( Stream<Path> stream = Files.walk( getPath(), maxDepth ) )
+      {
+      Set<Path> paths = stream
+        .filter( path -> !Files.isDirectory( path ) )
+        .filter( pathMatcher::matches )
+        .filter( path -> acceptManifest( flowProcess, path ) )
+        .map( Path::toAbsolutePath )
+        .collect( Collectors.toCollection( LinkedHashSet::new ) );
+
+      LOG.info( "source manifest accepted {} paths in: {}", paths.size(), getPath() );
+
+      return paths;
+      }
+    catch( IOException exception )
+      {
+      throw new TapException( "unable to walk path: " + getPath(), exception );
+      }
+    }
+
+  protected boolean acceptManifest( FlowProcess<? extends Properties> flowProcess, Path path )
+    {
+    if( sourceManifest == null )
+      return true;
+
+    try
+      {
+      long modifiedTime = Files.getLastModifiedTime( path ).toMillis();
+      long size = Files.size( path );
+
+      return SourceManifestListener.accept( flowProcess, sourceManifest, path.toAbsolutePath().toString(), modifiedTime, size );
+      }
+    catch( IOException exception )
+      {
+      throw new TapException( "unable to read attributes of path: " + path, exception );
+      }
+    }
+
   protected PathMatcher getPathMatcher()
     {
     if( getPattern() == null )
@@ -38,9 +38,12 @@ import java.util.stream.Stream;
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.scheme.Scheme;
+import cascading.scheme.local.CompressorScheme;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
+import cascading.tap.local.io.FileRangeInputStream;
+import cascading.tap.local.io.FileSplitTupleEntryIterator;
 import cascading.tap.local.io.TapFileOutputStream;
 import cascading.tap.type.FileType;
 import cascading.tap.type.TapWith;
@@ -57,9 +60,29 @@ import cascading.util.Util;
  * <p>
  * FileTap must be used with the {@link cascading.flow.local.LocalFlowConnector} to create
  * {@link cascading.flow.Flow} instances that run in "local" mode.
+ * <p>
+ * If {@link #SPLIT_THREADS_PROPERTY} is greater than one, and the given {@link CompressorScheme} is
+ * {@link CompressorScheme#isSourceSplittable() splittable}, a large file will be divided into ranges of whole lines
+ * and each range will be parsed concurrently, see {@link FileSplitTupleEntryIterator}. Note the order tuples are read
+ * in will no longer match the order of the lines in the file.
  */
 public class FileTap extends Tap<Properties, InputStream, OutputStream> implements FileType<Properties>, TapWith<Properties, InputStream, OutputStream>
   {
+  /**
+   * Property SPLIT_THREADS_PROPERTY is the maximum number of threads used to concurrently read a single file.
+   * Defaults to 1, where files are not split.
+   */
+  public static final String SPLIT_THREADS_PROPERTY = "cascading.local.tap.file.split.threads";
+
+  /**
+   * Property SPLIT_MIN_SIZE_PROPERTY is the minimum number of bytes read by a single thread when
+   * {@link #SPLIT_THREADS_PROPERTY} is enabled. Defaults to 64MB.
+   */
+  public static final String SPLIT_MIN_SIZE_PROPERTY = "cascading.local.tap.file.split.minsize";
+
+  /** Field DEFAULT_SPLIT_MIN_SIZE */
+  public static final long DEFAULT_SPLIT_MIN_SIZE = 64L * 1024 * 1024;
+
   private final Path path;
 
   /**
@@ -182,14 +205,45 @@ public class FileTap extends Tap<Properties, InputStream, OutputStream> implemen
   @Override
   public TupleEntryIterator openForRead( FlowProcess<? extends Properties> flowProcess, InputStream input ) throws IOException
     {
-    if( input == null )
+    long[] offsets = input == null ? getSplitOffsets( flowProcess ) : null;
+
+    if( input == null && offsets == null )
       input = new FileInputStream( getIdentifier() );
 
     flowProcess.getFlowProcessContext().setSourcePath( getFullIdentifier( flowProcess ) );
 
+    if( offsets != null )
+      return new FileSplitTupleEntryIterator( flowProcess, this, getScheme(), getIdentifier(), offsets );
+
     return new TupleEntrySchemeIterator<Properties, InputStream>( flowProcess, this, getScheme(), input, getIdentifier() );
     }
 
+  /**
+   * Method getSplitOffsets returns the offsets of each range to be read concurrently, or null if the current file
+   * should be read by a single thread.
+   *
+   * @param flowProcess of type FlowProcess
+   * @return long[]
+   * @throws IOException when the file cannot be read
+   */
+  protected long[] getSplitOffsets( FlowProcess<? extends Properties> flowProcess ) throws IOException
+    {
+    int numThreads = flowProcess.getIntegerProperty( SPLIT_THREADS_PROPERTY, 1 );
+
+    if( numThreads < 2 || !( getScheme() instanceof CompressorScheme ) || !( (CompressorScheme) getScheme() ).isSourceSplittable() )
+      return null;
+
+    String minSize = flowProcess.getStringProperty( SPLIT_MIN_SIZE_PROPERTY );
+    long minimumSize = minSize == null ? DEFAULT_SPLIT_MIN_SIZE : Long.parseLong( minSize );
+
+    if( Files.size( path ) < 2 * minimumSize )
+      return null;
+
+    long[] offsets = FileRangeInputStream.splitOnLineFeed( getIdentifier(), numThreads, minimumSize );
+
+    return offsets.length > 2 ? offsets : null;
+    }
+
   @Override
   public TupleEntryCollector openForWrite( FlowProcess<? extends Properties> flowProcess, OutputStream output ) throws IOException
     {
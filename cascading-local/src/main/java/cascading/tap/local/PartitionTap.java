@@ -25,8 +25,11 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 import cascading.flow.FlowProcess;
 import cascading.flow.FlowProcessWrapper;
@@ -174,6 +177,28 @@ public class PartitionTap extends BasePartitionTap<Properties, InputStream, Outp
     return deleteParent( conf );
     }
 
+  @Override
+  protected long[] getChildPartitionStats( FlowProcess<? extends Properties> flowProcess, String childIdentifier ) throws IOException
+    {
+    Path path = Paths.get( childIdentifier );
+
+    if( !Files.exists( path ) )
+      return null;
+
+    long[] stats = new long[]{0, 0};
+
+    try( Stream<Path> paths = Files.walk( path ) )
+      {
+      for( Path current : (Iterable<Path>) paths.filter( Files::isRegularFile )::iterator )
+        {
+        stats[ 0 ] = Math.max( stats[ 0 ], Files.getLastModifiedTime( current ).toMillis() );
+        stats[ 1 ] += Files.size( current );
+        }
+      }
+
+    return stats;
+    }
+
   private boolean deleteParent( Properties conf ) throws IOException
     {
     return keepParentOnDelete || parent.deleteResource( conf );
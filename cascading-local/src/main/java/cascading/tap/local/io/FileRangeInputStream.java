@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tap.local.io;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class FileRangeInputStream is an {@link InputStream} that reads the bytes of a file from a start offset, inclusive,
+ * to an end offset, exclusive.
+ * <p>
+ * Use {@link #splitOnLineFeed(String, int, long)} to find ranges that hold only whole lines.
+ */
+public class FileRangeInputStream extends InputStream
+  {
+  private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+  private final FileInputStream input;
+  private final long start;
+  private final long end;
+  private long position;
+
+  /**
+   * Method splitOnLineFeed returns the offsets dividing the given file into, at most, the given number of ranges of
+   * similar size, where no range is smaller than the given minimum size, and every range but the last ends
+   * immediately after a line feed.
+   * <p>
+   * The returned array holds the start offset of every range, followed by the length of the file.
+   *
+   * @param path        of type String
+   * @param numSplits   of type int
+   * @param minimumSize of type long
+   * @return long[]
+   * @throws IOException when the file cannot be read
+   */
+  public static long[] splitOnLineFeed( String path, int numSplits, long minimumSize ) throws IOException
+    {
+    try( RandomAccessFile file = new RandomAccessFile( path, "r" ) )
+      {
+      long length = file.length();
+      long size = Math.max( Math.max( 1, minimumSize ), ( length + numSplits - 1 ) / Math.max( 1, numSplits ) );
+      List<Long> offsets = new ArrayList<>();
+      byte[] buffer = new byte[ SCAN_BUFFER_SIZE ];
+
+      offsets.add( 0L );
+
+      long offset = 0;
+
+      while( offset + size < length )
+        {
+        offset = nextLineStart( file, buffer, offset + size );
+
+        if( offset >= length )
+          break;
+
+        offsets.add( offset );
+        }
+
+      offsets.add( length );
+
+      long[] result = new long[ offsets.size() ];
+
+      for( int i = 0; i < result.length; i++ )
+        result[ i ] = offsets.get( i );
+
+      return result;
+      }
+    }
+
+  private static long nextLineStart( RandomAccessFile file, byte[] buffer, long offset ) throws IOException
+    {
+    file.seek( offset - 1 ); // the range may already end on a line feed
+
+    long position = offset - 1;
+    int read;
+
+    while( ( read = file.read( buffer ) ) != -1 )
+      {
+      for( int i = 0; i < read; i++ )
+        {
+        if( buffer[ i ] == '\n' )
+          return position + i + 1;
+        }
+
+      position += read;
+      }
+
+    return position;
+    }
+
+  /**
+   * Constructor FileRangeInputStream creates a new FileRangeInputStream instance.
+   *
+   * @param path  of type String
+   * @param start of type long
+   * @param end   of type long
+   * @throws IOException when the file cannot be opened
+   */
+  public FileRangeInputStream( String path, long start, long end ) throws IOException
+    {
+    if( start < 0 || end < start )
+      throw new IllegalArgumentException( "invalid range, start: " + start + ", end: " + end );
+
+    this.input = new FileInputStream( path );
+    this.start = start;
+    this.end = end;
+    this.position = start;
+
+    try
+      {
+      input.getChannel().position( start );
+      }
+    catch( IOException exception )
+      {
+      input.close();
+      throw exception;
+      }
+    }
+
+  /**
+   * Method getStart returns the offset of the first byte read by this stream.
+   *
+   * @return long
+   */
+  public long getStart()
+    {
+    return start;
+    }
+
+  /**
+   * Method getEnd returns the offset immediately following the last byte read by this stream.
+   *
+   * @return long
+   */
+  public long getEnd()
+    {
+    return end;
+    }
+
+  /**
+   * Method getChannel returns the {@link FileChannel} of the underlying file.
+   *
+   * @return FileChannel
+   */
+  public FileChannel getChannel()
+    {
+    return input.getChannel();
+    }
+
+  /**
+   * Method getPosition returns the offset of the next byte to be read.
+   *
+   * @return long
+   */
+  public long getPosition()
+    {
+    return position;
+    }
+
+  @Override
+  public int read() throws IOException
+    {
+    if( position >= end )
+      return -1;
+
+    int value = input.read();
+
+    if( value != -1 )
+      position++;
+
+    return value;
+    }
+
+  @Override
+  public int read( byte[] bytes, int offset, int length ) throws IOException
+    {
+    if( length == 0 )
+      return 0;
+
+    if( position >= end )
+      return -1;
+
+    int read = input.read( bytes, offset, (int) Math.min( length, end - position ) );
+
+    if( read > 0 )
+      position += read;
+
+    return read;
+    }
+
+  @Override
+  public long skip( long count ) throws IOException
+    {
+    long skipped = input.skip( Math.min( Math.max( 0, count ), end - position ) );
+
+    position += skipped;
+
+    return skipped;
+    }
+
+  @Override
+  public int available() throws IOException
+    {
+    return (int) Math.min( input.available(), end - position );
+    }
+
+  @Override
+  public void close() throws IOException
+    {
+    input.close();
+    }
+  }
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tap.local.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import cascading.CascadingException;
+import cascading.flow.FlowProcess;
+import cascading.scheme.Scheme;
+import cascading.tap.Tap;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntryIterator;
+import cascading.tuple.TupleEntrySchemeIterator;
+import cascading.tuple.TupleException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class FileSplitTupleEntryIterator is a {@link TupleEntryIterator} that reads the given ranges of a single file
+ * concurrently, each range read by a separate copy of the given {@link Scheme} on a separate thread.
+ * <p>
+ * Every range must start at the beginning of a record, see {@link FileRangeInputStream#splitOnLineFeed(String, int, long)}.
+ * <p>
+ * Tuples are handed to the consuming thread in batches, so the order of tuples within a range is retained, but the
+ * ranges are interleaved. Any failure to read a tuple is re-thrown from {@link #next()}, after which the remainder of
+ * the same range continues to be read, allowing the failed tuple to be trapped.
+ */
+public class FileSplitTupleEntryIterator extends TupleEntryIterator
+  {
+  private static final Logger LOG = LoggerFactory.getLogger( FileSplitTupleEntryIterator.class );
+
+  /** Field BATCH_SIZE */
+  private static final int BATCH_SIZE = 1024;
+  /** Field END_OF_RANGE */
+  private static final Object END_OF_RANGE = new Object();
+
+  private final ExecutorService executor;
+  private final BlockingQueue<Object> queue;
+  private int remaining;
+  private Iterator<Tuple> current;
+  private TupleException currentException;
+  private volatile boolean isClosed;
+
+  /**
+   * Constructor FileSplitTupleEntryIterator creates a new FileSplitTupleEntryIterator instance.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param tap         of type Tap
+   * @param scheme      of type Scheme
+   * @param path        of type String
+   * @param offsets     of type long[], the start of every range followed by the end of the last range
+   */
+  public FileSplitTupleEntryIterator( FlowProcess<? extends Properties> flowProcess, Tap tap, Scheme<Properties, InputStream, OutputStream, ?, ?> scheme, String path, long[] offsets )
+    {
+    super( scheme.getSourceFields() );
+
+    if( offsets.length < 2 )
+      throw new IllegalArgumentException( "at least one range is required" );
+
+    int numRanges = offsets.length - 1;
+    byte[] serialized = serialize( scheme );
+
+    this.remaining = numRanges;
+    this.queue = new ArrayBlockingQueue<>( numRanges * 2 );
+    this.executor = Executors.newFixedThreadPool( numRanges, runnable ->
+    {
+    Thread thread = new Thread( runnable, "file-split-reader" );
+
+    thread.setDaemon( true );
+
+    return thread;
+    } );
+
+    LOG.info( "reading {} ranges concurrently from: {}", numRanges, path );
+
+    for( int i = 0; i < numRanges; i++ )
+      {
+      long start = offsets[ i ];
+      long end = offsets[ i + 1 ];
+
+      executor.execute( () -> readRange( flowProcess, tap, serialized, path, start, end ) );
+      }
+
+    executor.shutdown();
+    }
+
+  private void readRange( FlowProcess<? extends Properties> flowProcess, Tap tap, byte[] serialized, String path, long start, long end )
+    {
+    List<Tuple> batch = new ArrayList<>( BATCH_SIZE );
+
+    try( TupleEntrySchemeIterator<Properties, InputStream> iterator = new TupleEntrySchemeIterator<>( flowProcess, tap, deserialize( serialized ), new FileRangeInputStream( path, start, end ), path ) )
+      {
+      while( !isClosed && iterator.hasNext() )
+        {
+        try
+          {
+          batch.add( iterator.next().getTupleCopy() );
+          }
+        catch( TupleException exception )
+          {
+          batch = offer( batch );
+          offer( exception );
+          continue;
+          }
+
+        if( batch.size() == BATCH_SIZE )
+          batch = offer( batch );
+        }
+      }
+    catch( Throwable throwable )
+      {
+      batch = offer( batch );
+
+      if( throwable instanceof TupleException )
+        offer( throwable );
+      else
+        offer( new TupleException( "unable to read range: " + start + "-" + end + ", from: " + path, throwable ) );
+      }
+    finally
+      {
+      offer( batch );
+      offer( END_OF_RANGE );
+      }
+    }
+
+  private List<Tuple> offer( List<Tuple> batch )
+    {
+    if( batch.isEmpty() )
+      return batch;
+
+    offer( (Object) batch );
+
+    return new ArrayList<>( BATCH_SIZE );
+    }
+
+  private void offer( Object value )
+    {
+    try
+      {
+      // stop blocking once the consumer is closed
+      while( !isClosed && !queue.offer( value, 100, TimeUnit.MILLISECONDS ) )
+        ;
+      }
+    catch( InterruptedException exception )
+      {
+      Thread.currentThread().interrupt();
+      }
+    }
+
+  @Override
+  public boolean hasNext()
+    {
+    if( currentException != null )
+      return true;
+
+    while( current == null || !current.hasNext() )
+      {
+      if( remaining == 0 )
+        return false;
+
+      Object value = take();
+
+      if( value == END_OF_RANGE )
+        remaining--;
+      else if( value instanceof TupleException )
+        currentException = (TupleException) value;
+      else
+        current = ( (List<Tuple>) value ).iterator();
+
+      if( currentException != null )
+        return true;
+      }
+
+    return true;
+    }
+
+  private Object take()
+    {
+    try
+      {
+      return queue.take();
+      }
+    catch( InterruptedException exception )
+      {
+      Thread.currentThread().interrupt();
+      throw new CascadingException( "interrupted while reading file ranges", exception );
+      }
+    }
+
+  @Override
+  public TupleEntry next()
+    {
+    if( !hasNext() )
+      throw new NoSuchElementException( "no next element" );
+
+    if( currentException != null )
+      {
+      TupleException exception = currentException;
+
+      currentException = null; // data may be trapped
+
+      throw exception;
+      }
+
+    getTupleEntry().setTuple( current.next() );
+
+    return getTupleEntry();
+    }
+
+  @Override
+  public void remove()
+    {
+    throw new UnsupportedOperationException( "may not remove elements from this iterator" );
+    }
+
+  @Override
+  public void close() throws IOException
+    {
+    if( isClosed )
+      return;
+
+    isClosed = true;
+
+    executor.shutdownNow();
+    queue.clear();
+    }
+
+  private static byte[] serialize( Scheme scheme )
+    {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try( ObjectOutputStream stream = new ObjectOutputStream( bytes ) )
+      {
+      stream.writeObject( scheme );
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to serialize scheme: " + scheme, exception );
+      }
+
+    return bytes.toByteArray();
+    }
+
+  private static Scheme deserialize( byte[] bytes )
+    {
+    try( ObjectInputStream stream = new ObjectInputStream( new ByteArrayInputStream( bytes ) ) )
+      {
+      return (Scheme) stream.readObject();
+      }
+    catch( IOException | ClassNotFoundException exception )
+      {
+      throw new CascadingException( "unable to deserialize scheme", exception );
+      }
+    }
+  }
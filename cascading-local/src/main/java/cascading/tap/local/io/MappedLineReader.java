@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cascading.tap.local.io;
+
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Class MappedLineReader is a {@link LineNumberReader} that memory maps a {@link FileChannel} and finds the end of
+ * each line directly on the mapped bytes, so only the bytes of each line are copied, and decoded once, into a String.
+ * <p>
+ * The file is mapped in windows of, by default, {@link #DEFAULT_WINDOW_SIZE} bytes, where a window is re-mapped to
+ * begin at the start of any line crossing its end. A window grows to hold any line larger than the window size.
+ * <p>
+ * As with {@link java.io.BufferedReader}, a line is terminated by a line feed, a carriage return, or a carriage
+ * return followed by a line feed. The given {@link Charset} must encode both as single bytes, as with UTF-8.
+ * <p>
+ * Only {@link #readLine()} and the line number methods are supported.
+ */
+public class MappedLineReader extends LineNumberReader
+  {
+  /** Field DEFAULT_WINDOW_SIZE */
+  public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+  private static final long LINE_FEEDS = 0x0A0A0A0A0A0A0A0AL;
+  private static final long CARRIAGE_RETURNS = 0x0D0D0D0D0D0D0D0DL;
+
+  private final FileChannel channel;
+  private final long end;
+  private final Charset charset;
+  private final int windowSize;
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+  private int lineNumber;
+  private byte[] bytes = new byte[ 1024 ];
+
+  /**
+   * Constructor MappedLineReader creates a new MappedLineReader instance reading from the current position of the
+   * given channel to its end.
+   *
+   * @param channel of type FileChannel
+   * @param charset of type Charset
+   * @throws IOException when the channel cannot be read
+   */
+  public MappedLineReader( FileChannel channel, Charset charset ) throws IOException
+    {
+    this( channel, channel.position(), channel.size(), charset, DEFAULT_WINDOW_SIZE );
+    }
+
+  /**
+   * Constructor MappedLineReader creates a new MappedLineReader instance reading from the start offset, inclusive, to
+   * the end offset, exclusive, of the given channel.
+   *
+   * @param channel    of type FileChannel
+   * @param start      of type long
+   * @param end        of type long
+   * @param charset    of type Charset
+   * @param windowSize of type int
+   */
+  public MappedLineReader( FileChannel channel, long start, long end, Charset charset, int windowSize )
+    {
+    super( new StringReader( "" ) );
+
+    if( start < 0 || end < start )
+      throw new IllegalArgumentException( "invalid range, start: " + start + ", end: " + end );
+
+    if( windowSize < 1 )
+      throw new IllegalArgumentException( "window size must be greater than zero, got: " + windowSize );
+
+    this.channel = channel;
+    this.end = end;
+    this.charset = charset;
+    this.windowSize = windowSize;
+    this.position = start;
+    }
+
+  @Override
+  public String readLine() throws IOException
+    {
+    if( position >= end )
+      return null;
+
+    while( true )
+      {
+      if( window == null || position - windowStart >= window.limit() )
+        map( position, windowSize );
+
+      int offset = (int) ( position - windowStart );
+      int limit = window.limit();
+      boolean isLastWindow = windowStart + limit >= end;
+      int index = indexOfTerminator( offset, limit );
+
+      // a carriage return may be followed by a line feed in the next window
+      if( index != -1 && ( window.get( index ) == '\n' || index + 1 < limit || isLastWindow ) )
+        {
+        String line = decode( offset, index - offset );
+        int next = index + 1;
+
+        if( window.get( index ) == '\r' && next < limit && window.get( next ) == '\n' )
+          next++;
+
+        position = windowStart + next;
+        lineNumber++;
+
+        return line;
+        }
+
+      if( isLastWindow )
+        {
+        String line = decode( offset, limit - offset );
+
+        position = windowStart + limit;
+        lineNumber++;
+
+        return line;
+        }
+
+      // the current line crosses the end of the window, so map a window beginning with the line
+      long size = position == windowStart ? limit * 2L : windowSize;
+
+      if( size > Integer.MAX_VALUE )
+        throw new IOException( "line length exceeds maximum window size, at offset: " + position );
+
+      map( position, (int) Math.max( size, limit - offset + 1L ) );
+      }
+    }
+
+  private void map( long start, int size ) throws IOException
+    {
+    window = channel.map( FileChannel.MapMode.READ_ONLY, start, Math.min( size, end - start ) );
+    window.order( ByteOrder.LITTLE_ENDIAN ); // the first byte of a word is the least significant
+    windowStart = start;
+    }
+
+  private int indexOfTerminator( int from, int limit )
+    {
+    int index = from;
+
+    // test eight bytes at a time, the lowest flagged byte is always a match
+    for( ; index + 8 <= limit; index += 8 )
+      {
+      long word = window.getLong( index );
+      long found = flagZeroBytes( word ^ LINE_FEEDS ) | flagZeroBytes( word ^ CARRIAGE_RETURNS );
+
+      if( found != 0 )
+        return index + ( Long.numberOfTrailingZeros( found ) >>> 3 );
+      }
+
+    for( ; index < limit; index++ )
+      {
+      byte current = window.get( index );
+
+      if( current == '\n' || current == '\r' )
+        return index;
+      }
+
+    return -1;
+    }
+
+  private static long flagZeroBytes( long word )
+    {
+    return ( word - 0x0101010101010101L ) & ~word & 0x8080808080808080L;
+    }
+
+  private String decode( int offset, int length )
+    {
+    if( bytes.length < length )
+      bytes = new byte[ Math.max( length, bytes.length * 2 ) ];
+
+    window.position( offset );
+    window.get( bytes, 0, length );
+
+    return new String( bytes, 0, length, charset );
+    }
+
+  @Override
+  public int getLineNumber()
+    {
+    return lineNumber;
+    }
+
+  @Override
+  public void setLineNumber( int lineNumber )
+    {
+    this.lineNumber = lineNumber;
+    }
+
+  @Override
+  public int read() throws IOException
+    {
+    throw new UnsupportedOperationException( "only whole lines may be read" );
+    }
+
+  @Override
+  public int read( char[] buffer, int offset, int length ) throws IOException
+    {
+    throw new UnsupportedOperationException( "only whole lines may be read" );
+    }
+
+  @Override
+  public long skip( long count ) throws IOException
+    {
+    throw new UnsupportedOperationException( "only whole lines may be read" );
+    }
+
+  @Override
+  public boolean ready()
+    {
+    return position < end;
+    }
+
+  @Override
+  public boolean markSupported()
+    {
+    return false;
+    }
+
+  @Override
+  public void close()
+    {
+    window = null; // the channel is owned by the given input
+    }
+  }
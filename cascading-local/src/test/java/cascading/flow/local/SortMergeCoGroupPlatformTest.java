@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2007-2022 The Cascading Authors. All Rights Reserved.
+ *
+ * Project and contact information: https://cascading.wensel.net/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cascading.CascadingException;
+import cascading.InnerJoinTestBuffer;
+import cascading.PlatformTestCase;
+import cascading.flow.Flow;
+import cascading.flow.FlowException;
+import cascading.flow.local.stream.element.SortMergeCoGroupGate;
+import cascading.pipe.CoGroup;
+import cascading.pipe.Every;
+import cascading.pipe.Pipe;
+import cascading.pipe.joiner.BufferJoin;
+import cascading.pipe.joiner.InnerJoin;
+import cascading.pipe.joiner.Joiner;
+import cascading.pipe.joiner.LeftJoin;
+import cascading.pipe.joiner.OuterJoin;
+import cascading.pipe.joiner.RightJoin;
+import cascading.tap.SinkMode;
+import cascading.tap.SortedTap;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+import static data.InputData.*;
+
+/**
+ *
+ */
+public class SortMergeCoGroupPlatformTest extends PlatformTestCase
+  {
+  public SortMergeCoGroupPlatformTest()
+    {
+    super( false );
+    }
+
+  @Test
+  public void testSortMergeInner() throws Exception
+    {
+    runComparison( "inner", new InnerJoin(), inputFileLhs, inputFileRhs, 37 );
+    }
+
+  @Test
+  public void testSortMergeOuter() throws Exception
+    {
+    runComparison( "outer", new OuterJoin(), inputFileLhs, inputFileUpper, 13 );
+    }
+
+  @Test
+  public void testSortMergeLeft() throws Exception
+    {
+    runComparison( "left", new LeftJoin(), inputFileLower, inputFileRhs, 13 );
+    }
+
+  @Test
+  public void testSortMergeRight() throws Exception
+    {
+    runComparison( "right", new RightJoin(), inputFileLhs, inputFileLower, 13 );
+    }
+
+  @Test
+  public void testSortMergeBufferJoin() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    Map<String, Tap> sources = new HashMap<>();
+
+    sources.put( "lower", new SortedTap( new Fields( "num" ), getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLower ) ) );
+    sources.put( "upper", new SortedTap( new Fields( "num" ), getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileUpper ) ) );
+
+    Tap sink = getPlatform().getTextFile( new Fields( "line" ), getOutputPath( "bufferjoin" ), SinkMode.REPLACE );
+
+    Pipe splice = new CoGroup( new Pipe( "lower" ), new Fields( "num" ), new Pipe( "upper" ), new Fields( "num" ), new BufferJoin() );
+
+    splice = new Every( splice, new InnerJoinTestBuffer( Fields.size( 4 ) ), Fields.RESULTS );
+
+    Flow flow = getPlatform().getFlowConnector().connect( sources, sink, splice );
+
+    flow.complete();
+
+    validateLength( flow, 5 );
+    assertTrue( getMerged( flow ) > 0 );
+
+    List<Tuple> values = getSinkAsList( flow );
+
+    assertTrue( values.contains( new Tuple( "1\ta\t1\tA" ) ) );
+    assertTrue( values.contains( new Tuple( "2\tb\t2\tB" ) ) );
+    }
+
+  @Test
+  public void testSortMergeUnsorted() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLowerOffset );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    Flow flow = createFlow( "unsorted", new InnerJoin(), inputFileLowerOffset, inputFileUpper, true );
+
+    try
+      {
+      flow.complete();
+      fail( "did not fail on unsorted input" );
+      }
+    catch( FlowException exception )
+      {
+      assertTrue( exception.getCause() instanceof CascadingException );
+      assertTrue( exception.getCause().getMessage().contains( "is not sorted on the grouping fields" ) );
+      }
+    }
+
+  @Test
+  public void testSortMergeComparatorMismatch() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    Fields lhsKey = new Fields( "numLHS" );
+    Fields rhsKey = new Fields( "numRHS" );
+
+    lhsKey.setComparator( "numLHS", (Comparator) Collections.reverseOrder() );
+    rhsKey.setComparator( "numRHS", (Comparator) Collections.reverseOrder() );
+
+    // the taps do not declare the reversed comparator, so are grouped in memory instead of failing as unsorted
+    Flow flow = createFlow( "mismatch", lhsKey, rhsKey, false, inputFileLower, inputFileUpper );
+
+    flow.complete();
+
+    validateLength( flow, 5 );
+    assertEquals( 0, getMerged( flow ) );
+    }
+
+  @Test
+  public void testSortMergeReversedMismatch() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    // the taps declare a descending order, so the ascending grouping is performed in memory
+    Flow flow = createFlow( "reversed", new Fields( "numLHS" ), new Fields( "numRHS" ), true, inputFileLower, inputFileUpper );
+
+    flow.complete();
+
+    validateLength( flow, 5 );
+    assertEquals( 0, getMerged( flow ) );
+    }
+
+  private long getMerged( Flow flow )
+    {
+    return flow.getFlowStats().getCounterValue( SortMergeCoGroupGate.Merge.Num_Groupings_Merged );
+    }
+
+  private Flow createFlow( String name, Fields lhsKey, Fields rhsKey, boolean reversed, String lhsFile, String rhsFile )
+    {
+    Map<String, Tap> sources = new HashMap<>();
+
+    sources.put( "lhs", new SortedTap( new Fields( "numLHS" ), reversed, getPlatform().getDelimitedFile( new Fields( "numLHS", "charLHS" ), " ", lhsFile ) ) );
+    sources.put( "rhs", new SortedTap( new Fields( "numRHS" ), reversed, getPlatform().getDelimitedFile( new Fields( "numRHS", "charRHS" ), " ", rhsFile ) ) );
+
+    Tap sink = getPlatform().getDelimitedFile( Fields.ALL, "\t", getOutputPath( name ), SinkMode.REPLACE );
+
+    Pipe splice = new CoGroup( new Pipe( "lhs" ), lhsKey, new Pipe( "rhs" ), rhsKey, new InnerJoin() );
+
+    return getPlatform().getFlowConnector().connect( sources, sink, splice );
+    }
+
+  private void runComparison( String name, Joiner joiner, String lhsFile, String rhsFile, int length ) throws Exception
+    {
+    getPlatform().copyFromLocal( lhsFile );
+    getPlatform().copyFromLocal( rhsFile );
+
+    Flow memoryFlow = createFlow( name + "-memory", joiner, lhsFile, rhsFile, false );
+
+    memoryFlow.complete();
+
+    assertEquals( 0, getMerged( memoryFlow ) );
+
+    Flow sortedFlow = createFlow( name + "-sorted", joiner, lhsFile, rhsFile, true );
+
+    sortedFlow.complete();
+
+    validateLength( sortedFlow, length );
+    assertTrue( getMerged( sortedFlow ) > 0 );
+
+    List<Tuple> expected = getSinkAsList( memoryFlow );
+    List<Tuple> results = getSinkAsList( sortedFlow );
+
+    Collections.sort( expected );
+    Collections.sort( results );
+
+    assertEquals( expected, results );
+    }
+
+  private Flow createFlow( String name, Joiner joiner, String lhsFile, String rhsFile, boolean sorted )
+    {
+    Tap lhs = getPlatform().getDelimitedFile( new Fields( "numLHS", "charLHS" ), " ", lhsFile );
+    Tap rhs = getPlatform().getDelimitedFile( new Fields( "numRHS", "charRHS" ), " ", rhsFile );
+
+    if( sorted )
+      {
+      lhs = new SortedTap( new Fields( "numLHS" ), lhs );
+      rhs = new SortedTap( new Fields( "numRHS" ), rhs );
+      }
+
+    Map<String, Tap> sources = new HashMap<>();
+
+    sources.put( "lhs", lhs );
+    sources.put( "rhs", rhs );
+
+    Tap sink = getPlatform().getDelimitedFile( Fields.ALL, "\t", getOutputPath( name ), SinkMode.REPLACE );
+
+    Pipe splice = new CoGroup( new Pipe( "lhs" ), new Fields( "numLHS" ), new Pipe( "rhs" ), new Fields( "numRHS" ), joiner );
+
+    return getPlatform().getFlowConnector().connect( sources, sink, splice );
+    }
+  }
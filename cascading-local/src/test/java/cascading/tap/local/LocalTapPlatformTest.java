@@ -20,8 +20,10 @@
 
 package cascading.tap.local;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.LineNumberReader;
@@ -29,8 +31,17 @@ import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import cascading.PlatformTestCase;
 import cascading.flow.Flow;
@@ -40,13 +51,20 @@ import cascading.pipe.Pipe;
 import cascading.scheme.Scheme;
 import cascading.scheme.SinkCall;
 import cascading.scheme.SourceCall;
+import cascading.scheme.local.CompressorScheme;
 import cascading.scheme.local.Compressors;
+import cascading.scheme.local.TextDelimited;
 import cascading.scheme.local.TextLine;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
+import cascading.tap.manifest.FileSourceManifest;
+import cascading.tap.manifest.SourceManifest;
+import cascading.tap.local.io.FileRangeInputStream;
+import cascading.tap.local.io.MappedLineReader;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import data.InputData;
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 
 import static data.InputData.inputFileNums20;
@@ -199,6 +217,55 @@ public class LocalTapPlatformTest extends PlatformTestCase implements Serializab
     assertEquals( 674, list.size() );
     }
 
+  @Test
+  public void testDirTapSourceManifest() throws Exception
+    {
+    File input = new File( getOutputPath( "input" ) );
+    FileUtils.deleteDirectory( input ); // files written by a prior run would be new to the manifest
+    input.mkdirs();
+
+    Files.write( new File( input, "first.txt" ).toPath(), Arrays.asList( "1", "2", "3" ) );
+    Files.write( new File( input, "second.txt" ).toPath(), Arrays.asList( "4", "5" ) );
+
+    File manifestFile = new File( getOutputPath( "manifest" ), "manifest.txt" );
+    manifestFile.delete();
+
+    FileSourceManifest manifest = new FileSourceManifest( manifestFile.getPath() );
+
+    Flow first = runManifestFlow( manifest, input, "first" );
+
+    assertEquals( 5, getSinkAsList( first ).size() );
+    assertEquals( 2, first.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Processed ) );
+
+    // nothing changed, so nothing is read
+    Flow second = runManifestFlow( manifest, input, "second" );
+
+    assertEquals( 0, getSinkAsList( second ).size() );
+    assertEquals( 2, second.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Skipped ) );
+
+    Files.write( new File( input, "third.txt" ).toPath(), Arrays.asList( "6" ) );
+
+    Flow third = runManifestFlow( manifest, input, "third" );
+
+    assertEquals( Arrays.asList( new Tuple( "6" ) ), getSinkAsList( third ) );
+    assertEquals( 1, third.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Processed ) );
+    assertEquals( 2, third.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Skipped ) );
+    }
+
+  private Flow runManifestFlow( SourceManifest manifest, File input, String name )
+    {
+    DirTap source = new DirTap( new TextLine( new Fields( "line" ) ), input.getPath(), "glob:**/*.txt" );
+    source.setSourceManifest( manifest );
+
+    Tap sink = new FileTap( new TextLine( new Fields( "line" ) ), getOutputPath( name ), SinkMode.REPLACE );
+
+    Flow flow = getPlatform().getFlowConnector().connect( name, source, sink, new Pipe( "copy" ) );
+
+    flow.complete();
+
+    return flow;
+    }
+
   @Test
   public void testSchemeCompression() throws Exception
     {
@@ -218,4 +285,126 @@ public class LocalTapPlatformTest extends PlatformTestCase implements Serializab
 
     assertEquals( 674, list.size() );
     }
+  
+  @Test
+  public void testSplitFileRead() throws Exception
+    {
+    assertFalse( new TextLine().isSourceSplittable() );
+    assertFalse( new TextLine( new Fields( "line" ), Compressors.GZIP ).isSourceSplittable() );
+    assertFalse( new TextLine( new Fields( "line" ), "UTF-16" ).isSourceSplittable() );
+    assertTrue( new TextLine( new Fields( "line" ) ).isSourceSplittable() );
+
+    int numLines = 20000;
+    File input = new File( getOutputPath( "split-input" ), "values.tsv" );
+
+    input.getParentFile().mkdirs();
+
+    try( PrintWriter writer = new PrintWriter( input, "UTF-8" ) )
+      {
+      writer.println( "num\tvalue" );
+
+      for( int i = 0; i < numLines; i++ )
+        writer.println( i + "\tvalue-" + i );
+      }
+
+    long[] offsets = FileRangeInputStream.splitOnLineFeed( input.getPath(), 4, 1024 );
+
+    assertEquals( 5, offsets.length );
+    assertEquals( input.length(), offsets[ 4 ] );
+
+    Properties properties = new Properties();
+
+    properties.setProperty( FileTap.SPLIT_THREADS_PROPERTY, "4" );
+    properties.setProperty( FileTap.SPLIT_MIN_SIZE_PROPERTY, "1024" );
+
+    Fields fields = new Fields( "num", "value" ).applyTypes( Long.TYPE, String.class );
+    Tap source = new FileTap( new TextDelimited( fields, true, "\t" ), input.getPath() );
+    Tap sink = new FileTap( new TextDelimited( fields, "\t" ), getOutputPath( "split-output" ), SinkMode.REPLACE );
+
+    Flow flow = new LocalFlowConnector( properties ).connect( source, sink, new Pipe( "split" ) );
+
+    flow.complete();
+
+    List<Tuple> list = getSinkAsList( flow );
+
+    assertEquals( numLines, list.size() );
+
+    long sum = 0;
+    Set<Long> seen = new HashSet<>();
+
+    for( Tuple tuple : list )
+      {
+      long num = tuple.getLong( 0 );
+
+      assertEquals( "value-" + num, tuple.getString( 1 ) );
+      assertTrue( seen.add( num ) );
+
+      sum += num;
+      }
+
+    assertEquals( (long) numLines * ( numLines - 1 ) / 2, sum );
+    }
+  
+  @Test
+  public void testMappedRead() throws Exception
+    {
+    StringBuilder builder = new StringBuilder();
+
+    for( int i = 0; i < 500; i++ )
+      {
+      builder.append( i ).append( "\t" ).append( i % 7 == 0 ? "caf\u00e9-" : "value-" );
+
+      for( int j = 0; j < i % 40; j++ )
+        builder.append( 'x' );
+
+      builder.append( i % 3 == 0 ? "\r\n" : i % 5 == 0 ? "\r" : "\n" );
+      }
+
+    builder.append( "\n\nlast" ); // empty lines and no trailing line feed
+
+    File input = new File( getOutputPath( "mapped-input" ), "values.txt" );
+
+    input.getParentFile().mkdirs();
+    Files.write( input.toPath(), builder.toString().getBytes( StandardCharsets.UTF_8 ) );
+
+    List<String> expected = new BufferedReader( new StringReader( builder.toString() ) ).lines().collect( Collectors.toList() );
+
+    // windows smaller than a line force re-mapping
+    for( int windowSize : new int[]{1, 16, 1024, MappedLineReader.DEFAULT_WINDOW_SIZE} )
+      {
+      try( FileChannel channel = FileChannel.open( input.toPath() ) )
+        {
+        MappedLineReader reader = new MappedLineReader( channel, 0, channel.size(), StandardCharsets.UTF_8, windowSize );
+        List<String> lines = new ArrayList<>();
+        String line;
+
+        while( ( line = reader.readLine() ) != null )
+          lines.add( line );
+
+        assertEquals( "window size: " + windowSize, expected, lines );
+        assertEquals( expected.size(), reader.getLineNumber() );
+        }
+      }
+
+    Properties properties = new Properties();
+
+    properties.setProperty( CompressorScheme.MAPPED_READ_PROPERTY, "true" );
+
+    Tap source = new FileTap( new TextLine( new Fields( "num", "line" ) ), input.getPath() );
+    Tap sink = new FileTap( new TextLine(), getOutputPath( "mapped-output" ), SinkMode.REPLACE );
+
+    Flow flow = new LocalFlowConnector( properties ).connect( source, sink, new Pipe( "mapped" ) );
+
+    flow.complete();
+
+    List<Tuple> list = asList( flow, source );
+
+    assertEquals( expected.size(), list.size() );
+
+    for( int i = 0; i < list.size(); i++ )
+      {
+      assertEquals( i, list.get( i ).getInteger( 0 ) );
+      assertEquals( expected.get( i ), list.get( i ).getString( 1 ) );
+      }
+    }
   }
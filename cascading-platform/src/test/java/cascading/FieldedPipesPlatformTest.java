@@ -32,16 +32,24 @@ import java.util.regex.Pattern;
 
 import cascading.cascade.Cascades;
 import cascading.flow.Flow;
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.graph.StreamGraph;
+import cascading.operation.BaseOperation;
+import cascading.operation.BatchCall;
+import cascading.operation.BatchFunction;
 import cascading.operation.Debug;
 import cascading.operation.Filter;
 import cascading.operation.Function;
+import cascading.operation.FunctionCall;
 import cascading.operation.Identity;
 import cascading.operation.Insert;
 import cascading.operation.NoOp;
 import cascading.operation.aggregator.Count;
 import cascading.operation.aggregator.First;
+import cascading.operation.aggregator.Sum;
 import cascading.operation.expression.ExpressionFunction;
 import cascading.operation.filter.And;
+import cascading.operation.filter.FilterNull;
 import cascading.operation.function.UnGroup;
 import cascading.operation.regex.RegexFilter;
 import cascading.operation.regex.RegexParser;
@@ -57,6 +65,7 @@ import cascading.tap.Tap;
 import cascading.tuple.Fields;
 import cascading.tuple.Hasher;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import org.junit.Test;
 
 import static cascading.ComparePlatformsTest.NONDETERMINISTIC;
@@ -547,6 +556,55 @@ public class FieldedPipesPlatformTest extends PlatformTestCase
     validateLength( flow, 0, null );
     }
 
+  /**
+   * Verifies batch operations return the same results when handed batches of arguments.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testBatchOperations() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache200 );
+
+    Tap source = getPlatform().getTextFile( new Fields( "offset", "line" ), inputFileApache200 );
+
+    Pipe pipe = new Pipe( "test" );
+
+    String regex = "^([^ ]*) +[^ ]* +[^ ]* +\\[([^]]*)\\] +\\\"([^ ]*) ([^ ]*) [^ ]*\\\" ([^ ]*) ([^ ]*).*$";
+    Fields fieldDeclaration = new Fields( "ip", "time", "method", "event", "status", "size" );
+    int[] groups = {1, 2, 3, 4, 5, 6};
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( fieldDeclaration, regex, groups ) );
+
+    pipe = new Each( pipe, new Fields( "size" ), new ParseSize( new Fields( "size" ) ), Fields.REPLACE );
+    pipe = new Each( pipe, new Fields( "size" ), new FilterNull() );
+
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+
+    pipe = new Every( pipe, new Fields( "size" ), new Count(), new Fields( "ip", "count" ) );
+    pipe = new Every( pipe, new Fields( "size" ), new Sum( new Fields( "sum" ), long.class ), new Fields( "ip", "count", "sum" ) );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "batchoff" ), SinkMode.REPLACE );
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 126, null );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( StreamGraph.BATCH_SIZE, "7" );
+
+    Tap batchSink = getPlatform().getTextFile( getOutputPath( "batchon" ), SinkMode.REPLACE );
+
+    Flow batchFlow = getPlatform().getFlowConnector( properties ).connect( source, batchSink, pipe );
+
+    batchFlow.complete();
+
+    assertTrue( batchFlow.getFlowStats().getCounterValue( ParseSize.Batch.Batches ) > 0 );
+    assertEquals( getSinkAsList( flow ), getSinkAsList( batchFlow ) );
+    }
+
 //  public void testLimitFilter() throws Exception
 //    {
 //    copyFromLocal( inputFileApache );
@@ -982,6 +1040,47 @@ public class FieldedPipesPlatformTest extends PlatformTestCase
     validateLength( flow, 8, null );
     }
 
+  /** Parses the size field of a log line as a Long, or null if not given. */
+  public static class ParseSize extends BaseOperation implements BatchFunction
+    {
+    enum Batch
+      {
+        Batches
+      }
+
+    public ParseSize( Fields fieldDeclaration )
+      {
+      super( 1, fieldDeclaration );
+      }
+
+    @Override
+    public void operate( FlowProcess flowProcess, FunctionCall functionCall )
+      {
+      functionCall.getOutputCollector().add( new Tuple( parse( functionCall.getArguments().getObject( 0 ) ) ) );
+      }
+
+    @Override
+    public void operateBatch( FlowProcess flowProcess, BatchCall batchCall )
+      {
+      TupleBatch arguments = batchCall.getArgumentBatch();
+      TupleBatch results = batchCall.getResultBatch();
+      int[] selection = arguments.getSelection();
+
+      for( int i = 0; i < arguments.getNumSelected(); i++ )
+        results.setObject( selection[ i ], 0, parse( arguments.getObject( selection[ i ], 0 ) ) );
+
+      flowProcess.increment( Batch.Batches, 1 );
+      }
+
+    private static Long parse( Object value )
+      {
+      if( value == null || "-".equals( value ) )
+        return null;
+
+      return Long.valueOf( value.toString() );
+      }
+    }
+
   public static class LowerComparator implements Comparator<Comparable>, Hasher<Comparable>, Serializable
     {
     @Override
@@ -21,15 +21,28 @@
 package cascading;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
 import cascading.cascade.Cascades;
 import cascading.flow.Flow;
 import cascading.flow.FlowDef;
+import cascading.flow.FlowProcess;
+import cascading.flow.StepCounters;
+import cascading.flow.stream.element.SinkStage;
+import cascading.flow.stream.graph.StreamGraph;
 import cascading.operation.AssertionLevel;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.BatchAggregator;
+import cascading.operation.BatchCall;
+import cascading.operation.BatchFilter;
+import cascading.operation.FilterCall;
+import cascading.operation.Identity;
 import cascading.operation.aggregator.Count;
 import cascading.operation.assertion.AssertNotEquals;
+import cascading.operation.regex.RegexFilter;
 import cascading.operation.regex.RegexParser;
 import cascading.pipe.Each;
 import cascading.pipe.Every;
@@ -42,6 +55,7 @@ import cascading.tap.Tap;
 import cascading.tap.TrapProps;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleBatch;
 import org.junit.Test;
 
 import static cascading.ComparePlatformsTest.NONDETERMINISTIC;
@@ -275,6 +289,118 @@ public class TrapPlatformTest extends PlatformTestCase
     validateLength( flow.openTrap(), 4 );
     }
 
+  /**
+   * Verifies filters, assertions, and functions fused into a single stage trap and remove the same tuples.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testTrapEachAllChainedFused() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "map" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+    pipe = new Each( pipe, new Fields( "ip" ), new RegexFilter( "^63\\.", true ) );
+    pipe = new Each( pipe, AssertionLevel.VALID, new AssertNotEquals( "75.185.76.245" ) );
+    pipe = new Each( pipe, new Identity() );
+    pipe = new Each( pipe, AssertionLevel.VALID, new AssertNotEquals( "12.215.138.88" ) );
+    pipe = new Each( pipe, new TestFunction( new Fields( "test" ), new Tuple( 1 ) ), Fields.ALL );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "fused/tap" ), SinkMode.REPLACE );
+    Tap trap = getPlatform().getTextFile( getOutputPath( "fused/trap" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( StreamGraph.FUSE_EACH_STAGES, "true" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( "trap test", source, sink, trap, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 6, null );
+    validateLength( flow.openTrap(), 2 );
+
+    List<Tuple> trapped = asList( flow, trap );
+
+    assertTrue( trapped.toString().contains( "75.185.76.245" ) );
+    assertTrue( trapped.toString().contains( "12.215.138.88" ) );
+
+    // all six Each stages were replaced by a FusedEachStage in each task
+    assertTrue( flow.getFlowStats().getCounterValue( StepCounters.Fused_Stages ) >= 6 );
+    }
+
+  /**
+   * Verifies a failing batch filter is retried one tuple at a time, so only the offending tuple is trapped.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testTrapEachBatched() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "map" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+    pipe = new Each( pipe, new Fields( "ip" ), new FailBatchFilter( "75.185.76.245" ) );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "batched/tap" ), SinkMode.REPLACE );
+    Tap trap = getPlatform().getTextFile( getOutputPath( "batched/trap" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( StreamGraph.BATCH_SIZE, "4" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( "trap test", source, sink, trap, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 9, null );
+    validateLength( flow.openTrap(), 1 );
+
+    assertTrue( asList( flow, trap ).toString().contains( "75.185.76.245" ) );
+    }
+
+  @Test
+  public void testTrapEveryBatched() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "map" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+    pipe = new GroupBy( "reduce", pipe, Fields.NONE );
+    pipe = new Every( pipe, new Fields( "ip" ), new FailBatchCount( "75.185.76.245", "68.102.166.126" ), new Fields( "count" ) );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "everybatched/tap" ), SinkMode.REPLACE );
+    Tap trap = getPlatform().getTextFile( getOutputPath( "everybatched/trap" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( StreamGraph.BATCH_SIZE, "4" );
+
+    Map<String, Tap> traps = Cascades.tapsMap( "reduce", trap );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( "trap test", source, sink, traps, pipe );
+
+    flow.complete();
+
+    // every row not trapped is counted once, across all batches
+    List<Tuple> results = asList( flow, sink );
+
+    assertEquals( 1, results.size() );
+    assertEquals( "7", results.get( 0 ).getString( 1 ) );
+    validateLength( flow.openTrap(), 3 );
+    }
+
   /**
    * This test verifies traps can cross m/r and step boundaries.
    *
@@ -340,6 +466,17 @@ public class TrapPlatformTest extends PlatformTestCase
 
   @Test
   public void testTrapTapSourceSink() throws Exception
+    {
+    runTrapTapSourceSink( "trapsourcesink", false );
+    }
+
+  @Test
+  public void testTrapTapSourceSinkAsync() throws Exception
+    {
+    runTrapTapSourceSink( "trapsourcesinkasync", true );
+    }
+
+  private void runTrapTapSourceSink( String path, boolean async ) throws Exception
     {
     getPlatform().copyFromLocal( inputFileApache );
 
@@ -353,12 +490,19 @@ public class TrapPlatformTest extends PlatformTestCase
     pipe = new GroupBy( pipe, new Fields( "ip" ) );
     pipe = new Every( pipe, new Count(), new Fields( "ip", "count" ) );
 
-    Tap sink = getPlatform().getTap( scheme, getOutputPath( "trapsourcesink/sink" ), SinkMode.REPLACE );
+    Tap sink = getPlatform().getTap( scheme, getOutputPath( path + "/sink" ), SinkMode.REPLACE );
 
-    Tap trap = getPlatform().getTextFile( new Fields( "line" ), getOutputPath( "trapsourcesink/trap" ), SinkMode.REPLACE );
+    Tap trap = getPlatform().getTextFile( new Fields( "line" ), getOutputPath( path + "/trap" ), SinkMode.REPLACE );
 
     Map<Object, Object> properties = getProperties();
 
+    if( async )
+      {
+      properties.put( SinkStage.ASYNC_WRITE, "true" );
+      properties.put( SinkStage.ASYNC_WRITE_BATCH_SIZE, "2" );
+      properties.put( SinkStage.ASYNC_WRITE_QUEUE_CAPACITY, "1" );
+      }
+
     // compensate for running in cluster mode
     getPlatform().setNumMapTasks( properties, 1 );
     getPlatform().setNumReduceTasks( properties, 1 );
@@ -368,8 +512,12 @@ public class TrapPlatformTest extends PlatformTestCase
 
     flow.complete();
 
+    // write failures on the async writer thread are trapped on the pipeline thread, same as sync writes
     validateLength( flow.openTapForRead( getPlatform().getTextFile( sink.getIdentifier() ) ), 7 );
     validateLength( flow.openTrap(), 2, Pattern.compile( "bad data" ) ); // confirm the payload is written
+
+    if( async )
+      assertTrue( flow.getFlowStats().getCounterValue( StepCounters.Write_Queue_Samples ) > 0 );
     }
 
   @Test
@@ -490,4 +638,91 @@ public class TrapPlatformTest extends PlatformTestCase
 
     flow.complete();
     }
+
+  /** Counts values, failing on the given values whether called per tuple or per batch. */
+  public static class FailBatchCount extends BaseOperation<long[]> implements BatchAggregator<long[]>
+    {
+    private final String[] values;
+
+    public FailBatchCount( String... values )
+      {
+      super( new Fields( "count", Long.class ) );
+      this.values = values;
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<long[]> aggregatorCall )
+      {
+      if( aggregatorCall.getContext() == null )
+        aggregatorCall.setContext( new long[ 1 ] );
+
+      aggregatorCall.getContext()[ 0 ] = 0;
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<long[]> aggregatorCall )
+      {
+      verify( aggregatorCall.getArguments().getObject( 0 ) );
+
+      aggregatorCall.getContext()[ 0 ]++;
+      }
+
+    @Override
+    public void aggregateBatch( FlowProcess flowProcess, BatchCall<long[]> batchCall )
+      {
+      TupleBatch arguments = batchCall.getArgumentBatch();
+
+      for( int i = 0; i < arguments.getNumSelected(); i++ )
+        verify( arguments.getObject( arguments.getSelection()[ i ], 0 ) );
+
+      batchCall.getContext()[ 0 ] += arguments.getNumSelected(); // only updated once all rows succeed
+      }
+
+    private void verify( Object value )
+      {
+      for( String current : values )
+        {
+        if( current.equals( value ) )
+          throw new IllegalStateException( "failed on: " + value );
+        }
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<long[]> aggregatorCall )
+      {
+      aggregatorCall.getOutputCollector().add( new Tuple( aggregatorCall.getContext()[ 0 ] ) );
+      }
+    }
+
+  /** Fails on the given value whether called per tuple or per batch. */
+  public static class FailBatchFilter extends BaseOperation implements BatchFilter
+    {
+    private final String value;
+
+    public FailBatchFilter( String value )
+      {
+      this.value = value;
+      }
+
+    @Override
+    public boolean isRemove( FlowProcess flowProcess, FilterCall filterCall )
+      {
+      if( value.equals( filterCall.getArguments().getObject( 0 ) ) )
+        throw new IllegalStateException( "failed on: " + value );
+
+      return false;
+      }
+
+    @Override
+    public void removeBatch( FlowProcess flowProcess, BatchCall batchCall )
+      {
+      TupleBatch arguments = batchCall.getArgumentBatch();
+
+      for( int i = 0; i < arguments.getNumSelected(); i++ )
+        {
+        if( value.equals( arguments.getObject( arguments.getSelection()[ i ], 0 ) ) )
+          throw new IllegalStateException( "failed on: " + value );
+        }
+      }
+    }
   }
@@ -44,6 +44,8 @@ import cascading.operation.text.FieldJoiner;
 import cascading.pipe.Checkpoint;
 import cascading.pipe.Each;
 import cascading.pipe.Pipe;
+import cascading.stats.CascadeStats;
+import cascading.tap.CacheTap;
 import cascading.tap.MultiSourceTap;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
@@ -382,6 +384,50 @@ public class CascadePlatformTest extends PlatformTestCase
     assertEquals( fourth.getProperty( "cascading.cascade.id" ), id );
     }
 
+  private Flow cachedFlow( Tap source, String path, int ordinal )
+    {
+    Pipe pipe = new Pipe( "cached-" + ordinal );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "first", "second", "third", "fourth" ), "\\." ) );
+
+    Tap sink = getPlatform().getTabDelimitedFile( new Fields( "first", "second", "third", "fourth" ), getOutputPath( path + "/" + ordinal ), SinkMode.REPLACE );
+
+    return getPlatform().getFlowConnector().connect( "cached-" + ordinal, source, sink, pipe );
+    }
+
+  @Test
+  public void testCacheTapCascade() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileIps );
+
+    Tap source = new CacheTap( getPlatform().getTextFile( inputFileIps ) );
+
+    Flow first = cachedFlow( source, "cachetap", 1 );
+    Flow second = cachedFlow( source, "cachetap", 2 );
+
+    Map<Object, Object> properties = getProperties();
+
+    CascadeProps.setMaxConcurrentFlows( properties, 1 );
+
+    Cascade cascade = new CascadeConnector( properties ).connect( first, second );
+
+    cascade.complete();
+
+    validateLength( first, 20 );
+    validateLength( second, 20 );
+
+    // only reads within the planning jvm are cached
+    if( getPlatform().isMapReduce() || getPlatform().isDAG() )
+      return;
+
+    CascadeStats cascadeStats = cascade.getCascadeStats();
+
+    assertEquals( 1, cascadeStats.getCounterValue( CacheTap.Cache.Misses ) );
+    assertEquals( 1, cascadeStats.getCounterValue( CacheTap.Cache.Hits ) );
+    assertEquals( 20, cascadeStats.getCounterValue( CacheTap.Cache.Tuples_Cached ) );
+    assertTrue( cascadeStats.getCounterValue( CacheTap.Cache.Bytes_In_Memory ) > 0 );
+    }
+
   @Test
   public void testCheckpointTapCascade() throws IOException
     {
@@ -851,6 +851,326 @@ public class AssemblyHelpersPlatformTest extends PlatformTestCase
     iterator.close();
     }
 
+  @Test
+  public void testParallelAggregatesCapacityBytes() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "sum", "count", "average" ), "\t",
+      new Class[]{
+        String.class,
+        Integer.TYPE,
+        Integer.TYPE,
+        Double.TYPE}, getOutputPath( "multibytes" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "multi" );
+
+    Fields num = new Fields( "num" );
+
+    SumBy sumPipe = new SumBy( num, new Fields( "sum" ), long.class );
+    CountBy countPipe = new CountBy( new Fields( "count" ) );
+    AverageBy averagePipe = new AverageBy( num, new Fields( "average" ) );
+
+    pipe = new AggregateBy( "name", Pipe.pipes( pipe ), new Fields( "char" ), 100, sumPipe, countPipe, averagePipe );
+
+    // a budget smaller than two entries forces flushes
+    Map<Object, Object> properties = AggregateByProps.aggregateByProps()
+      .setCapacityBytes( 600 )
+      .buildProperties( getProperties() );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 4 );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 6, 2, (double) 6 / 2 ),
+      new Tuple( "b", 12, 4, (double) 12 / 4 ),
+      new Tuple( "c", 10, 4, (double) 10 / 4 ),
+      new Tuple( "d", 6, 2, (double) 6 / 2 ),
+      new Tuple( "e", 5, 1, (double) 5 / 1 )
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+
+    // all functors are mergeable, so partials are spilled and merged, not flushed
+    assertTrue( flow.getFlowStats().getCounterValue( AggregateBy.Cache.Num_Keys_Spilled ) > 0 );
+    assertEquals( 0, flow.getFlowStats().getCounterValue( AggregateBy.Cache.Num_Keys_Budget_Flushed ) );
+    assertTrue( flow.getFlowStats().getCounterValue( AggregateBy.Cache.Num_Bytes_Flushed ) > 0 );
+    assertEquals( 5, flow.getFlowStats().getCounterValue( AggregateBy.Cache.Num_Keys_Emitted ) );
+    }
+
+  @Test
+  public void testSkewedAggregateBy() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "sum", "count", "max" ), "\t",
+      new Class[]{
+        String.class,
+        Integer.TYPE,
+        Integer.TYPE,
+        Integer.TYPE}, getOutputPath( "skewed" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "skewed" );
+
+    Fields num = new Fields( "num" );
+
+    SumBy sumPipe = new SumBy( num, new Fields( "sum" ), long.class );
+    CountBy countPipe = new CountBy( new Fields( "count" ) );
+    MaxBy maxPipe = new MaxBy( num, new Fields( "max" ) );
+
+    pipe = new SkewedAggregateBy( "skewed", pipe, new Fields( "char" ), 4, 0.1, sumPipe, countPipe, maxPipe );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( SkewedAggregateBy.SKEW_SAMPLE_INTERVAL, "1" );
+    properties.put( SkewedAggregateBy.SKEW_SAMPLE_MINIMUM, "1" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 4, Pattern.compile( "^\\w+\\s\\d+\\s\\d+\\s\\d+$" ) );
+
+    assertTrue( flow.getFlowStats().getCounterValue( SkewedAggregateBy.Skew.Keys_Hot ) > 0 );
+    assertTrue( flow.getFlowStats().getCounterValue( SkewedAggregateBy.Skew.Tuples_Salted ) > 0 );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 6, 2, 5 ),
+      new Tuple( "b", 12, 4, 5 ),
+      new Tuple( "c", 10, 4, 4 ),
+      new Tuple( "d", 6, 2, 4 ),
+      new Tuple( "e", 5, 1, 5 )
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
+  @Test
+  public void testSkewedAggregateByNotAssociative()
+    {
+    try
+      {
+      new SkewedAggregateBy( new Pipe( "skewed" ), new Fields( "char" ), 4, new AverageBy( new Fields( "num" ), new Fields( "average" ) ) );
+      fail( "did not reject non associative aggregation" );
+      }
+    catch( IllegalArgumentException exception )
+      {
+      // ignore
+      }
+    }
+
+  @Test
+  public void testSemiJoinFilter() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileUpper );
+    getPlatform().copyFromLocal( inputFileLowerOffset );
+
+    Tap large = getPlatform().getTextFile( new Fields( "line" ), inputFileUpper );
+    Tap small = getPlatform().getTextFile( new Fields( "line" ), inputFileLowerOffset );
+
+    Tap sink = getPlatform().getTextFile( new Fields( "line" ), getOutputPath( "semijoin" ), SinkMode.REPLACE );
+
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+
+    Pipe pipeLarge = new Each( new Pipe( "large" ), new Fields( "line" ), splitter );
+    Pipe pipeSmall = new Each( new Pipe( "small" ), new Fields( "line" ), splitter );
+
+    Pipe filtered = new SemiJoinFilter( "semijoin", pipeLarge, new Fields( "num" ), pipeSmall, new Fields( "num" ), 10, 0.001 );
+
+    Map<String, Tap> sources = Cascades.tapsMap( Pipe.pipes( pipeLarge, pipeSmall ), Tap.taps( large, small ) );
+
+    Pipe splice = new CoGroup( filtered, new Fields( "num" ), pipeSmall, new Fields( "num" ), new Fields( "num1", "char1", "num2", "char2" ) );
+
+    Flow flow = getPlatform().getFlowConnector().connect( sources, sink, splice );
+
+    flow.complete();
+
+    validateLength( flow, 3 );
+
+    List<Tuple> values = getSinkAsList( flow );
+
+    assertTrue( values.contains( new Tuple( "1\tA\t1\ta" ) ) );
+    assertTrue( values.contains( new Tuple( "5\tE\t5\tb" ) ) );
+    assertTrue( values.contains( new Tuple( "5\tE\t5\te" ) ) );
+
+    assertEquals( 2, flow.getFlowStats().getCounterValue( SemiJoinFilter.SemiJoin.Tuples_Passed ) );
+    assertEquals( 3, flow.getFlowStats().getCounterValue( SemiJoinFilter.SemiJoin.Tuples_Filtered ) );
+    assertEquals( 4, flow.getFlowStats().getCounterValue( BloomFilterBy.Bloom.Keys_Inserted ) );
+    }
+
+  @Test
+  public void testSemiJoinFilterComparators()
+    {
+    Fields keys = new Fields( "num" );
+
+    keys.setComparator( "num", Collections.reverseOrder() );
+
+    try
+      {
+      new SemiJoinFilter( new Pipe( "large" ), keys, new Pipe( "small" ), new Fields( "num" ), 10 );
+      fail( "did not reject key comparators" );
+      }
+    catch( IllegalArgumentException exception )
+      {
+      // ignore
+      }
+    }
+
+  @Test
+  public void testApproxAggregateBy() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", new Class[]{Integer.TYPE, String.class}, inputFileLhs, SinkMode.KEEP );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "distinct", "median", "max" ), "\t",
+      new Class[]{
+        String.class,
+        Long.TYPE,
+        Double.TYPE,
+        Double.TYPE}, getOutputPath( "approx" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "approx" );
+
+    Fields num = new Fields( "num" );
+
+    ApproxCountDistinctBy distinctPipe = new ApproxCountDistinctBy( num, new Fields( "distinct" ) );
+    ApproxQuantileBy quantilePipe = new ApproxQuantileBy( num, new Fields( "median", "max" ), 0.5, 1.0 );
+
+    pipe = new AggregateBy( "approx", pipe, new Fields( "char" ), 2, distinctPipe, quantilePipe );
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 4, Pattern.compile( "^\\w+\\s\\d+\\s[\\d.]+\\s[\\d.]+$" ) );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 2L, 1.0, 5.0 ),
+      new Tuple( "b", 4L, 2.0, 5.0 ),
+      new Tuple( "c", 4L, 2.0, 4.0 ),
+      new Tuple( "d", 2L, 2.0, 4.0 ),
+      new Tuple( "e", 1L, 5.0, 5.0 )
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
+  @Test
+  public void testApproxTopKBy() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "count" ), "\t", new Class[]{String.class, Long.TYPE}, getOutputPath( "topk" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "topk" );
+
+    pipe = new ApproxTopKBy( pipe, Fields.NONE, new Fields( "char" ), new Fields( "char", "count" ), 2 );
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 2, 2 );
+
+    List<Tuple> values = getSinkAsList( flow );
+
+    assertTrue( values.contains( new Tuple( "b", 4L ) ) );
+    assertTrue( values.contains( new Tuple( "c", 4L ) ) );
+    }
+
+  @Test
+  public void testTopNBy() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileCross );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "lower", "upper" ), " ", inputFileCross );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "lower", "upper" ), "\t",
+      new Class[]{Integer.TYPE, String.class, String.class}, getOutputPath( "topnby" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "topn" );
+
+    Fields sortFields = new Fields( "lower", "upper" );
+    sortFields.setComparator( "lower", Collections.reverseOrder() );
+
+    pipe = new TopNBy( pipe, new Fields( "num" ), new Fields( "lower", "upper" ), sortFields, 2 );
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( 1, "c", "A" ),
+      new Tuple( 1, "c", "B" ),
+      new Tuple( 2, "d", "B" ),
+      new Tuple( 2, "d", "C" ),
+      new Tuple( 3, "c", "C" ),
+      new Tuple( 4, "d", "B" ),
+      new Tuple( 4, "d", "C" ),
+      new Tuple( 5, "e", "A" ),
+      new Tuple( 5, "e", "B" )
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    assertEquals( results.length, count );
+
+    iterator.close();
+    }
+
+  @Test
+  public void testSortedLimit() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileCross );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "lower", "upper" ), " ", inputFileCross );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "lower", "upper" ), "\t",
+      new Class[]{Integer.TYPE, String.class, String.class}, getOutputPath( "sortedlimit" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "limit" );
+
+    pipe = new SortedLimit( pipe, new Fields( "num", "lower", "upper" ), new Fields( "upper", "lower" ), 3, true );
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 3, 3 );
+
+    List<Tuple> values = getSinkAsList( flow );
+
+    assertEquals( new Tuple( 5, "e", "E" ), values.get( 0 ) );
+    assertEquals( new Tuple( 5, "b", "E" ), values.get( 1 ) );
+    assertEquals( new Tuple( 5, "a", "E" ), values.get( 2 ) );
+    }
+
   @Test
   public void testParallelAggregatesMergeLegacyHash() throws IOException
     {
@@ -21,6 +21,7 @@
 package cascading.stats;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import cascading.PlatformTestCase;
@@ -28,19 +29,27 @@ import cascading.cascade.Cascade;
 import cascading.cascade.CascadeConnector;
 import cascading.flow.Flow;
 import cascading.flow.FlowConnector;
+import cascading.flow.FlowElement;
 import cascading.flow.FlowRuntimeProps;
+import cascading.flow.FlowStep;
 import cascading.flow.SliceCounters;
+import cascading.flow.stream.element.ElementProfiler;
+import cascading.flow.stream.graph.StreamGraph;
 import cascading.operation.Function;
+import cascading.operation.Identity;
+import cascading.operation.aggregator.Count;
 import cascading.operation.regex.RegexParser;
 import cascading.operation.regex.RegexSplitter;
 import cascading.operation.state.Counter;
 import cascading.pipe.Each;
+import cascading.pipe.Every;
 import cascading.pipe.GroupBy;
 import cascading.pipe.HashJoin;
 import cascading.pipe.Pipe;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
 import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
 import org.junit.Test;
 
 import static data.InputData.*;
@@ -174,4 +183,143 @@ public class CascadingStatsPlatformTest extends PlatformTestCase
     assertNotSame( 0, secondCounter ); // verifies accumulated side counters fired
     assertEquals( firstCounter + secondCounter, flowStats.getCounterValue( SliceCounters.Tuples_Read ) );
     }
+  
+  @Test
+  public void testElementProfiles() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "profile" );
+
+    Each parser = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+    GroupBy groupBy = new GroupBy( parser, new Fields( "ip" ) );
+    Every count = new Every( groupBy, new Count() );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "profile" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( StreamGraph.PROFILE_ELEMENTS, "true" );
+    properties.put( StreamGraph.PROFILE_SAMPLE_RATE, "1" );
+    properties.put( StreamGraph.PROFILE_TOP_ELEMENTS, "10" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, count );
+
+    flow.complete();
+
+    List<Tuple> results = asList( flow, sink );
+
+    FlowStats flowStats = flow.getFlowStats();
+
+    // parser, group, every, and sink each receive tuples, sources are not profiled
+    assertTrue( flowStats.getCounterValue( ElementProfiler.Metric.Tuples_In ) >= 10 + 10 + 10 );
+    assertTrue( flowStats.getCounterValue( ElementProfiler.Metric.Tuples_Out ) > 0 );
+    assertTrue( flowStats.getCounterValue( ElementProfiler.Metric.Self_Time_Micros ) > 0 );
+
+    Map<FlowElement, Map<ElementProfiler.Metric, Long>> profiles = getElementProfiles( flow );
+
+    assertFalse( profiles.containsKey( source ) ); // sources are not profiled
+
+    assertEquals( 10, profiles.get( parser ).get( ElementProfiler.Metric.Tuples_In ).longValue() );
+    assertEquals( 10, profiles.get( parser ).get( ElementProfiler.Metric.Tuples_Out ).longValue() );
+    assertEquals( 10, profiles.get( count ).get( ElementProfiler.Metric.Tuples_In ).longValue() );
+    assertEquals( results.size(), profiles.get( count ).get( ElementProfiler.Metric.Tuples_Out ).longValue() );
+    assertEquals( results.size(), profiles.get( sink ).get( ElementProfiler.Metric.Tuples_In ).longValue() );
+    }
+
+  private Map<FlowElement, Map<ElementProfiler.Metric, Long>> getElementProfiles( Flow flow )
+    {
+    Map<FlowElement, Map<ElementProfiler.Metric, Long>> profiles = new HashMap<>();
+
+    for( Object object : flow.getFlowSteps() )
+      {
+      FlowStep step = (FlowStep) object;
+
+      profiles.putAll( ElementProfiler.getProfiles( step.getFlowStepStats(), step.getElementGraph().vertexSet() ) );
+      }
+
+    return profiles;
+    }
+
+  @Test
+  public void testElementProfilesBounded() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    int few = countProfiledCounters( 1 );
+    int many = countProfiledCounters( 60 );
+
+    // the counters reported do not grow with the number of elements
+    assertEquals( few, many );
+    assertTrue( many <= ElementProfiler.Metric.values().length );
+    }
+
+  @Test
+  public void testElementProfilesTopElements() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "profile" );
+
+    for( int i = 0; i < 60; i++ )
+      pipe = new Each( pipe, new Identity() );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "top" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( StreamGraph.PROFILE_ELEMENTS, "true" );
+    properties.put( StreamGraph.PROFILE_SAMPLE_RATE, "1" );
+    properties.put( StreamGraph.PROFILE_TOP_ELEMENTS, "3" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    Map<FlowElement, Map<ElementProfiler.Metric, Long>> profiles = getElementProfiles( flow );
+
+    // only the elements with the most self time are reported individually
+    assertFalse( profiles.isEmpty() );
+    assertTrue( profiles.size() <= 3 ); // a single node
+    assertTrue( flow.getFlowStats().getCountersFor( ElementProfiler.COUNTER_GROUP ).size() <= 3 * ElementProfiler.Metric.values().length );
+
+    for( Map.Entry<FlowElement, Map<ElementProfiler.Metric, Long>> entry : profiles.entrySet() )
+      {
+      if( entry.getKey() == sink )
+        assertEquals( 10, entry.getValue().get( ElementProfiler.Metric.Tuples_In ).longValue() );
+      else
+        assertEquals( 10, entry.getValue().get( ElementProfiler.Metric.Tuples_Out ).longValue() );
+      }
+    }
+
+  private int countProfiledCounters( int numOperations )
+    {
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "profile" );
+
+    for( int i = 0; i < numOperations; i++ )
+      pipe = new Each( pipe, new Identity() );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "bounded" + numOperations ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( StreamGraph.PROFILE_ELEMENTS, "true" );
+    properties.put( StreamGraph.PROFILE_SAMPLE_RATE, "1" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    FlowStats flowStats = flow.getFlowStats();
+
+    assertEquals( 10L * ( numOperations + 1 ), flowStats.getCounterValue( ElementProfiler.Metric.Tuples_In ) );
+
+    return flowStats.getCountersFor( ElementProfiler.Metric.class ).size();
+    }
   }
@@ -20,6 +20,7 @@
 
 package cascading.tap;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -40,6 +41,9 @@ import cascading.pipe.Each;
 import cascading.pipe.Every;
 import cascading.pipe.GroupBy;
 import cascading.pipe.Pipe;
+import cascading.tap.manifest.FileSourceManifest;
+import cascading.tap.manifest.SourceManifest;
+import cascading.tap.partition.BasePartitionTap;
 import cascading.tap.partition.DelimitedPartition;
 import cascading.tap.partition.Partition;
 import cascading.tuple.Fields;
@@ -339,6 +343,57 @@ public class TapPlatformTest extends PlatformTestCase implements Serializable
     secondFlow.complete();
     }
 
+  @Test
+  public void testPartitionTapSourceManifest() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileCrossX2 );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "number", "lower", "upper" ), " ", inputFileCrossX2 );
+
+    Tap partitionTap = getPlatform().getDelimitedFile( new Fields( "upper" ), "+", getOutputPath( "/partitioned" ), SinkMode.REPLACE );
+
+    Partition partition = new DelimitedPartition( new Fields( "lower", "number" ) );
+    partitionTap = getPlatform().getPartitionTap( partitionTap, partition, 1 );
+
+    Flow partitionFlow = getPlatform().getFlowConnector().connect( "partition", source, partitionTap, new Pipe( "partition" ) );
+
+    partitionFlow.complete();
+
+    File manifestFile = new File( getOutputPath( "/manifest" ), "manifest.txt" );
+    manifestFile.delete();
+
+    SourceManifest manifest = new FileSourceManifest( manifestFile.getPath() );
+
+    ( (BasePartitionTap) partitionTap ).setSourceManifest( manifest );
+
+    Flow first = runManifestFlow( partitionTap, "first" );
+
+    assertEquals( 74, asList( first, first.getSink() ).size() );
+
+    // nothing changed, so no partition is read
+    Flow second = runManifestFlow( partitionTap, "second" );
+
+    assertEquals( 0, asList( second, second.getSink() ).size() );
+
+    // partitions may be resolved client side, counters are reported by the flow stats on every platform
+    long processed = first.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Processed );
+
+    assertTrue( processed > 0 );
+    assertEquals( processed, second.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Skipped ) );
+    assertEquals( 0, second.getFlowStats().getCounterValue( SourceManifest.Counters.Files_Processed ) );
+    }
+
+  private Flow runManifestFlow( Tap partitionTap, String name )
+    {
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "number", "lower", "upper" ), "+", getOutputPath( "/" + name ), SinkMode.REPLACE );
+
+    Flow flow = getPlatform().getFlowConnector().connect( name, partitionTap, sink, new Pipe( "copy" ) );
+
+    flow.complete();
+
+    return flow;
+    }
+
   @Test
   public void testPartitionTapMultiSource() throws IOException
     {